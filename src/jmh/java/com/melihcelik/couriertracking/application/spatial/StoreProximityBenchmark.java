@@ -0,0 +1,97 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the store proximity step for one ping: find stores within the
+ * proximity radius and build a StoreEntryEvent for each match. Compares the
+ * original linear scan with the grid index at different catalogue sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StoreProximityBenchmark {
+    private static final int QUERIES = 1024;
+    private static final double RADIUS = 100.0; // meters
+
+    @Param({"5", "500", "50000"})
+    private int storeCount;
+
+    private List<Store> stores;
+    private StoreGrid grid;
+    private final double[] latitudes = new double[QUERIES];
+    private final double[] longitudes = new double[QUERIES];
+    private final Instant timestamp = Instant.now();
+    private int index;
+
+    @Setup
+    public void setUp() {
+        // Stores and couriers spread over a 40 km x 25 km box covering Istanbul
+        Random random = new Random(42);
+        stores = new ArrayList<>(storeCount);
+        for (long id = 1; id <= storeCount; id++) {
+            stores.add(Store.builder()
+                    .id(id)
+                    .name("Store " + id)
+                    .latitude(40.90 + random.nextDouble() * 0.22)
+                    .longitude(28.65 + random.nextDouble() * 0.50)
+                    .build());
+        }
+        grid = new StoreGrid(stores, RADIUS);
+        for (int i = 0; i < QUERIES; i++) {
+            latitudes[i] = 40.90 + random.nextDouble() * 0.22;
+            longitudes[i] = 28.65 + random.nextDouble() * 0.50;
+        }
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        int i = next();
+        for (Store store : stores) {
+            if (GeoUtils.isWithinRadius(latitudes[i], longitudes[i], store.getLatitude(), store.getLongitude(), RADIUS)) {
+                blackhole.consume(entryEvent(store, i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void spatialIndex(Blackhole blackhole) {
+        int i = next();
+        for (Store store : grid.findWithinRadius(latitudes[i], longitudes[i], RADIUS)) {
+            blackhole.consume(entryEvent(store, i));
+        }
+    }
+
+    private StoreEntryEvent entryEvent(Store store, int i) {
+        return StoreEntryEvent.builder()
+                .courierId(1L)
+                .storeId(store.getId())
+                .storeName(store.getName())
+                .latitude(latitudes[i])
+                .longitude(longitudes[i])
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private int next() {
+        index = (index + 1) & (QUERIES - 1);
+        return index;
+    }
+}
@@ -0,0 +1,64 @@
+package com.melihcelik.couriertracking.domain.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeoUtilsBenchmark {
+    private static final int POINTS = 1024;
+    private static final double RADIUS = 100.0; // meters
+
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        // Consecutive 1 Hz pings around Istanbul, a few to a few hundred metres apart
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = 40.99 + random.nextDouble() * 0.01;
+            longitudes[i] = 29.12 + random.nextDouble() * 0.01;
+        }
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        int i = next();
+        return GeoUtils.calculateDistance(latitudes[i], longitudes[i], latitudes[i + 1], longitudes[i + 1]);
+    }
+
+    @Benchmark
+    public double approximateDistance() {
+        int i = next();
+        return GeoUtils.approximateDistance(latitudes[i], longitudes[i], latitudes[i + 1], longitudes[i + 1]);
+    }
+
+    @Benchmark
+    public boolean isWithinRadiusHaversine() {
+        // Baseline: the plain Haversine comparison isWithinRadius used to perform
+        int i = next();
+        return GeoUtils.calculateDistance(latitudes[i], longitudes[i], latitudes[i + 1], longitudes[i + 1]) * 1000 <= RADIUS;
+    }
+
+    @Benchmark
+    public boolean isWithinRadius() {
+        int i = next();
+        return GeoUtils.isWithinRadius(latitudes[i], longitudes[i], latitudes[i + 1], longitudes[i + 1], RADIUS);
+    }
+
+    private int next() {
+        index = (index + 1) & (POINTS - 2);
+        return index;
+    }
+}
@@ -0,0 +1,81 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of CourierLocationEvent on the JSON and compact wire formats.
+ * Encoded sizes are reported as an auxiliary metric at setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventSerdeBenchmark {
+    private static final String TOPIC = "courier.location";
+
+    @Param({"json", "compact"})
+    private String format;
+
+    private Serializer<CourierLocationEvent> serializer;
+    private Deserializer<CourierLocationEvent> deserializer;
+    private CourierLocationEvent event;
+    private RecordHeaders headers;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        JsonDeserializer<CourierLocationEvent> jsonDeserializer = new JsonDeserializer<>(CourierLocationEvent.class, mapper);
+        jsonDeserializer.addTrustedPackages("com.melihcelik.couriertracking.domain.event");
+
+        if (EventFormat.from(format) == EventFormat.COMPACT) {
+            serializer = new CompactEventSerializer<>(new CourierLocationEventCodec());
+        } else {
+            serializer = new JsonSerializer<>(mapper);
+        }
+        deserializer = new CompactEventDeserializer<>(new CourierLocationEventCodec(), jsonDeserializer);
+
+        event = CourierLocationEvent.builder()
+                .courierId(123456L)
+                .latitude(40.9923307)
+                .longitude(29.1244229)
+                .timestamp(Instant.now())
+                .build();
+        headers = new RecordHeaders();
+        payload = serializer.serialize(TOPIC, headers, event);
+        int headerBytes = 0;
+        for (var header : headers) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+        System.out.printf("%n%s: %d bytes/event (payload %d + headers %d)%n",
+                format, payload.length + headerBytes, payload.length, headerBytes);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public CourierLocationEvent decode() {
+        return deserializer.deserialize(TOPIC, headers, payload);
+    }
+}
@@ -0,0 +1,87 @@
+package com.melihcelik.couriertracking.infrastructure.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated ingestion burst: each request spends time blocked outside the
+ * database (client and broker I/O) and then holds a connection for a short
+ * query. Compares Tomcat's default 200 platform threads with a virtual
+ * thread per request, both behind the connection limit used in virtual
+ * thread mode. This is not an end-to-end load test against Postgres and Kafka.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThreadModelBenchmark {
+    private static final int REQUESTS = 2000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int CONNECTIONS = 10;
+    private static final long QUERY_MILLIS = 1;
+
+    @Param({"platform", "virtual"})
+    public String threadModel;
+
+    @Param({"5", "50"})
+    public long ioMillis;
+
+    private ExecutorService executor;
+    private ConnectionLimitingDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(threadModel)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        dataSource = new ConnectionLimitingDataSource(noOpDataSource(), CONNECTIONS, 60_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(ioMillis);
+                try (Connection connection = dataSource.getConnection()) {
+                    Thread.sleep(QUERY_MILLIS);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    private static DataSource noOpDataSource() {
+        Connection connection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+        return (DataSource) Proxy.newProxyInstance(
+                DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> "getConnection".equals(method.getName()) ? connection : null);
+    }
+}
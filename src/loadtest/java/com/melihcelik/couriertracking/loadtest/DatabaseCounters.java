@@ -0,0 +1,35 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Cumulative Postgres write counters for the current database. The difference
+ * between two snapshots, divided by the events processed in between, is the
+ * write amplification of the pipeline.
+ * @param walBytes WAL position in bytes
+ * @param rowsWritten Rows inserted, updated and deleted
+ * @param commits Committed transactions
+ */
+record DatabaseCounters(long walBytes, long rowsWritten, long commits) {
+    private static final String WAL_POSITION = "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint";
+    private static final String DATABASE_STATS = """
+            SELECT tup_inserted + tup_updated + tup_deleted, xact_commit
+            FROM pg_stat_database
+            WHERE datname = current_database()
+            """;
+
+    static DatabaseCounters read(JdbcTemplate jdbcTemplate) {
+        Long walBytes = jdbcTemplate.queryForObject(WAL_POSITION, Long.class);
+        return jdbcTemplate.queryForObject(DATABASE_STATS, (rs, rowNum) ->
+                new DatabaseCounters(walBytes == null ? 0 : walBytes, rs.getLong(1), rs.getLong(2)));
+    }
+
+    static long walPosition(JdbcTemplate jdbcTemplate) {
+        Long walBytes = jdbcTemplate.queryForObject(WAL_POSITION, Long.class);
+        return walBytes == null ? 0 : walBytes;
+    }
+
+    DatabaseCounters minus(DatabaseCounters earlier) {
+        return new DatabaseCounters(walBytes - earlier.walBytes, rowsWritten - earlier.rowsWritten, commits - earlier.commits);
+    }
+}
@@ -0,0 +1,40 @@
+package com.melihcelik.couriertracking.loadtest;
+
+/**
+ * Result of an end-to-end benchmark run
+ * @param couriers Simulated couriers
+ * @param sent Pings published
+ * @param received Pings consumed by the service
+ * @param processed Pings that passed the ping filter and were processed
+ * @param eventsPerSecond Consumed pings per second, from first send until the pipeline drained
+ * @param lagP50Millis Median event-time lag at the end of processing
+ * @param lagP99Millis 99th percentile event-time lag at the end of processing
+ * @param rowsPerEvent Database rows written per consumed ping
+ * @param walBytesPerEvent WAL bytes written per consumed ping
+ * @param commitsPerEvent Database transactions committed per consumed ping
+ */
+record EndToEndReport(int couriers, long sent, long received, long processed, double eventsPerSecond,
+                      double lagP50Millis, double lagP99Millis,
+                      double rowsPerEvent, double walBytesPerEvent, double commitsPerEvent) {
+
+    static EndToEndReport of(FleetSettings settings, FleetRunResult run, long received, long processed,
+                             double seconds, double lagP50Millis, double lagP99Millis, DatabaseCounters written) {
+        double events = Math.max(1, received);
+        return new EndToEndReport(settings.couriers(), run.sent(), received, processed, received / seconds,
+                lagP50Millis, lagP99Millis,
+                written.rowsWritten() / events, written.walBytes() / events, written.commits() / events);
+    }
+
+    String summary() {
+        return String.format("""
+                        couriers:          %d
+                        sent / received:   %d / %d (%d processed)
+                        sustained:         %.0f events/s
+                        event-time lag:    p50 %.1f ms, p99 %.1f ms
+                        rows per event:    %.3f
+                        WAL per event:     %.0f bytes
+                        commits per event: %.4f""",
+                couriers, sent, received, processed, eventsPerSecond, lagP50Millis, lagP99Millis,
+                rowsPerEvent, walBytesPerEvent, commitsPerEvent);
+    }
+}
@@ -0,0 +1,146 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the whole service against Kafka and Postgres containers and drives a
+ * simulated fleet into {@code courier.location}. Reports sustained consumed
+ * events/s, p50/p99 event-time lag after processing and database writes per
+ * event, and writes the report to {@code build/reports/loadtest/end-to-end.json}.
+ * Run with {@code ./gradlew loadTest}; skipped when Docker is not available.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class EndToEndThroughputBenchmark {
+    private static final String RECEIVED = "courier.pipeline.received";
+    private static final String FILTERED = "courier.pipeline.filtered";
+    private static final String EVENT_LAG = "courier.pipeline.event.lag";
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration WAL_QUIET_PERIOD = Duration.ofSeconds(2);
+    // Idle backends report their table statistics at most every 10 seconds
+    private static final Duration STATS_FLUSH_GRACE = Duration.ofSeconds(11);
+    private static final Path REPORT = Path.of("build", "reports", "loadtest", "end-to-end.json");
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("courier_tracking");
+
+    @Container
+    static final KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.1"));
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("courier-tracking.kafka.courier-location.format", () -> System.getProperty("fleet.format", "json"));
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fleetLoad_ShouldBeSustainedEndToEnd() throws Exception {
+        // Arrange
+        FleetSettings settings = FleetSettings.fromSystemProperties();
+        DatabaseCounters before = DatabaseCounters.read(jdbcTemplate);
+        long start = System.nanoTime();
+
+        // Act
+        FleetRunResult run;
+        try (KafkaPingSink sink = new KafkaPingSink(kafka.getBootstrapServers(), System.getProperty("fleet.format", "json"))) {
+            run = new FleetSimulator(settings, SeedStores.load(), sink).run();
+        }
+        awaitDrained(run.sent() - run.failed());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        awaitWalQuiet();
+        Thread.sleep(STATS_FLUSH_GRACE.toMillis());
+        DatabaseCounters written = DatabaseCounters.read(jdbcTemplate).minus(before);
+
+        // Assert
+        Timer lag = meterRegistry.get(EVENT_LAG).tag("stage", "processed").timer();
+        EndToEndReport report = EndToEndReport.of(settings, run, received(), lag.count(), seconds,
+                percentile(lag, 0.5), percentile(lag, 0.99), written);
+        log.info("End-to-end benchmark\n{}", report.summary());
+        Files.createDirectories(REPORT.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+
+        assertEquals(0, run.failed());
+        assertEquals(run.sent(), report.received());
+        assertTrue(report.processed() > 0);
+    }
+
+    private void awaitDrained(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            long received = received();
+            long handled = (long) meterRegistry.get(EVENT_LAG).tag("stage", "processed").timer().count() + filtered();
+            if (received >= expected && handled >= received) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Pipeline did not drain within " + DRAIN_TIMEOUT + ", received " + received() + " of " + expected);
+    }
+
+    private void awaitWalQuiet() throws InterruptedException {
+        long last = DatabaseCounters.walPosition(jdbcTemplate);
+        while (true) {
+            TimeUnit.MILLISECONDS.sleep(WAL_QUIET_PERIOD.toMillis());
+            long current = DatabaseCounters.walPosition(jdbcTemplate);
+            if (current == last) {
+                return;
+            }
+            last = current;
+        }
+    }
+
+    private long received() {
+        return (long) meterRegistry.get(RECEIVED).counter().count();
+    }
+
+    private long filtered() {
+        return (long) meterRegistry.find(FILTERED).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,55 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line entry point for driving a simulated fleet against a running
+ * service. Configured through {@code fleet.*} system properties (see
+ * {@link FleetSettings}) plus:
+ * <ul>
+ *     <li>{@code fleet.target}: {@code kafka} (default) or {@code rest}</li>
+ *     <li>{@code fleet.bootstrap-servers}: Kafka bootstrap servers, default localhost:9092</li>
+ *     <li>{@code fleet.format}: courier.location wire format, {@code json} (default) or {@code compact}</li>
+ *     <li>{@code fleet.base-url}: service URL for the rest target, default http://localhost:8080</li>
+ *     <li>{@code fleet.max-in-flight}: concurrent requests for the rest target, default 256</li>
+ * </ul>
+ */
+@Slf4j
+public final class FleetLoadGenerator {
+    private static final long PROGRESS_INTERVAL_SECONDS = 10;
+
+    private FleetLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        FleetSettings settings = FleetSettings.fromSystemProperties();
+        try (PingSink sink = sink()) {
+            FleetSimulator simulator = new FleetSimulator(settings, SeedStores.load(), sink);
+            ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+            progress.scheduleAtFixedRate(() -> log.info("Progress - sent: {}, failed: {}", simulator.sent(), sink.failures()),
+                    PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            try {
+                simulator.run();
+            } finally {
+                progress.shutdownNow();
+            }
+        }
+    }
+
+    private static PingSink sink() {
+        String target = System.getProperty("fleet.target", "kafka");
+        return switch (target) {
+            case "kafka" -> new KafkaPingSink(
+                    System.getProperty("fleet.bootstrap-servers", "localhost:9092"),
+                    System.getProperty("fleet.format", "json"));
+            case "rest" -> new RestPingSink(
+                    System.getProperty("fleet.base-url", "http://localhost:8080"),
+                    Integer.parseInt(System.getProperty("fleet.max-in-flight", "256")));
+            default -> throw new IllegalArgumentException("Unknown fleet.target: " + target);
+        };
+    }
+}
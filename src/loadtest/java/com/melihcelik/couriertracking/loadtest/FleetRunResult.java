@@ -0,0 +1,20 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a fleet run, as seen by the sender
+ * @param sent Pings handed to the sink
+ * @param failed Pings the sink failed to deliver
+ * @param elapsed Time from the first ping to the last acknowledgement
+ */
+public record FleetRunResult(long sent, long failed, Duration elapsed) {
+
+    /**
+     * @return Pings delivered per second
+     */
+    public double rate() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return (sent - failed) * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,63 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Shape of a simulated fleet run. Read from {@code fleet.*} system properties,
+ * which the {@code runFleet} and {@code loadTest} Gradle tasks pass through
+ * from {@code -Pfleet.*}.
+ * @param couriers Number of simulated couriers
+ * @param firstCourierId Id of the first courier; the rest are numbered consecutively
+ * @param pingInterval Time between two pings of the same courier
+ * @param duration How long to keep sending
+ * @param speed Driving speed in meters per second
+ * @param deliveryRadius Maximum distance of a drop-off from the home store, in meters
+ * @param pausePings Pings sent while parked at a store or drop-off
+ * @param seed Random seed, so runs are repeatable
+ */
+public record FleetSettings(int couriers, long firstCourierId, Duration pingInterval, Duration duration,
+                            double speed, double deliveryRadius, int pausePings, long seed) {
+
+    public FleetSettings {
+        if (couriers < 1) {
+            throw new IllegalArgumentException("couriers must be at least 1");
+        }
+        if (pingInterval.isNegative() || pingInterval.isZero()) {
+            throw new IllegalArgumentException("pingInterval must be positive");
+        }
+        if (speed <= 0 || deliveryRadius <= 0) {
+            throw new IllegalArgumentException("speed and deliveryRadius must be positive");
+        }
+    }
+
+    public static FleetSettings fromSystemProperties() {
+        return from(System.getProperties());
+    }
+
+    static FleetSettings from(Properties properties) {
+        return new FleetSettings(
+                Integer.parseInt(properties.getProperty("fleet.couriers", "500")),
+                Long.parseLong(properties.getProperty("fleet.first-courier-id", "1")),
+                Duration.ofMillis(Long.parseLong(properties.getProperty("fleet.ping-interval-ms", "1000"))),
+                Duration.ofSeconds(Long.parseLong(properties.getProperty("fleet.duration-seconds", "60"))),
+                Double.parseDouble(properties.getProperty("fleet.speed", "12")),
+                Double.parseDouble(properties.getProperty("fleet.delivery-radius", "2000")),
+                Integer.parseInt(properties.getProperty("fleet.pause-pings", "5")),
+                Long.parseLong(properties.getProperty("fleet.seed", "42")));
+    }
+
+    /**
+     * @return Pings per second the fleet is asked to produce
+     */
+    public double targetRate() {
+        return couriers * 1000.0 / pingInterval.toMillis();
+    }
+
+    /**
+     * @return Meters driven between two pings
+     */
+    double stepLength() {
+        return speed * pingInterval.toMillis() / 1000.0;
+    }
+}
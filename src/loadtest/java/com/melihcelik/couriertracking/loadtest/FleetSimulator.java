@@ -0,0 +1,97 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a fleet of {@link SimulatedCourier}s at a fixed ping rate.
+ * Couriers are spread over {@link #SLOTS} slots per ping interval, so the
+ * load arrives evenly instead of as one burst per interval. Home stores are
+ * assigned round robin over the seed stores.
+ */
+@Slf4j
+public class FleetSimulator {
+    static final int SLOTS = 10;
+
+    private final FleetSettings settings;
+    private final PingSink sink;
+    private final List<List<SimulatedCourier>> slots = new ArrayList<>();
+    private final AtomicLong sent = new AtomicLong();
+
+    public FleetSimulator(FleetSettings settings, List<SeedStore> stores, PingSink sink) {
+        this.settings = settings;
+        this.sink = sink;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            slots.add(new ArrayList<>());
+        }
+        for (int i = 0; i < settings.couriers(); i++) {
+            SimulatedCourier courier = new SimulatedCourier(
+                    settings.firstCourierId() + i,
+                    stores.get(i % stores.size()),
+                    settings,
+                    new Random(settings.seed() + i));
+            slots.get(i % SLOTS).add(courier);
+        }
+    }
+
+    /**
+     * Send pings for the configured duration and wait until the sink has delivered them
+     * @return Sent and failed counts
+     */
+    public FleetRunResult run() throws InterruptedException {
+        log.info("Starting fleet - couriers: {}, target rate: {}/s, duration: {}",
+                settings.couriers(), String.format("%.0f", settings.targetRate()), settings.duration());
+        long tickNanos = settings.pingInterval().toNanos() / SLOTS;
+        AtomicLong tick = new AtomicLong();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        try {
+            ScheduledFuture<?> ticks = scheduler.scheduleAtFixedRate(
+                    () -> sendSlot((int) (tick.getAndIncrement() % SLOTS)), 0, tickNanos, TimeUnit.NANOSECONDS);
+            scheduler.schedule(() -> ticks.cancel(false), settings.duration().toNanos(), TimeUnit.NANOSECONDS);
+            try {
+                ticks.get();
+            } catch (CancellationException e) {
+                // Duration elapsed
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Fleet simulation failed", e.getCause());
+            }
+        } finally {
+            scheduler.shutdown();
+            scheduler.awaitTermination(settings.pingInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        sink.flush();
+
+        FleetRunResult result = new FleetRunResult(sent.get(), sink.failures(), Duration.ofNanos(System.nanoTime() - start));
+        log.info("Fleet finished - sent: {}, failed: {}, rate: {}/s",
+                result.sent(), result.failed(), String.format("%.0f", result.rate()));
+        return result;
+    }
+
+    /**
+     * @return Pings handed to the sink so far
+     */
+    public long sent() {
+        return sent.get();
+    }
+
+    void sendSlot(int slot) {
+        Instant now = Instant.now();
+        for (SimulatedCourier courier : slots.get(slot)) {
+            sink.send(courier.next(now));
+            sent.incrementAndGet();
+        }
+    }
+}
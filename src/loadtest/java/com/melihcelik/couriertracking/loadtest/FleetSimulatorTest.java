@@ -0,0 +1,109 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetSimulatorTest {
+
+    @Test
+    void seedStores_ShouldLoadStoresFromSeedMigration() {
+        // Act
+        List<SeedStore> stores = SeedStores.load();
+
+        // Assert
+        assertEquals(5, stores.size());
+        assertEquals(new SeedStore("Ataşehir MMM Migros", 40.9923307, 29.1244229), stores.get(0));
+    }
+
+    @Test
+    void sendSlot_ShouldSpreadCouriersEvenlyOverSlots() {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+        FleetSettings settings = settings(25, Duration.ofSeconds(1));
+        FleetSimulator simulator = new FleetSimulator(settings, SeedStores.load(), sink);
+
+        // Act
+        for (int slot = 0; slot < FleetSimulator.SLOTS; slot++) {
+            simulator.sendSlot(slot);
+        }
+
+        // Assert
+        assertEquals(25, simulator.sent());
+        Map<Long, Long> pingsPerCourier = sink.events.stream()
+                .collect(Collectors.groupingBy(CourierLocationEvent::getCourierId, Collectors.counting()));
+        assertEquals(25, pingsPerCourier.size());
+        assertTrue(pingsPerCourier.values().stream().allMatch(count -> count == 1));
+        assertEquals(100L, pingsPerCourier.keySet().stream().min(Long::compare).orElseThrow());
+    }
+
+    @Test
+    void run_ShouldSendForDurationAndFlush() throws InterruptedException {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+        FleetSimulator simulator = new FleetSimulator(settings(10, Duration.ofMillis(100)), SeedStores.load(), sink);
+
+        // Act
+        FleetRunResult result = simulator.run();
+
+        // Assert
+        assertTrue(result.sent() > 0);
+        assertEquals(result.sent(), sink.events.size());
+        assertEquals(0, result.failed());
+        assertTrue(sink.flushed);
+        assertTrue(result.elapsed().compareTo(Duration.ofMillis(500)) >= 0);
+    }
+
+    @Test
+    void from_ShouldReadFleetProperties() {
+        // Arrange
+        Properties properties = new Properties();
+        properties.setProperty("fleet.couriers", "2000");
+        properties.setProperty("fleet.ping-interval-ms", "500");
+
+        // Act
+        FleetSettings settings = FleetSettings.from(properties);
+
+        // Assert
+        assertEquals(2000, settings.couriers());
+        assertEquals(Duration.ofMillis(500), settings.pingInterval());
+        assertEquals(4000.0, settings.targetRate());
+        assertEquals(6.0, settings.stepLength());
+    }
+
+    private static FleetSettings settings(int couriers, Duration pingInterval) {
+        return new FleetSettings(couriers, 100L, pingInterval, Duration.ofMillis(500), 12.0, 2000.0, 3, 42L);
+    }
+
+    private static class RecordingSink implements PingSink {
+        private final ConcurrentLinkedQueue<CourierLocationEvent> events = new ConcurrentLinkedQueue<>();
+        private volatile boolean flushed;
+
+        @Override
+        public void send(CourierLocationEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void flush() {
+            flushed = true;
+        }
+
+        @Override
+        public long failures() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CompactEventSerializer;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CourierLocationEventCodec;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.EventFormat;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes pings straight to {@code courier.location}, keyed by courier id
+ * like the service's own producer, bypassing the REST layer.
+ */
+public class KafkaPingSink implements PingSink {
+    static final String TOPIC = "courier.location";
+
+    private final KafkaProducer<String, CourierLocationEvent> producer;
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param bootstrapServers Kafka bootstrap servers
+     * @param format Wire format the service is configured to consume, json or compact
+     */
+    public KafkaPingSink(String bootstrapServers, String format) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        this.producer = new KafkaProducer<>(config, new StringSerializer(), serializer(format));
+    }
+
+    @Override
+    public void send(CourierLocationEvent event) {
+        producer.send(new ProducerRecord<>(TOPIC, String.valueOf(event.getCourierId()), event), (metadata, e) -> {
+            if (e != null) {
+                failures.increment();
+            }
+        });
+    }
+
+    @Override
+    public void flush() {
+        producer.flush();
+    }
+
+    @Override
+    public long failures() {
+        return failures.sum();
+    }
+
+    @Override
+    public void close() {
+        producer.close();
+    }
+
+    private static Serializer<CourierLocationEvent> serializer(String format) {
+        if (EventFormat.from(format) == EventFormat.COMPACT) {
+            return new CompactEventSerializer<>(new CourierLocationEventCodec());
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return new JsonSerializer<>(mapper);
+    }
+}
@@ -0,0 +1,22 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+
+/**
+ * Where simulated pings are sent. Sends are asynchronous; {@link #flush()}
+ * waits for everything sent so far to complete.
+ */
+public interface PingSink extends AutoCloseable {
+
+    void send(CourierLocationEvent event);
+
+    void flush();
+
+    /**
+     * @return Sends that completed with an error so far
+     */
+    long failures();
+
+    @Override
+    void close();
+}
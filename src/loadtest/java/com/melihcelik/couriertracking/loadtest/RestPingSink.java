@@ -0,0 +1,80 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.infrastructure.rest.ApiEndpoints;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Posts pings to the location endpoint. In-flight requests are capped so a
+ * slow service applies back-pressure to the simulator instead of piling up
+ * requests in the client. The service stamps these pings with its own clock.
+ */
+public class RestPingSink implements PingSink {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param baseUrl Service base URL, e.g. http://localhost:8080
+     * @param maxInFlight Maximum concurrent requests
+     */
+    public RestPingSink(String baseUrl, int maxInFlight) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    public void send(CourierLocationEvent event) {
+        HttpRequest request = HttpRequest.newBuilder(uri(event))
+                .timeout(REQUEST_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        inFlight.acquireUninterruptibly();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    inFlight.release();
+                    if (e != null || response.statusCode() >= 300) {
+                        failures.increment();
+                    }
+                });
+    }
+
+    @Override
+    public void flush() {
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+
+    @Override
+    public long failures() {
+        return failures.sum();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    URI uri(CourierLocationEvent event) {
+        return URI.create(baseUrl + ApiEndpoints.COURIERS
+                + ApiEndpoints.REPORT_LOCATION.replace("{courierId}", String.valueOf(event.getCourierId()))
+                + "?latitude=" + event.getLatitude()
+                + "&longitude=" + event.getLongitude());
+    }
+}
@@ -0,0 +1,10 @@
+package com.melihcelik.couriertracking.loadtest;
+
+/**
+ * A store from the seed migration, used as a courier's home base
+ * @param name Store name
+ * @param latitude Store latitude
+ * @param longitude Store longitude
+ */
+public record SeedStore(String name, double latitude, double longitude) {
+}
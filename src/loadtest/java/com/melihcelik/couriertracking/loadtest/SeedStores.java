@@ -0,0 +1,50 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the stores inserted by {@code V2__load_store_data.sql} so simulated
+ * couriers drive around the same stores the service has in its database.
+ */
+public final class SeedStores {
+    static final String SEED_MIGRATION = "db/migration/V2__load_store_data.sql";
+    private static final Pattern ROW = Pattern.compile("\\('((?:[^']|'')*)',\\s*(-?\\d+(?:\\.\\d+)?),\\s*(-?\\d+(?:\\.\\d+)?)\\)");
+
+    private SeedStores() {
+        // Utility class
+    }
+
+    public static List<SeedStore> load() {
+        try (InputStream in = SeedStores.class.getClassLoader().getResourceAsStream(SEED_MIGRATION)) {
+            if (in == null) {
+                throw new IllegalStateException("Seed migration not found on classpath: " + SEED_MIGRATION);
+            }
+            List<SeedStore> stores = parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            if (stores.isEmpty()) {
+                throw new IllegalStateException("No stores found in " + SEED_MIGRATION);
+            }
+            return stores;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<SeedStore> parse(String sql) {
+        List<SeedStore> stores = new ArrayList<>();
+        Matcher matcher = ROW.matcher(sql);
+        while (matcher.find()) {
+            stores.add(new SeedStore(
+                    matcher.group(1).replace("''", "'"),
+                    Double.parseDouble(matcher.group(2)),
+                    Double.parseDouble(matcher.group(3))));
+        }
+        return stores;
+    }
+}
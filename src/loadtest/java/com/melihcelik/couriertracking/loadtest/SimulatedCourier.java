@@ -0,0 +1,105 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * A courier doing delivery runs from its home store: drive out to a random
+ * drop-off within the delivery radius, park for a few pings, drive back into
+ * the store, park again, repeat. Every run crosses the store geofence twice.
+ * Pings carry a few meters of GPS noise, so parked pings look like the
+ * stationary wobble the ping filter is meant to drop.
+ */
+final class SimulatedCourier {
+    private static final double METERS_PER_DEGREE = 6_371_000.0 * Math.PI / 180;
+    static final double GPS_NOISE = 3.0; // meters
+
+    private final long courierId;
+    private final SeedStore home;
+    private final FleetSettings settings;
+    private final Random random;
+
+    private double latitude;
+    private double longitude;
+    private double targetLatitude;
+    private double targetLongitude;
+    private boolean headingHome;
+    private int parkedPings;
+
+    SimulatedCourier(long courierId, SeedStore home, FleetSettings settings, Random random) {
+        this.courierId = courierId;
+        this.home = home;
+        this.settings = settings;
+        this.random = random;
+        pickDropOff();
+        // Start somewhere along the first leg so the fleet does not move in lockstep
+        double progress = random.nextDouble();
+        this.latitude = home.latitude() + (targetLatitude - home.latitude()) * progress;
+        this.longitude = home.longitude() + (targetLongitude - home.longitude()) * progress;
+    }
+
+    long courierId() {
+        return courierId;
+    }
+
+    SeedStore home() {
+        return home;
+    }
+
+    /**
+     * Advance the courier by one ping interval
+     * @param timestamp Event time of the ping
+     * @return Location event for the new position
+     */
+    CourierLocationEvent next(Instant timestamp) {
+        if (parkedPings > 0) {
+            parkedPings--;
+        } else {
+            drive(settings.stepLength());
+        }
+        double noiseNorth = random.nextGaussian() * GPS_NOISE / 2;
+        double noiseEast = random.nextGaussian() * GPS_NOISE / 2;
+        return CourierLocationEvent.builder()
+                .courierId(courierId)
+                .latitude(latitude + noiseNorth / METERS_PER_DEGREE)
+                .longitude(longitude + noiseEast / metersPerDegreeLongitude(latitude))
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private void drive(double step) {
+        double north = (targetLatitude - latitude) * METERS_PER_DEGREE;
+        double east = (targetLongitude - longitude) * metersPerDegreeLongitude(latitude);
+        double remaining = Math.hypot(north, east);
+        if (remaining > step) {
+            latitude += (north * step / remaining) / METERS_PER_DEGREE;
+            longitude += (east * step / remaining) / metersPerDegreeLongitude(latitude);
+            return;
+        }
+
+        latitude = targetLatitude;
+        longitude = targetLongitude;
+        parkedPings = settings.pausePings();
+        if (headingHome) {
+            pickDropOff();
+        } else {
+            targetLatitude = home.latitude();
+            targetLongitude = home.longitude();
+            headingHome = true;
+        }
+    }
+
+    private void pickDropOff() {
+        double distance = settings.deliveryRadius() * (0.5 + random.nextDouble() / 2);
+        double bearing = random.nextDouble() * 2 * Math.PI;
+        targetLatitude = home.latitude() + distance * Math.cos(bearing) / METERS_PER_DEGREE;
+        targetLongitude = home.longitude() + distance * Math.sin(bearing) / metersPerDegreeLongitude(home.latitude());
+        headingHome = false;
+    }
+
+    private static double metersPerDegreeLongitude(double latitude) {
+        return METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+    }
+}
@@ -0,0 +1,77 @@
+package com.melihcelik.couriertracking.loadtest;
+
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedCourierTest {
+
+    private static final SeedStore STORE = new SeedStore("Ataşehir MMM Migros", 40.9923307, 29.1244229);
+    private static final FleetSettings SETTINGS = new FleetSettings(
+            1, 7L, Duration.ofSeconds(1), Duration.ofMinutes(1), 12.0, 2000.0, 3, 42L);
+
+    @Test
+    void next_ShouldMoveAtConfiguredSpeedAndStayWithinDeliveryRadius() {
+        // Arrange
+        SimulatedCourier courier = new SimulatedCourier(7L, STORE, SETTINGS, new Random(1));
+        Instant now = Instant.parse("2026-10-18T10:00:00Z");
+        CourierLocationEvent previous = courier.next(now);
+
+        // Act & Assert
+        for (int i = 1; i < 2000; i++) {
+            CourierLocationEvent event = courier.next(now.plusSeconds(i));
+            assertEquals(7L, event.getCourierId());
+            assertEquals(now.plusSeconds(i), event.getTimestamp());
+            double step = meters(previous, event);
+            assertTrue(step < SETTINGS.stepLength() + 4 * SimulatedCourier.GPS_NOISE,
+                    "step of " + step + "m exceeds speed");
+            assertTrue(meters(STORE, event) < SETTINGS.deliveryRadius() + 4 * SimulatedCourier.GPS_NOISE);
+            previous = event;
+        }
+    }
+
+    @Test
+    void next_ShouldReturnIntoHomeStoreAndPark() {
+        // Arrange
+        SimulatedCourier courier = new SimulatedCourier(7L, STORE, SETTINGS, new Random(1));
+        Instant now = Instant.parse("2026-10-18T10:00:00Z");
+        int pingsAtStore = 0;
+
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            if (meters(STORE, courier.next(now.plusSeconds(i))) < 20) {
+                pingsAtStore++;
+            }
+        }
+
+        // Assert
+        assertTrue(pingsAtStore >= 2 * (SETTINGS.pausePings() + 1), "courier visited store " + pingsAtStore + " pings");
+    }
+
+    @Test
+    void next_SameSeed_ShouldReplaySameRoute() {
+        // Arrange
+        SimulatedCourier first = new SimulatedCourier(7L, STORE, SETTINGS, new Random(5));
+        SimulatedCourier second = new SimulatedCourier(7L, STORE, SETTINGS, new Random(5));
+        Instant now = Instant.now();
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.next(now), second.next(now));
+        }
+    }
+
+    private static double meters(CourierLocationEvent a, CourierLocationEvent b) {
+        return GeoUtils.calculateDistance(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude()) * 1000;
+    }
+
+    private static double meters(SeedStore store, CourierLocationEvent event) {
+        return GeoUtils.calculateDistance(store.latitude(), store.longitude(), event.getLatitude(), event.getLongitude()) * 1000;
+    }
+}
@@ -0,0 +1,41 @@
+package com.melihcelik.couriertracking.application.backfill;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Range of courier.location to replay and what to recompute from it.
+ * The range is given either as record times or as per-partition offsets.
+ * A missing start means the earliest retained record; a missing end means
+ * the live consumer group's committed position, where odometer corrections
+ * line up with live processing. Recomputing odometers needs both bounds missing.
+ * @param from Inclusive start time, or null
+ * @param to Exclusive end time, or null
+ * @param fromOffsets Inclusive start offset by partition, empty to use the time or earliest
+ * @param toOffsets Exclusive end offset by partition, empty to use the time or the live position
+ * @param storeEntries What to do with recomputed store entries, REPLACE by default
+ * @param recomputeDistances Whether to swap recomputed odometers into the courier table, true by default
+ */
+public record BackfillRequest(
+        Instant from,
+        Instant to,
+        Map<Integer, Long> fromOffsets,
+        Map<Integer, Long> toOffsets,
+        StoreEntryMode storeEntries,
+        Boolean recomputeDistances) {
+
+    public BackfillRequest {
+        fromOffsets = fromOffsets != null ? Map.copyOf(fromOffsets) : Map.of();
+        toOffsets = toOffsets != null ? Map.copyOf(toOffsets) : Map.of();
+        storeEntries = storeEntries != null ? storeEntries : StoreEntryMode.REPLACE;
+        recomputeDistances = recomputeDistances == null || recomputeDistances;
+    }
+
+    public boolean hasExplicitStart() {
+        return from != null || !fromOffsets.isEmpty();
+    }
+
+    public boolean hasExplicitEnd() {
+        return to != null || !toOffsets.isEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package com.melihcelik.couriertracking.application.backfill;
+
+import java.time.Instant;
+
+/**
+ * Progress of a backfill run
+ * @param state Run state
+ * @param request Request being run
+ * @param startedAt Start time
+ * @param finishedAt Finish time, null while running
+ * @param eventsRead Location events read so far
+ * @param couriers Couriers whose odometers were recomputed
+ * @param storeEntries Store entries written or published
+ * @param error Failure message, null unless failed
+ */
+public record BackfillStatus(
+        State state,
+        BackfillRequest request,
+        Instant startedAt,
+        Instant finishedAt,
+        long eventsRead,
+        int couriers,
+        long storeEntries,
+        String error) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,147 @@
+package com.melihcelik.couriertracking.application.backfill;
+
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTracker;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTransition;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes odometers and store entries from one partition of replayed
+ * location history. It owns its ping filter, geofence tracker and entry
+ * cooldown, so a replay neither reads nor disturbs live courier state, and
+ * emits no side effects: callers drain the results and write them in bulk.
+ * Not thread-safe; couriers are keyed to partitions, so one fold per
+ * partition sees every ping of its couriers in order.
+ */
+public class CourierReplayFold {
+    private final PingFilter pingFilter;
+    private final GeofenceTracker geofenceTracker;
+    private final long entryCooldownMillis;
+    private final boolean recomputeEntries;
+
+    private final Map<Long, Odometer> odometers = new HashMap<>();
+    private final Map<CooldownKey, Long> lastEntries = new HashMap<>();
+    private final List<StoreEntryEvent> entries = new ArrayList<>();
+    private long eventsRead;
+    private Instant earliest;
+    private Instant latest;
+
+    /**
+     * @param pingFilter Filter dedicated to this fold
+     * @param geofenceTracker Tracker dedicated to this fold
+     * @param entryCooldown Minimum time between two entries of a courier into the same store
+     * @param recomputeEntries Whether to run the geofence step at all
+     */
+    public CourierReplayFold(PingFilter pingFilter, GeofenceTracker geofenceTracker,
+                             Duration entryCooldown, boolean recomputeEntries) {
+        this.pingFilter = pingFilter;
+        this.geofenceTracker = geofenceTracker;
+        this.entryCooldownMillis = entryCooldown.toMillis();
+        this.recomputeEntries = recomputeEntries;
+    }
+
+    /**
+     * Fold one event, in partition order
+     * @param event Location event with a timestamp
+     */
+    public void apply(CourierLocationEvent event) {
+        eventsRead++;
+        Instant timestamp = event.getTimestamp();
+        if (earliest == null || timestamp.isBefore(earliest)) {
+            earliest = timestamp;
+        }
+        if (latest == null || timestamp.isAfter(latest)) {
+            latest = timestamp;
+        }
+        if (!pingFilter.check(event).isAccepted()) {
+            return;
+        }
+
+        odometers.computeIfAbsent(event.getCourierId(), id -> new Odometer())
+                .moveTo(event.getLatitude(), event.getLongitude());
+        if (!recomputeEntries) {
+            return;
+        }
+        for (GeofenceTransition transition : geofenceTracker.update(
+                event.getCourierId(), event.getLatitude(), event.getLongitude(), timestamp)) {
+            if (transition.type() == GeofenceTransition.Type.ENTER && acquire(transition)) {
+                entries.add(transition.toStoreEntryEvent());
+            }
+        }
+    }
+
+    /**
+     * Take the store entries found since the last drain
+     * @return Entries in event order
+     */
+    public List<StoreEntryEvent> drainEntries() {
+        List<StoreEntryEvent> drained = new ArrayList<>(entries);
+        entries.clear();
+        return drained;
+    }
+
+    /**
+     * @return Recomputed distance in kilometers by courier ID
+     */
+    public Map<Long, Double> distances() {
+        Map<Long, Double> distances = new HashMap<>();
+        odometers.forEach((courierId, odometer) -> distances.put(courierId, odometer.total));
+        return distances;
+    }
+
+    public long eventsRead() {
+        return eventsRead;
+    }
+
+    /**
+     * @return Earliest event time read, null if nothing was read
+     */
+    public Instant earliest() {
+        return earliest;
+    }
+
+    /**
+     * @return Latest event time read, null if nothing was read
+     */
+    public Instant latest() {
+        return latest;
+    }
+
+    // Same rule as the live StoreEntryCooldownTracker, against event time
+    private boolean acquire(GeofenceTransition transition) {
+        long entryTime = transition.timestamp().toEpochMilli();
+        CooldownKey key = new CooldownKey(transition.courierId(), transition.store().getId());
+        Long last = lastEntries.get(key);
+        if (last != null && last >= entryTime - entryCooldownMillis) {
+            return false;
+        }
+        lastEntries.put(key, entryTime);
+        return true;
+    }
+
+    private static final class Odometer {
+        private double latitude = Double.NaN;
+        private double longitude = Double.NaN;
+        private double total;
+
+        void moveTo(double lat, double lon) {
+            if (!Double.isNaN(latitude)) {
+                total += GeoUtils.approximateDistance(latitude, longitude, lat, lon);
+            }
+            latitude = lat;
+            longitude = lon;
+        }
+    }
+
+    private record CooldownKey(Long courierId, Long storeId) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.melihcelik.couriertracking.application.backfill;
+
+/**
+ * What a backfill does with the store entries it recomputes
+ */
+public enum StoreEntryMode {
+    /** Leave store entries alone */
+    NONE,
+    /** Replace the replayed couriers' store_entry rows in the replayed time range */
+    REPLACE,
+    /** Publish the entries to store.entry through the outbox, like live processing */
+    PUBLISH
+}
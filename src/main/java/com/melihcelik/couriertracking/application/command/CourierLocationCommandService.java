@@ -1,115 +1,170 @@
 package com.melihcelik.couriertracking.application.command;
 
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.history.LocationHistoryRecorder;
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.application.query.CourierReadModel;
+import com.melihcelik.couriertracking.application.spatial.CourierPositionIndex;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTracker;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTransition;
+import com.melihcelik.couriertracking.application.state.CourierState;
+import com.melihcelik.couriertracking.application.state.CourierStateStore;
 import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
 import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
-import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.domain.model.OutboxEvent;
 import com.melihcelik.couriertracking.domain.model.Store;
-import com.melihcelik.couriertracking.domain.repository.CourierRepository;
-import com.melihcelik.couriertracking.domain.repository.StoreRepository;
-import com.melihcelik.couriertracking.domain.util.GeoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
-import org.springframework.transaction.support.TransactionSynchronization;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CourierLocationCommandService {
-    private final CourierRepository courierRepository;
-    private final StoreRepository storeRepository;
-    private final KafkaTemplate<String, StoreEntryEvent> storeEntryKafkaTemplate;
+    private final PingFilter pingFilter;
+    private final CourierStateStore courierStateStore;
+    private final GeofenceTracker geofenceTracker;
+    private final StoreEventOutbox storeEventOutbox;
+    private final CourierReadModel courierReadModel;
+    private final CourierPositionIndex courierPositionIndex;
+    private final LocationHistoryRecorder locationHistoryRecorder;
     private final KafkaTemplate<String, CourierLocationEvent> locationKafkaTemplate;
+    private final PipelineMetrics pipelineMetrics;
 
-    @Value("${courier-tracking.store-proximity-radius}")
-    private double storeProximityRadius;
-
-    @Transactional
     public void processCourierLocation(CourierLocationEvent event) {
         log.debug("Processing courier location event: {}", event);
-        
-        Courier courier = courierRepository.findById(event.getCourierId())
-                .orElseGet(() -> createNewCourier(event));
-        
-        updateCourierLocation(courier, event);
-        courier = courierRepository.save(courier);
-
-        final Long courierId = courier.getId();
-        final CourierLocationEvent finalEvent = event;
-
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                courierRepository.findById(courierId).ifPresent(committedCourier ->
-                    checkStoreProximity(committedCourier, finalEvent));
+        PingFilter.Savepoint lastPings = pingFilter.savepoint(List.of(event.getCourierId()));
+        if (!passesFilter(event)) {
+            return;
+        }
+
+        GeofenceTracker.Savepoint visits = geofenceTracker.savepoint(List.of(event.getCourierId()));
+        try {
+            updateCourierLocation(event);
+            List<OutboxEvent> outboxEvents = new ArrayList<>();
+            checkStoreProximity(event, outboxEvents);
+            storeEventOutbox.append(outboxEvents);
+        } catch (RuntimeException e) {
+            rollback(lastPings, visits);
+            throw e;
+        }
+        pipelineMetrics.recordProcessed(event);
+    }
+
+    /**
+     * Process a whole poll of location events.
+     * Pings rejected by the {@link PingFilter} are dropped first. The rest are
+     * folded into the courier state in arrival order, then all changed couriers
+     * are written with a single multi-row upsert and the resulting store events
+     * are appended to the outbox in one transaction. If any step fails, the
+     * couriers' filter state and geofence visits are put back, so the pings are
+     * accepted again and their transitions are not lost.
+     * @param received Location events in partition order
+     */
+    public void processCourierLocations(List<CourierLocationEvent> received) {
+        Set<Long> courierIds = new HashSet<>();
+        for (CourierLocationEvent event : received) {
+            courierIds.add(event.getCourierId());
+        }
+        PingFilter.Savepoint lastPings = pingFilter.savepoint(courierIds);
+        List<CourierLocationEvent> events = received.stream().filter(this::passesFilter).toList();
+        if (events.isEmpty()) {
+            return;
+        }
+        log.debug("Processing courier location batch - size: {}", events.size());
+
+        GeofenceTracker.Savepoint visits = geofenceTracker.savepoint(courierIds);
+        try {
+            for (CourierLocationEvent event : events) {
+                updateCourierLocation(event);
             }
-        });
+            courierStateStore.flush();
+
+            List<OutboxEvent> outboxEvents = new ArrayList<>();
+            for (CourierLocationEvent event : events) {
+                checkStoreProximity(event, outboxEvents);
+            }
+            storeEventOutbox.append(outboxEvents);
+        } catch (RuntimeException e) {
+            rollback(lastPings, visits);
+            throw e;
+        }
+        for (CourierLocationEvent event : events) {
+            pipelineMetrics.recordProcessed(event);
+        }
     }
 
-    private Courier createNewCourier(CourierLocationEvent event) {
-        log.info("Creating new courier with ID: {}", event.getCourierId());
-        return Courier.builder()
-                .id(event.getCourierId())
-                .totalTravelDistance(0.0)
-                .lastLatitude(event.getLatitude())
-                .lastLongitude(event.getLongitude())
-                .isActive(true)
-                .build();
+    private boolean passesFilter(CourierLocationEvent event) {
+        PingFilter.Verdict verdict = pingFilter.check(event);
+        if (verdict.isAccepted()) {
+            return true;
+        }
+        pipelineMetrics.recordFiltered(verdict);
+        log.debug("Dropped courier location - courier: {}, reason: {}", event.getCourierId(), verdict);
+        return false;
     }
 
-    private void updateCourierLocation(Courier courier, CourierLocationEvent event) {
-        if (courier.getLastLatitude() != null && courier.getLastLongitude() != null) {
-            double distance = GeoUtils.calculateDistance(
-                    courier.getLastLatitude(), courier.getLastLongitude(),
-                    event.getLatitude(), event.getLongitude()
-            );
-            courier.setTotalTravelDistance(courier.getTotalTravelDistance() + distance);
-            log.debug("Updated courier total distance - courier: {}, distance: {}", courier.getId(), distance);
+    private void rollback(PingFilter.Savepoint lastPings, GeofenceTracker.Savepoint visits) {
+        // Pings and visits are only kept once their transitions are in the outbox,
+        // otherwise a redelivered ping would be dropped as stale or see no change
+        pingFilter.rollback(lastPings);
+        geofenceTracker.rollback(visits);
+    }
+
+    private void updateCourierLocation(CourierLocationEvent event) {
+        CourierState state = courierStateStore.apply(event);
+        courierReadModel.update(state);
+        courierPositionIndex.update(event.getCourierId(), event.getLatitude(), event.getLongitude(),
+                event.getTimestamp() != null ? event.getTimestamp() : Instant.now());
+        locationHistoryRecorder.record(event);
+        if (log.isDebugEnabled()) {
+            log.debug("Updated courier total distance - courier: {}, totalDistance: {}",
+                    state.getCourierId(), state.getTotalTravelDistance());
         }
-        
-        courier.setLastLatitude(event.getLatitude());
-        courier.setLastLongitude(event.getLongitude());
     }
 
-    private void checkStoreProximity(Courier courier, CourierLocationEvent event) {
-        List<Store> stores = storeRepository.findAll();
-        
-        for (Store store : stores) {
-            boolean isWithinRadius = GeoUtils.isWithinRadius(
-                    courier.getLastLatitude(), courier.getLastLongitude(),
-                    store.getLatitude(), store.getLongitude(),
-                    storeProximityRadius
-            );
-
-            if (isWithinRadius) {
-                log.debug("Courier within store radius - courier: {}, store: {}", courier.getId(), store.getId());
-                
-                StoreEntryEvent entryEvent = StoreEntryEvent.builder()
-                        .courierId(courier.getId())
-                        .storeId(store.getId())
-                        .storeName(store.getName())
-                        .latitude(courier.getLastLatitude())
-                        .longitude(courier.getLastLongitude())
-                        .timestamp(event.getTimestamp())
-                        .build();
-                
-                storeEntryKafkaTemplate.send("store.entry", entryEvent)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.debug("Successfully published store entry event - courier: {}, store: {}", 
-                                courier.getId(), store.getId());
-                        } else {
-                            log.error("Failed to publish store entry event - courier: {}, store: {}, error: {}", 
-                                courier.getId(), store.getId(), ex.toString());
-                        }
-                    });
+    private void checkStoreProximity(CourierLocationEvent event, List<OutboxEvent> outboxEvents) {
+        List<GeofenceTransition> transitions = geofenceTracker.update(
+                event.getCourierId(), event.getLatitude(), event.getLongitude(), event.getTimestamp());
+        pipelineMetrics.recordTransitions(transitions);
+
+        for (GeofenceTransition transition : transitions) {
+            if (transition.type() == GeofenceTransition.Type.ENTER) {
+                outboxEvents.add(storeEventOutbox.storeEntry(toStoreEntryEvent(transition)));
+            } else {
+                outboxEvents.add(storeEventOutbox.storeExit(toStoreExitEvent(transition)));
             }
         }
     }
-} 
\ No newline at end of file
+
+    private StoreEntryEvent toStoreEntryEvent(GeofenceTransition transition) {
+        log.debug("Courier entered store radius - courier: {}, store: {}",
+                transition.courierId(), transition.store().getId());
+        return transition.toStoreEntryEvent();
+    }
+
+    private StoreExitEvent toStoreExitEvent(GeofenceTransition transition) {
+        Store store = transition.store();
+        log.debug("Courier left store radius - courier: {}, store: {}, dwell: {}",
+                transition.courierId(), store.getId(), transition.dwellTime());
+
+        return StoreExitEvent.builder()
+                .courierId(transition.courierId())
+                .storeId(store.getId())
+                .storeName(store.getName())
+                .latitude(transition.latitude())
+                .longitude(transition.longitude())
+                .enteredAt(transition.enteredAt())
+                .dwellSeconds(transition.dwellTime().toSeconds())
+                .timestamp(transition.timestamp())
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.melihcelik.couriertracking.application.command;
 
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.application.state.StoreEntryCooldownTracker;
 import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
 import com.melihcelik.couriertracking.domain.model.Courier;
 import com.melihcelik.couriertracking.domain.model.Store;
@@ -9,12 +11,10 @@ import com.melihcelik.couriertracking.domain.repository.StoreEntryRepository;
 import com.melihcelik.couriertracking.domain.repository.StoreRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.time.Duration;
-import java.time.Instant;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Slf4j
 @Service
@@ -23,40 +23,29 @@ public class StoreEntryCommandService {
     private final StoreEntryRepository storeEntryRepository;
     private final CourierRepository courierRepository;
     private final StoreRepository storeRepository;
-
-    @Value("${courier-tracking.store-entry-cooldown}")
-    private int storeEntryCooldown;
+    private final StoreEntryCooldownTracker cooldownTracker;
+    private final PipelineMetrics pipelineMetrics;
 
     @Transactional
     public void processStoreEntry(StoreEntryEvent event) {
-        try {
-            log.debug("Processing store entry event: {}", event);
-            
-            Courier courier = courierRepository.findById(event.getCourierId())
-                    .orElseThrow(() -> {
-                        log.error("Courier not found for store entry event - courierId: {}", event.getCourierId());
-                        return new IllegalStateException("Courier not found with ID: " + event.getCourierId());
-                    });
-            
-            Store store = storeRepository.findById(event.getStoreId())
-                    .orElseThrow(() -> {
-                        log.error("Store not found for store entry event - storeId: {}", event.getStoreId());
-                        return new IllegalStateException("Store not found with ID: " + event.getStoreId());
-                    });
+        log.debug("Processing store entry event: {}", event);
 
-            Instant cooldownTime = event.getTimestamp().minus(Duration.ofSeconds(storeEntryCooldown));
-            boolean recentEntry = storeEntryRepository
-                    .findLatestEntryForCourierAndStore(courier.getId(), store.getId(), cooldownTime)
-                    .isPresent();
+        boolean accepted = cooldownTracker.tryAcquire(event.getCourierId(), event.getStoreId(), event.getTimestamp());
+        pipelineMetrics.recordCooldown(accepted);
+        if (!accepted) {
+            log.debug("Skipping store entry due to cooldown - courier: {}, store: {}, timestamp: {}",
+                    event.getCourierId(), event.getStoreId(), event.getTimestamp());
+            return;
+        }
+        releaseOnRollback(event);
 
-            if (recentEntry) {
-                log.debug("Skipping store entry due to cooldown - courier: {}, store: {}, cooldownTime: {}", 
-                        courier.getId(), store.getId(), cooldownTime);
-                return;
-            }
+        try {
+            // References only: a missing courier or store fails on the foreign keys at flush
+            Courier courier = courierRepository.getReferenceById(event.getCourierId());
+            Store store = storeRepository.getReferenceById(event.getStoreId());
 
             log.info("Creating new store entry - courier: {}, store: {}, timestamp: {}",
-                    courier.getId(), store.getId(), event.getTimestamp());
+                    event.getCourierId(), event.getStoreId(), event.getTimestamp());
 
             StoreEntry entry = StoreEntry.builder()
                     .courier(courier)
@@ -67,12 +56,28 @@ public class StoreEntryCommandService {
                     .build();
 
             storeEntryRepository.save(entry);
-            log.debug("Successfully saved store entry - id: {}, courier: {}, store: {}", 
-                    entry.getId(), courier.getId(), store.getId());
-            
+            log.debug("Successfully saved store entry - id: {}, courier: {}, store: {}",
+                    entry.getId(), event.getCourierId(), event.getStoreId());
+
         } catch (Exception e) {
             log.error("Error processing store entry event: {}", event, e);
+            cooldownTracker.release(event.getCourierId(), event.getStoreId(), event.getTimestamp());
             throw e; // Re-throw to trigger Kafka retry mechanism
         }
     }
-}
\ No newline at end of file
+
+    private void releaseOnRollback(StoreEntryEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        // A failed commit must not leave the entry suppressing its own retry
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    cooldownTracker.release(event.getCourierId(), event.getStoreId(), event.getTimestamp());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.melihcelik.couriertracking.application.command;
+
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.domain.model.OutboxEvent;
+import com.melihcelik.couriertracking.domain.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects store entry and exit events into the outbox table. Events are
+ * encoded with the topic's serializer up front so the relay only moves bytes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreEventOutbox {
+    static final String STORE_ENTRY_TOPIC = "store.entry";
+    static final String STORE_EXIT_TOPIC = "store.exit";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final Serializer<StoreEntryEvent> storeEntrySerializer;
+    private final Serializer<StoreExitEvent> storeExitSerializer;
+
+    public OutboxEvent storeEntry(StoreEntryEvent event) {
+        return toOutboxEvent(STORE_ENTRY_TOPIC, event.getCourierId(),
+                storeEntrySerializer.serialize(STORE_ENTRY_TOPIC, event));
+    }
+
+    public OutboxEvent storeExit(StoreExitEvent event) {
+        return toOutboxEvent(STORE_EXIT_TOPIC, event.getCourierId(),
+                storeExitSerializer.serialize(STORE_EXIT_TOPIC, event));
+    }
+
+    /**
+     * Write events to the outbox in one transaction
+     * @param events Encoded events in publish order
+     */
+    @Transactional
+    public void append(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        outboxEventRepository.saveAll(new ArrayList<>(events));
+        log.debug("Appended events to outbox - count: {}", events.size());
+    }
+
+    private OutboxEvent toOutboxEvent(String topic, Long courierId, byte[] payload) {
+        return OutboxEvent.builder()
+                .topic(topic)
+                .eventKey(String.valueOf(courierId))
+                .payload(payload)
+                .build();
+    }
+}
@@ -0,0 +1,246 @@
+package com.melihcelik.couriertracking.application.filter;
+
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-processing filter in front of the location pipeline.
+ * Each courier's last accepted ping is kept; a new ping is dropped when its
+ * coordinates are unusable, it is not newer than the last accepted ping, it
+ * moved less than the dead-band (a parked courier's GPS wobble), or it implies
+ * an implausible speed. An implausible jump is held as a candidate and accepted
+ * once the next ping confirms it, so a courier whose last fix was the outlier
+ * is not stuck behind it.
+ * <p>
+ * A ping is remembered as soon as it is accepted. Callers whose processing fails
+ * roll back to a {@link Savepoint} taken before the check, so the same ping is
+ * accepted again when it is retried.
+ */
+@Component
+public class PingFilter {
+
+    public enum Verdict {
+        ACCEPTED,
+        INVALID,
+        STALE,
+        STATIONARY,
+        SPEED,
+        TELEPORT;
+
+        public boolean isAccepted() {
+            return this == ACCEPTED;
+        }
+    }
+
+    @Value("${courier-tracking.ping-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${courier-tracking.ping-filter.dead-band:10}")
+    private double deadBand;
+
+    @Value("${courier-tracking.ping-filter.max-speed:50}")
+    private double maxSpeed;
+
+    @Value("${courier-tracking.ping-filter.teleport-distance:1000}")
+    private double teleportDistance;
+
+    private final ConcurrentHashMap<Long, LastPing> lastPings = new ConcurrentHashMap<>();
+
+    /**
+     * Decide whether a ping enters the pipeline, remembering it if it does
+     * @param event Location event
+     * @return Verdict, {@link Verdict#ACCEPTED} when the ping should be processed
+     */
+    public Verdict check(CourierLocationEvent event) {
+        if (!isUsable(event.getLatitude(), event.getLongitude())) {
+            return Verdict.INVALID;
+        }
+        if (!enabled) {
+            return Verdict.ACCEPTED;
+        }
+
+        Verdict[] verdict = new Verdict[1];
+        lastPings.compute(event.getCourierId(), (courierId, last) -> {
+            LastPing ping = last != null ? last : new LastPing();
+            verdict[0] = decide(ping, event);
+            return ping;
+        });
+        return verdict[0];
+    }
+
+    /**
+     * Same decision as {@link #check(CourierLocationEvent)} against a last ping
+     * the caller keeps itself, e.g. in a Kafka Streams state store
+     * @param last Courier's last ping, empty before its first one; updated in place
+     * @param event Location event
+     * @return Verdict, {@link Verdict#ACCEPTED} when the ping should be processed
+     */
+    public Verdict check(LastPing last, CourierLocationEvent event) {
+        if (!isUsable(event.getLatitude(), event.getLongitude())) {
+            return Verdict.INVALID;
+        }
+        if (!enabled) {
+            return Verdict.ACCEPTED;
+        }
+        return decide(last, event);
+    }
+
+    /**
+     * Copy the remembered pings of some couriers before checking their new pings
+     * @param courierIds Couriers about to be checked
+     * @return Savepoint for {@link #rollback}
+     */
+    public Savepoint savepoint(Collection<Long> courierIds) {
+        Map<Long, LastPing> saved = new HashMap<>();
+        for (Long courierId : courierIds) {
+            LastPing last = lastPings.get(courierId);
+            saved.put(courierId, last != null ? last.copy() : null);
+        }
+        return new Savepoint(saved);
+    }
+
+    /**
+     * Forget the pings accepted after the savepoint, e.g. when their processing failed
+     * @param savepoint Savepoint taken before the pings were checked
+     */
+    public void rollback(Savepoint savepoint) {
+        savepoint.pings.forEach((courierId, last) -> {
+            if (last != null) {
+                lastPings.put(courierId, last.copy());
+            } else {
+                lastPings.remove(courierId);
+            }
+        });
+    }
+
+    public void forget(Long courierId) {
+        lastPings.remove(courierId);
+    }
+
+    /**
+     * @return Filter with the same settings and no remembered pings, for replays
+     *         that must not disturb the live filter
+     */
+    public PingFilter newInstance() {
+        PingFilter filter = new PingFilter();
+        filter.enabled = enabled;
+        filter.deadBand = deadBand;
+        filter.maxSpeed = maxSpeed;
+        filter.teleportDistance = teleportDistance;
+        return filter;
+    }
+
+    private static boolean isUsable(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null || latitude.isNaN() || longitude.isNaN()) {
+            return false;
+        }
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            return false;
+        }
+        // 0,0 is what many receivers report before they have a fix
+        return latitude != 0.0 || longitude != 0.0;
+    }
+
+    private Verdict decide(LastPing last, CourierLocationEvent event) {
+        if (last.latitude == null || last.longitude == null) {
+            last.accept(event);
+            return Verdict.ACCEPTED;
+        }
+
+        Instant time = event.getTimestamp();
+        if (time != null && last.timestamp != null && !time.isAfter(last.timestamp)) {
+            return Verdict.STALE;
+        }
+
+        double distance = distance(last.latitude, last.longitude, event);
+        if (distance < deadBand) {
+            // The anchor and its time stay put, so slow real movement still adds up past the dead-band
+            last.candidate = null;
+            return Verdict.STATIONARY;
+        }
+
+        if (exceedsMaxSpeed(distance, last.timestamp, time)) {
+            if (confirmsCandidate(last.candidate, event)) {
+                last.accept(event);
+                return Verdict.ACCEPTED;
+            }
+            last.candidate = event;
+            return distance >= teleportDistance ? Verdict.TELEPORT : Verdict.SPEED;
+        }
+
+        last.accept(event);
+        return Verdict.ACCEPTED;
+    }
+
+    private boolean confirmsCandidate(CourierLocationEvent candidate, CourierLocationEvent event) {
+        if (candidate == null) {
+            return false;
+        }
+        double distance = distance(candidate.getLatitude(), candidate.getLongitude(), event);
+        return distance < deadBand || !exceedsMaxSpeed(distance, candidate.getTimestamp(), event.getTimestamp());
+    }
+
+    private boolean exceedsMaxSpeed(double distance, Instant from, Instant to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            return distance >= teleportDistance;
+        }
+        double seconds = Duration.between(from, to).toMillis() / 1000.0;
+        return distance / seconds > maxSpeed;
+    }
+
+    private static double distance(double lat, double lon, CourierLocationEvent event) {
+        return GeoUtils.approximateDistance(lat, lon, event.getLatitude(), event.getLongitude()) * 1000;
+    }
+
+    /**
+     * A courier's last accepted ping and the pending outlier, if any. Kept in
+     * this filter, or by callers with their own per-courier state.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static final class LastPing {
+        private Double latitude;
+        private Double longitude;
+        private Instant timestamp;
+        private CourierLocationEvent candidate;
+
+        private LastPing(LastPing other) {
+            latitude = other.latitude;
+            longitude = other.longitude;
+            timestamp = other.timestamp;
+            candidate = other.candidate;
+        }
+
+        private LastPing copy() {
+            return new LastPing(this);
+        }
+
+        private void accept(CourierLocationEvent event) {
+            latitude = event.getLatitude();
+            longitude = event.getLongitude();
+            timestamp = event.getTimestamp();
+            candidate = null;
+        }
+    }
+
+    public static final class Savepoint {
+        private final Map<Long, LastPing> pings;
+
+        private Savepoint(Map<Long, LastPing> pings) {
+            this.pings = pings;
+        }
+    }
+}
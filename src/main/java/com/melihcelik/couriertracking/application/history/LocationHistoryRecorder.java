@@ -0,0 +1,128 @@
+package com.melihcelik.couriertracking.application.history;
+
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import com.melihcelik.couriertracking.domain.repository.LocationHistoryRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers processed pings and writes them to the location history in bulk.
+ * Pings pass through the {@link TrajectorySimplifier} first, so only the points
+ * needed to keep the stored track within its error tolerance are written. The
+ * buffer is flushed on a timer, when it reaches the flush threshold, and on
+ * shutdown. It is bounded: when the database falls behind, new points are
+ * dropped and counted rather than growing the heap without limit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocationHistoryRecorder {
+    private final LocationHistoryRepository locationHistoryRepository;
+    private final TrajectorySimplifier trajectorySimplifier;
+    private final PipelineMetrics pipelineMetrics;
+
+    @Value("${courier-tracking.location-history.flush-threshold:5000}")
+    private int flushThreshold;
+
+    @Value("${courier-tracking.location-history.max-buffered:100000}")
+    private int maxBuffered;
+
+    private final Queue<LocationPoint> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void record(CourierLocationEvent event) {
+        Instant recordedAt = event.getTimestamp() != null ? event.getTimestamp() : Instant.now();
+        record(new LocationPoint(event.getCourierId(), event.getLatitude(), event.getLongitude(), recordedAt));
+    }
+
+    public void record(LocationPoint point) {
+        pipelineMetrics.recordHistoryOffered();
+        for (LocationPoint kept : trajectorySimplifier.offer(point)) {
+            buffer(kept);
+        }
+    }
+
+    private void buffer(LocationPoint point) {
+        if (buffered.incrementAndGet() > maxBuffered) {
+            buffered.decrementAndGet();
+            pipelineMetrics.recordHistoryDropped(1);
+            return;
+        }
+        buffer.add(point);
+        if (buffered.get() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    public int bufferedCount() {
+        return buffered.get();
+    }
+
+    /**
+     * Write all buffered points, including the pending ends of tracks that have gone idle.
+     * Concurrent callers skip the flush if one is already running.
+     */
+    @Scheduled(fixedDelayString = "${courier-tracking.location-history.flush-interval:1000}")
+    public void flush() {
+        trajectorySimplifier.drainIdle(Instant.now().minus(trajectorySimplifier.maxInterval())).forEach(this::buffer);
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushBuffer();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        trajectorySimplifier.drainAll().forEach(this::buffer);
+        flushLock.lock();
+        try {
+            log.info("Flushing location history on shutdown - buffered: {}", buffered.get());
+            flushBuffer();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushBuffer() {
+        List<LocationPoint> points = new ArrayList<>(Math.min(buffered.get(), maxBuffered));
+        LocationPoint point;
+        while ((point = buffer.poll()) != null) {
+            points.add(point);
+        }
+        if (points.isEmpty()) {
+            return;
+        }
+
+        try {
+            Timer.Sample sample = pipelineMetrics.startTimer();
+            locationHistoryRepository.appendAll(points);
+            buffered.addAndGet(-points.size());
+            pipelineMetrics.recordHistoryFlush(sample, points.size());
+            log.debug("Flushed location history - points: {}", points.size());
+        } catch (RuntimeException e) {
+            // Points stay counted against the bound while they wait for the next flush
+            log.error("Failed to flush location history - points: {}", points.size(), e);
+            buffer.addAll(points);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.melihcelik.couriertracking.application.history;
+
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online opening-window simplification of courier tracks.
+ * Each courier has an anchor (the last kept point) and a window of points
+ * received since. A new point extends the window while every point in it lies
+ * within the tolerance of the segment from the anchor to the new point;
+ * otherwise the previous point is kept and becomes the new anchor. Every
+ * dropped point is therefore within the tolerance of the stored polyline.
+ * Windows are also closed after a maximum number of points or time span so
+ * stored tracks never lag far behind.
+ */
+@Component
+public class TrajectorySimplifier {
+
+    @Value("${courier-tracking.location-history.simplification.tolerance:5}")
+    private double tolerance;
+
+    @Value("${courier-tracking.location-history.simplification.max-window:200}")
+    private int maxWindow;
+
+    @Value("${courier-tracking.location-history.simplification.max-interval:60}")
+    private long maxInterval;
+
+    private final ConcurrentHashMap<Long, Track> tracks = new ConcurrentHashMap<>();
+
+    /**
+     * Offer the next point of a courier's track
+     * @param point Received point
+     * @return Points to persist, oldest first; usually empty
+     */
+    public List<LocationPoint> offer(LocationPoint point) {
+        List<LocationPoint> kept = new ArrayList<>(1);
+        tracks.compute(point.courierId(), (courierId, track) -> {
+            if (track == null || tolerance <= 0) {
+                kept.add(point);
+                return new Track(point);
+            }
+            LocationPoint closed = track.extend(point);
+            if (closed != null) {
+                kept.add(closed);
+            }
+            return track;
+        });
+        return kept;
+    }
+
+    /**
+     * Close the windows of couriers whose last point is older than the cutoff and forget them
+     * @param cutoff Event time before which a courier counts as idle
+     * @return Pending points to persist
+     */
+    public List<LocationPoint> drainIdle(Instant cutoff) {
+        List<LocationPoint> pending = new ArrayList<>();
+        for (Long courierId : tracks.keySet()) {
+            tracks.computeIfPresent(courierId, (id, track) -> {
+                if (track.lastSeen().isAfter(cutoff)) {
+                    return track;
+                }
+                track.pending().ifPresent(pending::add);
+                return null;
+            });
+        }
+        return pending;
+    }
+
+    /**
+     * Close all open windows, e.g. on shutdown
+     * @return Pending points to persist
+     */
+    public List<LocationPoint> drainAll() {
+        return drainIdle(Instant.MAX);
+    }
+
+    public Duration maxInterval() {
+        return Duration.ofSeconds(maxInterval);
+    }
+
+    public int trackedCount() {
+        return tracks.size();
+    }
+
+    private final class Track {
+        private LocationPoint anchor;
+        private final List<LocationPoint> window = new ArrayList<>();
+
+        Track(LocationPoint anchor) {
+            this.anchor = anchor;
+        }
+
+        /**
+         * @return The point closing the current window, or null if the window was extended
+         */
+        LocationPoint extend(LocationPoint point) {
+            if (window.isEmpty() || fits(point)) {
+                window.add(point);
+                return null;
+            }
+            LocationPoint closed = window.get(window.size() - 1);
+            anchor = closed;
+            window.clear();
+            window.add(point);
+            return closed;
+        }
+
+        private boolean fits(LocationPoint end) {
+            if (window.size() >= maxWindow
+                    || Duration.between(anchor.recordedAt(), end.recordedAt()).getSeconds() > maxInterval) {
+                return false;
+            }
+            for (LocationPoint point : window) {
+                double distance = GeoUtils.distanceToSegment(point.latitude(), point.longitude(),
+                        anchor.latitude(), anchor.longitude(), end.latitude(), end.longitude());
+                if (distance > tolerance) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Optional<LocationPoint> pending() {
+            return window.isEmpty() ? Optional.empty() : Optional.of(window.get(window.size() - 1));
+        }
+
+        Instant lastSeen() {
+            return window.isEmpty() ? anchor.recordedAt() : window.get(window.size() - 1).recordedAt();
+        }
+    }
+}
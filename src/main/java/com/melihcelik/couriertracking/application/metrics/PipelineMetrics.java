@@ -0,0 +1,225 @@
+package com.melihcelik.couriertracking.application.metrics;
+
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTransition;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for each stage of the location pipeline, from REST accept
+ * to outbox relay. Event-time lag is measured against
+ * {@link CourierLocationEvent#getTimestamp()} on receive and after processing,
+ * with percentile histograms so lag can be aggregated across instances.
+ */
+@Component
+public class PipelineMetrics {
+    static final String ACCEPT = "courier.pipeline.accept";
+    static final String PUBLISH = "courier.pipeline.publish";
+    static final String RECEIVED = "courier.pipeline.received";
+    static final String FILTERED = "courier.pipeline.filtered";
+    static final String EVENT_LAG = "courier.pipeline.event.lag";
+    static final String STATE_FLUSH = "courier.pipeline.state.flush";
+    static final String STATE_FLUSHED = "courier.pipeline.state.flushed";
+    static final String GEOFENCE_TRANSITIONS = "courier.pipeline.geofence.transitions";
+    static final String HISTORY_OFFERED = "courier.pipeline.history.offered";
+    static final String HISTORY_FLUSH = "courier.pipeline.history.flush";
+    static final String HISTORY_WRITTEN = "courier.pipeline.history.written";
+    static final String HISTORY_DROPPED = "courier.pipeline.history.dropped";
+    static final String OUTBOX_RELAY = "courier.pipeline.outbox.relay";
+    static final String OUTBOX_RELAYED = "courier.pipeline.outbox.relayed";
+    static final String STORE_ENTRY_COOLDOWN = "courier.pipeline.store.entry.cooldown";
+
+    private static final Duration MIN_EXPECTED_LAG = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED_LAG = Duration.ofMinutes(10);
+
+    private final MeterRegistry registry;
+    private final Timer acceptTimer;
+    private final Timer publishSuccessTimer;
+    private final Timer publishFailureTimer;
+    private final Counter receivedCounter;
+    private final Map<PingFilter.Verdict, Counter> filteredCounters = new EnumMap<>(PingFilter.Verdict.class);
+    private final Timer receivedLag;
+    private final Timer processedLag;
+    private final Timer stateFlushTimer;
+    private final Counter stateFlushedCounter;
+    private final Counter enterCounter;
+    private final Counter exitCounter;
+    private final Counter historyOfferedCounter;
+    private final Timer historyFlushTimer;
+    private final Counter historyWrittenCounter;
+    private final Counter historyDroppedCounter;
+    private final Timer outboxRelayTimer;
+    private final Counter outboxRelayedCounter;
+    private final Counter cooldownAcceptedCounter;
+    private final Counter cooldownRejectedCounter;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.acceptTimer = Timer.builder(ACCEPT)
+                .description("Time to validate a location report and hand it to the producer")
+                .register(registry);
+        this.publishSuccessTimer = publishTimer("success");
+        this.publishFailureTimer = publishTimer("failure");
+        this.receivedCounter = Counter.builder(RECEIVED)
+                .description("Location events received by the consumer")
+                .register(registry);
+        for (PingFilter.Verdict verdict : PingFilter.Verdict.values()) {
+            if (!verdict.isAccepted()) {
+                filteredCounters.put(verdict, Counter.builder(FILTERED)
+                        .description("Pings dropped by the ping filter before processing")
+                        .tag("reason", verdict.name().toLowerCase(Locale.ROOT))
+                        .register(registry));
+            }
+        }
+        this.receivedLag = lagTimer("received");
+        this.processedLag = lagTimer("processed");
+        this.stateFlushTimer = Timer.builder(STATE_FLUSH)
+                .description("Time to upsert dirty courier state to the database")
+                .register(registry);
+        this.stateFlushedCounter = Counter.builder(STATE_FLUSHED)
+                .description("Courier rows written by state flushes")
+                .register(registry);
+        this.enterCounter = transitionCounter("enter");
+        this.exitCounter = transitionCounter("exit");
+        this.historyOfferedCounter = Counter.builder(HISTORY_OFFERED)
+                .description("Points offered to the location history before simplification")
+                .register(registry);
+        this.historyFlushTimer = Timer.builder(HISTORY_FLUSH)
+                .description("Time to copy one batch of points into the location history")
+                .register(registry);
+        this.historyWrittenCounter = Counter.builder(HISTORY_WRITTEN)
+                .description("Points written to the location history")
+                .register(registry);
+        this.historyDroppedCounter = Counter.builder(HISTORY_DROPPED)
+                .description("Points dropped because the location history buffer was full")
+                .register(registry);
+        this.outboxRelayTimer = Timer.builder(OUTBOX_RELAY)
+                .description("Time to publish and delete one outbox batch")
+                .register(registry);
+        this.outboxRelayedCounter = Counter.builder(OUTBOX_RELAYED)
+                .description("Store events published from the outbox")
+                .register(registry);
+        this.cooldownAcceptedCounter = cooldownCounter("accepted");
+        this.cooldownRejectedCounter = cooldownCounter("rejected");
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void recordAccept(Timer.Sample sample) {
+        sample.stop(acceptTimer);
+    }
+
+    /**
+     * Record the time from request start to broker acknowledgement
+     * @param sample Sample started when the request was received
+     * @param failure Send failure, or null when the record was acknowledged
+     */
+    public void recordPublish(Timer.Sample sample, Throwable failure) {
+        sample.stop(failure == null ? publishSuccessTimer : publishFailureTimer);
+    }
+
+    public void recordReceived(CourierLocationEvent event) {
+        receivedCounter.increment();
+        recordLag(receivedLag, event);
+    }
+
+    public void recordFiltered(PingFilter.Verdict verdict) {
+        Counter counter = filteredCounters.get(verdict);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public void recordProcessed(CourierLocationEvent event) {
+        recordLag(processedLag, event);
+    }
+
+    public void recordStateFlush(Timer.Sample sample, int couriers) {
+        sample.stop(stateFlushTimer);
+        stateFlushedCounter.increment(couriers);
+    }
+
+    public void recordTransitions(List<GeofenceTransition> transitions) {
+        for (GeofenceTransition transition : transitions) {
+            (transition.type() == GeofenceTransition.Type.ENTER ? enterCounter : exitCounter).increment();
+        }
+    }
+
+    public void recordHistoryOffered() {
+        historyOfferedCounter.increment();
+    }
+
+    public void recordHistoryFlush(Timer.Sample sample, int points) {
+        sample.stop(historyFlushTimer);
+        historyWrittenCounter.increment(points);
+    }
+
+    public void recordHistoryDropped(int points) {
+        historyDroppedCounter.increment(points);
+    }
+
+    public void recordOutboxRelay(Timer.Sample sample, int events) {
+        sample.stop(outboxRelayTimer);
+        outboxRelayedCounter.increment(events);
+    }
+
+    public void recordCooldown(boolean accepted) {
+        (accepted ? cooldownAcceptedCounter : cooldownRejectedCounter).increment();
+    }
+
+    private void recordLag(Timer timer, CourierLocationEvent event) {
+        Instant timestamp = event.getTimestamp();
+        if (timestamp == null) {
+            return;
+        }
+        // Device clocks can run ahead of ours; clamp instead of dropping the sample
+        long lag = registry.config().clock().wallTime() - timestamp.toEpochMilli();
+        timer.record(Math.max(0, lag), TimeUnit.MILLISECONDS);
+    }
+
+    private Timer publishTimer(String outcome) {
+        return Timer.builder(PUBLISH)
+                .description("Time from location report to broker acknowledgement")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Timer lagTimer(String stage) {
+        return Timer.builder(EVENT_LAG)
+                .description("Time from location event timestamp to pipeline stage")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_LAG)
+                .maximumExpectedValue(MAX_EXPECTED_LAG)
+                .register(registry);
+    }
+
+    private Counter transitionCounter(String type) {
+        return Counter.builder(GEOFENCE_TRANSITIONS)
+                .description("Store geofence transitions detected")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private Counter cooldownCounter(String result) {
+        return Counter.builder(STORE_ENTRY_COOLDOWN)
+                .description("Store entries accepted or suppressed by the entry cooldown")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -1,29 +1,80 @@
 package com.melihcelik.couriertracking.application.query;
 
+import com.melihcelik.couriertracking.application.spatial.CourierPositionIndex;
+import com.melihcelik.couriertracking.application.spatial.NearbyCourier;
+import com.melihcelik.couriertracking.application.spatial.StoreSpatialIndex;
 import com.melihcelik.couriertracking.domain.exception.CourierNotFoundException;
-import com.melihcelik.couriertracking.domain.model.Courier;
-import com.melihcelik.couriertracking.domain.repository.CourierRepository;
-import com.melihcelik.couriertracking.domain.repository.StoreEntryRepository;
+import com.melihcelik.couriertracking.domain.exception.InvalidLocationException;
+import com.melihcelik.couriertracking.domain.exception.StoreNotFoundException;
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import com.melihcelik.couriertracking.domain.repository.LocationHistoryRepository;
+import com.melihcelik.couriertracking.domain.model.Store;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Courier queries served from the {@link CourierReadModel}. Not transactional on
+ * purpose: a cache hit must not open a transaction or borrow a connection.
+ * Proximity queries are answered from the in-memory position and store indexes.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class CourierQueryService {
-    private final CourierRepository courierRepository;
-    private final StoreEntryRepository storeEntryRepository;
+    private final CourierReadModel courierReadModel;
+    private final LocationHistoryRepository locationHistoryRepository;
+    private final CourierPositionIndex courierPositionIndex;
+    private final StoreSpatialIndex storeSpatialIndex;
 
-    public Optional<Courier> getCourierById(Long courierId) {
-        return courierRepository.findById(courierId);
+    @Value("${courier-tracking.store-proximity-radius}")
+    private double storeProximityRadius;
+
+    @Value("${courier-tracking.courier-index.max-radius:5000}")
+    private double maxRadius;
+
+    public Optional<CourierView> getCourierById(Long courierId) {
+        return courierReadModel.find(courierId);
     }
 
     public double getTotalTravelDistance(Long courierId) {
-        return courierRepository.findById(courierId)
-                .map(Courier::getTotalTravelDistance)
+        return courierReadModel.find(courierId)
+                .map(CourierView::totalTravelDistance)
                 .orElseThrow(() -> new CourierNotFoundException(courierId));
     }
-} 
\ No newline at end of file
+
+    public List<LocationPoint> getRoute(Long courierId, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        return locationHistoryRepository.findRoute(courierId, from, to);
+    }
+
+    public List<NearbyCourier> findCouriersNear(double latitude, double longitude, double radius) {
+        validateRadius(radius);
+        return courierPositionIndex.findWithinRadius(latitude, longitude, radius);
+    }
+
+    /**
+     * Find couriers around a store
+     * @param storeId Store id
+     * @param radius Radius in meters, the store proximity radius when null
+     * @return Couriers within radius of the store, nearest first
+     */
+    public List<NearbyCourier> findCouriersNearStore(Long storeId, Double radius) {
+        double effectiveRadius = radius != null ? radius : storeProximityRadius;
+        validateRadius(effectiveRadius);
+        Store store = storeSpatialIndex.findById(storeId)
+                .orElseThrow(() -> new StoreNotFoundException(storeId));
+        return courierPositionIndex.findWithinRadius(store.getLatitude(), store.getLongitude(), effectiveRadius);
+    }
+
+    private void validateRadius(double radius) {
+        if (!(radius > 0 && radius <= maxRadius)) {
+            throw new InvalidLocationException(String.format("Radius must be greater than 0 and at most %.0f meters", maxRadius));
+        }
+    }
+}
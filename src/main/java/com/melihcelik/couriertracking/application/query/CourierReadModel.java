@@ -0,0 +1,75 @@
+package com.melihcelik.couriertracking.application.query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.melihcelik.couriertracking.application.state.CourierState;
+import com.melihcelik.couriertracking.application.state.CourierStateStore;
+import com.melihcelik.couriertracking.domain.repository.CourierRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache of {@link CourierView}s for the query side.
+ * The location pipeline writes a fresh view on every processed ping; misses
+ * fall back to the in-memory courier state and only then to the courier table.
+ * Entries expire after the configured TTL so idle couriers do not stay resident.
+ */
+@Component
+public class CourierReadModel {
+    static final String CACHE_NAME = "courierReadModel";
+
+    private final CourierStateStore courierStateStore;
+    private final CourierRepository courierRepository;
+    private final Cache<Long, CourierView> cache;
+
+    public CourierReadModel(CourierStateStore courierStateStore,
+                            CourierRepository courierRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${courier-tracking.read-model.max-size:100000}") long maxSize,
+                            @Value("${courier-tracking.read-model.ttl:300}") long ttlSeconds) {
+        this.courierStateStore = courierStateStore;
+        this.courierRepository = courierRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<CourierView> find(Long courierId) {
+        return Optional.ofNullable(cache.get(courierId, this::load));
+    }
+
+    /**
+     * Replace the cached view with the courier's current state
+     * @param state Courier state after a processed ping
+     */
+    public void update(CourierState state) {
+        cache.put(state.getCourierId(), CourierView.of(state.toCourier()));
+    }
+
+    /**
+     * Replace the cached view with a snapshot written by another engine
+     * @param view Courier view to cache
+     */
+    public void put(CourierView view) {
+        cache.put(view.id(), view);
+    }
+
+    public void evict(Long courierId) {
+        cache.invalidate(courierId);
+    }
+
+    private CourierView load(Long courierId) {
+        return courierStateStore.find(courierId)
+                .map(state -> CourierView.of(state.toCourier()))
+                .or(() -> courierRepository.findById(courierId).map(CourierView::of))
+                .orElse(null);
+    }
+}
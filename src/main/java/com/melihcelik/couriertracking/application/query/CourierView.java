@@ -0,0 +1,23 @@
+package com.melihcelik.couriertracking.application.query;
+
+import com.melihcelik.couriertracking.domain.model.Courier;
+
+/**
+ * Read-side snapshot of a courier, serialized with the same fields as {@link Courier}
+ */
+public record CourierView(
+        Long id,
+        double totalTravelDistance,
+        Double lastLatitude,
+        Double lastLongitude,
+        boolean isActive) {
+
+    public static CourierView of(Courier courier) {
+        return new CourierView(
+                courier.getId(),
+                courier.getTotalTravelDistance() != null ? courier.getTotalTravelDistance() : 0.0,
+                courier.getLastLatitude(),
+                courier.getLastLongitude(),
+                !Boolean.FALSE.equals(courier.getIsActive()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.melihcelik.couriertracking.application.query;
+
+import com.melihcelik.couriertracking.domain.exception.InvalidCursorException;
+import com.melihcelik.couriertracking.domain.repository.StoreEntrySummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a store entry listing: the (entryTime, id) of the last entry returned.
+ * Encoded as an opaque URL-safe token.
+ */
+record StoreEntryCursor(Instant entryTime, Long id) {
+    private static final char SEPARATOR = '|';
+
+    static StoreEntryCursor after(StoreEntrySummary entry) {
+        return new StoreEntryCursor(entry.entryTime(), entry.id());
+    }
+
+    String encode() {
+        String raw = entryTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static StoreEntryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException(token);
+            }
+            return new StoreEntryCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
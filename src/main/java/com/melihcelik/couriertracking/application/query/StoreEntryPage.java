@@ -0,0 +1,12 @@
+package com.melihcelik.couriertracking.application.query;
+
+import com.melihcelik.couriertracking.domain.repository.StoreEntrySummary;
+
+import java.util.List;
+
+/**
+ * One page of store entries, newest first
+ * @param nextCursor Cursor for the next page, null on the last page
+ */
+public record StoreEntryPage(List<StoreEntrySummary> entries, String nextCursor) {
+}
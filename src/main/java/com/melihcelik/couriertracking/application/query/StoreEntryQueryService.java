@@ -0,0 +1,79 @@
+package com.melihcelik.couriertracking.application.query;
+
+import com.melihcelik.couriertracking.domain.repository.StoreEntryRepository;
+import com.melihcelik.couriertracking.domain.repository.StoreEntrySummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Store entry listings with keyset pagination on (entryTime, id), newest first.
+ * Every page is a bounded index range scan regardless of how deep the caller has paged.
+ * Time ranges are [from, to); page sizes are clamped to the configured maximum.
+ */
+@Service
+@RequiredArgsConstructor
+public class StoreEntryQueryService {
+    // Upper bound used when no end of range is given; inside Postgres' timestamp range
+    static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final StoreEntryRepository storeEntryRepository;
+
+    @Value("${courier-tracking.store-entries.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${courier-tracking.store-entries.max-page-size:500}")
+    private int maxPageSize;
+
+    public StoreEntryPage findByCourier(Long courierId, Instant from, Instant to, String cursor, Integer limit) {
+        return page(from, to, cursor, limit, (start, before, page) -> storeEntryRepository.findCourierEntriesBefore(
+                courierId, start, before.entryTime(), before.id(), page));
+    }
+
+    public StoreEntryPage findByStore(Long storeId, Instant from, Instant to, String cursor, Integer limit) {
+        return page(from, to, cursor, limit, (start, before, page) -> storeEntryRepository.findStoreEntriesBefore(
+                storeId, start, before.entryTime(), before.id(), page));
+    }
+
+    public StoreEntryPage findInRange(Instant from, Instant to, String cursor, Integer limit) {
+        return page(from, to, cursor, limit, (start, before, page) -> storeEntryRepository.findEntriesBefore(
+                start, before.entryTime(), before.id(), page));
+    }
+
+    private StoreEntryPage page(Instant from, Instant to, String cursor, Integer limit, PageQuery query) {
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : END_OF_TIME;
+        if (!start.isBefore(end)) {
+            return new StoreEntryPage(List.of(), null);
+        }
+        int size = pageSize(limit);
+        // Ids are positive, so (end, MIN_VALUE) excludes every entry at the end instant
+        StoreEntryCursor before = cursor != null ? StoreEntryCursor.decode(cursor) : new StoreEntryCursor(end, Long.MIN_VALUE);
+        if (before.entryTime().isAfter(end)) {
+            before = new StoreEntryCursor(end, Long.MIN_VALUE);
+        }
+
+        // One extra row tells whether another page exists without a count query
+        List<StoreEntrySummary> rows = query.fetch(start, before, PageRequest.ofSize(size + 1));
+        if (rows.size() <= size) {
+            return new StoreEntryPage(rows, null);
+        }
+        List<StoreEntrySummary> entries = rows.subList(0, size);
+        return new StoreEntryPage(List.copyOf(entries), StoreEntryCursor.after(entries.get(size - 1)).encode());
+    }
+
+    private int pageSize(Integer limit) {
+        int requested = limit != null ? limit : defaultPageSize;
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<StoreEntrySummary> fetch(Instant from, StoreEntryCursor before, Pageable page);
+    }
+}
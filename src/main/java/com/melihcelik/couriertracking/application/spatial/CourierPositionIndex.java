@@ -0,0 +1,201 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live index of the latest position of every courier, bucketed into the same
+ * lat/lon grid as {@link StoreGrid}.
+ * Writers for the same courier are serialized on one of a fixed set of lock
+ * stripes; readers take no locks and only count a courier in the cell its
+ * current position belongs to. A courier moving between cells during a query
+ * may be seen in both, so results are deduplicated by courier. Couriers that have not reported within the max age are
+ * left out of queries and swept from the index.
+ */
+@Slf4j
+@Component
+public class CourierPositionIndex {
+    private static final int STRIPES = 64;
+
+    private final double cellSizeDegrees;
+    private final int lonCellCount;
+    private final Duration maxAge;
+    private final Map<Long, Position> positions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+
+    public CourierPositionIndex(@Value("${courier-tracking.courier-index.cell-size:250}") double cellSizeMeters,
+                                @Value("${courier-tracking.courier-index.max-age:300}") long maxAgeSeconds) {
+        if (cellSizeMeters <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSizeDegrees = cellSizeMeters / StoreGrid.METERS_PER_DEGREE;
+        this.lonCellCount = (int) Math.ceil(360.0 / cellSizeDegrees);
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Move a courier to a new position. Updates older than the indexed position are ignored.
+     * @param courierId Courier id
+     * @param latitude Latitude of the new position
+     * @param longitude Longitude of the new position
+     * @param timestamp Time of the position
+     */
+    public void update(Long courierId, double latitude, double longitude, Instant timestamp) {
+        long cell = cellKey(latIndex(latitude), lonIndex(longitude));
+        synchronized (stripe(courierId)) {
+            Position current = positions.get(courierId);
+            if (current != null && timestamp.isBefore(current.timestamp())) {
+                return;
+            }
+            // Join the new cell before publishing the position and leave the old one after,
+            // so concurrent readers find the courier in one of the two cells
+            if (current == null || current.cell() != cell) {
+                cells.compute(cell, (key, members) -> {
+                    Set<Long> set = members != null ? members : ConcurrentHashMap.newKeySet();
+                    set.add(courierId);
+                    return set;
+                });
+            }
+            positions.put(courierId, new Position(latitude, longitude, timestamp, cell));
+            if (current != null && current.cell() != cell) {
+                leave(current.cell(), courierId);
+            }
+        }
+    }
+
+    public void remove(Long courierId) {
+        synchronized (stripe(courierId)) {
+            Position current = positions.remove(courierId);
+            if (current != null) {
+                leave(current.cell(), courierId);
+            }
+        }
+    }
+
+    /**
+     * Find couriers that reported a position within the given radius of a point
+     * @param latitude Latitude of the point
+     * @param longitude Longitude of the point
+     * @param radius Radius in meters
+     * @return Couriers within radius, nearest first
+     */
+    public List<NearbyCourier> findWithinRadius(double latitude, double longitude, double radius) {
+        return findWithinRadius(latitude, longitude, radius, Instant.now());
+    }
+
+    List<NearbyCourier> findWithinRadius(double latitude, double longitude, double radius, Instant now) {
+        Instant cutoff = now.minus(maxAge);
+        double dLat = radius / StoreGrid.METERS_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double dLon = cosLat > 1e-9 ? dLat / cosLat : 360.0;
+
+        int minLat = latIndex(latitude - dLat);
+        int maxLat = latIndex(latitude + dLat);
+        int minLon = (int) Math.floor((longitude - dLon + 180.0) / cellSizeDegrees);
+        int maxLon = (int) Math.floor((longitude + dLon + 180.0) / cellSizeDegrees);
+        if (maxLon - minLon + 1 >= lonCellCount) {
+            minLon = 0;
+            maxLon = lonCellCount - 1;
+        }
+
+        List<NearbyCourier> result = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+            for (int lonIdx = minLon; lonIdx <= maxLon; lonIdx++) {
+                long cell = cellKey(latIdx, Math.floorMod(lonIdx, lonCellCount));
+                Set<Long> members = cells.get(cell);
+                if (members == null) {
+                    continue;
+                }
+                for (Long courierId : members) {
+                    Position position = positions.get(courierId);
+                    if (position == null || position.cell() != cell || position.timestamp().isBefore(cutoff)) {
+                        continue;
+                    }
+                    double distance = GeoUtils.approximateDistance(
+                            latitude, longitude, position.latitude(), position.longitude()) * 1000;
+                    if (distance <= radius && seen.add(courierId)) {
+                        result.add(new NearbyCourier(courierId, position.latitude(), position.longitude(),
+                                position.timestamp(), distance));
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(NearbyCourier::distance));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${courier-tracking.courier-index.sweep-interval:60000}")
+    public void evictStale() {
+        evictStale(Instant.now());
+    }
+
+    void evictStale(Instant now) {
+        Instant cutoff = now.minus(maxAge);
+        int evicted = 0;
+        for (Map.Entry<Long, Position> entry : positions.entrySet()) {
+            if (!entry.getValue().timestamp().isBefore(cutoff)) {
+                continue;
+            }
+            Long courierId = entry.getKey();
+            synchronized (stripe(courierId)) {
+                Position current = positions.get(courierId);
+                if (current != null && current.timestamp().isBefore(cutoff)) {
+                    positions.remove(courierId);
+                    leave(current.cell(), courierId);
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted stale courier positions - count: {}", evicted);
+        }
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    private void leave(long cell, Long courierId) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(courierId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private Object stripe(Long courierId) {
+        return stripes[Math.floorMod(courierId.hashCode(), STRIPES)];
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellSizeDegrees), lonCellCount);
+    }
+
+    private static long cellKey(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+
+    private record Position(double latitude, double longitude, Instant timestamp, long cell) {
+    }
+}
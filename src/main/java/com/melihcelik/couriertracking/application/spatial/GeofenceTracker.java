@@ -0,0 +1,154 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-courier store geofence state machine.
+ * A courier enters a store within the proximity radius and only exits once
+ * it is farther than the radius plus the exit margin, so GPS jitter around
+ * the edge does not produce repeated enter/exit pairs. Only couriers that
+ * are currently inside at least one store are kept in memory.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeofenceTracker {
+    private final StoreSpatialIndex storeSpatialIndex;
+
+    @Value("${courier-tracking.store-proximity-radius}")
+    private double enterRadius;
+
+    @Value("${courier-tracking.geofence.exit-margin:20}")
+    private double exitMargin;
+
+    private final ConcurrentHashMap<Long, Map<Long, Visit>> visits = new ConcurrentHashMap<>();
+
+    /**
+     * Move a courier and report the geofences it entered or left
+     * @param courierId Courier ID
+     * @param latitude Courier latitude
+     * @param longitude Courier longitude
+     * @param timestamp Ping time
+     * @return Transitions caused by this ping, empty if the courier stayed inside or outside
+     */
+    public List<GeofenceTransition> update(Long courierId, double latitude, double longitude, Instant timestamp) {
+        List<Store> candidates = storeSpatialIndex.findStoresWithinRadius(latitude, longitude, enterRadius + exitMargin);
+        List<GeofenceTransition> transitions = new ArrayList<>();
+
+        visits.compute(courierId, (id, current) -> {
+            Map<Long, Visit> inside = current != null ? current : new HashMap<>();
+            Set<Long> candidateIds = new HashSet<>();
+
+            for (Store store : candidates) {
+                candidateIds.add(store.getId());
+                if (!inside.containsKey(store.getId()) && GeoUtils.isWithinRadius(
+                        latitude, longitude, store.getLatitude(), store.getLongitude(), enterRadius)) {
+                    inside.put(store.getId(), new Visit(store, timestamp));
+                    transitions.add(new GeofenceTransition(GeofenceTransition.Type.ENTER,
+                            courierId, store, latitude, longitude, timestamp, timestamp));
+                }
+            }
+
+            Iterator<Visit> it = inside.values().iterator();
+            while (it.hasNext()) {
+                Visit visit = it.next();
+                if (!candidateIds.contains(visit.store().getId())) {
+                    it.remove();
+                    transitions.add(new GeofenceTransition(GeofenceTransition.Type.EXIT,
+                            courierId, visit.store(), latitude, longitude, visit.enteredAt(), timestamp));
+                }
+            }
+
+            return inside.isEmpty() ? null : inside;
+        });
+
+        if (!transitions.isEmpty() && log.isDebugEnabled()) {
+            log.debug("Geofence transitions - courier: {}, transitions: {}", courierId, transitions.size());
+        }
+        return transitions;
+    }
+
+    /**
+     * Copy the open visits of some couriers, so a caller that fails to publish
+     * the transitions computed after this point can put them back
+     * @param courierIds Couriers about to be moved
+     * @return Savepoint for {@link #rollback}
+     */
+    public Savepoint savepoint(Collection<Long> courierIds) {
+        Map<Long, Map<Long, Visit>> saved = new HashMap<>();
+        for (Long courierId : courierIds) {
+            Map<Long, Visit> inside = visits.get(courierId);
+            saved.put(courierId, inside != null ? Map.copyOf(inside) : null);
+        }
+        return new Savepoint(saved);
+    }
+
+    /**
+     * Put the couriers' visits back as they were at the savepoint, so a redelivered
+     * ping produces the same transitions again
+     * @param savepoint Savepoint taken before the couriers were moved
+     */
+    public void rollback(Savepoint savepoint) {
+        savepoint.visits.forEach((courierId, inside) -> {
+            if (inside != null) {
+                visits.put(courierId, new HashMap<>(inside));
+            } else {
+                visits.remove(courierId);
+            }
+        });
+        log.debug("Rolled back geofence visits - couriers: {}", savepoint.visits.size());
+    }
+
+    /**
+     * Drop a courier's open visits, e.g. when another instance takes the courier over
+     * @param courierId Courier ID
+     */
+    public void forget(Long courierId) {
+        visits.remove(courierId);
+    }
+
+    /**
+     * @return Tracker over the same stores and radii with no couriers inside,
+     *         for replays that must not disturb live visits
+     */
+    public GeofenceTracker newInstance() {
+        GeofenceTracker tracker = new GeofenceTracker(storeSpatialIndex);
+        tracker.enterRadius = enterRadius;
+        tracker.exitMargin = exitMargin;
+        return tracker;
+    }
+
+    /**
+     * @return Number of couriers currently inside at least one store geofence
+     */
+    public int size() {
+        return visits.size();
+    }
+
+    private record Visit(Store store, Instant enteredAt) {
+    }
+
+    public static final class Savepoint {
+        private final Map<Long, Map<Long, Visit>> visits;
+
+        private Savepoint(Map<Long, Map<Long, Visit>> visits) {
+            this.visits = visits;
+        }
+    }
+}
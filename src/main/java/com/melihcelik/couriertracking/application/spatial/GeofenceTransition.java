@@ -0,0 +1,47 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.model.Store;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A courier crossing a store geofence
+ * @param type Enter or exit
+ * @param courierId Courier ID
+ * @param store Store whose geofence was crossed
+ * @param latitude Courier latitude at the crossing ping
+ * @param longitude Courier longitude at the crossing ping
+ * @param enteredAt Time the courier entered the store geofence
+ * @param timestamp Time of the crossing ping
+ */
+public record GeofenceTransition(
+        Type type,
+        Long courierId,
+        Store store,
+        double latitude,
+        double longitude,
+        Instant enteredAt,
+        Instant timestamp) {
+
+    public enum Type {
+        ENTER,
+        EXIT
+    }
+
+    public Duration dwellTime() {
+        return Duration.between(enteredAt, timestamp);
+    }
+
+    public StoreEntryEvent toStoreEntryEvent() {
+        return StoreEntryEvent.builder()
+                .courierId(courierId)
+                .storeId(store.getId())
+                .storeName(store.getName())
+                .latitude(latitude)
+                .longitude(longitude)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import java.time.Instant;
+
+/**
+ * Courier found by a proximity query
+ * @param distance Distance from the query point in meters
+ */
+public record NearbyCourier(
+        Long courierId,
+        double latitude,
+        double longitude,
+        Instant lastSeen,
+        double distance) {
+}
@@ -0,0 +1,117 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of stores bucketed into a fixed lat/lon grid.
+ * A radius query only visits the cells overlapping the query's bounding box,
+ * so its cost depends on local store density rather than catalogue size.
+ */
+public final class StoreGrid {
+    static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final double cellSizeDegrees;
+    private final int lonCellCount;
+    private final Map<Long, Store[]> cells;
+    private final Map<Long, Store> storesById;
+
+    public StoreGrid(Collection<Store> stores, double cellSizeMeters) {
+        if (cellSizeMeters <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSizeDegrees = cellSizeMeters / METERS_PER_DEGREE;
+        this.lonCellCount = (int) Math.ceil(360.0 / cellSizeDegrees);
+
+        Map<Long, List<Store>> buckets = new HashMap<>();
+        Map<Long, Store> byId = new HashMap<>();
+        for (Store store : stores) {
+            long key = cellKey(latIndex(store.getLatitude()), lonIndex(store.getLongitude()));
+            buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(store);
+            byId.put(store.getId(), store);
+        }
+
+        Map<Long, Store[]> frozen = new HashMap<>(buckets.size());
+        buckets.forEach((key, bucket) -> frozen.put(key, bucket.toArray(new Store[0])));
+        this.cells = frozen;
+        this.storesById = Collections.unmodifiableMap(byId);
+    }
+
+    public static StoreGrid empty(double cellSizeMeters) {
+        return new StoreGrid(List.of(), cellSizeMeters);
+    }
+
+    /**
+     * Find all stores within the given radius of a point
+     * @param latitude Latitude of the point
+     * @param longitude Longitude of the point
+     * @param radius Radius in meters
+     * @return Stores within radius, in no particular order
+     */
+    public List<Store> findWithinRadius(double latitude, double longitude, double radius) {
+        if (cells.isEmpty()) {
+            return List.of();
+        }
+
+        double dLat = radius / METERS_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double dLon = cosLat > 1e-9 ? dLat / cosLat : 360.0;
+
+        int minLat = latIndex(latitude - dLat);
+        int maxLat = latIndex(latitude + dLat);
+        int minLon = (int) Math.floor((longitude - dLon + 180.0) / cellSizeDegrees);
+        int maxLon = (int) Math.floor((longitude + dLon + 180.0) / cellSizeDegrees);
+        if (maxLon - minLon + 1 >= lonCellCount) {
+            minLon = 0;
+            maxLon = lonCellCount - 1;
+        }
+
+        List<Store> result = new ArrayList<>();
+        for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+            for (int lonIdx = minLon; lonIdx <= maxLon; lonIdx++) {
+                Store[] bucket = cells.get(cellKey(latIdx, Math.floorMod(lonIdx, lonCellCount)));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Store store : bucket) {
+                    if (GeoUtils.isWithinRadius(latitude, longitude,
+                            store.getLatitude(), store.getLongitude(), radius)) {
+                        result.add(store);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public Store findById(Long storeId) {
+        return storesById.get(storeId);
+    }
+
+    public Collection<Store> stores() {
+        return storesById.values();
+    }
+
+    public int size() {
+        return storesById.size();
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellSizeDegrees), lonCellCount);
+    }
+
+    private static long cellKey(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+}
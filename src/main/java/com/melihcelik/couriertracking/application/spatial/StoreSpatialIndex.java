@@ -0,0 +1,78 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.repository.StoreRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory grid index over the store catalogue used for proximity checks.
+ * Reads are lock-free against an immutable {@link StoreGrid} snapshot; writers
+ * build a new snapshot and swap it in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreSpatialIndex {
+    private final StoreRepository storeRepository;
+
+    @Value("${courier-tracking.store-index.cell-size:${courier-tracking.store-proximity-radius}}")
+    private double cellSize;
+
+    private volatile StoreGrid grid;
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${courier-tracking.store-index.refresh-interval:300000}",
+            initialDelayString = "${courier-tracking.store-index.refresh-interval:300000}")
+    public synchronized void rebuild() {
+        List<Store> stores = storeRepository.findAll();
+        grid = new StoreGrid(stores, cellSize);
+        log.info("Store spatial index built - stores: {}, cellSize: {}m", stores.size(), cellSize);
+    }
+
+    public List<Store> findStoresWithinRadius(double latitude, double longitude, double radius) {
+        return currentGrid().findWithinRadius(latitude, longitude, radius);
+    }
+
+    public Optional<Store> findById(Long storeId) {
+        return Optional.ofNullable(currentGrid().findById(storeId));
+    }
+
+    public int size() {
+        return currentGrid().size();
+    }
+
+    public synchronized void upsert(Store store) {
+        List<Store> stores = new ArrayList<>(currentGrid().stores());
+        stores.removeIf(existing -> existing.getId().equals(store.getId()));
+        stores.add(store);
+        grid = new StoreGrid(stores, cellSize);
+        log.debug("Store spatial index updated - store: {}", store.getId());
+    }
+
+    public synchronized void remove(Long storeId) {
+        List<Store> stores = new ArrayList<>(currentGrid().stores());
+        if (stores.removeIf(existing -> existing.getId().equals(storeId))) {
+            grid = new StoreGrid(stores, cellSize);
+            log.debug("Store removed from spatial index - store: {}", storeId);
+        }
+    }
+
+    private StoreGrid currentGrid() {
+        StoreGrid current = grid;
+        return current != null ? current : StoreGrid.empty(cellSize);
+    }
+}
@@ -0,0 +1,95 @@
+package com.melihcelik.couriertracking.application.state;
+
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+
+/**
+ * Mutable in-memory state of a single courier. Updates happen in place under
+ * the instance monitor so a ping does not allocate.
+ */
+public final class CourierState {
+    private final Long courierId;
+    private double lastLatitude;
+    private double lastLongitude;
+    private double totalTravelDistance;
+    private boolean active;
+    private boolean dirty;
+
+    CourierState(Courier courier) {
+        this.courierId = courier.getId();
+        this.lastLatitude = courier.getLastLatitude() != null ? courier.getLastLatitude() : Double.NaN;
+        this.lastLongitude = courier.getLastLongitude() != null ? courier.getLastLongitude() : Double.NaN;
+        this.totalTravelDistance = courier.getTotalTravelDistance() != null ? courier.getTotalTravelDistance() : 0.0;
+        this.active = courier.getIsActive() == null || courier.getIsActive();
+    }
+
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    /**
+     * Move the courier to a new position and accumulate the travelled distance
+     * @param latitude New latitude
+     * @param longitude New longitude
+     * @return Distance travelled since the previous position in kilometers
+     */
+    synchronized double moveTo(double latitude, double longitude) {
+        double distance = 0.0;
+        if (!Double.isNaN(lastLatitude) && !Double.isNaN(lastLongitude)) {
+            distance = GeoUtils.approximateDistance(lastLatitude, lastLongitude, latitude, longitude);
+            totalTravelDistance += distance;
+        }
+        lastLatitude = latitude;
+        lastLongitude = longitude;
+        return distance;
+    }
+
+    /**
+     * Correct the odometer without moving the courier
+     * @param distance Distance to add in kilometers, negative to subtract
+     * @return Distance actually added, which differs when the odometer would drop below zero
+     */
+    synchronized double addDistance(double distance) {
+        double previous = totalTravelDistance;
+        totalTravelDistance = Math.max(0.0, totalTravelDistance + distance);
+        return totalTravelDistance - previous;
+    }
+
+    /**
+     * Mark the state as changed since the last flush
+     * @return true if the state was clean before this call
+     */
+    synchronized boolean markDirty() {
+        if (dirty) {
+            return false;
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Take a snapshot for flushing and mark the state clean
+     * @return Snapshot of the state, or null if nothing changed since the last flush
+     */
+    synchronized Courier drain() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        return toCourier();
+    }
+
+    public synchronized double getTotalTravelDistance() {
+        return totalTravelDistance;
+    }
+
+    public synchronized Courier toCourier() {
+        return Courier.builder()
+                .id(courierId)
+                .totalTravelDistance(totalTravelDistance)
+                .lastLatitude(Double.isNaN(lastLatitude) ? null : lastLatitude)
+                .lastLongitude(Double.isNaN(lastLongitude) ? null : lastLongitude)
+                .isActive(active)
+                .build();
+    }
+}
@@ -0,0 +1,292 @@
+package com.melihcelik.couriertracking.application.state;
+
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.repository.CourierDistance;
+import com.melihcelik.couriertracking.domain.repository.CourierRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind store for courier positions and odometers.
+ * Pings update the in-memory {@link CourierState}; dirty couriers are written to
+ * the courier table in one multi-row upsert on a timer, when the dirty count
+ * reaches the flush threshold, and on shutdown. The courier table therefore
+ * lags the in-memory state by at most one flush interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourierStateStore {
+    private final CourierRepository courierRepository;
+    private final PipelineMetrics pipelineMetrics;
+
+    @Value("${courier-tracking.courier-state.flush-threshold:1000}")
+    private int flushThreshold;
+
+    private final ConcurrentHashMap<Long, CourierState> states = new ConcurrentHashMap<>();
+    private final Queue<CourierState> dirtyStates = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger dirtyCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Apply a location event to the courier's state, loading or creating the courier on first sight
+     * @param event Location event
+     * @return Updated courier state
+     */
+    public CourierState apply(CourierLocationEvent event) {
+        CourierState state = states.get(event.getCourierId());
+        if (state == null) {
+            state = load(event);
+        } else {
+            state.moveTo(event.getLatitude(), event.getLongitude());
+        }
+
+        if (state.markDirty()) {
+            dirtyStates.add(state);
+            if (dirtyCount.incrementAndGet() >= flushThreshold) {
+                flush();
+            }
+        }
+        return state;
+    }
+
+    public Optional<CourierState> find(Long courierId) {
+        return Optional.ofNullable(states.get(courierId));
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    public int dirtyCount() {
+        return dirtyCount.get();
+    }
+
+    /**
+     * Odometer readings of all couriers, taken from memory where the courier is
+     * loaded since the courier table may lag it by one flush
+     * @return Total travel distance in kilometers by courier ID
+     */
+    public Map<Long, Double> totalTravelDistances() {
+        Map<Long, Double> totals = new HashMap<>();
+        for (CourierDistance row : courierRepository.findAllTotalTravelDistances()) {
+            totals.put(row.courierId(), row.totalTravelDistance() != null ? row.totalTravelDistance() : 0.0);
+        }
+        states.forEach((courierId, state) -> totals.put(courierId, state.getTotalTravelDistance()));
+        return totals;
+    }
+
+    /**
+     * Add odometer corrections and write them in a single flush. Corrections are
+     * applied under each courier's monitor, so pings processed concurrently keep
+     * their distance. Couriers missing from the courier table are skipped. If the
+     * write fails, the corrections are taken back out of memory and the failure
+     * is rethrown, so the couriers keep their previous odometers.
+     * @param corrections Distance to add in kilometers by courier ID
+     * @return States that were corrected
+     */
+    public List<CourierState> adjustTotals(Map<Long, Double> corrections) {
+        List<CourierState> adjusted = new ArrayList<>();
+        Map<CourierState, Double> applied = new HashMap<>();
+        flushLock.lock();
+        try {
+            corrections.forEach((courierId, distance) -> {
+                CourierState state = states.get(courierId);
+                if (state == null) {
+                    state = loadExisting(courierId);
+                }
+                if (state == null) {
+                    log.warn("Skipping odometer correction for unknown courier - courier: {}", courierId);
+                    return;
+                }
+                applied.put(state, state.addDistance(distance));
+                if (state.markDirty()) {
+                    dirtyStates.add(state);
+                    dirtyCount.incrementAndGet();
+                }
+                adjusted.add(state);
+            });
+            try {
+                flushDirtyStates();
+            } catch (RuntimeException e) {
+                applied.forEach((state, distance) -> state.addDistance(-distance));
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        log.info("Applied odometer corrections - couriers: {}", adjusted.size());
+        return adjusted;
+    }
+
+    /**
+     * @param courierFilter Couriers to match
+     * @return IDs of the loaded couriers that match the filter
+     */
+    public List<Long> courierIds(Predicate<Long> courierFilter) {
+        return states.keySet().stream().filter(courierFilter).toList();
+    }
+
+    /**
+     * Hand couriers over to another owner: write every dirty courier, then drop
+     * the given ones from memory so the next owner loads them from the courier
+     * table. They are dropped together with any unwritten changes even when the
+     * write fails, so this instance never writes over the next owner's progress;
+     * the failure is rethrown so the caller does not commit their offsets.
+     * @param courierIds Couriers to drop
+     */
+    public void release(Collection<Long> courierIds) {
+        Set<Long> released = new HashSet<>(courierIds);
+        RuntimeException failure = null;
+        flushLock.lock();
+        try {
+            try {
+                flushDirtyStates();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            states.keySet().removeAll(released);
+            Iterator<CourierState> it = dirtyStates.iterator();
+            while (it.hasNext()) {
+                if (released.contains(it.next().getCourierId())) {
+                    it.remove();
+                    dirtyCount.decrementAndGet();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        if (failure != null) {
+            log.error("Dropped unwritten courier state on release - couriers: {}", released.size());
+            throw failure;
+        }
+        log.info("Released courier state - couriers: {}, remaining: {}", released.size(), states.size());
+    }
+
+    /**
+     * Write all dirty couriers to the database. Concurrent callers skip the
+     * flush if one is already running.
+     */
+    @Scheduled(fixedDelayString = "${courier-tracking.courier-state.flush-interval:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushDirtyStates();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush courier state, retrying on the next flush - dirty: {}", dirtyCount.get(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            log.info("Flushing courier state on shutdown - dirty: {}", dirtyCount.get());
+            flushDirtyStates();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush courier state on shutdown - dirty: {}", dirtyCount.get(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Write all dirty couriers in one upsert. On failure they are queued again and
+     * the exception is rethrown; callers decide whether to retry on the next flush.
+     */
+    private void flushDirtyStates() {
+        List<CourierState> drained = new ArrayList<>();
+        List<Courier> snapshots = new ArrayList<>();
+        CourierState state;
+        while ((state = dirtyStates.poll()) != null) {
+            dirtyCount.decrementAndGet();
+            Courier snapshot = state.drain();
+            if (snapshot != null) {
+                drained.add(state);
+                snapshots.add(snapshot);
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        try {
+            Timer.Sample sample = pipelineMetrics.startTimer();
+            courierRepository.upsertAll(snapshots);
+            pipelineMetrics.recordStateFlush(sample, snapshots.size());
+            log.debug("Flushed courier state - couriers: {}", snapshots.size());
+        } catch (RuntimeException e) {
+            for (CourierState failed : drained) {
+                if (failed.markDirty()) {
+                    dirtyStates.add(failed);
+                    dirtyCount.incrementAndGet();
+                }
+            }
+            throw e;
+        }
+    }
+
+    private CourierState loadExisting(Long courierId) {
+        Courier courier = courierRepository.findById(courierId).orElse(null);
+        if (courier == null) {
+            return null;
+        }
+        CourierState state = new CourierState(courier);
+        CourierState existing = states.putIfAbsent(courierId, state);
+        return existing != null ? existing : state;
+    }
+
+    private CourierState load(CourierLocationEvent event) {
+        Courier courier = courierRepository.findById(event.getCourierId()).orElse(null);
+        CourierState state;
+        if (courier != null) {
+            state = new CourierState(courier);
+            state.moveTo(event.getLatitude(), event.getLongitude());
+        } else {
+            log.info("Creating new courier with ID: {}", event.getCourierId());
+            state = new CourierState(Courier.builder()
+                    .id(event.getCourierId())
+                    .totalTravelDistance(0.0)
+                    .lastLatitude(event.getLatitude())
+                    .lastLongitude(event.getLongitude())
+                    .isActive(true)
+                    .build());
+            // New couriers are written through so store entries can reference them immediately
+            courierRepository.upsertAll(List.of(state.toCourier()));
+        }
+
+        CourierState existing = states.putIfAbsent(event.getCourierId(), state);
+        if (existing != null) {
+            existing.moveTo(event.getLatitude(), event.getLongitude());
+            return existing;
+        }
+        return state;
+    }
+}
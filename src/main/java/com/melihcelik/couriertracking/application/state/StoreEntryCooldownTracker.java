@@ -0,0 +1,136 @@
+package com.melihcelik.couriertracking.application.state;
+
+import com.melihcelik.couriertracking.domain.repository.RecentStoreEntry;
+import com.melihcelik.couriertracking.domain.repository.StoreEntryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store entry cooldown keyed by (courier, store).
+ * Accepted entries are filed into one-second expiry buckets; a sweep drops
+ * buckets older than the cooldown, measured against the newest event time
+ * seen. The tracker is warmed from recent store_entry rows on startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreEntryCooldownTracker {
+    private static final long BUCKET_MILLIS = 1000;
+
+    private final StoreEntryRepository storeEntryRepository;
+
+    @Value("${courier-tracking.store-entry-cooldown}")
+    private int storeEntryCooldown;
+
+    private final ConcurrentHashMap<CooldownKey, Long> lastEntries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Queue<CooldownKey>> expiryBuckets = new ConcurrentSkipListMap<>();
+    private final AtomicLong watermark = new AtomicLong(Long.MIN_VALUE);
+
+    @PostConstruct
+    public void init() {
+        warmUp(Instant.now());
+    }
+
+    /**
+     * Load the latest entry per (courier, store) still within the cooldown
+     * @param now Reference time for the cooldown window
+     */
+    public void warmUp(Instant now) {
+        List<RecentStoreEntry> recentEntries = storeEntryRepository
+                .findRecentEntries(now.minus(Duration.ofSeconds(storeEntryCooldown)));
+        for (RecentStoreEntry entry : recentEntries) {
+            long entryTime = entry.getEntryTime().toEpochMilli();
+            CooldownKey key = new CooldownKey(entry.getCourierId(), entry.getStoreId());
+            lastEntries.merge(key, entryTime, Math::max);
+            scheduleExpiry(key, entryTime);
+            watermark.accumulateAndGet(entryTime, Math::max);
+        }
+        log.info("Store entry cooldown tracker warmed up - entries: {}, cooldown: {}s",
+                recentEntries.size(), storeEntryCooldown);
+    }
+
+    /**
+     * Record an entry unless the courier already entered the store within the cooldown
+     * @param courierId Courier ID
+     * @param storeId Store ID
+     * @param timestamp Entry time
+     * @return true if the entry is accepted, false if it is a duplicate
+     */
+    public boolean tryAcquire(Long courierId, Long storeId, Instant timestamp) {
+        long entryTime = timestamp.toEpochMilli();
+        long since = entryTime - cooldownMillis();
+        CooldownKey key = new CooldownKey(courierId, storeId);
+        boolean[] accepted = new boolean[1];
+        lastEntries.compute(key, (k, last) -> {
+            if (last != null && last >= since) {
+                return last;
+            }
+            accepted[0] = true;
+            return entryTime;
+        });
+
+        if (accepted[0]) {
+            scheduleExpiry(key, entryTime);
+            watermark.accumulateAndGet(entryTime, Math::max);
+        }
+        return accepted[0];
+    }
+
+    /**
+     * Forget an accepted entry that could not be persisted
+     * @param courierId Courier ID
+     * @param storeId Store ID
+     * @param timestamp Entry time passed to {@link #tryAcquire}
+     */
+    public void release(Long courierId, Long storeId, Instant timestamp) {
+        lastEntries.remove(new CooldownKey(courierId, storeId), timestamp.toEpochMilli());
+    }
+
+    @Scheduled(fixedDelayString = "${courier-tracking.cooldown-tracker.sweep-interval:1000}")
+    public void expire() {
+        long current = watermark.get();
+        if (current == Long.MIN_VALUE) {
+            return;
+        }
+        long horizon = current - cooldownMillis();
+        long firstLiveBucket = Math.floorDiv(horizon, BUCKET_MILLIS);
+
+        Map.Entry<Long, Queue<CooldownKey>> bucket;
+        while ((bucket = expiryBuckets.firstEntry()) != null && bucket.getKey() < firstLiveBucket) {
+            expiryBuckets.remove(bucket.getKey(), bucket.getValue());
+            for (CooldownKey key : bucket.getValue()) {
+                lastEntries.computeIfPresent(key, (k, last) -> last < horizon ? null : last);
+            }
+        }
+    }
+
+    public int size() {
+        return lastEntries.size();
+    }
+
+    private void scheduleExpiry(CooldownKey key, long entryTime) {
+        expiryBuckets.computeIfAbsent(Math.floorDiv(entryTime, BUCKET_MILLIS), b -> new ConcurrentLinkedQueue<>())
+                .add(key);
+    }
+
+    private long cooldownMillis() {
+        return storeEntryCooldown * 1000L;
+    }
+
+    private record CooldownKey(long courierId, long storeId) {
+    }
+}
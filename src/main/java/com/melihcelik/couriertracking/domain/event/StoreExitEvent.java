@@ -0,0 +1,30 @@
+package com.melihcelik.couriertracking.domain.event;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreExitEvent {
+    private Long courierId;
+    private Long storeId;
+    private String storeName;
+    private Double latitude;
+    private Double longitude;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant enteredAt;
+
+    private Long dwellSeconds;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Builder.Default
+    private Instant timestamp = Instant.now();
+}
@@ -0,0 +1,7 @@
+package com.melihcelik.couriertracking.domain.exception;
+
+public class BackfillInProgressException extends RuntimeException {
+    public BackfillInProgressException() {
+        super("A backfill is already running");
+    }
+}
@@ -0,0 +1,7 @@
+package com.melihcelik.couriertracking.domain.exception;
+
+public class CourierPositionsUnavailableException extends RuntimeException {
+    public CourierPositionsUnavailableException(String reason) {
+        super("Courier positions are not available from every instance: " + reason);
+    }
+}
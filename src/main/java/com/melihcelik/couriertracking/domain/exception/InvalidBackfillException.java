@@ -0,0 +1,7 @@
+package com.melihcelik.couriertracking.domain.exception;
+
+public class InvalidBackfillException extends RuntimeException {
+    public InvalidBackfillException(String reason) {
+        super(String.format("Invalid backfill request: %s", reason));
+    }
+}
@@ -0,0 +1,7 @@
+package com.melihcelik.couriertracking.domain.exception;
+
+public class StoreNotFoundException extends RuntimeException {
+    public StoreNotFoundException(Long storeId) {
+        super(String.format("Store not found with id: %d", storeId));
+    }
+}
@@ -0,0 +1,7 @@
+package com.melihcelik.couriertracking.domain.exception;
+
+public class UnknownTopicException extends RuntimeException {
+    public UnknownTopicException(String topic) {
+        super(String.format("No dead-letter topic for: %s", topic));
+    }
+}
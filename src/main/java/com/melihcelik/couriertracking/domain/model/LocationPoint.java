@@ -0,0 +1,9 @@
+package com.melihcelik.couriertracking.domain.model;
+
+import java.time.Instant;
+
+/**
+ * A single recorded courier position in the location history
+ */
+public record LocationPoint(Long courierId, double latitude, double longitude, Instant recordedAt) {
+}
@@ -0,0 +1,51 @@
+package com.melihcelik.couriertracking.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An event waiting to be relayed to Kafka. The payload is already encoded
+ * with the target topic's serializer.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Insert order, assigned by the database; ids come in per-instance blocks and
+     * do not follow it
+     */
+    @Column(insertable = false, updatable = false)
+    private Long relaySeq;
+
+    @NotNull
+    private String topic;
+
+    @NotNull
+    private String eventKey;
+
+    @NotNull
+    private byte[] payload;
+
+    @NotNull
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+}
@@ -15,8 +15,10 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 public class StoreEntry {
+    // Pooled: one nextval per allocationSize entries, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "store_entry_seq")
+    @SequenceGenerator(name = "store_entry_seq", sequenceName = "store_entry_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,15 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import com.melihcelik.couriertracking.domain.model.Courier;
+
+import java.util.Collection;
+
+public interface CourierBulkRepository {
+
+    /**
+     * Insert or update the given couriers with a single multi-row statement per chunk.
+     * Rows are written with the ids carried by the couriers.
+     * @param couriers Couriers to write
+     */
+    void upsertAll(Collection<Courier> couriers);
+}
@@ -0,0 +1,61 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import com.melihcelik.couriertracking.domain.model.Courier;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class CourierBulkRepositoryImpl implements CourierBulkRepository {
+    // PostgreSQL accepts at most 65535 bind parameters per statement
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void upsertAll(Collection<Courier> couriers) {
+        List<Courier> rows = new ArrayList<>(couriers);
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            upsertChunk(rows.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, rows.size())));
+        }
+    }
+
+    private void upsertChunk(List<Courier> chunk) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO courier (id, total_travel_distance, last_latitude, last_longitude, is_active) VALUES ");
+        for (int i = 0; i < chunk.size(); i++) {
+            int p = i * 5;
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?").append(p + 1)
+                    .append(", ?").append(p + 2)
+                    .append(", ?").append(p + 3)
+                    .append(", ?").append(p + 4)
+                    .append(", ?").append(p + 5).append(')');
+        }
+        sql.append(" ON CONFLICT (id) DO UPDATE SET ")
+                .append("total_travel_distance = EXCLUDED.total_travel_distance, ")
+                .append("last_latitude = EXCLUDED.last_latitude, ")
+                .append("last_longitude = EXCLUDED.last_longitude, ")
+                .append("is_active = EXCLUDED.is_active");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < chunk.size(); i++) {
+            Courier courier = chunk.get(i);
+            int p = i * 5;
+            query.setParameter(p + 1, courier.getId());
+            query.setParameter(p + 2, courier.getTotalTravelDistance());
+            query.setParameter(p + 3, courier.getLastLatitude());
+            query.setParameter(p + 4, courier.getLastLongitude());
+            query.setParameter(p + 5, courier.getIsActive() == null || courier.getIsActive());
+        }
+        query.executeUpdate();
+    }
+}
@@ -0,0 +1,9 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+/**
+ * Odometer reading of a courier as stored in the courier table
+ * @param courierId Courier ID
+ * @param totalTravelDistance Total travel distance in kilometers
+ */
+public record CourierDistance(Long courierId, Double totalTravelDistance) {
+}
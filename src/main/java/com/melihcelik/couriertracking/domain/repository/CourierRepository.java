@@ -2,8 +2,15 @@ package com.melihcelik.couriertracking.domain.repository;
 
 import com.melihcelik.couriertracking.domain.model.Courier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface CourierRepository extends JpaRepository<Courier, Long> {
+public interface CourierRepository extends JpaRepository<Courier, Long>, CourierBulkRepository {
+
+    @Query("SELECT new com.melihcelik.couriertracking.domain.repository.CourierDistance(c.id, c.totalTravelDistance) " +
+           "FROM Courier c")
+    List<CourierDistance> findAllTotalTravelDistances();
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface LocationHistoryRepository {
+
+    /**
+     * Append points to the location history in one bulk write
+     * @param points Points to write
+     */
+    void appendAll(Collection<LocationPoint> points);
+
+    /**
+     * Find the recorded points of a courier in a time range, oldest first
+     * @param courierId Courier ID
+     * @param from Inclusive start of the range
+     * @param to Exclusive end of the range
+     * @return Recorded points
+     */
+    List<LocationPoint> findRoute(Long courierId, Instant from, Instant to);
+}
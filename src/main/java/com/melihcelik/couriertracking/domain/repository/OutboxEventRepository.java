@@ -0,0 +1,28 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import com.melihcelik.couriertracking.domain.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Take a transaction-scoped advisory lock without waiting
+     * @param key Lock key
+     * @return true if the lock was taken, false if another transaction holds it
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryLock(@Param("key") long key);
+
+    /**
+     * Lock the oldest pending events, in insert order
+     */
+    @Query(value = "SELECT * FROM outbox_event ORDER BY relay_seq LIMIT :limit FOR UPDATE",
+           nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,14 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import java.time.Instant;
+
+/**
+ * Latest entry time of a courier at a store
+ */
+public interface RecentStoreEntry {
+    Long getCourierId();
+
+    Long getStoreId();
+
+    Instant getEntryTime();
+}
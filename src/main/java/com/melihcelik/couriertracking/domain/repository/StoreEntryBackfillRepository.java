@@ -0,0 +1,34 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface StoreEntryBackfillRepository {
+
+    /**
+     * Stage recomputed store entries of a backfill run in one bulk write
+     * @param backfillId Backfill run ID
+     * @param entries Recomputed entries
+     */
+    void stage(UUID backfillId, Collection<StoreEntryEvent> entries);
+
+    /**
+     * Replace the couriers' store entries in a time range with the staged entries
+     * of a run, in one transaction, and drop the staged rows
+     * @param backfillId Backfill run ID
+     * @param courierIds Couriers whose entries are replaced
+     * @param from Inclusive start of the range
+     * @param to Exclusive end of the range
+     * @return Number of entries inserted
+     */
+    int swap(UUID backfillId, Collection<Long> courierIds, Instant from, Instant to);
+
+    /**
+     * Drop the staged rows of a run without swapping them in
+     * @param backfillId Backfill run ID
+     */
+    void discard(UUID backfillId);
+}
@@ -1,24 +1,70 @@
 package com.melihcelik.couriertracking.domain.repository;
 
 import com.melihcelik.couriertracking.domain.model.StoreEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-
 import java.time.Instant;
-import java.util.Optional;
+import java.util.List;
 
 @Repository
 public interface StoreEntryRepository extends JpaRepository<StoreEntry, Long> {
-    
-    @Query("SELECT se FROM StoreEntry se " +
-           "WHERE se.courier.id = :courierId " +
-           "AND se.store.id = :storeId " +
-           "AND se.entryTime >= :since " +
-           "ORDER BY se.entryTime DESC")
-    Optional<StoreEntry> findLatestEntryForCourierAndStore(
+    // Keyset condition on (entry_time, id) descending. The redundant entry_time bound
+    // lets Postgres use it as an index condition instead of filtering the OR.
+    String BEFORE_CURSOR = "AND se.entryTime >= :from " +
+           "AND se.entryTime <= :beforeTime " +
+           "AND (se.entryTime < :beforeTime OR se.id < :beforeId) " +
+           "ORDER BY se.entryTime DESC, se.id DESC";
+
+    String SUMMARY = "SELECT new com.melihcelik.couriertracking.domain.repository.StoreEntrySummary(" +
+           "se.id, se.courier.id, se.store.id, se.entryTime, se.entryLatitude, se.entryLongitude) " +
+           "FROM StoreEntry se ";
+
+    @Query("SELECT se.courier.id AS courierId, se.store.id AS storeId, MAX(se.entryTime) AS entryTime " +
+           "FROM StoreEntry se " +
+           "WHERE se.entryTime >= :since " +
+           "GROUP BY se.courier.id, se.store.id")
+    List<RecentStoreEntry> findRecentEntries(@Param("since") Instant since);
+
+    /**
+     * Entries of a courier older than the cursor, newest first
+     * @param courierId Courier id
+     * @param from Oldest entry time to include
+     * @param beforeTime Entry time of the cursor
+     * @param beforeId Id of the cursor
+     * @param page Page size; the offset must be 0
+     * @return Entry summaries in (entryTime, id) descending order
+     */
+    @Query(SUMMARY + "WHERE se.courier.id = :courierId " + BEFORE_CURSOR)
+    List<StoreEntrySummary> findCourierEntriesBefore(
             @Param("courierId") Long courierId,
+            @Param("from") Instant from,
+            @Param("beforeTime") Instant beforeTime,
+            @Param("beforeId") Long beforeId,
+            Pageable page);
+
+    /**
+     * Entries into a store older than the cursor, newest first
+     * @see #findCourierEntriesBefore
+     */
+    @Query(SUMMARY + "WHERE se.store.id = :storeId " + BEFORE_CURSOR)
+    List<StoreEntrySummary> findStoreEntriesBefore(
             @Param("storeId") Long storeId,
-            @Param("since") Instant since);
-} 
\ No newline at end of file
+            @Param("from") Instant from,
+            @Param("beforeTime") Instant beforeTime,
+            @Param("beforeId") Long beforeId,
+            Pageable page);
+
+    /**
+     * Entries of all couriers older than the cursor, newest first
+     * @see #findCourierEntriesBefore
+     */
+    @Query(SUMMARY + "WHERE 1 = 1 " + BEFORE_CURSOR)
+    List<StoreEntrySummary> findEntriesBefore(
+            @Param("from") Instant from,
+            @Param("beforeTime") Instant beforeTime,
+            @Param("beforeId") Long beforeId,
+            Pageable page);
+}
@@ -0,0 +1,15 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import java.time.Instant;
+
+/**
+ * Store entry row without the courier and store entities
+ */
+public record StoreEntrySummary(
+        Long id,
+        Long courierId,
+        Long storeId,
+        Instant entryTime,
+        Double entryLatitude,
+        Double entryLongitude) {
+}
@@ -2,6 +2,17 @@ package com.melihcelik.couriertracking.domain.util;
 
 public class GeoUtils {
     private static final double EARTH_RADIUS = 6371.0; // Earth's radius in kilometers
+    private static final double EARTH_RADIUS_METERS = EARTH_RADIUS * 1000;
+    private static final double METERS_PER_DEGREE = EARTH_RADIUS_METERS * Math.PI / 180;
+
+    /**
+     * Limits of the equirectangular fast path. Within them the approximation
+     * stays within {@link #FAST_PATH_MAX_RELATIVE_ERROR} of Haversine
+     * (measured worst case is about 3.7e-6 at 10 km and 80 degrees).
+     */
+    static final double FAST_PATH_MAX_DISTANCE_KM = 10.0;
+    static final double FAST_PATH_MAX_LATITUDE = 80.0;
+    static final double FAST_PATH_MAX_RELATIVE_ERROR = 1e-5;
 
     private GeoUtils() {
         // Utility class
@@ -32,7 +43,34 @@ public class GeoUtils {
     }
 
     /**
-     * Check if a point is within a specified radius of another point
+     * Approximate distance between two points for short segments such as consecutive pings.
+     * Uses the equirectangular projection when both points are within
+     * {@link #FAST_PATH_MAX_LATITUDE} and the segment is at most {@link #FAST_PATH_MAX_DISTANCE_KM},
+     * falling back to {@link #calculateDistance} otherwise.
+     * @param lat1 Latitude of first point
+     * @param lon1 Longitude of first point
+     * @param lat2 Latitude of second point
+     * @param lon2 Longitude of second point
+     * @return Distance in kilometers, within {@link #FAST_PATH_MAX_RELATIVE_ERROR} of Haversine
+     */
+    public static double approximateDistance(double lat1, double lon1, double lat2, double lon2) {
+        if (isInFastPathLatitudes(lat1, lat2)) {
+            double x = Math.toRadians(normalizeLongitudeDelta(lon2 - lon1)) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+            double y = Math.toRadians(lat2 - lat1);
+            double distance = EARTH_RADIUS * Math.sqrt(x * x + y * y);
+            if (distance <= FAST_PATH_MAX_DISTANCE_KM) {
+                return distance;
+            }
+        }
+        return calculateDistance(lat1, lon1, lat2, lon2);
+    }
+
+    /**
+     * Check if a point is within a specified radius of another point.
+     * Rejects on the latitude and longitude extents first, then decides on the squared
+     * equirectangular distance and only runs Haversine when the point is within the
+     * approximation's error band around the radius edge. The result always matches
+     * a plain Haversine comparison.
      * @param lat1 Latitude of first point
      * @param lon1 Longitude of first point
      * @param lat2 Latitude of second point
@@ -41,6 +79,76 @@ public class GeoUtils {
      * @return true if point is within radius
      */
     public static boolean isWithinRadius(double lat1, double lon1, double lat2, double lon2, double radius) {
+        // The meridian distance is a lower bound of the great-circle distance
+        double dLatMeters = Math.abs(lat2 - lat1) * METERS_PER_DEGREE;
+        if (dLatMeters > radius) {
+            return false;
+        }
+
+        // The parallel at the higher latitude gives a lower bound for the longitude extent;
+        // cos is 1-Lipschitz, so its cosine is at least cos(mean) minus half the latitude gap
+        double cosMeanLat = Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double dLon = Math.toRadians(normalizeLongitudeDelta(lon2 - lon1));
+        double cosMaxLatLowerBound = cosMeanLat - Math.toRadians(Math.abs(lat2 - lat1)) / 2;
+        double dLonMetersLowerBound = EARTH_RADIUS_METERS * cosMaxLatLowerBound
+                * Math.abs(dLon) * (1 - dLon * dLon / 24);
+        if (dLonMetersLowerBound > radius) {
+            return false;
+        }
+
+        if (radius <= FAST_PATH_MAX_DISTANCE_KM * 1000 && isInFastPathLatitudes(lat1, lat2)) {
+            double dLonMeters = EARTH_RADIUS_METERS * cosMeanLat * dLon;
+            double squaredDistance = dLatMeters * dLatMeters + dLonMeters * dLonMeters;
+            double inner = radius * (1 - FAST_PATH_MAX_RELATIVE_ERROR);
+            if (squaredDistance <= inner * inner) {
+                return true;
+            }
+            double outer = radius * (1 + FAST_PATH_MAX_RELATIVE_ERROR);
+            if (squaredDistance > outer * outer) {
+                return false;
+            }
+        }
+
         return calculateDistance(lat1, lon1, lat2, lon2) * 1000 <= radius; // Convert km to meters for comparison
     }
-} 
\ No newline at end of file
+
+    /**
+     * Distance from a point to the segment between two other points, measured in a local
+     * equirectangular projection around the segment start. Accurate for segments of a
+     * few kilometers, such as a window of consecutive pings.
+     * @param lat Latitude of the point
+     * @param lon Longitude of the point
+     * @param lat1 Latitude of the segment start
+     * @param lon1 Longitude of the segment start
+     * @param lat2 Latitude of the segment end
+     * @param lon2 Longitude of the segment end
+     * @return Distance in meters
+     */
+    public static double distanceToSegment(double lat, double lon, double lat1, double lon1, double lat2, double lon2) {
+        double cosLat = Math.cos(Math.toRadians(lat1));
+        double px = normalizeLongitudeDelta(lon - lon1) * cosLat * METERS_PER_DEGREE;
+        double py = (lat - lat1) * METERS_PER_DEGREE;
+        double sx = normalizeLongitudeDelta(lon2 - lon1) * cosLat * METERS_PER_DEGREE;
+        double sy = (lat2 - lat1) * METERS_PER_DEGREE;
+
+        double lengthSquared = sx * sx + sy * sy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (px * sx + py * sy) / lengthSquared));
+        double dx = px - t * sx;
+        double dy = py - t * sy;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static boolean isInFastPathLatitudes(double lat1, double lat2) {
+        return Math.abs(lat1) <= FAST_PATH_MAX_LATITUDE && Math.abs(lat2) <= FAST_PATH_MAX_LATITUDE;
+    }
+
+    private static double normalizeLongitudeDelta(double dLon) {
+        if (dLon > 180) {
+            return dLon - 360;
+        }
+        if (dLon < -180) {
+            return dLon + 360;
+        }
+        return dLon;
+    }
+}
@@ -4,17 +4,44 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
 import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierPartitionDirectory;
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierStateHandover;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CompactEventDeserializer;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CompactEventSerializer;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CourierLocationEventCodec;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.EventFormat;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.StoreEntryEventCodec;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -22,11 +49,74 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@EnableKafkaRetryTopic
 public class KafkaConfig {
+    public static final String RETRY_TOPIC_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${courier-tracking.kafka.courier-location.format:json}")
+    private String courierLocationFormat;
+
+    @Value("${courier-tracking.kafka.store-entry.format:json}")
+    private String storeEntryFormat;
+
+    @Value("${courier-tracking.kafka.courier-location.concurrency:1}")
+    private int courierLocationConcurrency;
+
+    @Value("${courier-tracking.kafka.courier-location.batch.enabled:false}")
+    private boolean courierLocationBatchEnabled;
+
+    @Value("${courier-tracking.kafka.courier-location.batch.size:500}")
+    private int courierLocationBatchSize;
+
+    @Value("${courier-tracking.kafka.courier-location.batch.linger:50}")
+    private int courierLocationBatchLinger;
+
+    @Value("${courier-tracking.kafka.courier-location.batch.min-bytes:16384}")
+    private int courierLocationBatchMinBytes;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${courier-tracking.bulk-ingest.linger:20}")
+    private int bulkIngestLinger;
+
+    @Value("${courier-tracking.bulk-ingest.batch-size:131072}")
+    private int bulkIngestBatchSize;
+
+    @Value("${courier-tracking.outbox.linger:20}")
+    private int outboxLinger;
+
+    @Value("${courier-tracking.kafka.retry.attempts:4}")
+    private int retryAttempts;
+
+    @Value("${courier-tracking.kafka.retry.initial-interval:1000}")
+    private long retryInitialInterval;
+
+    @Value("${courier-tracking.kafka.retry.multiplier:4.0}")
+    private double retryMultiplier;
+
+    @Value("${courier-tracking.kafka.retry.max-interval:60000}")
+    private long retryMaxInterval;
+
+    @Value("${courier-tracking.backfill.max-poll-records:5000}")
+    private int backfillMaxPollRecords;
+
+    @Value("${courier-tracking.routing.enabled:false}")
+    private boolean routingEnabled;
+
+    @Value("${courier-tracking.routing.advertised-address:localhost:8080}")
+    private String advertisedAddress;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private CourierStateHandover courierStateHandover;
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -50,35 +140,186 @@ public class KafkaConfig {
                 .build();
     }
 
+    @Bean
+    public NewTopic storeExitTopic() {
+        return TopicBuilder.name("store.exit")
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
     // Producer Configuration
     @Bean
+    @Primary
     public ProducerFactory<String, CourierLocationEvent> courierLocationProducerFactory() {
+        Serializer<CourierLocationEvent> serializer = courierLocationSerializer();
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(config, new StringSerializer(), new JsonSerializer<>(objectMapper()));
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, serializer.getClass());
+        return withMetrics(new DefaultKafkaProducerFactory<>(config, new StringSerializer(), serializer));
+    }
+
+    /**
+     * Producer for bulk uploads. Bursts of pings are batched by linger and
+     * batch size and compressed with lz4 before they leave the service.
+     */
+    @Bean
+    public ProducerFactory<String, CourierLocationEvent> bulkLocationProducerFactory() {
+        Serializer<CourierLocationEvent> serializer = courierLocationSerializer();
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, serializer.getClass());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        config.put(ProducerConfig.LINGER_MS_CONFIG, bulkIngestLinger);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, bulkIngestBatchSize);
+        return withMetrics(new DefaultKafkaProducerFactory<>(config, new StringSerializer(), serializer));
+    }
+
+    private Serializer<CourierLocationEvent> courierLocationSerializer() {
+        return EventFormat.from(courierLocationFormat) == EventFormat.COMPACT
+                ? new CompactEventSerializer<>(new CourierLocationEventCodec())
+                : new JsonSerializer<>(objectMapper());
+    }
+
+    @Bean
+    public Serializer<StoreEntryEvent> storeEntrySerializer() {
+        return EventFormat.from(storeEntryFormat) == EventFormat.COMPACT
+                ? new CompactEventSerializer<>(new StoreEntryEventCodec())
+                : new JsonSerializer<>(objectMapper());
+    }
+
+    @Bean
+    public Serializer<StoreExitEvent> storeExitSerializer() {
+        return new JsonSerializer<>(objectMapper());
     }
 
     @Bean
     public ProducerFactory<String, StoreEntryEvent> storeEntryProducerFactory() {
+        Serializer<StoreEntryEvent> serializer = storeEntrySerializer();
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, serializer.getClass());
+        return withMetrics(new DefaultKafkaProducerFactory<>(config, new StringSerializer(), serializer));
+    }
+
+    /**
+     * Producer for the outbox relay. Payloads are already encoded, so values are raw bytes.
+     * Idempotence keeps broker-side retries from duplicating records; linger lets a relay
+     * batch leave in a few produce requests.
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> outboxProducerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(config, new StringSerializer(), new JsonSerializer<>(objectMapper()));
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.LINGER_MS_CONFIG, outboxLinger);
+        return withMetrics(new DefaultKafkaProducerFactory<>(config));
     }
 
+    /**
+     * Producer used to forward failed records to retry topics and the DLT.
+     * Records that could not be deserialized are forwarded as their original bytes.
+     */
     @Bean
+    public ProducerFactory<String, Object> retryProducerFactory() {
+        Map<Class<?>, Serializer<?>> serializers = new HashMap<>();
+        serializers.put(CourierLocationEvent.class, courierLocationSerializer());
+        serializers.put(StoreEntryEvent.class, storeEntrySerializer());
+        serializers.put(byte[].class, new ByteArraySerializer());
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        return withMetrics(new DefaultKafkaProducerFactory<>(
+                config, new StringSerializer(), new DelegatingByTypeSerializer(serializers)));
+    }
+
+    @Bean
+    @Primary
     public KafkaTemplate<String, CourierLocationEvent> courierLocationKafkaTemplate() {
         return new KafkaTemplate<>(courierLocationProducerFactory());
     }
 
+    @Bean
+    public KafkaTemplate<String, CourierLocationEvent> bulkLocationKafkaTemplate() {
+        return new KafkaTemplate<>(bulkLocationProducerFactory());
+    }
+
     @Bean
     public KafkaTemplate<String, StoreEntryEvent> storeEntryKafkaTemplate() {
         return new KafkaTemplate<>(storeEntryProducerFactory());
     }
 
+    @Bean
+    public KafkaTemplate<String, byte[]> outboxKafkaTemplate() {
+        return new KafkaTemplate<>(outboxProducerFactory());
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> retryKafkaTemplate() {
+        return new KafkaTemplate<>(retryProducerFactory());
+    }
+
+    // Non-blocking retries: a failed record moves to the next retry topic with a longer
+    // delay instead of blocking its partition, and lands in the DLT after the last attempt.
+    // Batch listeners cannot use retry topics, so batch mode keeps its log-and-skip handling.
+    // Retry topics are consumed by their own groups, not by the courier's owner, so with
+    // several routed instances courier.location retries in place instead (see below).
+    @Bean
+    @ConditionalOnProperty(name = {"courier-tracking.kafka.courier-location.batch.enabled", "courier-tracking.routing.enabled"},
+            havingValue = "false", matchIfMissing = true)
+    public RetryTopicConfiguration courierLocationRetryTopic() {
+        return retryTopic("courier.location", "courierLocationKafkaListenerContainerFactory")
+                .create(retryKafkaTemplate());
+    }
+
+    @Bean
+    public RetryTopicConfiguration storeEntryRetryTopic() {
+        return retryTopic("store.entry", "storeEntryKafkaListenerContainerFactory")
+                .create(retryKafkaTemplate());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "courier-tracking.routing.enabled", havingValue = "true")
+    public NewTopic courierLocationDeadLetterTopic() {
+        return TopicBuilder.name("courier.location" + DLT_SUFFIX)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    /**
+     * Blocking retries for courier.location when routing is enabled: the record is
+     * retried on its own partition, so only the courier's owner ever applies it, with
+     * the same backoff as the retry topics and the DLT after the last attempt.
+     */
+    private DefaultErrorHandler courierLocationErrorHandler() {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(retryKafkaTemplate(),
+                (record, exception) -> new TopicPartition(record.topic() + DLT_SUFFIX, record.partition()));
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(retryAttempts - 1);
+        backOff.setInitialInterval(retryInitialInterval);
+        backOff.setMultiplier(retryMultiplier);
+        backOff.setMaxInterval(retryMaxInterval);
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+
+    private RetryTopicConfigurationBuilder retryTopic(String topic, String listenerFactory) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopic(topic)
+                .listenerFactory(listenerFactory)
+                .maxAttempts(retryAttempts)
+                .exponentialBackoff(retryInitialInterval, retryMultiplier, retryMaxInterval)
+                .retryTopicSuffix(RETRY_TOPIC_SUFFIX)
+                .dltSuffix(DLT_SUFFIX)
+                .autoCreateTopicsWith(3, (short) 1);
+    }
+
     // Consumer Configuration
     @Bean
     public ConsumerFactory<String, CourierLocationEvent> courierLocationConsumerFactory() {
@@ -86,16 +327,40 @@ public class KafkaConfig {
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "courier-tracking-group");
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        
-        JsonDeserializer<CourierLocationEvent> deserializer = new JsonDeserializer<>(CourierLocationEvent.class, objectMapper());
-        deserializer.setRemoveTypeHeaders(false);
-        deserializer.addTrustedPackages("com.melihcelik.couriertracking.domain.event");
-        
-        return new DefaultKafkaConsumerFactory<>(
-                config,
-                new StringDeserializer(),
-                deserializer
-        );
+        // Lets other instances find this one as the owner of its partitions
+        config.put(ConsumerConfig.CLIENT_ID_CONFIG, CourierPartitionDirectory.clientId(advertisedAddress));
+        // Only partitions that change owner are revoked, so courier state elsewhere stays in memory
+        config.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, CooperativeStickyAssignor.class.getName());
+        if (courierLocationBatchEnabled) {
+            config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, courierLocationBatchSize);
+            config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, courierLocationBatchLinger);
+            config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, courierLocationBatchMinBytes);
+        }
+
+        return withMetrics(new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), courierLocationDeserializer()));
+    }
+
+    /**
+     * Consumer for backfill replays of courier.location. Partitions are assigned
+     * explicitly and progress is committed to the backfill group only, so the
+     * live group's position is never moved.
+     */
+    @Bean
+    public ConsumerFactory<String, CourierLocationEvent> backfillConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "courier-tracking-backfill");
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, backfillMaxPollRecords);
+        return withMetrics(new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), courierLocationDeserializer()));
+    }
+
+    private Deserializer<CourierLocationEvent> courierLocationDeserializer() {
+        JsonDeserializer<CourierLocationEvent> jsonDeserializer = new JsonDeserializer<>(CourierLocationEvent.class, objectMapper());
+        jsonDeserializer.setRemoveTypeHeaders(false);
+        jsonDeserializer.addTrustedPackages("com.melihcelik.couriertracking.domain.event");
+        return new ErrorHandlingDeserializer<>(new CompactEventDeserializer<>(new CourierLocationEventCodec(), jsonDeserializer));
     }
 
     @Bean
@@ -105,21 +370,46 @@ public class KafkaConfig {
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "courier-tracking-group");
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         
-        JsonDeserializer<StoreEntryEvent> deserializer = new JsonDeserializer<>(StoreEntryEvent.class, objectMapper());
-        deserializer.setRemoveTypeHeaders(false);
-        deserializer.addTrustedPackages("com.melihcelik.couriertracking.domain.event");
+        JsonDeserializer<StoreEntryEvent> jsonDeserializer = new JsonDeserializer<>(StoreEntryEvent.class, objectMapper());
+        jsonDeserializer.setRemoveTypeHeaders(false);
+        jsonDeserializer.addTrustedPackages("com.melihcelik.couriertracking.domain.event");
         
-        return new DefaultKafkaConsumerFactory<>(
+        return withMetrics(new DefaultKafkaConsumerFactory<>(
                 config,
                 new StringDeserializer(),
-                deserializer
-        );
+                new ErrorHandlingDeserializer<>(new CompactEventDeserializer<>(new StoreEntryEventCodec(), jsonDeserializer))
+        ));
+    }
+
+    /**
+     * Raw consumer for DLT replays. Offsets are committed by the replayer once
+     * the replayed records are acknowledged.
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "courier-tracking-dlt-replay");
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), new ByteArrayDeserializer());
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, CourierLocationEvent> courierLocationKafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, CourierLocationEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(courierLocationConsumerFactory());
+        factory.setBatchListener(courierLocationBatchEnabled);
+        // Each courier's events are keyed to one partition, so consumers up to the
+        // partition count never process the same courier concurrently
+        factory.setConcurrency(Math.max(1, courierLocationConcurrency));
+        if (courierStateHandover != null) {
+            factory.getContainerProperties().setConsumerRebalanceListener(courierStateHandover);
+        }
+        if (routingEnabled && !courierLocationBatchEnabled) {
+            factory.setCommonErrorHandler(courierLocationErrorHandler());
+        }
+        applyListenerTaskExecutor(factory, "courier-location-");
         return factory;
     }
 
@@ -127,6 +417,31 @@ public class KafkaConfig {
     public ConcurrentKafkaListenerContainerFactory<String, StoreEntryEvent> storeEntryKafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, StoreEntryEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(storeEntryConsumerFactory());
+        applyListenerTaskExecutor(factory, "store-entry-");
+        return factory;
+    }
+
+    private void applyListenerTaskExecutor(ConcurrentKafkaListenerContainerFactory<?, ?> factory, String threadNamePrefix) {
+        if (!virtualThreadsEnabled) {
+            return;
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        factory.getContainerProperties().setListenerTaskExecutor(executor);
+    }
+
+    // Client metrics include per-partition consumer lag (kafka.consumer.fetch.manager.records.lag)
+    private <K, V> ProducerFactory<K, V> withMetrics(DefaultKafkaProducerFactory<K, V> factory) {
+        if (meterRegistry != null) {
+            factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        }
+        return factory;
+    }
+
+    private <K, V> ConsumerFactory<K, V> withMetrics(DefaultKafkaConsumerFactory<K, V> factory) {
+        if (meterRegistry != null) {
+            factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        }
         return factory;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.melihcelik.couriertracking.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CompactEventDeserializer;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CourierLocationEventCodec;
+import com.melihcelik.couriertracking.infrastructure.streams.CourierTrackingTopology;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.LogAndContinueExceptionHandler;
+import org.apache.kafka.streams.errors.StreamsUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.KafkaStreamsInfrastructureCustomizer;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the location pipeline as a Kafka Streams topology instead of the
+ * courier.location listeners. Enabled with the {@code streams} profile.
+ */
+@Slf4j
+@Configuration
+@Profile("streams")
+@EnableKafkaStreams
+public class KafkaStreamsConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${courier-tracking.streams.application-id:courier-tracking-streams}")
+    private String applicationId;
+
+    @Value("${courier-tracking.streams.threads:3}")
+    private int streamThreads;
+
+    @Value("${courier-tracking.streams.state-dir:/tmp/kafka-streams}")
+    private String stateDir;
+
+    @Value("${courier-tracking.streams.processing-guarantee:exactly_once_v2}")
+    private String processingGuarantee;
+
+    @Value("${courier-tracking.store-proximity-radius}")
+    private double storeProximityRadius;
+
+    @Value("${courier-tracking.geofence.exit-margin:20}")
+    private double exitMargin;
+
+    @Value("${courier-tracking.store-entry-cooldown}")
+    private long storeEntryCooldownSeconds;
+
+    @Value("${courier-tracking.store-index.cell-size:${courier-tracking.store-proximity-radius}}")
+    private double cellSize;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration defaultKafkaStreamsConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, processingGuarantee);
+        config.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, streamThreads);
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        config.put(StreamsConfig.consumerPrefix(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG), "earliest");
+        // An undecodable location is logged and skipped instead of stopping the stream thread
+        config.put(StreamsConfig.DEFAULT_DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG, LogAndContinueExceptionHandler.class);
+        return new KafkaStreamsConfiguration(config);
+    }
+
+    @Bean
+    public CourierTrackingTopology courierTrackingTopology(ObjectMapper objectMapper,
+                                                           PingFilter pingFilter,
+                                                           Serializer<StoreEntryEvent> storeEntrySerializer,
+                                                           Serializer<StoreExitEvent> storeExitSerializer) {
+        JsonDeserializer<CourierLocationEvent> jsonDeserializer = new JsonDeserializer<>(CourierLocationEvent.class, objectMapper);
+        jsonDeserializer.setRemoveTypeHeaders(false);
+        jsonDeserializer.addTrustedPackages("com.melihcelik.couriertracking.domain.event");
+        return new CourierTrackingTopology(
+                objectMapper,
+                pingFilter,
+                new CompactEventDeserializer<>(new CourierLocationEventCodec(), jsonDeserializer),
+                storeEntrySerializer,
+                storeExitSerializer,
+                new CourierTrackingTopology.Settings(
+                        storeProximityRadius,
+                        exitMargin,
+                        Duration.ofSeconds(storeEntryCooldownSeconds),
+                        cellSize));
+    }
+
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer courierTrackingTopologyConfigurer(CourierTrackingTopology topology) {
+        return factoryBean -> {
+            factoryBean.setInfrastructureCustomizer(new KafkaStreamsInfrastructureCustomizer() {
+                @Override
+                public void configureTopology(Topology target) {
+                    topology.addTo(target);
+                }
+            });
+            // A failing thread is replaced; its tasks restart from the last committed offsets
+            factoryBean.setStreamsUncaughtExceptionHandler(exception -> {
+                log.error("Kafka Streams thread failed, replacing it", exception);
+                return StreamsUncaughtExceptionHandler.StreamThreadExceptionResponse.REPLACE_THREAD;
+            });
+        };
+    }
+
+    @Bean
+    public NewTopic courierStateTopic() {
+        return TopicBuilder.name(CourierTrackingTopology.COURIER_STATE_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT)
+                .build();
+    }
+
+    @Bean
+    public NewTopic storeCatalogTopic() {
+        return TopicBuilder.name(CourierTrackingTopology.STORE_CATALOG_TOPIC)
+                .partitions(1)
+                .replicas(1)
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT)
+                .build();
+    }
+
+    @Bean
+    public ProducerFactory<Long, Store> storeCatalogProducerFactory(ObjectMapper objectMapper) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        JsonSerializer<Store> serializer = new JsonSerializer<Store>(objectMapper).noTypeInfo();
+        return new DefaultKafkaProducerFactory<>(config, new LongSerializer(), serializer);
+    }
+
+    @Bean
+    public KafkaTemplate<Long, Store> storeCatalogKafkaTemplate(ProducerFactory<Long, Store> storeCatalogProducerFactory) {
+        return new KafkaTemplate<>(storeCatalogProducerFactory);
+    }
+
+    // Snapshots come from a transactional producer, so only committed ones are sunk
+    @Bean
+    public ConsumerFactory<String, Courier> courierStateConsumerFactory(ObjectMapper objectMapper) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "courier-tracking-sink");
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        JsonDeserializer<Courier> deserializer = new JsonDeserializer<>(Courier.class, objectMapper, false);
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), deserializer);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Courier> courierStateKafkaListenerContainerFactory(
+            ConsumerFactory<String, Courier> courierStateConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, Courier> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(courierStateConsumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+}
@@ -0,0 +1,27 @@
+package com.melihcelik.couriertracking.infrastructure.config;
+
+import com.melihcelik.couriertracking.infrastructure.rest.ApiEndpoints;
+import com.melihcelik.couriertracking.infrastructure.rest.CourierRequestRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the {@link CourierRequestRouter} in front of the courier reads answered
+ * from in-memory state. Routes and store entries come from the database and are
+ * served by whichever instance receives them.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RequestRoutingConfig implements WebMvcConfigurer {
+    private final ObjectProvider<CourierRequestRouter> courierRequestRouter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        courierRequestRouter.ifAvailable(router -> registry.addInterceptor(router).addPathPatterns(
+                ApiEndpoints.COURIERS + ApiEndpoints.GET_COURIER,
+                ApiEndpoints.COURIERS + ApiEndpoints.GET_TOTAL_TRAVEL_DISTANCE));
+    }
+}
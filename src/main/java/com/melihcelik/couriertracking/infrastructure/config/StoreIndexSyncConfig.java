@@ -0,0 +1,84 @@
+package com.melihcelik.couriertracking.infrastructure.config;
+
+import com.melihcelik.couriertracking.application.spatial.StoreSpatialIndex;
+import com.melihcelik.couriertracking.domain.model.Store;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the {@link StoreSpatialIndex} in sync with store changes made through JPA.
+ * Listeners fire after commit so the index never sees rolled back writes.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class StoreIndexSyncConfig {
+    private final EntityManagerFactory entityManagerFactory;
+    private final StoreSpatialIndex storeSpatialIndex;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        StoreChangeListener listener = new StoreChangeListener(storeSpatialIndex);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @RequiredArgsConstructor
+    static class StoreChangeListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+        private final StoreSpatialIndex storeSpatialIndex;
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Store store) {
+                storeSpatialIndex.upsert(store);
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Store store) {
+                storeSpatialIndex.upsert(store);
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Store store) {
+                storeSpatialIndex.remove(store.getId());
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return Store.class.equals(persister.getMappedClass());
+        }
+    }
+}
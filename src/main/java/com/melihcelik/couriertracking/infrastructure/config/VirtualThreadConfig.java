@@ -0,0 +1,37 @@
+package com.melihcelik.couriertracking.infrastructure.config;
+
+import com.melihcelik.couriertracking.infrastructure.persistence.ConnectionLimitingDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Extra wiring for spring.threads.virtual.enabled. Boot already moves Tomcat
+ * and the scheduler onto virtual threads and KafkaConfig does the same for
+ * the listener containers. Here the DataSource is capped so that an
+ * unbounded number of virtual threads cannot pile up on the connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource,
+                            environment.getProperty("courier-tracking.datasource.max-concurrent-connections", Integer.class, 10),
+                            environment.getProperty("courier-tracking.datasource.acquire-timeout", Long.class, 30000L));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,445 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.backfill.BackfillRequest;
+import com.melihcelik.couriertracking.application.backfill.BackfillStatus;
+import com.melihcelik.couriertracking.application.backfill.CourierReplayFold;
+import com.melihcelik.couriertracking.application.backfill.StoreEntryMode;
+import com.melihcelik.couriertracking.application.command.StoreEventOutbox;
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.query.CourierReadModel;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTracker;
+import com.melihcelik.couriertracking.application.state.CourierState;
+import com.melihcelik.couriertracking.application.state.CourierStateStore;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.exception.BackfillInProgressException;
+import com.melihcelik.couriertracking.domain.exception.InvalidBackfillException;
+import com.melihcelik.couriertracking.domain.repository.StoreEntryBackfillRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Recomputes odometers and store entries by replaying courier.location with a
+ * dedicated consumer group, outside the live listeners.
+ * Partitions are read in parallel, each folded by its own {@link CourierReplayFold},
+ * so nothing reaches the read model, position index, location history or outbox
+ * while a run is in progress. At the end, store entries staged in bulk are swapped
+ * into store_entry in one transaction and odometer corrections are written in one
+ * courier state flush. One run at a time.
+ * <p>
+ * Odometers are only recomputed over the whole retained history up to the live
+ * group's committed offsets. The live listeners are paused while those offsets
+ * and the odometer baseline are read, so both describe the same pings: each
+ * courier ends up with the recomputed distance plus whatever live processing
+ * adds after that point. The corrections are applied to this instance's in-memory
+ * odometers, so a recompute is only allowed while this instance's live listeners
+ * own every courier.location partition.
+ */
+@Slf4j
+@Component
+@Profile("!streams")
+@RequiredArgsConstructor
+public class CourierLocationBackfill {
+    static final String TOPIC = "courier.location";
+    static final String LIVE_GROUP = "courier-tracking-group";
+    private static final long PAUSE_CHECK_INTERVAL = 50;
+
+    private final ConsumerFactory<String, CourierLocationEvent> backfillConsumerFactory;
+    private final PingFilter pingFilter;
+    private final GeofenceTracker geofenceTracker;
+    private final CourierStateStore courierStateStore;
+    private final CourierReadModel courierReadModel;
+    private final StoreEntryBackfillRepository storeEntryBackfillRepository;
+    private final StoreEventOutbox storeEventOutbox;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Value("${courier-tracking.backfill.parallelism:3}")
+    private int parallelism;
+
+    @Value("${courier-tracking.backfill.poll-timeout:1000}")
+    private long pollTimeout;
+
+    @Value("${courier-tracking.backfill.write-batch-size:10000}")
+    private int writeBatchSize;
+
+    @Value("${courier-tracking.backfill.pause-timeout:30000}")
+    private long pauseTimeout;
+
+    @Value("${courier-tracking.store-entry-cooldown}")
+    private int storeEntryCooldown;
+
+    private final AtomicReference<Run> current = new AtomicReference<>();
+
+    /**
+     * Start a backfill in the background
+     * @param request Range and what to recompute
+     * @return Status of the started run
+     */
+    public BackfillStatus start(BackfillRequest request) {
+        validate(request);
+        if (request.recomputeDistances()) {
+            try (Consumer<String, CourierLocationEvent> consumer = backfillConsumerFactory.createConsumer()) {
+                requireLocallyOwned(partitions(consumer));
+            }
+        }
+        Run run = new Run(request, Instant.now());
+        Run previous = current.get();
+        if ((previous != null && previous.state == BackfillStatus.State.RUNNING) || !current.compareAndSet(previous, run)) {
+            throw new BackfillInProgressException();
+        }
+        Thread.ofPlatform().name("courier-backfill").daemon().start(() -> execute(run));
+        return run.status();
+    }
+
+    /**
+     * @return Status of the running or last finished run, empty if none ran since startup
+     */
+    public Optional<BackfillStatus> status() {
+        return Optional.ofNullable(current.get()).map(Run::status);
+    }
+
+    void execute(Run run) {
+        BackfillRequest request = run.request;
+        UUID backfillId = UUID.randomUUID();
+        log.info("Starting backfill - id: {}, request: {}", backfillId, request);
+        try {
+            Map<Long, Double> baseline = new HashMap<>();
+            List<PartitionRange> ranges = request.recomputeDistances()
+                    ? whileLivePaused(() -> {
+                        List<PartitionRange> resolved = resolveRanges(request);
+                        requireLocallyOwned(resolved.stream().map(PartitionRange::partition).toList());
+                        baseline.putAll(courierStateStore.totalTravelDistances());
+                        return resolved;
+                    })
+                    : resolveRanges(request);
+
+            List<CourierReplayFold> folds = replay(ranges, run, backfillId);
+
+            Map<Long, Double> distances = new HashMap<>();
+            Instant earliest = null;
+            Instant latest = null;
+            for (CourierReplayFold fold : folds) {
+                fold.distances().forEach((courierId, distance) -> distances.merge(courierId, distance, Double::sum));
+                if (fold.earliest() != null && (earliest == null || fold.earliest().isBefore(earliest))) {
+                    earliest = fold.earliest();
+                }
+                if (fold.latest() != null && (latest == null || fold.latest().isAfter(latest))) {
+                    latest = fold.latest();
+                }
+            }
+            run.couriers = distances.size();
+
+            if (request.storeEntries() == StoreEntryMode.REPLACE && earliest != null) {
+                Instant from = request.from() != null ? request.from() : earliest;
+                Instant to = request.to() != null ? request.to() : latest.plusMillis(1);
+                run.storeEntries.set(storeEntryBackfillRepository.swap(backfillId, distances.keySet(), from, to));
+            }
+            if (request.recomputeDistances()) {
+                Map<Long, Double> corrections = new HashMap<>();
+                distances.forEach((courierId, distance) ->
+                        corrections.put(courierId, distance - baseline.getOrDefault(courierId, 0.0)));
+                for (CourierState state : courierStateStore.adjustTotals(corrections)) {
+                    courierReadModel.update(state);
+                }
+            }
+            run.finish(BackfillStatus.State.COMPLETED, null);
+            log.info("Backfill completed - id: {}, events: {}, couriers: {}, storeEntries: {}",
+                    backfillId, run.eventsRead.get(), run.couriers, run.storeEntries.get());
+        } catch (Exception e) {
+            log.error("Backfill failed - id: {}", backfillId, e);
+            if (request.storeEntries() == StoreEntryMode.REPLACE) {
+                storeEntryBackfillRepository.discard(backfillId);
+            }
+            run.finish(BackfillStatus.State.FAILED, e.getMessage());
+        }
+    }
+
+    List<PartitionRange> resolveRanges(BackfillRequest request) {
+        try (Consumer<String, CourierLocationEvent> consumer = backfillConsumerFactory.createConsumer()) {
+            List<TopicPartition> partitions = partitions(consumer);
+            Map<TopicPartition, Long> beginnings = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> starts = offsets(consumer, partitions, request.fromOffsets(), request.from(), beginnings);
+            Map<TopicPartition, Long> stops = request.hasExplicitEnd()
+                    ? offsets(consumer, partitions, request.toOffsets(), request.to(), ends)
+                    : livePosition(partitions, ends);
+
+            List<PartitionRange> ranges = new ArrayList<>();
+            for (TopicPartition partition : partitions) {
+                long start = Math.max(starts.get(partition), beginnings.get(partition));
+                long end = Math.min(stops.get(partition), ends.get(partition));
+                if (start < end) {
+                    ranges.add(new PartitionRange(partition, start, end));
+                }
+            }
+            log.info("Resolved backfill ranges - ranges: {}", ranges);
+            return ranges;
+        }
+    }
+
+    private static List<TopicPartition> partitions(Consumer<String, CourierLocationEvent> consumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (PartitionInfo info : consumer.partitionsFor(TOPIC)) {
+            partitions.add(new TopicPartition(TOPIC, info.partition()));
+        }
+        return partitions;
+    }
+
+    /**
+     * Another owner would write its own odometers over the corrections, so every
+     * partition whose couriers get corrected must be assigned to this instance
+     */
+    private void requireLocallyOwned(Collection<TopicPartition> partitions) {
+        Set<TopicPartition> owned = new HashSet<>();
+        for (MessageListenerContainer container : liveContainers()) {
+            Collection<TopicPartition> assigned = container.getAssignedPartitions();
+            if (assigned != null) {
+                owned.addAll(assigned);
+            }
+        }
+        List<Integer> elsewhere = partitions.stream()
+                .filter(partition -> !owned.contains(partition))
+                .map(TopicPartition::partition)
+                .sorted()
+                .toList();
+        if (!elsewhere.isEmpty()) {
+            throw new InvalidBackfillException("odometers can only be recomputed on an instance that owns every "
+                    + TOPIC + " partition; partitions " + elsewhere + " are not assigned here");
+        }
+    }
+
+    private Map<TopicPartition, Long> offsets(Consumer<String, CourierLocationEvent> consumer, List<TopicPartition> partitions,
+                                             Map<Integer, Long> explicit, Instant time, Map<TopicPartition, Long> fallback) {
+        Map<TopicPartition, Long> offsets = new HashMap<>(fallback);
+        if (!explicit.isEmpty()) {
+            explicit.forEach((partition, offset) -> offsets.replace(new TopicPartition(TOPIC, partition), offset));
+            return offsets;
+        }
+        if (time != null) {
+            Map<TopicPartition, Long> query = new HashMap<>();
+            partitions.forEach(partition -> query.put(partition, time.toEpochMilli()));
+            // A partition with nothing at or after the time keeps its fallback, the end offset
+            consumer.offsetsForTimes(query).forEach((partition, found) -> {
+                if (found != null) {
+                    offsets.put(partition, found.offset());
+                }
+            });
+        }
+        return offsets;
+    }
+
+    private Map<TopicPartition, Long> livePosition(List<TopicPartition> partitions, Map<TopicPartition, Long> ends) {
+        Map<TopicPartition, Long> positions = new HashMap<>(ends);
+        try (Consumer<String, CourierLocationEvent> consumer = backfillConsumerFactory.createConsumer(LIVE_GROUP, null)) {
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            committed.forEach((partition, offset) -> {
+                if (offset != null) {
+                    positions.put(partition, offset.offset());
+                }
+            });
+        }
+        return positions;
+    }
+
+    /**
+     * Run an action while the live courier.location listeners are paused. A container
+     * only pauses after committing what it processed, so committed offsets and
+     * in-memory odometers read inside the action line up.
+     */
+    private <T> T whileLivePaused(Supplier<T> action) throws InterruptedException {
+        List<MessageListenerContainer> containers = liveContainers().stream()
+                .filter(container -> container.isRunning() && !container.isPauseRequested())
+                .toList();
+        containers.forEach(MessageListenerContainer::pause);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseTimeout);
+            while (!containers.stream().allMatch(MessageListenerContainer::isContainerPaused)) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Live listeners did not pause within " + pauseTimeout + " ms");
+                }
+                Thread.sleep(PAUSE_CHECK_INTERVAL);
+            }
+            return action.get();
+        } finally {
+            containers.forEach(MessageListenerContainer::resume);
+        }
+    }
+
+    private List<MessageListenerContainer> liveContainers() {
+        return kafkaListenerEndpointRegistry.getListenerContainers().stream()
+                .filter(container -> listensTo(container, TOPIC))
+                .toList();
+    }
+
+    private static boolean listensTo(MessageListenerContainer container, String topic) {
+        String[] topics = container.getContainerProperties().getTopics();
+        return topics != null && Arrays.asList(topics).contains(topic);
+    }
+
+    private List<CourierReplayFold> replay(List<PartitionRange> ranges, Run run, UUID backfillId)
+            throws InterruptedException, ExecutionException {
+        if (ranges.isEmpty()) {
+            return List.of();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, ranges.size())));
+        try {
+            List<Future<CourierReplayFold>> futures = new ArrayList<>();
+            for (PartitionRange range : ranges) {
+                futures.add(executor.submit(() -> replayPartition(range, run, backfillId)));
+            }
+            List<CourierReplayFold> folds = new ArrayList<>();
+            for (Future<CourierReplayFold> future : futures) {
+                folds.add(future.get());
+            }
+            return folds;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    CourierReplayFold replayPartition(PartitionRange range, Run run, UUID backfillId) {
+        StoreEntryMode mode = run.request.storeEntries();
+        CourierReplayFold fold = new CourierReplayFold(pingFilter.newInstance(), geofenceTracker.newInstance(),
+                Duration.ofSeconds(storeEntryCooldown), mode != StoreEntryMode.NONE);
+        List<StoreEntryEvent> pending = new ArrayList<>();
+        long skipped = 0;
+
+        try (Consumer<String, CourierLocationEvent> consumer = backfillConsumerFactory.createConsumer()) {
+            consumer.assign(List.of(range.partition()));
+            consumer.seek(range.partition(), range.start());
+            long position = range.start();
+            while (position < range.end()) {
+                ConsumerRecords<String, CourierLocationEvent> records = consumer.poll(Duration.ofMillis(pollTimeout));
+                for (ConsumerRecord<String, CourierLocationEvent> record : records) {
+                    if (record.offset() >= range.end()) {
+                        break;
+                    }
+                    position = record.offset() + 1;
+                    CourierLocationEvent event = record.value();
+                    // Null when the record could not be deserialized
+                    if (event == null || event.getCourierId() == null) {
+                        skipped++;
+                        continue;
+                    }
+                    if (event.getTimestamp() == null) {
+                        event.setTimestamp(Instant.ofEpochMilli(record.timestamp()));
+                    }
+                    fold.apply(event);
+                    run.eventsRead.incrementAndGet();
+                }
+                position = Math.max(position, Math.min(consumer.position(range.partition()), range.end()));
+
+                pending.addAll(fold.drainEntries());
+                if (pending.size() >= writeBatchSize) {
+                    write(mode, backfillId, pending);
+                }
+                consumer.commitSync(Map.of(range.partition(), new OffsetAndMetadata(position)));
+            }
+            write(mode, backfillId, pending);
+        }
+        log.info("Replayed partition - partition: {}, events: {}, skipped: {}",
+                range.partition().partition(), fold.eventsRead(), skipped);
+        return fold;
+    }
+
+    private void write(StoreEntryMode mode, UUID backfillId, List<StoreEntryEvent> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (mode == StoreEntryMode.REPLACE) {
+            storeEntryBackfillRepository.stage(backfillId, List.copyOf(entries));
+        } else if (mode == StoreEntryMode.PUBLISH) {
+            storeEventOutbox.append(entries.stream().map(storeEventOutbox::storeEntry).toList());
+        }
+        entries.clear();
+    }
+
+    private static void validate(BackfillRequest request) {
+        if (request.from() != null && !request.fromOffsets().isEmpty()) {
+            throw new InvalidBackfillException("give either from or fromOffsets");
+        }
+        if (request.to() != null && !request.toOffsets().isEmpty()) {
+            throw new InvalidBackfillException("give either to or toOffsets");
+        }
+        if (request.from() != null && request.to() != null && !request.from().isBefore(request.to())) {
+            throw new InvalidBackfillException("from must be before to");
+        }
+        if (request.recomputeDistances() && request.hasExplicitEnd()) {
+            throw new InvalidBackfillException("odometers can only be recomputed up to the live position; omit to and toOffsets");
+        }
+        // The recomputed distance replaces the whole odometer, so it has to cover all retained history
+        if (request.recomputeDistances() && request.hasExplicitStart()) {
+            throw new InvalidBackfillException("odometers can only be recomputed from the earliest retained record; "
+                    + "omit from and fromOffsets or set recomputeDistances to false");
+        }
+        if (!request.recomputeDistances() && request.storeEntries() == StoreEntryMode.NONE) {
+            throw new InvalidBackfillException("nothing to recompute");
+        }
+    }
+
+    /**
+     * Offsets [start, end) of one partition to replay
+     */
+    record PartitionRange(TopicPartition partition, long start, long end) {
+    }
+
+    static final class Run {
+        private final BackfillRequest request;
+        private final Instant startedAt;
+        private final AtomicLong eventsRead = new AtomicLong();
+        private final AtomicLong storeEntries = new AtomicLong();
+        private volatile int couriers;
+        private volatile BackfillStatus.State state = BackfillStatus.State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        Run(BackfillRequest request, Instant startedAt) {
+            this.request = request;
+            this.startedAt = startedAt;
+        }
+
+        void finish(BackfillStatus.State finalState, String message) {
+            error = message;
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        BackfillStatus status() {
+            return new BackfillStatus(state, request, startedAt, finishedAt,
+                    eventsRead.get(), couriers, storeEntries.get(), error);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.application.command.CourierLocationCommandService;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Profile("!streams")
+@ConditionalOnProperty(name = "courier-tracking.kafka.courier-location.batch.enabled", havingValue = "true")
+public class CourierLocationBatchConsumer {
+    private final CourierLocationCommandService commandService;
+    private final PipelineMetrics pipelineMetrics;
+
+    @KafkaListener(
+        topics = "courier.location",
+        groupId = "courier-tracking-group",
+        containerFactory = "courierLocationKafkaListenerContainerFactory"
+    )
+    public void consume(List<CourierLocationEvent> batch) {
+        // The ErrorHandlingDeserializer hands over undecodable records as null
+        List<CourierLocationEvent> events = batch.stream().filter(Objects::nonNull).toList();
+        if (events.size() < batch.size()) {
+            log.warn("Skipping {} undecodable courier locations in batch of {}", batch.size() - events.size(), batch.size());
+        }
+        for (CourierLocationEvent event : events) {
+            pipelineMetrics.recordReceived(event);
+        }
+        try {
+            log.debug("Received courier location batch - size: {}", events.size());
+            commandService.processCourierLocations(events);
+        } catch (Exception e) {
+            log.error("Error processing courier location batch - size: {}", events.size(), e);
+            // Don't rethrow the exception to prevent message redelivery
+        }
+    }
+}
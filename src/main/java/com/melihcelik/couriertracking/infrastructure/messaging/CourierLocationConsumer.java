@@ -1,17 +1,23 @@
 package com.melihcelik.couriertracking.infrastructure.messaging;
 
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
 import com.melihcelik.couriertracking.application.command.CourierLocationCommandService;
 import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@Profile("!streams")
+@ConditionalOnProperty(name = "courier-tracking.kafka.courier-location.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class CourierLocationConsumer {
     private final CourierLocationCommandService commandService;
+    private final PipelineMetrics pipelineMetrics;
 
     @KafkaListener(
         topics = "courier.location",
@@ -19,12 +25,9 @@ public class CourierLocationConsumer {
         containerFactory = "courierLocationKafkaListenerContainerFactory"
     )
     public void consume(CourierLocationEvent event) {
-        try {
-            log.debug("Received courier location event: {}", event);
-            commandService.processCourierLocation(event);
-        } catch (Exception e) {
-            log.error("Error processing courier location event: {}", event, e);
-            // Don't rethrow the exception to prevent message redelivery
-        }
+        pipelineMetrics.recordReceived(event);
+        log.debug("Received courier location event: {}", event);
+        // Failures propagate to the retry topics configured in KafkaConfig
+        commandService.processCourierLocation(event);
     }
 } 
\ No newline at end of file
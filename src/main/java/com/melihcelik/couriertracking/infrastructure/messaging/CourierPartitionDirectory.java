@@ -0,0 +1,149 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition to instance map of courier.location, read from the live consumer
+ * group. Every instance's location consumers carry its advertised address in
+ * their client ID (see {@link #clientId}), so the group coordinator's member
+ * list already says which address owns which partition; no extra topic or table
+ * is needed. Refreshed on a timer, so it may trail a rebalance by one interval.
+ */
+@Slf4j
+@Component
+@Profile("!streams")
+@ConditionalOnProperty(name = "courier-tracking.routing.enabled", havingValue = "true")
+public class CourierPartitionDirectory {
+    static final String GROUP_ID = "courier-tracking-group";
+    private static final String CLIENT_ID_PREFIX = "courier-tracking@";
+    // Listener containers append "-<n>" to the client ID
+    private static final Pattern MEMBER_ADDRESS = Pattern.compile("^" + CLIENT_ID_PREFIX + "([^@\\s]+?:\\d+)(-.*)?$");
+
+    private final Admin admin;
+    private final String advertisedAddress;
+    private final long requestTimeout;
+
+    private volatile Ownership ownership = new Ownership(Map.of(), 0);
+
+    @Autowired
+    public CourierPartitionDirectory(KafkaAdmin kafkaAdmin,
+                                     @Value("${courier-tracking.routing.advertised-address:localhost:8080}") String advertisedAddress,
+                                     @Value("${courier-tracking.routing.request-timeout:2000}") long requestTimeout) {
+        this(Admin.create(kafkaAdmin.getConfigurationProperties()), advertisedAddress, requestTimeout);
+    }
+
+    CourierPartitionDirectory(Admin admin, String advertisedAddress, long requestTimeout) {
+        this.admin = admin;
+        this.advertisedAddress = advertisedAddress;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * @param advertisedAddress host:port other instances reach this one at
+     * @return Client ID for the courier.location consumers of this instance
+     */
+    public static String clientId(String advertisedAddress) {
+        return CLIENT_ID_PREFIX + advertisedAddress;
+    }
+
+    @Scheduled(fixedDelayString = "${courier-tracking.routing.refresh-interval:5000}")
+    public void refresh() {
+        try {
+            ConsumerGroupDescription group = admin.describeConsumerGroups(List.of(GROUP_ID)).all()
+                    .get(requestTimeout, TimeUnit.MILLISECONDS).get(GROUP_ID);
+            TopicDescription topic = admin.describeTopics(List.of(CourierPartitioner.TOPIC)).allTopicNames()
+                    .get(requestTimeout, TimeUnit.MILLISECONDS).get(CourierPartitioner.TOPIC);
+
+            Map<Integer, String> owners = new HashMap<>();
+            for (MemberDescription member : group.members()) {
+                Matcher matcher = MEMBER_ADDRESS.matcher(member.clientId());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                for (TopicPartition partition : member.assignment().topicPartitions()) {
+                    if (CourierPartitioner.TOPIC.equals(partition.topic())) {
+                        owners.put(partition.partition(), matcher.group(1));
+                    }
+                }
+            }
+            ownership = new Ownership(Map.copyOf(owners), topic.partitions().size());
+            log.debug("Refreshed courier partition owners - owners: {}", owners);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Could not refresh courier partition owners: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Find where a courier's state lives when it is not here
+     * @param courierId Courier ID
+     * @return Address of the owning instance, empty if this instance owns the courier or the owner is unknown
+     */
+    public Optional<String> remoteOwnerOf(Long courierId) {
+        Ownership current = ownership;
+        if (current.partitionCount() == 0) {
+            return Optional.empty();
+        }
+        String owner = current.owners().get(CourierPartitioner.partitionOf(courierId, current.partitionCount()));
+        if (owner == null || owner.equals(advertisedAddress)) {
+            return Optional.empty();
+        }
+        return Optional.of(owner);
+    }
+
+    /**
+     * @return Addresses of the other instances owning courier.location partitions as of
+     *         the last refresh, empty if some partition has no known owner
+     */
+    public Optional<Set<String>> remoteOwners() {
+        Ownership current = ownership;
+        if (current.partitionCount() == 0 || current.owners().size() < current.partitionCount()) {
+            return Optional.empty();
+        }
+        Set<String> remote = new HashSet<>(current.owners().values());
+        remote.remove(advertisedAddress);
+        return Optional.of(remote);
+    }
+
+    /**
+     * @return Owner address by courier.location partition, as of the last refresh
+     */
+    public Map<Integer, String> owners() {
+        return ownership.owners();
+    }
+
+    @PreDestroy
+    public void close() {
+        admin.close(Duration.ofSeconds(1));
+    }
+
+    private record Ownership(Map<Integer, String> owners, int partitionCount) {
+    }
+}
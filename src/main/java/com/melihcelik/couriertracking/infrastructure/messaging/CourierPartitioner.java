@@ -0,0 +1,23 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Partition a courier's events land on in courier.location. Producers key by
+ * the courier ID as a string, so this is the default partitioner's murmur2 hash
+ * of that key; it must change together with the record key.
+ */
+public final class CourierPartitioner {
+    public static final String TOPIC = "courier.location";
+
+    private CourierPartitioner() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static int partitionOf(Long courierId, int partitionCount) {
+        byte[] key = String.valueOf(courierId).getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % partitionCount;
+    }
+}
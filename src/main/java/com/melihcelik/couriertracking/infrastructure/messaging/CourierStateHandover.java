@@ -0,0 +1,96 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.query.CourierReadModel;
+import com.melihcelik.couriertracking.application.spatial.CourierPositionIndex;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTracker;
+import com.melihcelik.couriertracking.application.state.CourierStateStore;
+import com.melihcelik.couriertracking.application.state.StoreEntryCooldownTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps in-memory courier state limited to the courier.location partitions this
+ * instance owns. When a partition is revoked, its couriers are flushed before the
+ * offsets are committed and then dropped, so the next owner resumes from the
+ * committed offsets with a matching courier table. If the flush fails the
+ * couriers are still dropped, but the listener throws so the offsets are not
+ * committed and the next owner replays the unwritten pings. Assigned partitions load
+ * lazily on the first ping; the entry cooldown is re-warmed so a handed-over
+ * courier does not re-enter a store it just entered on the previous owner.
+ * Partitions only move when they change owner because the live consumer uses
+ * cooperative rebalancing (see KafkaConfig).
+ */
+@Slf4j
+@Component
+@Profile("!streams")
+@RequiredArgsConstructor
+public class CourierStateHandover implements ConsumerAwareRebalanceListener {
+    private final CourierStateStore courierStateStore;
+    private final CourierReadModel courierReadModel;
+    private final CourierPositionIndex courierPositionIndex;
+    private final PingFilter pingFilter;
+    private final GeofenceTracker geofenceTracker;
+    private final StoreEntryCooldownTracker storeEntryCooldownTracker;
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(consumer, partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        release(consumer, partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Set<Integer> assigned = courierPartitions(partitions);
+        if (assigned.isEmpty()) {
+            return;
+        }
+        log.info("Courier partitions assigned - partitions: {}", assigned);
+        storeEntryCooldownTracker.warmUp(Instant.now());
+    }
+
+    private void release(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Set<Integer> revoked = courierPartitions(partitions);
+        if (revoked.isEmpty()) {
+            return;
+        }
+        int partitionCount = consumer.partitionsFor(CourierPartitioner.TOPIC).size();
+        List<Long> couriers = courierStateStore.courierIds(
+                courierId -> revoked.contains(CourierPartitioner.partitionOf(courierId, partitionCount)));
+        try {
+            // Throws when the couriers could not be written, which keeps their offsets uncommitted
+            courierStateStore.release(couriers);
+        } finally {
+            for (Long courierId : couriers) {
+                courierReadModel.evict(courierId);
+                courierPositionIndex.remove(courierId);
+                pingFilter.forget(courierId);
+                geofenceTracker.forget(courierId);
+            }
+        }
+        log.info("Courier partitions handed over - partitions: {}, couriers: {}", revoked, couriers.size());
+    }
+
+    // Retry topic containers share the listener factory; only the main topic carries ownership
+    private static Set<Integer> courierPartitions(Collection<TopicPartition> partitions) {
+        return partitions.stream()
+                .filter(partition -> CourierPartitioner.TOPIC.equals(partition.topic()))
+                .map(TopicPartition::partition)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,60 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.query.CourierReadModel;
+import com.melihcelik.couriertracking.application.query.CourierView;
+import com.melihcelik.couriertracking.application.spatial.CourierPositionIndex;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.repository.CourierRepository;
+import com.melihcelik.couriertracking.infrastructure.streams.CourierTrackingTopology;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes courier snapshots produced by the streams topology to the courier table.
+ * Only the latest snapshot of each courier in a poll is written.
+ */
+@Slf4j
+@Component
+@Profile("streams")
+@RequiredArgsConstructor
+public class CourierStateSink {
+    private final CourierRepository courierRepository;
+    private final CourierReadModel courierReadModel;
+    private final CourierPositionIndex courierPositionIndex;
+
+    @KafkaListener(
+        topics = CourierTrackingTopology.COURIER_STATE_TOPIC,
+        groupId = "courier-tracking-sink",
+        containerFactory = "courierStateKafkaListenerContainerFactory"
+    )
+    public void consume(List<Courier> snapshots) {
+        Map<Long, Courier> latest = new LinkedHashMap<>();
+        snapshots.stream()
+                .filter(Objects::nonNull)
+                .filter(courier -> courier.getId() != null)
+                .forEach(courier -> latest.put(courier.getId(), courier));
+        if (latest.isEmpty()) {
+            return;
+        }
+        // Failures propagate so the container redelivers the poll; snapshots are absolute, so rewrites are harmless
+        courierRepository.upsertAll(latest.values());
+        // Snapshots carry no event time, so positions are indexed as of the write
+        Instant now = Instant.now();
+        for (Courier courier : latest.values()) {
+            courierReadModel.put(CourierView.of(courier));
+            if (courier.getLastLatitude() != null && courier.getLastLongitude() != null) {
+                courierPositionIndex.update(courier.getId(), courier.getLastLatitude(), courier.getLastLongitude(), now);
+            }
+        }
+        log.debug("Courier snapshots written - received: {}, written: {}", snapshots.size(), latest.size());
+    }
+}
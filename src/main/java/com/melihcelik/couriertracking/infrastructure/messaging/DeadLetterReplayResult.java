@@ -0,0 +1,8 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+/**
+ * Outcome of a DLT replay
+ * @param replayed Records published back to the original topic
+ */
+public record DeadLetterReplayResult(String topic, int replayed) {
+}
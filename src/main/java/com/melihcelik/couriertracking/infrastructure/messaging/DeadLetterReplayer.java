@@ -0,0 +1,129 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.domain.exception.UnknownTopicException;
+import com.melihcelik.couriertracking.infrastructure.config.KafkaConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes records from a dead-letter topic back to the topic they failed on.
+ * Retry and DLT headers are dropped so replayed records get a fresh set of attempts.
+ * Offsets are committed only after every replayed record is acknowledged, so a
+ * failed replay is repeated rather than lost; records may be replayed twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeadLetterReplayer {
+    static final Set<String> REPLAYABLE_TOPICS = Set.of("courier.location", "store.entry");
+    private static final String DLT_HEADER_PREFIX = "kafka_dlt-";
+    private static final String RETRY_HEADER_PREFIX = "retry_topic-";
+
+    private final ConsumerFactory<String, byte[]> deadLetterConsumerFactory;
+    private final KafkaTemplate<String, byte[]> outboxKafkaTemplate;
+
+    @Value("${courier-tracking.kafka.dlt-replay.max-records:10000}")
+    private int maxRecords;
+
+    @Value("${courier-tracking.kafka.dlt-replay.poll-timeout:1000}")
+    private long pollTimeout;
+
+    @Value("${courier-tracking.outbox.send-timeout:10000}")
+    private long sendTimeout;
+
+    /**
+     * Replay up to limit records from the topic's DLT, oldest first per partition
+     * @param topic Original topic
+     * @param limit Maximum records to replay, clamped to the configured maximum
+     * @return Number of records replayed
+     */
+    public synchronized DeadLetterReplayResult replay(String topic, int limit) {
+        if (!REPLAYABLE_TOPICS.contains(topic)) {
+            throw new UnknownTopicException(topic);
+        }
+        int max = Math.max(1, Math.min(limit, maxRecords));
+        String deadLetterTopic = topic + KafkaConfig.DLT_SUFFIX;
+
+        try (Consumer<String, byte[]> consumer = deadLetterConsumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(deadLetterTopic);
+            if (partitions == null || partitions.isEmpty()) {
+                return new DeadLetterReplayResult(topic, 0);
+            }
+            consumer.assign(partitions.stream()
+                    .map(partition -> new TopicPartition(deadLetterTopic, partition.partition()))
+                    .toList());
+
+            List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            while (sends.size() < max) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(pollTimeout));
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (sends.size() >= max) {
+                        break;
+                    }
+                    sends.add(outboxKafkaTemplate.send(new ProducerRecord<>(
+                            topic, null, record.key(), record.value(), replayHeaders(record))));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+            if (sends.isEmpty()) {
+                return new DeadLetterReplayResult(topic, 0);
+            }
+
+            awaitAcks(sends);
+            consumer.commitSync(offsets);
+            log.info("Replayed dead letters - topic: {}, records: {}", topic, sends.size());
+            return new DeadLetterReplayResult(topic, sends.size());
+        }
+    }
+
+    private void awaitAcks(List<CompletableFuture<SendResult<String, byte[]>>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying dead letters", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Dead letter replay was not acknowledged", e);
+        }
+    }
+
+    private static RecordHeaders replayHeaders(ConsumerRecord<String, byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(DLT_HEADER_PREFIX) && !header.key().startsWith(RETRY_HEADER_PREFIX)) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,115 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.domain.model.OutboxEvent;
+import com.melihcelik.couriertracking.domain.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox table to Kafka.
+ * Each batch is sent without waiting per record and deleted only after every
+ * send is acknowledged. A failed batch rolls back and is retried on the next
+ * run, so delivery is at least once.
+ * <p>
+ * Only one relay runs at a time across instances, guarded by a Postgres advisory
+ * lock. A courier's events are appended by one thread, each after the previous
+ * one committed, so publishing in insert order (relay_seq) keeps a courier's
+ * ENTER ahead of its EXIT.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    static final long RELAY_LOCK = 0x6f7574626f78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PipelineMetrics pipelineMetrics;
+
+    @Value("${courier-tracking.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${courier-tracking.outbox.send-timeout:10000}")
+    private long sendTimeout;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, byte[]> outboxKafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       PipelineMetrics pipelineMetrics) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    @Scheduled(fixedDelayString = "${courier-tracking.outbox.relay-interval:200}")
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed, batch will be retried", e);
+        }
+    }
+
+    /**
+     * Publish and delete one batch of outbox events
+     * @return Number of events relayed
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            if (!outboxEventRepository.tryAdvisoryLock(RELAY_LOCK)) {
+                log.debug("Outbox relay running on another instance");
+                return 0;
+            }
+            List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            Timer.Sample sample = pipelineMetrics.startTimer();
+
+            List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                sends.add(outboxKafkaTemplate.send(
+                        new ProducerRecord<>(event.getTopic(), event.getEventKey(), event.getPayload())));
+            }
+            outboxKafkaTemplate.flush();
+            awaitAll(sends);
+
+            outboxEventRepository.deleteAllInBatch(events);
+            pipelineMetrics.recordOutboxRelay(sample, events.size());
+            log.debug("Relayed outbox events - count: {}", events.size());
+            return events.size();
+        });
+        return relayed != null ? relayed : 0;
+    }
+
+    private void awaitAll(List<CompletableFuture<SendResult<String, byte[]>>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to relay outbox events", e);
+        }
+    }
+}
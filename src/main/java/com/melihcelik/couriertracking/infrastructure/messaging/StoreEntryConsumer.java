@@ -19,12 +19,8 @@ public class StoreEntryConsumer {
         containerFactory = "storeEntryKafkaListenerContainerFactory"
     )
     public void consume(StoreEntryEvent event) {
-        try {
-            log.debug("Received store entry event: {}", event);
-            commandService.processStoreEntry(event);
-        } catch (Exception e) {
-            log.error("Error processing store entry event: {}", event, e);
-            // Don't rethrow the exception to prevent message redelivery
-        }
+        log.debug("Received store entry event: {}", event);
+        // Failures propagate to the retry topics configured in KafkaConfig
+        commandService.processStoreEntry(event);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Reads compact records and falls back to the JSON deserializer for anything
+ * else, so producers can switch formats while old records are still in flight.
+ * @param <T> Event type
+ */
+public class CompactEventDeserializer<T> implements Deserializer<T> {
+    private final EventCodec<T> codec;
+    private final Deserializer<T> fallback;
+
+    public CompactEventDeserializer(EventCodec<T> codec, Deserializer<T> fallback) {
+        this.codec = codec;
+        this.fallback = fallback;
+    }
+
+    public Deserializer<T> getFallback() {
+        return fallback;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        fallback.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (isCompact(data)) {
+            return decode(data);
+        }
+        return fallback.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (isCompact(data)) {
+            return decode(data);
+        }
+        return fallback.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        fallback.close();
+    }
+
+    private boolean isCompact(byte[] data) {
+        return data != null && data.length > 1 && data[0] == CompactEventSerializer.MAGIC;
+    }
+
+    private T decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+        byte version = buffer.get();
+        try {
+            return codec.decode(version, buffer);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to decode compact event, version " + version, e);
+        }
+    }
+}
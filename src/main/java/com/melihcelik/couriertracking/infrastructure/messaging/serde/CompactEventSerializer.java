@@ -0,0 +1,33 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes events as {@code [MAGIC][version][fixed layout payload]}.
+ * @param <T> Event type
+ */
+public class CompactEventSerializer<T> implements Serializer<T> {
+    /** First byte of every compact record. JSON payloads start with '{' and never collide. */
+    public static final byte MAGIC = (byte) 0xC7;
+
+    private final EventCodec<T> codec;
+
+    public CompactEventSerializer(EventCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        byte[] bytes = new byte[2 + codec.encodedSize(data)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.put(MAGIC);
+        buffer.put(codec.version());
+        codec.encode(data, buffer);
+        return bytes;
+    }
+}
@@ -0,0 +1,46 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Version 1 layout (36 bytes):
+ * courierId long, latitude double, longitude double, epoch seconds long, nanos int.
+ * Missing values are written as sentinels ({@link Long#MIN_VALUE} / NaN).
+ */
+public class CourierLocationEventCodec implements EventCodec<CourierLocationEvent> {
+    private static final byte VERSION_1 = 1;
+
+    @Override
+    public byte version() {
+        return VERSION_1;
+    }
+
+    @Override
+    public int encodedSize(CourierLocationEvent event) {
+        return Long.BYTES + Double.BYTES * 2 + EventCodecs.INSTANT_BYTES;
+    }
+
+    @Override
+    public void encode(CourierLocationEvent event, ByteBuffer buffer) {
+        EventCodecs.putLong(buffer, event.getCourierId());
+        EventCodecs.putDouble(buffer, event.getLatitude());
+        EventCodecs.putDouble(buffer, event.getLongitude());
+        EventCodecs.putInstant(buffer, event.getTimestamp());
+    }
+
+    @Override
+    public CourierLocationEvent decode(byte version, ByteBuffer buffer) {
+        if (version != VERSION_1) {
+            throw new SerializationException("Unsupported courier location event version: " + version);
+        }
+        return CourierLocationEvent.builder()
+                .courierId(EventCodecs.getLong(buffer))
+                .latitude(EventCodecs.getDouble(buffer))
+                .longitude(EventCodecs.getDouble(buffer))
+                .timestamp(EventCodecs.getInstant(buffer))
+                .build();
+    }
+}
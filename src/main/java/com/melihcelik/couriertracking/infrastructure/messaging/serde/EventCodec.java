@@ -0,0 +1,31 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-layout binary codec for a single event type.
+ * @param <T> Event type
+ */
+public interface EventCodec<T> {
+
+    /**
+     * @return Layout version written by {@link #encode}
+     */
+    byte version();
+
+    /**
+     * @param event Event to encode
+     * @return Number of bytes {@link #encode} will write for the event
+     */
+    int encodedSize(T event);
+
+    void encode(T event, ByteBuffer buffer);
+
+    /**
+     * Decode an event written with the given layout version
+     * @param version Layout version read from the record
+     * @param buffer Buffer positioned after the version byte
+     * @return Decoded event
+     */
+    T decode(byte version, ByteBuffer buffer);
+}
@@ -0,0 +1,82 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Field helpers shared by the event codecs. Nullable fields are written as sentinels.
+ */
+final class EventCodecs {
+    static final int INSTANT_BYTES = Long.BYTES + Integer.BYTES;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private EventCodecs() {
+        // Utility class
+    }
+
+    static void putLong(ByteBuffer buffer, Long value) {
+        buffer.putLong(value != null ? value : NULL_LONG);
+    }
+
+    static Long getLong(ByteBuffer buffer) {
+        long value = buffer.getLong();
+        return value != NULL_LONG ? value : null;
+    }
+
+    static void putDouble(ByteBuffer buffer, Double value) {
+        buffer.putDouble(value != null ? value : Double.NaN);
+    }
+
+    static Double getDouble(ByteBuffer buffer) {
+        double value = buffer.getDouble();
+        return Double.isNaN(value) ? null : value;
+    }
+
+    static void putInstant(ByteBuffer buffer, Instant value) {
+        if (value == null) {
+            buffer.putLong(NULL_LONG);
+            buffer.putInt(0);
+        } else {
+            buffer.putLong(value.getEpochSecond());
+            buffer.putInt(value.getNano());
+        }
+    }
+
+    static Instant getInstant(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds != NULL_LONG ? Instant.ofEpochSecond(seconds, nanos) : null;
+    }
+
+    static int stringSize(String value) {
+        return Integer.BYTES + (value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0);
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        // The length comes off the wire, so check it before allocating
+        if (length > buffer.remaining()) {
+            throw new SerializationException("String length " + length + " exceeds remaining " + buffer.remaining() + " bytes");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import java.util.Locale;
+
+/**
+ * Wire format used when publishing events to a topic.
+ * Consumers always accept both formats.
+ */
+public enum EventFormat {
+    JSON,
+    COMPACT;
+
+    public static EventFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return JSON;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,50 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Version 1 layout: courierId long, storeId long, latitude double, longitude double,
+ * epoch seconds long, nanos int, storeName as int length (-1 for null) plus UTF-8 bytes.
+ */
+public class StoreEntryEventCodec implements EventCodec<StoreEntryEvent> {
+    private static final byte VERSION_1 = 1;
+
+    @Override
+    public byte version() {
+        return VERSION_1;
+    }
+
+    @Override
+    public int encodedSize(StoreEntryEvent event) {
+        return Long.BYTES * 2 + Double.BYTES * 2 + EventCodecs.INSTANT_BYTES
+                + EventCodecs.stringSize(event.getStoreName());
+    }
+
+    @Override
+    public void encode(StoreEntryEvent event, ByteBuffer buffer) {
+        EventCodecs.putLong(buffer, event.getCourierId());
+        EventCodecs.putLong(buffer, event.getStoreId());
+        EventCodecs.putDouble(buffer, event.getLatitude());
+        EventCodecs.putDouble(buffer, event.getLongitude());
+        EventCodecs.putInstant(buffer, event.getTimestamp());
+        EventCodecs.putString(buffer, event.getStoreName());
+    }
+
+    @Override
+    public StoreEntryEvent decode(byte version, ByteBuffer buffer) {
+        if (version != VERSION_1) {
+            throw new SerializationException("Unsupported store entry event version: " + version);
+        }
+        return StoreEntryEvent.builder()
+                .courierId(EventCodecs.getLong(buffer))
+                .storeId(EventCodecs.getLong(buffer))
+                .latitude(EventCodecs.getDouble(buffer))
+                .longitude(EventCodecs.getDouble(buffer))
+                .timestamp(EventCodecs.getInstant(buffer))
+                .storeName(EventCodecs.getString(buffer))
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.melihcelik.couriertracking.infrastructure.persistence;
+
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import com.melihcelik.couriertracking.domain.repository.LocationHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Location history backed by the partitioned courier_location_history table.
+ * Points are streamed with the PostgreSQL COPY protocol, so a batch is one
+ * round trip and no per-row statement or entity overhead.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CopyLocationHistoryRepository implements LocationHistoryRepository {
+    static final String COPY_SQL =
+            "COPY courier_location_history (courier_id, latitude, longitude, recorded_at) FROM STDIN";
+    private static final String ROUTE_SQL =
+            "SELECT courier_id, latitude, longitude, recorded_at FROM courier_location_history " +
+            "WHERE courier_id = ? AND recorded_at >= ? AND recorded_at < ? ORDER BY recorded_at";
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void appendAll(Collection<LocationPoint> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection ->
+                copy(connection.unwrap(PGConnection.class), points));
+    }
+
+    @Override
+    public List<LocationPoint> findRoute(Long courierId, Instant from, Instant to) {
+        return jdbcTemplate.query(ROUTE_SQL,
+                (rs, rowNum) -> new LocationPoint(
+                        rs.getLong("courier_id"),
+                        rs.getDouble("latitude"),
+                        rs.getDouble("longitude"),
+                        rs.getTimestamp("recorded_at").toInstant()),
+                courierId, Timestamp.from(from), Timestamp.from(to));
+    }
+
+    private long copy(PGConnection connection, Collection<LocationPoint> points) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder chunk = new StringBuilder(CHUNK_BYTES);
+            for (LocationPoint point : points) {
+                appendRow(chunk, point);
+                if (chunk.length() >= CHUNK_BYTES) {
+                    write(copyIn, chunk);
+                }
+            }
+            write(copyIn, chunk);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Encode one row in COPY text format. Values are numbers and ISO-8601
+     * instants, so nothing needs escaping.
+     */
+    static void appendRow(StringBuilder out, LocationPoint point) {
+        out.append(point.courierId()).append('\t')
+                .append(point.latitude()).append('\t')
+                .append(point.longitude()).append('\t')
+                .append(point.recordedAt()).append('\n');
+    }
+
+    private void write(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.US_ASCII);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+}
@@ -0,0 +1,113 @@
+package com.melihcelik.couriertracking.infrastructure.persistence;
+
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.repository.StoreEntryBackfillRepository;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Staging for backfilled store entries. Entries are streamed into the unlogged
+ * store_entry_backfill table with COPY while partitions are replayed, then
+ * swapped into store_entry with one delete and one insert-select.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CopyStoreEntryBackfillRepository implements StoreEntryBackfillRepository {
+    static final String COPY_SQL = "COPY store_entry_backfill " +
+            "(backfill_id, courier_id, store_id, entry_time, entry_latitude, entry_longitude) FROM STDIN";
+    static final String DELETE_LIVE_SQL = "DELETE FROM store_entry " +
+            "WHERE courier_id = ANY (?) AND entry_time >= ? AND entry_time < ?";
+    // Couriers or stores removed since the events were recorded are skipped rather than failing the swap
+    static final String INSERT_STAGED_SQL = "INSERT INTO store_entry " +
+            "(courier_id, store_id, entry_time, entry_latitude, entry_longitude) " +
+            "SELECT b.courier_id, b.store_id, b.entry_time, b.entry_latitude, b.entry_longitude " +
+            "FROM store_entry_backfill b " +
+            "WHERE b.backfill_id = ? " +
+            "AND EXISTS (SELECT 1 FROM courier c WHERE c.id = b.courier_id) " +
+            "AND EXISTS (SELECT 1 FROM store s WHERE s.id = b.store_id) " +
+            "ORDER BY b.entry_time";
+    static final String DISCARD_SQL = "DELETE FROM store_entry_backfill WHERE backfill_id = ?";
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void stage(UUID backfillId, Collection<StoreEntryEvent> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection ->
+                copy(connection.unwrap(PGConnection.class), backfillId, entries));
+    }
+
+    @Override
+    @Transactional
+    public int swap(UUID backfillId, Collection<Long> courierIds, Instant from, Instant to) {
+        jdbcTemplate.update(DELETE_LIVE_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", courierIds.toArray()));
+            ps.setTimestamp(2, Timestamp.from(from));
+            ps.setTimestamp(3, Timestamp.from(to));
+        });
+        int inserted = jdbcTemplate.update(INSERT_STAGED_SQL, backfillId);
+        jdbcTemplate.update(DISCARD_SQL, backfillId);
+        return inserted;
+    }
+
+    @Override
+    public void discard(UUID backfillId) {
+        jdbcTemplate.update(DISCARD_SQL, backfillId);
+    }
+
+    private long copy(PGConnection connection, UUID backfillId, Collection<StoreEntryEvent> entries) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder chunk = new StringBuilder(CHUNK_BYTES);
+            for (StoreEntryEvent entry : entries) {
+                appendRow(chunk, backfillId, entry);
+                if (chunk.length() >= CHUNK_BYTES) {
+                    write(copyIn, chunk);
+                }
+            }
+            write(copyIn, chunk);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Encode one row in COPY text format. Values are a UUID, numbers and
+     * ISO-8601 instants, so nothing needs escaping.
+     */
+    static void appendRow(StringBuilder out, UUID backfillId, StoreEntryEvent entry) {
+        out.append(backfillId).append('\t')
+                .append(entry.getCourierId()).append('\t')
+                .append(entry.getStoreId()).append('\t')
+                .append(entry.getTimestamp()).append('\t')
+                .append(entry.getLatitude()).append('\t')
+                .append(entry.getLongitude()).append('\n');
+    }
+
+    private void write(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.US_ASCII);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+}
@@ -0,0 +1,98 @@
+package com.melihcelik.couriertracking.infrastructure.persistence;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the daily partitions of courier_location_history.
+ * Partitions are created a few days ahead so pings never land in the default
+ * partition during normal operation, and partitions older than the retention
+ * period are dropped as a whole instead of deleting rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocationHistoryPartitionManager {
+    static final String TABLE = "courier_location_history";
+    static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{8})");
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = '" + TABLE + "'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${courier-tracking.location-history.precreate-days:3}")
+    private int precreateDays;
+
+    @Value("${courier-tracking.location-history.retention-days:30}")
+    private int retentionDays;
+
+    @PostConstruct
+    public void init() {
+        maintain(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    @Scheduled(cron = "${courier-tracking.location-history.maintenance-cron:0 5 0 * * *}", zone = "UTC")
+    public void maintain() {
+        maintain(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Create missing partitions from today up to the pre-create horizon and drop expired ones
+     * @param today Current UTC date
+     */
+    public void maintain(LocalDate today) {
+        for (int day = 0; day <= precreateDays; day++) {
+            createPartition(today.plusDays(day));
+        }
+        dropExpiredPartitions(today.minusDays(retentionDays));
+    }
+
+    private void createPartition(LocalDate day) {
+        String sql = "CREATE TABLE IF NOT EXISTS " + partitionName(day) +
+                " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('" + day.plusDays(1) + " 00:00:00+00')";
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            // Fails when the default partition already holds rows for this day
+            log.error("Failed to create location history partition - day: {}", day, e);
+        }
+    }
+
+    private void dropExpiredPartitions(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (matcher.matches() && LocalDate.parse(matcher.group(1), SUFFIX).isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped expired location history partition - partition: {}", partition);
+            }
+        }
+        // Stragglers outside the daily partitions are few, so the default partition is pruned by row
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE recorded_at < ?",
+                Timestamp.from(cutoff.atStartOfDay(ZoneOffset.UTC).toInstant()));
+    }
+
+    static String partitionName(LocalDate day) {
+        return TABLE + "_p" + day.format(SUFFIX);
+    }
+}
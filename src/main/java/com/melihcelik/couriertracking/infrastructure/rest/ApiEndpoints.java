@@ -6,9 +6,21 @@ public final class ApiEndpoints {
     }
     public static final String API_BASE = "/api/v1";
     public static final String COURIERS = API_BASE + "/couriers";
+    public static final String STORES = API_BASE + "/stores";
+    public static final String STORE_ENTRIES = API_BASE + "/store-entries";
+    public static final String DEAD_LETTERS = API_BASE + "/dead-letters";
+    public static final String BACKFILLS = API_BASE + "/backfills";
 
 
     public static final String REPORT_LOCATION = "/{courierId}/locations";
+    public static final String REPORT_LOCATIONS_BULK = "/locations/bulk";
     public static final String GET_COURIER = "/{courierId}";
     public static final String GET_TOTAL_TRAVEL_DISTANCE = "/{courierId}/total-travel-distance";
+    public static final String GET_ROUTE = "/{courierId}/route";
+    public static final String GET_NEARBY_COURIERS = "/near";
+    public static final String GET_COURIER_STORE_ENTRIES = "/{courierId}/store-entries";
+    public static final String GET_STORE_COURIERS = "/{storeId}/couriers";
+    public static final String GET_STORE_ENTRIES = "/{storeId}/entries";
+    public static final String REPLAY_DEAD_LETTERS = "/{topic}/replay";
+    public static final String CURRENT_BACKFILL = "/current";
 } 
\ No newline at end of file
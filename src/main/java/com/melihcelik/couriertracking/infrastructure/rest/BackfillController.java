@@ -0,0 +1,36 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.application.backfill.BackfillRequest;
+import com.melihcelik.couriertracking.application.backfill.BackfillStatus;
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierLocationBackfill;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Profile("!streams")
+@RequestMapping(ApiEndpoints.BACKFILLS)
+@RequiredArgsConstructor
+@Tag(name = "Backfill API", description = "API endpoints for replaying courier location history")
+public class BackfillController {
+    private final CourierLocationBackfill courierLocationBackfill;
+
+    @PostMapping
+    @Operation(summary = "Start a backfill",
+            description = "Replay courier.location over a time or offset range and recompute odometers and store entries")
+    public ResponseEntity<BackfillStatus> start(@RequestBody BackfillRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(courierLocationBackfill.start(request));
+    }
+
+    @GetMapping(ApiEndpoints.CURRENT_BACKFILL)
+    @Operation(summary = "Get backfill status", description = "Status of the running or last finished backfill")
+    public ResponseEntity<BackfillStatus> current() {
+        return courierLocationBackfill.status()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,231 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.infrastructure.rest.BulkLocationResponse.RecordResult;
+import com.melihcelik.couriertracking.infrastructure.rest.BulkLocationResponse.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Streams a JSON array or NDJSON body of location records, validating each
+ * record as it is read and publishing valid ones without waiting. Only the
+ * pending sends are kept in memory, never the parsed request. Reading stops
+ * at the record limit.
+ */
+@Slf4j
+@Component
+public class BulkLocationIngestor {
+    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, CourierLocationEvent> bulkLocationKafkaTemplate;
+
+    @Value("${courier-tracking.bulk-ingest.max-records:10000}")
+    private int maxRecords;
+
+    @Value("${courier-tracking.bulk-ingest.send-timeout:10000}")
+    private long sendTimeout;
+
+    public BulkLocationIngestor(ObjectMapper objectMapper,
+                                @Qualifier("bulkLocationKafkaTemplate")
+                                KafkaTemplate<String, CourierLocationEvent> bulkLocationKafkaTemplate) {
+        this.objectMapper = objectMapper;
+        this.bulkLocationKafkaTemplate = bulkLocationKafkaTemplate;
+    }
+
+    /**
+     * Read, validate and publish all records in the body
+     * @param body JSON array of records, or one record object per line
+     * @return Counts and the records that were not published
+     */
+    public BulkLocationResponse ingest(InputStream body) throws IOException {
+        List<RecordResult> failures = new ArrayList<>();
+        List<PendingSend> sends = new ArrayList<>();
+        Instant receivedAt = Instant.now();
+        int received = 0;
+        boolean inRecord = false;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (received == maxRecords) {
+                    // Stop reading; everything after the limit is rejected with this one result
+                    failures.add(rejected(received++, null,
+                            "Batch limit of " + maxRecords + " records exceeded; this and later records were not read"));
+                    break;
+                }
+                int index = received++;
+                inRecord = true;
+                if (token != JsonToken.START_OBJECT) {
+                    failures.add(rejected(index, null, "Record must be a JSON object"));
+                    parser.skipChildren();
+                } else {
+                    LocationRecord record = readRecord(parser);
+                    String error = validate(record);
+                    if (error != null) {
+                        failures.add(rejected(index, record.courierId, error));
+                    } else {
+                        sends.add(publish(index, record, receivedAt));
+                    }
+                }
+                inRecord = false;
+                token = parser.nextToken();
+            }
+        } catch (JsonParseException e) {
+            // Nothing after a syntax error can be read; the record being parsed, or a new one, is rejected
+            if (!inRecord) {
+                received++;
+            }
+            failures.add(rejected(received - 1, null, "Malformed JSON: " + e.getOriginalMessage()));
+        }
+
+        bulkLocationKafkaTemplate.flush();
+        awaitSends(sends, failures);
+
+        int rejected = failures.size();
+        log.debug("Bulk location upload processed - received: {}, rejected: {}", received, rejected);
+        return BulkLocationResponse.builder()
+                .received(received)
+                .accepted(received - rejected)
+                .rejected(rejected)
+                .results(failures.isEmpty() ? null : failures)
+                .build();
+    }
+
+    private LocationRecord readRecord(JsonParser parser) throws IOException {
+        LocationRecord record = new LocationRecord();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "courierId" -> record.courierId = longValue(parser, value);
+                case "lat", "latitude" -> record.latitude = value.isNumeric() ? parser.getDoubleValue() : null;
+                case "lon", "lng", "longitude" -> record.longitude = value.isNumeric() ? parser.getDoubleValue() : null;
+                case "deviceTimestamp", "timestamp" -> record.readTimestamp(parser, value);
+                default -> {
+                }
+            }
+            parser.skipChildren();
+        }
+        return record;
+    }
+
+    /**
+     * @return The integer value, or null when the token is not an integer or does not fit in a long
+     */
+    private static Long longValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+            return null;
+        }
+        return parser.getLongValue();
+    }
+
+    private String validate(LocationRecord record) {
+        if (record.courierId == null || record.courierId <= 0) {
+            return "courierId must be a positive integer";
+        }
+        if (record.latitude == null || record.longitude == null) {
+            return "Latitude and longitude must not be null";
+        }
+        if (record.latitude < -90 || record.latitude > 90) {
+            return "Latitude must be between -90 and 90";
+        }
+        if (record.longitude < -180 || record.longitude > 180) {
+            return "Longitude must be between -180 and 180";
+        }
+        return record.timestampError;
+    }
+
+    private PendingSend publish(int index, LocationRecord record, Instant receivedAt) {
+        CourierLocationEvent event = CourierLocationEvent.builder()
+                .courierId(record.courierId)
+                .latitude(record.latitude)
+                .longitude(record.longitude)
+                .timestamp(record.deviceTimestamp != null ? record.deviceTimestamp : receivedAt)
+                .build();
+        return new PendingSend(index, record.courierId,
+                bulkLocationKafkaTemplate.send("courier.location", String.valueOf(record.courierId), event));
+    }
+
+    private void awaitSends(List<PendingSend> sends, List<RecordResult> failures) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+        for (PendingSend send : sends) {
+            try {
+                send.future().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.add(publishFailed(send, "Interrupted"));
+            } catch (ExecutionException | TimeoutException e) {
+                failures.add(publishFailed(send, e.getCause() != null ? e.getCause().toString() : e.toString()));
+            }
+        }
+    }
+
+    private RecordResult rejected(int index, Long courierId, String message) {
+        return RecordResult.builder().index(index).courierId(courierId).status(Status.REJECTED).message(message).build();
+    }
+
+    private RecordResult publishFailed(PendingSend send, String message) {
+        log.error("Failed to publish bulk location record - index: {}, courier: {}, error: {}",
+                send.index(), send.courierId(), message);
+        return RecordResult.builder()
+                .index(send.index())
+                .courierId(send.courierId())
+                .status(Status.PUBLISH_FAILED)
+                .message(message)
+                .build();
+    }
+
+    private record PendingSend(int index, Long courierId,
+                               CompletableFuture<SendResult<String, CourierLocationEvent>> future) {
+    }
+
+    private static class LocationRecord {
+        private Long courierId;
+        private Double latitude;
+        private Double longitude;
+        private Instant deviceTimestamp;
+        private String timestampError;
+
+        private void readTimestamp(JsonParser parser, JsonToken value) throws IOException {
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+                Long epochMilli = longValue(parser, value);
+                if (epochMilli != null) {
+                    deviceTimestamp = Instant.ofEpochMilli(epochMilli);
+                } else {
+                    timestampError = "deviceTimestamp must be ISO-8601 or epoch milliseconds";
+                }
+            } else if (value == JsonToken.VALUE_STRING) {
+                try {
+                    deviceTimestamp = Instant.parse(parser.getText());
+                } catch (DateTimeParseException e) {
+                    timestampError = "deviceTimestamp must be ISO-8601 or epoch milliseconds";
+                }
+            } else if (value != JsonToken.VALUE_NULL) {
+                timestampError = "deviceTimestamp must be ISO-8601 or epoch milliseconds";
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk location upload. Records not listed in {@code results}
+ * were accepted and published.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkLocationResponse {
+    private final int received;
+    private final int accepted;
+    private final int rejected;
+    private final List<RecordResult> results;
+
+    public enum Status {
+        REJECTED,
+        PUBLISH_FAILED
+    }
+
+    @Data
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class RecordResult {
+        private final int index;
+        private final Long courierId;
+        private final Status status;
+        private final String message;
+    }
+}
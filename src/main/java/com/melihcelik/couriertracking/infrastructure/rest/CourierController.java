@@ -1,17 +1,30 @@
 package com.melihcelik.couriertracking.infrastructure.rest;
 
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
 import com.melihcelik.couriertracking.application.query.CourierQueryService;
+import com.melihcelik.couriertracking.application.query.CourierView;
+import com.melihcelik.couriertracking.application.query.StoreEntryPage;
+import com.melihcelik.couriertracking.application.query.StoreEntryQueryService;
+import com.melihcelik.couriertracking.application.spatial.NearbyCourier;
 import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
 import com.melihcelik.couriertracking.domain.exception.CourierNotFoundException;
 import com.melihcelik.couriertracking.domain.exception.InvalidLocationException;
-import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequestMapping(ApiEndpoints.COURIERS)
 @RequiredArgsConstructor
@@ -19,6 +32,9 @@ import org.springframework.web.bind.annotation.*;
 public class CourierController {
     private final CourierQueryService queryService;
     private final KafkaTemplate<String, CourierLocationEvent> kafkaTemplate;
+    private final BulkLocationIngestor bulkLocationIngestor;
+    private final PipelineMetrics pipelineMetrics;
+    private final StoreEntryQueryService storeEntryQueryService;
 
     @PostMapping(ApiEndpoints.REPORT_LOCATION)
     @Operation(summary = "Report courier location", description = "Report a new location for a courier")
@@ -27,6 +43,7 @@ public class CourierController {
             @RequestParam Double latitude,
             @RequestParam Double longitude) {
         
+        Timer.Sample sample = pipelineMetrics.startTimer();
         validateLocation(latitude, longitude);
         
         CourierLocationEvent event = CourierLocationEvent.builder()
@@ -35,13 +52,25 @@ public class CourierController {
                 .longitude(longitude)
                 .build();
 
-        kafkaTemplate.send("courier.location", event);
+        kafkaTemplate.send("courier.location", String.valueOf(courierId), event)
+                .whenComplete((result, ex) -> pipelineMetrics.recordPublish(sample, ex));
+        pipelineMetrics.recordAccept(sample);
         return ResponseEntity.accepted().build();
     }
 
+    @PostMapping(
+            value = ApiEndpoints.REPORT_LOCATIONS_BULK,
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Report courier locations in bulk",
+            description = "Report buffered locations as a JSON array or NDJSON stream of " +
+                    "{courierId, lat, lon, deviceTimestamp} records; device time is kept as event time")
+    public ResponseEntity<BulkLocationResponse> reportLocations(InputStream body) throws IOException {
+        return ResponseEntity.accepted().body(bulkLocationIngestor.ingest(body));
+    }
+
     @GetMapping(ApiEndpoints.GET_COURIER)
     @Operation(summary = "Get courier details", description = "Get details of a specific courier")
-    public ResponseEntity<Courier> getCourier(@PathVariable Long courierId) {
+    public ResponseEntity<CourierView> getCourier(@PathVariable Long courierId) {
         return queryService.getCourierById(courierId)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new CourierNotFoundException(courierId));
@@ -50,11 +79,40 @@ public class CourierController {
     @GetMapping(ApiEndpoints.GET_TOTAL_TRAVEL_DISTANCE)
     @Operation(summary = "Get total travel distance", description = "Get the total distance traveled by a courier")
     public ResponseEntity<Double> getTotalTravelDistance(@PathVariable Long courierId) {
-        if (!queryService.getCourierById(courierId).isPresent()) {
-            throw new CourierNotFoundException(courierId);
-        }
-        double distance = queryService.getTotalTravelDistance(courierId);
-        return ResponseEntity.ok(distance);
+        return ResponseEntity.ok(queryService.getTotalTravelDistance(courierId));
+    }
+
+    @GetMapping(ApiEndpoints.GET_ROUTE)
+    @Operation(summary = "Get courier route", description = "Get the recorded positions of a courier in a time range")
+    public ResponseEntity<List<LocationPoint>> getRoute(
+            @PathVariable Long courierId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(queryService.getRoute(courierId, from, to));
+    }
+
+    @GetMapping(ApiEndpoints.GET_COURIER_STORE_ENTRIES)
+    @Operation(summary = "Get courier store entries",
+            description = "Get a courier's store entries in [from, to), newest first; " +
+                    "pass nextCursor from the previous page as cursor to continue")
+    public ResponseEntity<StoreEntryPage> getStoreEntries(
+            @PathVariable Long courierId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(storeEntryQueryService.findByCourier(courierId, from, to, cursor, limit));
+    }
+
+    @GetMapping(ApiEndpoints.GET_NEARBY_COURIERS)
+    @Operation(summary = "Get couriers near a point",
+            description = "Get couriers whose latest position is within radius meters of a point, nearest first")
+    public ResponseEntity<List<NearbyCourier>> getNearbyCouriers(
+            @RequestParam Double lat,
+            @RequestParam Double lon,
+            @RequestParam Double radius) {
+        validateLocation(lat, lon);
+        return ResponseEntity.ok(queryService.findCouriersNear(lat, lon, radius));
     }
 
     private void validateLocation(Double latitude, Double longitude) {
@@ -0,0 +1,113 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierPartitionDirectory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Forwards courier reads backed by in-memory state to the instance owning the
+ * courier's courier.location partition and relays its response. Requests it
+ * forwards are marked so the owner always answers locally, even while the
+ * directories disagree during a rebalance. When the owner is unknown or cannot
+ * be reached in time the request is served here, from the courier table.
+ */
+@Slf4j
+@Component
+@Profile("!streams")
+@ConditionalOnProperty(name = "courier-tracking.routing.enabled", havingValue = "true")
+public class CourierRequestRouter implements HandlerInterceptor {
+    public static final String FORWARDED_HEADER = "X-Courier-Tracking-Forwarded";
+
+    private final CourierPartitionDirectory courierPartitionDirectory;
+    private final HttpClient client;
+    private final Duration forwardTimeout;
+
+    @Autowired
+    public CourierRequestRouter(CourierPartitionDirectory courierPartitionDirectory,
+                                @Value("${courier-tracking.routing.forward-timeout:2000}") long forwardTimeout) {
+        this(courierPartitionDirectory, HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(forwardTimeout))
+                .build(), forwardTimeout);
+    }
+
+    CourierRequestRouter(CourierPartitionDirectory courierPartitionDirectory, HttpClient client, long forwardTimeout) {
+        this.courierPartitionDirectory = courierPartitionDirectory;
+        this.client = client;
+        this.forwardTimeout = Duration.ofMillis(forwardTimeout);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!HttpMethod.GET.matches(request.getMethod()) || request.getHeader(FORWARDED_HEADER) != null) {
+            return true;
+        }
+        Long courierId = courierId(request);
+        if (courierId == null) {
+            return true;
+        }
+        Optional<String> owner = courierPartitionDirectory.remoteOwnerOf(courierId);
+        if (owner.isEmpty()) {
+            return true;
+        }
+
+        String query = request.getQueryString();
+        URI uri = URI.create("http://" + owner.get() + request.getRequestURI() + (query != null ? "?" + query : ""));
+        HttpRequest forward = HttpRequest.newBuilder(uri)
+                .timeout(forwardTimeout)
+                .header(FORWARDED_HEADER, "true")
+                .header(HttpHeaders.ACCEPT, Optional.ofNullable(request.getHeader(HttpHeaders.ACCEPT))
+                        .orElse(MediaType.APPLICATION_JSON_VALUE))
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> reply = client.send(forward, HttpResponse.BodyHandlers.ofByteArray());
+            response.setStatus(reply.statusCode());
+            reply.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(response::setContentType);
+            response.getOutputStream().write(reply.body());
+            log.debug("Forwarded courier request - courier: {}, owner: {}, status: {}",
+                    courierId, owner.get(), reply.statusCode());
+            return false;
+        } catch (IOException e) {
+            log.warn("Could not forward courier request, serving locally - courier: {}, owner: {}, error: {}",
+                    courierId, owner.get(), e.getMessage());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long courierId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get("courierId") == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(variables.get("courierId"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.infrastructure.messaging.DeadLetterReplayResult;
+import com.melihcelik.couriertracking.infrastructure.messaging.DeadLetterReplayer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping(ApiEndpoints.DEAD_LETTERS)
+@RequiredArgsConstructor
+@Tag(name = "Dead Letter API", description = "API endpoints for dead-letter topic operations")
+public class DeadLetterController {
+    private final DeadLetterReplayer deadLetterReplayer;
+
+    @PostMapping(ApiEndpoints.REPLAY_DEAD_LETTERS)
+    @Operation(summary = "Replay dead letters",
+            description = "Publish up to limit records from a topic's DLT back to the topic, oldest first")
+    public ResponseEntity<DeadLetterReplayResult> replay(
+            @PathVariable String topic,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(deadLetterReplayer.replay(topic, limit));
+    }
+}
@@ -0,0 +1,153 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.melihcelik.couriertracking.application.spatial.NearbyCourier;
+import com.melihcelik.couriertracking.domain.exception.CourierPositionsUnavailableException;
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierPartitionDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Completes proximity queries when couriers are spread over several instances.
+ * Each instance only indexes the couriers of its own courier.location partitions,
+ * so the local result of a near query is merged with the same query answered by
+ * every other partition owner, nearest first. If an owner is unknown or does not
+ * answer in time the query fails with 503 rather than returning part of the fleet.
+ * Queries it sends are marked like the {@link CourierRequestRouter}'s, so owners
+ * answer them from their own index only.
+ */
+@Slf4j
+@ControllerAdvice
+@Profile("!streams")
+@ConditionalOnProperty(name = "courier-tracking.routing.enabled", havingValue = "true")
+public class NearbyCourierGatherer implements ResponseBodyAdvice<Object> {
+    private static final TypeReference<List<NearbyCourier>> NEARBY_COURIERS = new TypeReference<>() {
+    };
+
+    private final CourierPartitionDirectory courierPartitionDirectory;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final Duration forwardTimeout;
+
+    @Autowired
+    public NearbyCourierGatherer(CourierPartitionDirectory courierPartitionDirectory,
+                                 ObjectMapper objectMapper,
+                                 @Value("${courier-tracking.routing.forward-timeout:2000}") long forwardTimeout) {
+        this(courierPartitionDirectory, objectMapper, HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(forwardTimeout))
+                .build(), forwardTimeout);
+    }
+
+    NearbyCourierGatherer(CourierPartitionDirectory courierPartitionDirectory, ObjectMapper objectMapper,
+                          HttpClient client, long forwardTimeout) {
+        this.courierPartitionDirectory = courierPartitionDirectory;
+        this.objectMapper = objectMapper;
+        this.client = client;
+        this.forwardTimeout = Duration.ofMillis(forwardTimeout);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        ResolvableType type = ResolvableType.forMethodParameter(returnType);
+        if (HttpEntity.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        return List.class.isAssignableFrom(type.toClass()) && NearbyCourier.class.equals(type.getGeneric(0).toClass());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof List<?>) || request.getHeaders().containsKey(CourierRequestRouter.FORWARDED_HEADER)) {
+            return body;
+        }
+        Set<String> owners = courierPartitionDirectory.remoteOwners()
+                .orElseThrow(() -> new CourierPositionsUnavailableException("some courier.location partitions have no known owner"));
+        if (owners.isEmpty()) {
+            return body;
+        }
+        return gather((List<NearbyCourier>) body, owners, request.getURI());
+    }
+
+    List<NearbyCourier> gather(List<NearbyCourier> local, Set<String> owners, URI uri) {
+        String pathAndQuery = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> replies = new HashMap<>();
+        for (String owner : owners) {
+            HttpRequest query = HttpRequest.newBuilder(URI.create("http://" + owner + pathAndQuery))
+                    .timeout(forwardTimeout)
+                    .header(CourierRequestRouter.FORWARDED_HEADER, "true")
+                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                    .GET()
+                    .build();
+            replies.put(owner, client.sendAsync(query, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+
+        List<NearbyCourier> all = new ArrayList<>(local);
+        long deadline = System.nanoTime() + forwardTimeout.toNanos();
+        for (Map.Entry<String, CompletableFuture<HttpResponse<byte[]>>> reply : replies.entrySet()) {
+            all.addAll(read(reply.getKey(), reply.getValue(), deadline));
+        }
+
+        // A courier handed over between the directory refresh and the query can show up twice
+        Map<Long, NearbyCourier> latest = new HashMap<>();
+        for (NearbyCourier courier : all) {
+            latest.merge(courier.courierId(), courier, (a, b) -> b.lastSeen().isAfter(a.lastSeen()) ? b : a);
+        }
+        List<NearbyCourier> merged = new ArrayList<>(latest.values());
+        merged.sort(Comparator.comparingDouble(NearbyCourier::distance));
+        log.debug("Gathered nearby couriers - owners: {}, couriers: {}", owners, merged.size());
+        return merged;
+    }
+
+    private List<NearbyCourier> read(String owner, CompletableFuture<HttpResponse<byte[]>> reply, long deadline) {
+        try {
+            HttpResponse<byte[]> response = reply.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (response.statusCode() != 200) {
+                throw new CourierPositionsUnavailableException(owner + " answered " + response.statusCode());
+            }
+            return objectMapper.readValue(response.body(), NEARBY_COURIERS);
+        } catch (TimeoutException e) {
+            reply.cancel(true);
+            throw new CourierPositionsUnavailableException(owner + " did not answer within " + forwardTimeout.toMillis() + " ms");
+        } catch (ExecutionException | IOException e) {
+            throw new CourierPositionsUnavailableException(owner + " could not be queried: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CourierPositionsUnavailableException("interrupted while querying " + owner);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.application.query.CourierQueryService;
+import com.melihcelik.couriertracking.application.query.StoreEntryPage;
+import com.melihcelik.couriertracking.application.query.StoreEntryQueryService;
+import com.melihcelik.couriertracking.application.spatial.NearbyCourier;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping(ApiEndpoints.STORES)
+@RequiredArgsConstructor
+@Tag(name = "Store API", description = "API endpoints for store queries")
+public class StoreController {
+    private final CourierQueryService queryService;
+    private final StoreEntryQueryService storeEntryQueryService;
+
+    @GetMapping(ApiEndpoints.GET_STORE_COURIERS)
+    @Operation(summary = "Get couriers near a store",
+            description = "Get couriers whose latest position is within radius meters of a store, " +
+                    "nearest first; radius defaults to the store proximity radius")
+    public ResponseEntity<List<NearbyCourier>> getStoreCouriers(
+            @PathVariable Long storeId,
+            @RequestParam(required = false) Double radius) {
+        return ResponseEntity.ok(queryService.findCouriersNearStore(storeId, radius));
+    }
+
+    @GetMapping(ApiEndpoints.GET_STORE_ENTRIES)
+    @Operation(summary = "Get store entries",
+            description = "Get entries into a store in [from, to), newest first; " +
+                    "pass nextCursor from the previous page as cursor to continue")
+    public ResponseEntity<StoreEntryPage> getStoreEntries(
+            @PathVariable Long storeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(storeEntryQueryService.findByStore(storeId, from, to, cursor, limit));
+    }
+}
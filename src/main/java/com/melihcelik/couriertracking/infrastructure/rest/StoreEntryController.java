@@ -0,0 +1,32 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.application.query.StoreEntryPage;
+import com.melihcelik.couriertracking.application.query.StoreEntryQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping(ApiEndpoints.STORE_ENTRIES)
+@RequiredArgsConstructor
+@Tag(name = "Store Entry API", description = "API endpoints for store entry queries")
+public class StoreEntryController {
+    private final StoreEntryQueryService storeEntryQueryService;
+
+    @GetMapping
+    @Operation(summary = "Get store entries in a time range",
+            description = "Get entries of all couriers into all stores in [from, to), newest first; " +
+                    "pass nextCursor from the previous page as cursor to continue")
+    public ResponseEntity<StoreEntryPage> getStoreEntries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(storeEntryQueryService.findInRange(from, to, cursor, limit));
+    }
+}
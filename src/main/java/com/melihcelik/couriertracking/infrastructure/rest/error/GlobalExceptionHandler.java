@@ -1,7 +1,13 @@
 package com.melihcelik.couriertracking.infrastructure.rest.error;
 
+import com.melihcelik.couriertracking.domain.exception.BackfillInProgressException;
 import com.melihcelik.couriertracking.domain.exception.CourierNotFoundException;
+import com.melihcelik.couriertracking.domain.exception.CourierPositionsUnavailableException;
+import com.melihcelik.couriertracking.domain.exception.InvalidBackfillException;
+import com.melihcelik.couriertracking.domain.exception.InvalidCursorException;
 import com.melihcelik.couriertracking.domain.exception.InvalidLocationException;
+import com.melihcelik.couriertracking.domain.exception.StoreNotFoundException;
+import com.melihcelik.couriertracking.domain.exception.UnknownTopicException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +35,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(StoreNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleStoreNotFoundException(StoreNotFoundException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .code("STORE_NOT_FOUND")
+                .status(HttpStatus.NOT_FOUND.value())
+                .build();
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(UnknownTopicException.class)
+    public ResponseEntity<ErrorResponse> handleUnknownTopicException(UnknownTopicException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .code("TOPIC_NOT_FOUND")
+                .status(HttpStatus.NOT_FOUND.value())
+                .build();
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
     @ExceptionHandler(InvalidLocationException.class)
     public ResponseEntity<ErrorResponse> handleInvalidLocationException(InvalidLocationException ex) {
         ErrorResponse error = ErrorResponse.builder()
@@ -39,6 +65,47 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .code("INVALID_CURSOR")
+                .status(HttpStatus.BAD_REQUEST.value())
+                .build();
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(InvalidBackfillException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBackfillException(InvalidBackfillException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .code("INVALID_BACKFILL")
+                .status(HttpStatus.BAD_REQUEST.value())
+                .build();
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    @ExceptionHandler(BackfillInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleBackfillInProgressException(BackfillInProgressException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .code("BACKFILL_IN_PROGRESS")
+                .status(HttpStatus.CONFLICT.value())
+                .build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(CourierPositionsUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleCourierPositionsUnavailableException(CourierPositionsUnavailableException ex) {
+        log.warn(ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .code("COURIER_POSITIONS_UNAVAILABLE")
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
         List<ErrorResponse.ValidationError> validationErrors = ex.getBindingResult().getFieldErrors().stream()
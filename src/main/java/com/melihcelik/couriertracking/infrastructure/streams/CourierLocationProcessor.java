@@ -0,0 +1,210 @@
+package com.melihcelik.couriertracking.infrastructure.streams;
+
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.spatial.StoreGrid;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drops pings rejected by the {@link PingFilter}, checked against the courier's
+ * last ping kept in a local store, and applies the rest to the courier's odometer, geofence visits and
+ * entry cooldown, all kept in local stores keyed by courier. Forwards the
+ * updated courier snapshot and any store entry/exit events to their sinks.
+ */
+class CourierLocationProcessor implements Processor<String, CourierLocationEvent, String, Object> {
+    private final StoreCatalog catalog;
+    private final PingFilter pingFilter;
+    private final CourierTrackingTopology.Settings settings;
+
+    private ProcessorContext<String, Object> context;
+    private KeyValueStore<String, PingFilter.LastPing> lastPings;
+    private KeyValueStore<String, Courier> odometers;
+    private KeyValueStore<String, GeofenceVisits> geofences;
+    private KeyValueStore<String, Long> cooldowns;
+    private StoreCatalog.View stores;
+    private long maxEventTime = Long.MIN_VALUE;
+
+    CourierLocationProcessor(StoreCatalog catalog, PingFilter pingFilter, CourierTrackingTopology.Settings settings) {
+        this.catalog = catalog;
+        this.pingFilter = pingFilter;
+        this.settings = settings;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, Object> context) {
+        this.context = context;
+        this.lastPings = context.getStateStore(CourierTrackingTopology.LAST_PING_STORE);
+        this.odometers = context.getStateStore(CourierTrackingTopology.ODOMETER_STORE);
+        this.geofences = context.getStateStore(CourierTrackingTopology.GEOFENCE_STORE);
+        this.cooldowns = context.getStateStore(CourierTrackingTopology.COOLDOWN_STORE);
+        this.stores = catalog.view(context.getStateStore(CourierTrackingTopology.STORE_CATALOG_STORE));
+        Duration sweepInterval = settings.entryCooldown().compareTo(Duration.ofSeconds(1)) > 0
+                ? settings.entryCooldown() : Duration.ofSeconds(1);
+        context.schedule(sweepInterval, PunctuationType.WALL_CLOCK_TIME, now -> expireCooldowns());
+    }
+
+    @Override
+    public void process(Record<String, CourierLocationEvent> record) {
+        CourierLocationEvent event = record.value();
+        if (event == null || event.getCourierId() == null || event.getLatitude() == null || event.getLongitude() == null) {
+            return;
+        }
+        String key = String.valueOf(event.getCourierId());
+        if (!accept(key, event)) {
+            return;
+        }
+        Instant timestamp = event.getTimestamp() != null ? event.getTimestamp() : Instant.ofEpochMilli(record.timestamp());
+        maxEventTime = Math.max(maxEventTime, timestamp.toEpochMilli());
+
+        Courier courier = move(key, event);
+        context.forward(record.withKey(key).withValue(courier), CourierTrackingTopology.COURIER_STATE_SINK);
+
+        updateGeofences(record, key, event, timestamp);
+    }
+
+    private boolean accept(String key, CourierLocationEvent event) {
+        PingFilter.LastPing last = lastPings.get(key);
+        if (last == null) {
+            last = new PingFilter.LastPing();
+        }
+        PingFilter.Verdict verdict = pingFilter.check(last, event);
+        if (verdict != PingFilter.Verdict.INVALID) {
+            // Rejected pings can still change the pending outlier
+            lastPings.put(key, last);
+        }
+        return verdict.isAccepted();
+    }
+
+    private Courier move(String key, CourierLocationEvent event) {
+        Courier courier = odometers.get(key);
+        if (courier == null) {
+            courier = Courier.builder()
+                    .id(event.getCourierId())
+                    .totalTravelDistance(0.0)
+                    .isActive(true)
+                    .build();
+        } else if (courier.getLastLatitude() != null && courier.getLastLongitude() != null) {
+            courier.setTotalTravelDistance(courier.getTotalTravelDistance() + GeoUtils.approximateDistance(
+                    courier.getLastLatitude(), courier.getLastLongitude(), event.getLatitude(), event.getLongitude()));
+        }
+        courier.setLastLatitude(event.getLatitude());
+        courier.setLastLongitude(event.getLongitude());
+        odometers.put(key, courier);
+        return courier;
+    }
+
+    private void updateGeofences(Record<String, CourierLocationEvent> record, String key,
+                                 CourierLocationEvent event, Instant timestamp) {
+        double latitude = event.getLatitude();
+        double longitude = event.getLongitude();
+        StoreGrid grid = stores.grid();
+        List<Store> candidates = grid.findWithinRadius(latitude, longitude, settings.enterRadius() + settings.exitMargin());
+
+        GeofenceVisits current = geofences.get(key);
+        Map<Long, Instant> inside = current != null ? new HashMap<>(current.enteredAt()) : new HashMap<>();
+        boolean changed = false;
+        Set<Long> candidateIds = new HashSet<>();
+        List<Object> events = new ArrayList<>();
+
+        for (Store store : candidates) {
+            candidateIds.add(store.getId());
+            if (!inside.containsKey(store.getId()) && GeoUtils.isWithinRadius(
+                    latitude, longitude, store.getLatitude(), store.getLongitude(), settings.enterRadius())) {
+                inside.put(store.getId(), timestamp);
+                changed = true;
+                if (acquireCooldown(key, store.getId(), timestamp)) {
+                    events.add(StoreEntryEvent.builder()
+                            .courierId(event.getCourierId())
+                            .storeId(store.getId())
+                            .storeName(store.getName())
+                            .latitude(latitude)
+                            .longitude(longitude)
+                            .timestamp(timestamp)
+                            .build());
+                }
+            }
+        }
+
+        Iterator<Map.Entry<Long, Instant>> it = inside.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Instant> visit = it.next();
+            if (!candidateIds.contains(visit.getKey())) {
+                it.remove();
+                changed = true;
+                Store store = grid.findById(visit.getKey());
+                events.add(StoreExitEvent.builder()
+                        .courierId(event.getCourierId())
+                        .storeId(visit.getKey())
+                        .storeName(store != null ? store.getName() : null)
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .enteredAt(visit.getValue())
+                        .dwellSeconds(Duration.between(visit.getValue(), timestamp).toSeconds())
+                        .timestamp(timestamp)
+                        .build());
+            }
+        }
+
+        if (changed) {
+            if (inside.isEmpty()) {
+                geofences.delete(key);
+            } else {
+                geofences.put(key, new GeofenceVisits(inside));
+            }
+        }
+        for (Object storeEvent : events) {
+            String sink = storeEvent instanceof StoreEntryEvent
+                    ? CourierTrackingTopology.STORE_ENTRY_SINK : CourierTrackingTopology.STORE_EXIT_SINK;
+            context.forward(record.withKey(key).withValue(storeEvent), sink);
+        }
+    }
+
+    private boolean acquireCooldown(String courierKey, Long storeId, Instant timestamp) {
+        String key = courierKey + ":" + storeId;
+        Long lastEntry = cooldowns.get(key);
+        long now = timestamp.toEpochMilli();
+        if (lastEntry != null && now - lastEntry < settings.entryCooldown().toMillis()) {
+            return false;
+        }
+        cooldowns.put(key, now);
+        return true;
+    }
+
+    private void expireCooldowns() {
+        if (maxEventTime == Long.MIN_VALUE) {
+            return;
+        }
+        long cutoff = maxEventTime - settings.entryCooldown().toMillis();
+        List<String> expired = new ArrayList<>();
+        try (KeyValueIterator<String, Long> it = cooldowns.all()) {
+            while (it.hasNext()) {
+                KeyValue<String, Long> entry = it.next();
+                if (entry.value < cutoff) {
+                    expired.add(entry.key);
+                }
+            }
+        }
+        expired.forEach(cooldowns::delete);
+    }
+}
@@ -0,0 +1,131 @@
+package com.melihcelik.couriertracking.infrastructure.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.model.Store;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.kafka.support.serializer.JsonSerde;
+
+import java.time.Duration;
+
+/**
+ * Kafka Streams version of the location pipeline.
+ * Location events pass the {@link PingFilter} and are then processed per courier
+ * key against co-partitioned, changelog-backed state stores (last ping, odometer,
+ * geofence visits, entry cooldown)
+ * and a global store of the store catalog used for proximity matching.
+ * Courier snapshots and store entry/exit events are written to topics;
+ * Postgres is only fed from those topics.
+ */
+public class CourierTrackingTopology {
+    public static final String LOCATION_TOPIC = "courier.location";
+    public static final String STORE_CATALOG_TOPIC = "store.catalog";
+    public static final String COURIER_STATE_TOPIC = "courier.state";
+    public static final String STORE_ENTRY_TOPIC = "store.entry";
+    public static final String STORE_EXIT_TOPIC = "store.exit";
+
+    static final String LAST_PING_STORE = "courier-last-ping";
+    static final String ODOMETER_STORE = "courier-odometer";
+    static final String GEOFENCE_STORE = "courier-geofence";
+    static final String COOLDOWN_STORE = "store-entry-cooldown";
+    static final String STORE_CATALOG_STORE = "store-catalog";
+
+    static final String LOCATION_SOURCE = "location-source";
+    static final String LOCATION_PROCESSOR = "location-processor";
+    static final String COURIER_STATE_SINK = "courier-state-sink";
+    static final String STORE_ENTRY_SINK = "store-entry-sink";
+    static final String STORE_EXIT_SINK = "store-exit-sink";
+
+    /**
+     * @param enterRadius Store proximity radius in meters
+     * @param exitMargin Extra distance in meters before a courier counts as having left a store
+     * @param entryCooldown Minimum time between two entries of a courier into the same store
+     * @param cellSize Grid cell edge in meters for the store proximity index
+     */
+    public record Settings(double enterRadius, double exitMargin, Duration entryCooldown, double cellSize) {
+    }
+
+    private final PingFilter pingFilter;
+    private final Deserializer<CourierLocationEvent> locationDeserializer;
+    private final Serializer<StoreEntryEvent> storeEntrySerializer;
+    private final Serializer<StoreExitEvent> storeExitSerializer;
+    private final Serde<Courier> courierSerde;
+    private final Serde<Store> storeSerde;
+    private final Serde<GeofenceVisits> visitsSerde;
+    private final Serde<PingFilter.LastPing> lastPingSerde;
+    private final Settings settings;
+
+    public CourierTrackingTopology(ObjectMapper objectMapper,
+                                   PingFilter pingFilter,
+                                   Deserializer<CourierLocationEvent> locationDeserializer,
+                                   Serializer<StoreEntryEvent> storeEntrySerializer,
+                                   Serializer<StoreExitEvent> storeExitSerializer,
+                                   Settings settings) {
+        this.pingFilter = pingFilter;
+        this.locationDeserializer = locationDeserializer;
+        this.storeEntrySerializer = storeEntrySerializer;
+        this.storeExitSerializer = storeExitSerializer;
+        this.courierSerde = jsonSerde(Courier.class, objectMapper);
+        this.storeSerde = jsonSerde(Store.class, objectMapper);
+        this.visitsSerde = jsonSerde(GeofenceVisits.class, objectMapper);
+        this.lastPingSerde = jsonSerde(PingFilter.LastPing.class, objectMapper);
+        this.settings = settings;
+    }
+
+    public Topology build() {
+        Topology topology = new Topology();
+        addTo(topology);
+        return topology;
+    }
+
+    /**
+     * Add the pipeline's sources, processors, stores and sinks to a topology
+     * @param topology Topology to extend
+     */
+    public void addTo(Topology topology) {
+        StoreCatalog catalog = new StoreCatalog(settings.cellSize());
+
+        topology.addGlobalStore(
+                Stores.keyValueStoreBuilder(
+                        Stores.inMemoryKeyValueStore(STORE_CATALOG_STORE), Serdes.Long(), storeSerde)
+                        .withLoggingDisabled(),
+                "store-catalog-source",
+                Serdes.Long().deserializer(),
+                storeSerde.deserializer(),
+                STORE_CATALOG_TOPIC,
+                "store-catalog-processor",
+                () -> new StoreCatalogProcessor(catalog));
+
+        topology.addSource(LOCATION_SOURCE, Serdes.String().deserializer(), locationDeserializer, LOCATION_TOPIC);
+        topology.addProcessor(LOCATION_PROCESSOR,
+                () -> new CourierLocationProcessor(catalog, pingFilter, settings), LOCATION_SOURCE);
+        topology.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(LAST_PING_STORE), Serdes.String(), lastPingSerde), LOCATION_PROCESSOR);
+        topology.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(ODOMETER_STORE), Serdes.String(), courierSerde), LOCATION_PROCESSOR);
+        topology.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(GEOFENCE_STORE), Serdes.String(), visitsSerde), LOCATION_PROCESSOR);
+        topology.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(COOLDOWN_STORE), Serdes.String(), Serdes.Long()), LOCATION_PROCESSOR);
+
+        topology.addSink(COURIER_STATE_SINK, COURIER_STATE_TOPIC,
+                Serdes.String().serializer(), courierSerde.serializer(), LOCATION_PROCESSOR);
+        topology.addSink(STORE_ENTRY_SINK, STORE_ENTRY_TOPIC,
+                Serdes.String().serializer(), storeEntrySerializer, LOCATION_PROCESSOR);
+        topology.addSink(STORE_EXIT_SINK, STORE_EXIT_TOPIC,
+                Serdes.String().serializer(), storeExitSerializer, LOCATION_PROCESSOR);
+    }
+
+    private static <T> Serde<T> jsonSerde(Class<T> type, ObjectMapper objectMapper) {
+        return new JsonSerde<>(type, objectMapper).noTypeInfo().ignoreTypeHeaders();
+    }
+}
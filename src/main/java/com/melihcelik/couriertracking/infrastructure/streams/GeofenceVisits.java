@@ -0,0 +1,10 @@
+package com.melihcelik.couriertracking.infrastructure.streams;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Stores a courier is currently inside, with the time it entered each one
+ */
+record GeofenceVisits(Map<Long, Instant> enteredAt) {
+}
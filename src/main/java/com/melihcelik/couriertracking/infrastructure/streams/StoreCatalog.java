@@ -0,0 +1,55 @@
+package com.melihcelik.couriertracking.infrastructure.streams;
+
+import com.melihcelik.couriertracking.application.spatial.StoreGrid;
+import com.melihcelik.couriertracking.domain.model.Store;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grid index over the global store catalog.
+ * The global store processor bumps the version on every change and stream
+ * threads rebuild their grid lazily when they see a newer version.
+ */
+class StoreCatalog {
+    private final double cellSize;
+    private final AtomicLong version = new AtomicLong();
+
+    StoreCatalog(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    void changed() {
+        version.incrementAndGet();
+    }
+
+    View view(KeyValueStore<Long, Store> store) {
+        return new View(store);
+    }
+
+    final class View {
+        private final KeyValueStore<Long, Store> store;
+        private long builtVersion = -1;
+        private StoreGrid grid;
+
+        private View(KeyValueStore<Long, Store> store) {
+            this.store = store;
+        }
+
+        StoreGrid grid() {
+            long current = version.get();
+            if (grid == null || current != builtVersion) {
+                List<Store> stores = new ArrayList<>();
+                try (KeyValueIterator<Long, Store> it = store.all()) {
+                    it.forEachRemaining(entry -> stores.add(entry.value));
+                }
+                grid = new StoreGrid(stores, cellSize);
+                builtVersion = current;
+            }
+            return grid;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.melihcelik.couriertracking.infrastructure.streams;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+/**
+ * Maintains the global store catalog from the compacted store.catalog topic; null values delete a store
+ */
+class StoreCatalogProcessor implements Processor<Long, Store, Void, Void> {
+    private final StoreCatalog catalog;
+    private KeyValueStore<Long, Store> stores;
+
+    StoreCatalogProcessor(StoreCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public void init(ProcessorContext<Void, Void> context) {
+        stores = context.getStateStore(CourierTrackingTopology.STORE_CATALOG_STORE);
+    }
+
+    @Override
+    public void process(Record<Long, Store> record) {
+        if (record.value() == null) {
+            stores.delete(record.key());
+        } else {
+            stores.put(record.key(), record.value());
+        }
+        catalog.changed();
+    }
+}
@@ -0,0 +1,70 @@
+package com.melihcelik.couriertracking.infrastructure.streams;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.repository.StoreRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes the store table to the compacted store.catalog topic that feeds the
+ * topology's global store. Only changed stores are sent; removed stores get a tombstone.
+ */
+@Slf4j
+@Component
+@Profile("streams")
+@RequiredArgsConstructor
+public class StoreCatalogPublisher {
+    private final StoreRepository storeRepository;
+    private final KafkaTemplate<Long, Store> storeCatalogKafkaTemplate;
+    private final Map<Long, Store> published = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        publish();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${courier-tracking.store-index.refresh-interval:300000}",
+            initialDelayString = "${courier-tracking.store-index.refresh-interval:300000}")
+    public synchronized void publish() {
+        List<Store> stores = storeRepository.findAll();
+        Set<Long> removed = new HashSet<>(published.keySet());
+        int sent = 0;
+        for (Store store : stores) {
+            removed.remove(store.getId());
+            if (!store.equals(published.get(store.getId()))) {
+                storeCatalogKafkaTemplate.send(CourierTrackingTopology.STORE_CATALOG_TOPIC, store.getId(), store);
+                published.put(store.getId(), copyOf(store));
+                sent++;
+            }
+        }
+        for (Long storeId : removed) {
+            storeCatalogKafkaTemplate.send(CourierTrackingTopology.STORE_CATALOG_TOPIC, storeId, null);
+            published.remove(storeId);
+        }
+        if (sent > 0 || !removed.isEmpty()) {
+            log.info("Store catalog published - updated: {}, removed: {}", sent, removed.size());
+        }
+    }
+
+    private static Store copyOf(Store store) {
+        return Store.builder()
+                .id(store.getId())
+                .name(store.getName())
+                .latitude(store.getLatitude())
+                .longitude(store.getLongitude())
+                .build();
+    }
+}
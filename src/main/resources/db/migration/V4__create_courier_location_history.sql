@@ -0,0 +1,18 @@
+-- Every processed ping, partitioned by day. Daily partitions are created ahead
+-- of time and dropped after the retention period by LocationHistoryPartitionManager.
+CREATE TABLE courier_location_history (
+    courier_id BIGINT NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    recorded_at TIMESTAMP WITH TIME ZONE NOT NULL
+) PARTITION BY RANGE (recorded_at);
+
+-- Rows arrive in time order, so a BRIN index stays tiny and still prunes block ranges
+CREATE INDEX idx_courier_location_history_recorded_at
+    ON courier_location_history USING BRIN (recorded_at);
+CREATE INDEX idx_courier_location_history_courier_time
+    ON courier_location_history (courier_id, recorded_at);
+
+-- Catches pings with timestamps outside the pre-created partitions
+CREATE TABLE courier_location_history_default
+    PARTITION OF courier_location_history DEFAULT;
@@ -0,0 +1,18 @@
+-- Covering indexes for keyset pagination of store entries on (entry_time, id).
+-- Listing pages are answered with index-only scans; built concurrently so
+-- existing tables stay writable while they are created.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_store_entry_store_time_id
+    ON store_entry (store_id, entry_time, id)
+    INCLUDE (courier_id, entry_latitude, entry_longitude);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_store_entry_courier_time_id
+    ON store_entry (courier_id, entry_time, id)
+    INCLUDE (store_id, entry_latitude, entry_longitude);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_store_entry_time_id
+    ON store_entry (entry_time, id)
+    INCLUDE (courier_id, store_id, entry_latitude, entry_longitude);
+
+-- Superseded by the indexes above
+DROP INDEX CONCURRENTLY IF EXISTS idx_store_entry_time;
+DROP INDEX CONCURRENTLY IF EXISTS idx_store_entry_courier_store;
@@ -0,0 +1,13 @@
+-- Store entries recomputed by a backfill run, swapped into store_entry in one
+-- transaction when the run finishes. Rows can always be rebuilt from Kafka,
+-- so the table is unlogged and bulk staging skips the WAL.
+CREATE UNLOGGED TABLE store_entry_backfill (
+    backfill_id UUID NOT NULL,
+    courier_id BIGINT NOT NULL,
+    store_id BIGINT NOT NULL,
+    entry_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    entry_latitude DOUBLE PRECISION NOT NULL,
+    entry_longitude DOUBLE PRECISION NOT NULL
+);
+
+CREATE INDEX idx_store_entry_backfill_run ON store_entry_backfill (backfill_id);
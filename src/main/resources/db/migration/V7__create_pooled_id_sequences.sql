@@ -0,0 +1,21 @@
+-- Pooled sequence generators for store and store_entry. BIGSERIAL keys come back
+-- with each INSERT, which keeps Hibernate from batching inserts; with these
+-- sequences one nextval reserves INCREMENT BY ids and the inserts are batched.
+-- INCREMENT BY must equal allocationSize on the entities (checked at startup).
+-- The pooled optimizer treats nextval as the top of its block, so each sequence
+-- starts a full block above the existing keys.
+CREATE SEQUENCE store_seq INCREMENT BY 50 OWNED BY store.id;
+SELECT setval('store_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM store), false);
+
+CREATE SEQUENCE store_entry_seq INCREMENT BY 50 OWNED BY store_entry.id;
+SELECT setval('store_entry_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM store_entry), false);
+
+-- Plain SQL inserts (seed data, backfill swaps) take the top of a block of their own
+ALTER TABLE store ALTER COLUMN id SET DEFAULT nextval('store_seq');
+ALTER TABLE store_entry ALTER COLUMN id SET DEFAULT nextval('store_entry_seq');
+DROP SEQUENCE store_id_seq;
+DROP SEQUENCE store_entry_id_seq;
+
+-- Courier IDs are assigned by the location events and never generated
+ALTER TABLE courier ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE courier_id_seq;
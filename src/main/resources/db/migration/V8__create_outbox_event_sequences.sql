@@ -0,0 +1,18 @@
+-- Outbox events get their ids from a pooled sequence like store and store_entry,
+-- so appends are batched. Each instance takes its own block of ids, so ids no
+-- longer follow insert order across instances; relay_seq is assigned by the
+-- database as each row is inserted and is the order the relay publishes in.
+ALTER TABLE outbox_event ADD COLUMN relay_seq BIGINT;
+UPDATE outbox_event SET relay_seq = id;
+CREATE SEQUENCE outbox_event_relay_seq OWNED BY outbox_event.relay_seq;
+SELECT setval('outbox_event_relay_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM outbox_event), false);
+ALTER TABLE outbox_event
+    ALTER COLUMN relay_seq SET DEFAULT nextval('outbox_event_relay_seq'),
+    ALTER COLUMN relay_seq SET NOT NULL;
+CREATE INDEX idx_outbox_event_relay_seq ON outbox_event (relay_seq);
+
+-- Same block layout as V7: nextval is the top of the block the pooled optimizer uses
+CREATE SEQUENCE outbox_event_seq INCREMENT BY 50 OWNED BY outbox_event.id;
+SELECT setval('outbox_event_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM outbox_event), false);
+ALTER TABLE outbox_event ALTER COLUMN id SET DEFAULT nextval('outbox_event_seq');
+DROP SEQUENCE outbox_event_id_seq;
@@ -0,0 +1,124 @@
+package com.melihcelik.couriertracking.application.backfill;
+
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTracker;
+import com.melihcelik.couriertracking.application.spatial.StoreSpatialIndex;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.repository.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierReplayFoldTest {
+
+    private static final double STORE_PROXIMITY_RADIUS = 100.0; // meters
+    private static final double STORE_LAT = 40.9923307;
+    private static final double STORE_LON = 29.1244229;
+    private static final double DEGREES_PER_METER = 1 / 111_195.0;
+    private static final Instant START = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    private PingFilter pingFilter;
+    private GeofenceTracker geofenceTracker;
+
+    @BeforeEach
+    void setUp() {
+        StoreSpatialIndex index = new StoreSpatialIndex(storeRepository);
+        ReflectionTestUtils.setField(index, "cellSize", STORE_PROXIMITY_RADIUS);
+        when(storeRepository.findAll()).thenReturn(List.of(
+                Store.builder().id(1L).name("Test Store").latitude(STORE_LAT).longitude(STORE_LON).build()));
+        index.rebuild();
+
+        geofenceTracker = new GeofenceTracker(index);
+        ReflectionTestUtils.setField(geofenceTracker, "enterRadius", STORE_PROXIMITY_RADIUS);
+        ReflectionTestUtils.setField(geofenceTracker, "exitMargin", 20.0);
+
+        pingFilter = new PingFilter();
+        ReflectionTestUtils.setField(pingFilter, "enabled", false);
+    }
+
+    @Test
+    void apply_ShouldSumDistancePerCourier() {
+        // Arrange
+        CourierReplayFold fold = new CourierReplayFold(pingFilter, geofenceTracker, Duration.ofSeconds(60), false);
+
+        // Act
+        fold.apply(event(1L, 5000, 0));
+        fold.apply(event(2L, 5000, 0));
+        fold.apply(event(1L, 6000, 10));
+        fold.apply(event(1L, 7000, 20));
+
+        // Assert
+        Map<Long, Double> distances = fold.distances();
+        assertEquals(2.0, distances.get(1L), 0.01);
+        assertEquals(0.0, distances.get(2L));
+        assertEquals(4, fold.eventsRead());
+        assertEquals(START, fold.earliest());
+        assertEquals(START.plusSeconds(20), fold.latest());
+        assertTrue(fold.drainEntries().isEmpty());
+    }
+
+    @Test
+    void apply_ReEnteringWithinCooldown_ShouldEmitOneEntry() {
+        // Arrange
+        CourierReplayFold fold = new CourierReplayFold(pingFilter, geofenceTracker, Duration.ofSeconds(60), true);
+
+        // Act
+        fold.apply(event(1L, 50, 0));
+        fold.apply(event(1L, 500, 10));
+        fold.apply(event(1L, 50, 20));
+        fold.apply(event(1L, 500, 100));
+        fold.apply(event(1L, 50, 200));
+
+        // Assert
+        List<StoreEntryEvent> entries = fold.drainEntries();
+        assertEquals(2, entries.size());
+        assertEquals(1L, entries.get(0).getStoreId());
+        assertEquals(START, entries.get(0).getTimestamp());
+        assertEquals(START.plusSeconds(200), entries.get(1).getTimestamp());
+        assertTrue(fold.drainEntries().isEmpty());
+    }
+
+    @Test
+    void apply_RejectedPing_ShouldNotMoveOdometer() {
+        // Arrange
+        ReflectionTestUtils.setField(pingFilter, "enabled", true);
+        ReflectionTestUtils.setField(pingFilter, "deadBand", 10.0);
+        ReflectionTestUtils.setField(pingFilter, "maxSpeed", 50.0);
+        ReflectionTestUtils.setField(pingFilter, "teleportDistance", 1000.0);
+        CourierReplayFold fold = new CourierReplayFold(pingFilter, geofenceTracker, Duration.ofSeconds(60), false);
+
+        // Act
+        fold.apply(event(1L, 5000, 0));
+        fold.apply(event(1L, 5002, 10));
+
+        // Assert
+        assertEquals(0.0, fold.distances().get(1L));
+        assertEquals(2, fold.eventsRead());
+    }
+
+    private static CourierLocationEvent event(Long courierId, double metersNorth, long second) {
+        return CourierLocationEvent.builder()
+                .courierId(courierId)
+                .latitude(STORE_LAT + metersNorth * DEGREES_PER_METER)
+                .longitude(STORE_LON)
+                .timestamp(START.plusSeconds(second))
+                .build();
+    }
+}
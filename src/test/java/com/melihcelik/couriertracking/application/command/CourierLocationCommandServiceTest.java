@@ -1,29 +1,36 @@
 package com.melihcelik.couriertracking.application.command;
 
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.history.LocationHistoryRecorder;
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.application.query.CourierReadModel;
+import com.melihcelik.couriertracking.application.spatial.CourierPositionIndex;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTracker;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTransition;
+import com.melihcelik.couriertracking.application.spatial.StoreSpatialIndex;
+import com.melihcelik.couriertracking.application.state.CourierState;
+import com.melihcelik.couriertracking.application.state.CourierStateStore;
 import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
 import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
-import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.domain.model.OutboxEvent;
 import com.melihcelik.couriertracking.domain.model.Store;
-import com.melihcelik.couriertracking.domain.repository.CourierRepository;
 import com.melihcelik.couriertracking.domain.repository.StoreRepository;
-import org.junit.jupiter.api.AfterEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,146 +40,301 @@ import static org.mockito.Mockito.*;
 class CourierLocationCommandServiceTest {
 
     @Mock
-    private CourierRepository courierRepository;
+    private PingFilter pingFilter;
 
     @Mock
-    private StoreRepository storeRepository;
+    private CourierStateStore courierStateStore;
+
+    @Mock
+    private GeofenceTracker geofenceTracker;
+
+    @Mock
+    private StoreEventOutbox storeEventOutbox;
+
+    @Mock
+    private CourierReadModel courierReadModel;
 
     @Mock
-    private KafkaTemplate<String, StoreEntryEvent> storeEntryKafkaTemplate;
+    private CourierPositionIndex courierPositionIndex;
+
+    @Mock
+    private LocationHistoryRecorder locationHistoryRecorder;
 
     @Mock
     private KafkaTemplate<String, CourierLocationEvent> locationKafkaTemplate;
 
-    @Captor
-    private ArgumentCaptor<Courier> courierCaptor;
+    @Mock
+    private CourierState courierState;
+
+    @Mock
+    private StoreRepository storeRepository;
 
     @Captor
     private ArgumentCaptor<StoreEntryEvent> storeEntryEventCaptor;
 
-    private CourierLocationCommandService service;
-    private MockedStatic<TransactionSynchronizationManager> mockedStatic;
+    @Captor
+    private ArgumentCaptor<StoreExitEvent> storeExitEventCaptor;
 
-    private static final double STORE_PROXIMITY_RADIUS = 100.0; // meters
+    private SimpleMeterRegistry meterRegistry;
+    private CourierLocationCommandService service;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(pingFilter.check(any())).thenReturn(PingFilter.Verdict.ACCEPTED);
         service = new CourierLocationCommandService(
-                courierRepository,
-                storeRepository,
-                storeEntryKafkaTemplate,
-                locationKafkaTemplate
+                pingFilter,
+                courierStateStore,
+                geofenceTracker,
+                storeEventOutbox,
+                courierReadModel,
+                courierPositionIndex,
+                locationHistoryRecorder,
+                locationKafkaTemplate,
+                new PipelineMetrics(meterRegistry)
         );
-        ReflectionTestUtils.setField(service, "storeProximityRadius", STORE_PROXIMITY_RADIUS);
-        
-        // Mock TransactionSynchronizationManager
-        mockedStatic = mockStatic(TransactionSynchronizationManager.class);
-        when(TransactionSynchronizationManager.isSynchronizationActive()).thenReturn(true);
-        doAnswer(invocation -> {
-            TransactionSynchronization synchronization = invocation.getArgument(0);
-            synchronization.afterCommit();
-            return null;
-        }).when(TransactionSynchronizationManager.class);
-        TransactionSynchronizationManager.registerSynchronization(any(TransactionSynchronization.class));
-    }
-
-    @AfterEach
-    void tearDown() {
-        if (mockedStatic != null) {
-            mockedStatic.close();
-        }
     }
 
     @Test
-    void processCourierLocation_NewCourier_ShouldCreateAndSave() {
+    void processCourierLocation_ShouldApplyEventToCourierState() {
         // Arrange
-        Long courierId = 1L;
-        CourierLocationEvent event = createLocationEvent(courierId, 40.9923307, 29.1244229);
-        when(courierRepository.findById(courierId)).thenReturn(Optional.empty());
-        when(courierRepository.save(any(Courier.class))).thenAnswer(i -> i.getArgument(0));
+        CourierLocationEvent event = createLocationEvent(1L, 40.986106, 29.1161293);
+        when(courierStateStore.apply(event)).thenReturn(courierState);
+        when(geofenceTracker.update(1L, event.getLatitude(), event.getLongitude(), event.getTimestamp()))
+                .thenReturn(List.of());
 
         // Act
         service.processCourierLocation(event);
 
         // Assert
-        verify(courierRepository).save(courierCaptor.capture());
-        Courier savedCourier = courierCaptor.getValue();
-        assertEquals(courierId, savedCourier.getId());
-        assertEquals(0.0, savedCourier.getTotalTravelDistance());
-        assertEquals(event.getLatitude(), savedCourier.getLastLatitude());
-        assertEquals(event.getLongitude(), savedCourier.getLastLongitude());
-        assertTrue(savedCourier.getIsActive());
+        verify(courierStateStore).apply(event);
+        verify(courierReadModel).update(courierState);
+        verify(courierPositionIndex).update(1L, event.getLatitude(), event.getLongitude(), event.getTimestamp());
+        verify(locationHistoryRecorder).record(event);
+        verify(courierStateStore, never()).flush();
+        verify(storeEventOutbox).append(List.of());
+        verifyNoMoreInteractions(storeEventOutbox);
     }
 
     @Test
-    void processCourierLocation_ExistingCourier_ShouldUpdateLocation() {
+    void processCourierLocation_GeofenceEntered_ShouldPublishStoreEntryEvent() {
         // Arrange
         Long courierId = 1L;
-        Courier existingCourier = Courier.builder()
-                .id(courierId)
-                .lastLatitude(40.9923307)
-                .lastLongitude(29.1244229)
-                .totalTravelDistance(0.0)
-                .isActive(true)
+        Long storeId = 1L;
+        String storeName = "Test Store";
+        
+        Store store = Store.builder()
+                .id(storeId)
+                .name(storeName)
+                .latitude(40.9923307)
+                .longitude(29.1244229)
                 .build();
 
-        CourierLocationEvent event = createLocationEvent(courierId, 40.986106, 29.1161293);
-        when(courierRepository.findById(courierId)).thenReturn(Optional.of(existingCourier));
-        when(courierRepository.save(any(Courier.class))).thenAnswer(i -> i.getArgument(0));
-        when(storeRepository.findAll()).thenReturn(List.of());
+        CourierLocationEvent event = createLocationEvent(courierId, 40.9923307, 29.1244229);
+        when(courierStateStore.apply(event)).thenReturn(courierState);
+        when(geofenceTracker.update(courierId, event.getLatitude(), event.getLongitude(), event.getTimestamp()))
+                .thenReturn(List.of(new GeofenceTransition(GeofenceTransition.Type.ENTER, courierId, store,
+                        event.getLatitude(), event.getLongitude(), event.getTimestamp(), event.getTimestamp())));
+        OutboxEvent outboxEvent = OutboxEvent.builder().topic("store.entry").build();
+        when(storeEventOutbox.storeEntry(any(StoreEntryEvent.class))).thenReturn(outboxEvent);
 
         // Act
         service.processCourierLocation(event);
 
         // Assert
-        verify(courierRepository).save(courierCaptor.capture());
-        Courier updatedCourier = courierCaptor.getValue();
-        assertEquals(courierId, updatedCourier.getId());
-        assertTrue(updatedCourier.getTotalTravelDistance() > 0.0);
-        assertEquals(event.getLatitude(), updatedCourier.getLastLatitude());
-        assertEquals(event.getLongitude(), updatedCourier.getLastLongitude());
+        verify(storeEventOutbox).storeEntry(storeEntryEventCaptor.capture());
+        verify(storeEventOutbox).append(List.of(outboxEvent));
+        StoreEntryEvent capturedEvent = storeEntryEventCaptor.getValue();
+        assertEquals(courierId, capturedEvent.getCourierId());
+        assertEquals(storeId, capturedEvent.getStoreId());
+        assertEquals(storeName, capturedEvent.getStoreName());
+        assertEquals(event.getLatitude(), capturedEvent.getLatitude());
+        assertEquals(event.getLongitude(), capturedEvent.getLongitude());
+        assertEquals(event.getTimestamp(), capturedEvent.getTimestamp());
+        verify(storeEventOutbox, never()).storeExit(any());
     }
 
     @Test
-    void processCourierLocation_CourierNearStore_ShouldPublishStoreEntryEvent() {
+    void processCourierLocation_GeofenceLeft_ShouldPublishStoreExitEvent() {
         // Arrange
         Long courierId = 1L;
-        Long storeId = 1L;
-        String storeName = "Test Store";
-        
         Store store = Store.builder()
-                .id(storeId)
-                .name(storeName)
+                .id(2L)
+                .name("Test Store")
                 .latitude(40.9923307)
                 .longitude(29.1244229)
                 .build();
 
-        CourierLocationEvent event = createLocationEvent(courierId, 40.9923307, 29.1244229);
-        Courier courier = Courier.builder()
-                .id(courierId)
-                .lastLatitude(event.getLatitude())
-                .lastLongitude(event.getLongitude())
-                .totalTravelDistance(0.0)
-                .isActive(true)
-                .build();
-
-        when(courierRepository.findById(courierId)).thenReturn(Optional.of(courier));
-        when(courierRepository.save(any(Courier.class))).thenReturn(courier);
-        when(storeRepository.findAll()).thenReturn(List.of(store));
-        when(storeEntryKafkaTemplate.send(anyString(), any(StoreEntryEvent.class)))
-                .thenReturn(CompletableFuture.completedFuture(null));
+        CourierLocationEvent event = createLocationEvent(courierId, 40.986106, 29.1161293);
+        Instant enteredAt = event.getTimestamp().minusSeconds(600);
+        when(courierStateStore.apply(event)).thenReturn(courierState);
+        when(geofenceTracker.update(courierId, event.getLatitude(), event.getLongitude(), event.getTimestamp()))
+                .thenReturn(List.of(new GeofenceTransition(GeofenceTransition.Type.EXIT, courierId, store,
+                        event.getLatitude(), event.getLongitude(), enteredAt, event.getTimestamp())));
+        OutboxEvent outboxEvent = OutboxEvent.builder().topic("store.exit").build();
+        when(storeEventOutbox.storeExit(any(StoreExitEvent.class))).thenReturn(outboxEvent);
 
         // Act
         service.processCourierLocation(event);
 
         // Assert
-        verify(storeEntryKafkaTemplate).send(eq("store.entry"), storeEntryEventCaptor.capture());
-        StoreEntryEvent capturedEvent = storeEntryEventCaptor.getValue();
+        verify(storeEventOutbox).storeExit(storeExitEventCaptor.capture());
+        verify(storeEventOutbox).append(List.of(outboxEvent));
+        StoreExitEvent capturedEvent = storeExitEventCaptor.getValue();
         assertEquals(courierId, capturedEvent.getCourierId());
-        assertEquals(storeId, capturedEvent.getStoreId());
-        assertEquals(storeName, capturedEvent.getStoreName());
-        assertEquals(event.getLatitude(), capturedEvent.getLatitude());
-        assertEquals(event.getLongitude(), capturedEvent.getLongitude());
+        assertEquals(2L, capturedEvent.getStoreId());
+        assertEquals(enteredAt, capturedEvent.getEnteredAt());
+        assertEquals(600L, capturedEvent.getDwellSeconds());
+        assertEquals(event.getTimestamp(), capturedEvent.getTimestamp());
+        verify(storeEventOutbox, never()).storeEntry(any());
+    }
+
+    @Test
+    void processCourierLocations_Batch_ShouldApplyInOrderAndFlushOnce() {
+        // Arrange
+        List<CourierLocationEvent> events = List.of(
+                createLocationEvent(1L, 40.986106, 29.1161293),
+                createLocationEvent(2L, 41.055783, 29.0210292),
+                createLocationEvent(1L, 40.9632463, 29.0630908));
+        when(courierStateStore.apply(any(CourierLocationEvent.class))).thenReturn(courierState);
+        when(geofenceTracker.update(anyLong(), anyDouble(), anyDouble(), any(Instant.class)))
+                .thenReturn(List.of());
+
+        // Act
+        service.processCourierLocations(events);
+
+        // Assert
+        InOrder inOrder = inOrder(courierStateStore);
+        inOrder.verify(courierStateStore).apply(events.get(0));
+        inOrder.verify(courierStateStore).apply(events.get(1));
+        inOrder.verify(courierStateStore).apply(events.get(2));
+        inOrder.verify(courierStateStore).flush();
+        verify(geofenceTracker, times(3)).update(anyLong(), anyDouble(), anyDouble(), any(Instant.class));
+        verify(storeEventOutbox).append(List.of());
+    }
+
+    @Test
+    void processCourierLocation_FilteredPing_ShouldShortCircuitAndCount() {
+        // Arrange
+        CourierLocationEvent event = createLocationEvent(1L, 40.986106, 29.1161293);
+        when(pingFilter.check(event)).thenReturn(PingFilter.Verdict.STATIONARY);
+
+        // Act
+        service.processCourierLocation(event);
+
+        // Assert
+        verifyNoInteractions(courierStateStore, geofenceTracker, storeEventOutbox, courierReadModel, locationHistoryRecorder);
+        assertEquals(1.0, meterRegistry.get("courier.pipeline.filtered").tag("reason", "stationary").counter().count());
+    }
+
+    @Test
+    void processCourierLocations_Batch_ShouldProcessOnlyAcceptedPings() {
+        // Arrange
+        CourierLocationEvent accepted = createLocationEvent(1L, 40.986106, 29.1161293);
+        CourierLocationEvent teleport = createLocationEvent(2L, 41.5, 29.9);
+        when(pingFilter.check(teleport)).thenReturn(PingFilter.Verdict.TELEPORT);
+        when(courierStateStore.apply(accepted)).thenReturn(courierState);
+        when(geofenceTracker.update(anyLong(), anyDouble(), anyDouble(), any(Instant.class))).thenReturn(List.of());
+
+        // Act
+        service.processCourierLocations(List.of(accepted, teleport));
+
+        // Assert
+        verify(courierStateStore).apply(accepted);
+        verify(courierStateStore, never()).apply(teleport);
+        verify(geofenceTracker, times(1)).update(anyLong(), anyDouble(), anyDouble(), any(Instant.class));
+        assertEquals(1.0, meterRegistry.get("courier.pipeline.filtered").tag("reason", "teleport").counter().count());
+    }
+
+    @Test
+    void processCourierLocations_EmptyBatch_ShouldNotTouchState() {
+        // Act
+        service.processCourierLocations(List.of());
+
+        // Assert
+        verifyNoInteractions(courierStateStore, storeEventOutbox, courierReadModel);
+    }
+
+    @Test
+    void processCourierLocation_AppendFails_ShouldEmitEnterAgainOnRedelivery() {
+        // Arrange
+        Store store = Store.builder().id(1L).name("Test Store").latitude(40.9923307).longitude(29.1244229).build();
+        when(storeRepository.findAll()).thenReturn(List.of(store));
+        StoreSpatialIndex index = new StoreSpatialIndex(storeRepository);
+        ReflectionTestUtils.setField(index, "cellSize", 100.0);
+        index.rebuild();
+        GeofenceTracker tracker = new GeofenceTracker(index);
+        ReflectionTestUtils.setField(tracker, "enterRadius", 100.0);
+        ReflectionTestUtils.setField(tracker, "exitMargin", 20.0);
+        CourierLocationCommandService trackingService = new CourierLocationCommandService(
+                pingFilter, courierStateStore, tracker, storeEventOutbox, courierReadModel,
+                courierPositionIndex, locationHistoryRecorder, locationKafkaTemplate, new PipelineMetrics(meterRegistry));
+
+        CourierLocationEvent event = createLocationEvent(1L, store.getLatitude(), store.getLongitude());
+        when(courierStateStore.apply(event)).thenReturn(courierState);
+        OutboxEvent outboxEvent = OutboxEvent.builder().topic("store.entry").build();
+        when(storeEventOutbox.storeEntry(any(StoreEntryEvent.class))).thenReturn(outboxEvent);
+        doThrow(new RuntimeException("Database unavailable")).doNothing()
+                .when(storeEventOutbox).append(List.of(outboxEvent));
+
+        // Act
+        assertThrows(RuntimeException.class, () -> trackingService.processCourierLocation(event));
+        trackingService.processCourierLocation(event);
+
+        // Assert
+        verify(storeEventOutbox, times(2)).storeEntry(any(StoreEntryEvent.class));
+        verify(storeEventOutbox, times(2)).append(List.of(outboxEvent));
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    void processCourierLocation_AppendFailsOnce_ShouldProcessRetriedEvent() {
+        // Arrange
+        PingFilter filter = new PingFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "deadBand", 10.0);
+        ReflectionTestUtils.setField(filter, "maxSpeed", 50.0);
+        ReflectionTestUtils.setField(filter, "teleportDistance", 1000.0);
+        CourierLocationCommandService filteringService = new CourierLocationCommandService(
+                filter, courierStateStore, geofenceTracker, storeEventOutbox, courierReadModel,
+                courierPositionIndex, locationHistoryRecorder, locationKafkaTemplate, new PipelineMetrics(meterRegistry));
+
+        CourierLocationEvent event = createLocationEvent(1L, 40.986106, 29.1161293);
+        when(courierStateStore.apply(event)).thenReturn(courierState);
+        when(geofenceTracker.update(1L, event.getLatitude(), event.getLongitude(), event.getTimestamp()))
+                .thenReturn(List.of());
+        doThrow(new RuntimeException("Database unavailable")).doNothing()
+                .when(storeEventOutbox).append(List.of());
+
+        // Act
+        assertThrows(RuntimeException.class, () -> filteringService.processCourierLocation(event));
+        filteringService.processCourierLocation(event);
+
+        // Assert
+        verify(courierStateStore, times(2)).apply(event);
+        verify(storeEventOutbox, times(2)).append(List.of());
+        assertTrue(meterRegistry.find("courier.pipeline.filtered").counters().stream()
+                .allMatch(counter -> counter.count() == 0));
+    }
+
+    @Test
+    void processCourierLocations_AppendFails_ShouldRollBackFilterAndVisits() {
+        // Arrange
+        List<CourierLocationEvent> events = List.of(
+                createLocationEvent(1L, 40.986106, 29.1161293),
+                createLocationEvent(2L, 41.055783, 29.0210292));
+        PingFilter.Savepoint lastPings = mock(PingFilter.Savepoint.class);
+        when(pingFilter.savepoint(Set.of(1L, 2L))).thenReturn(lastPings);
+        GeofenceTracker.Savepoint savepoint = mock(GeofenceTracker.Savepoint.class);
+        when(geofenceTracker.savepoint(Set.of(1L, 2L))).thenReturn(savepoint);
+        when(courierStateStore.apply(any(CourierLocationEvent.class))).thenReturn(courierState);
+        when(geofenceTracker.update(anyLong(), anyDouble(), anyDouble(), any(Instant.class))).thenReturn(List.of());
+        doThrow(new RuntimeException("Database unavailable")).when(storeEventOutbox).append(List.of());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> service.processCourierLocations(events));
+        verify(pingFilter).rollback(lastPings);
+        verify(geofenceTracker).rollback(savepoint);
     }
 
     private CourierLocationEvent createLocationEvent(Long courierId, double latitude, double longitude) {
@@ -183,4 +345,4 @@ class CourierLocationCommandServiceTest {
                 .timestamp(Instant.now())
                 .build();
     }
-} 
\ No newline at end of file
+}
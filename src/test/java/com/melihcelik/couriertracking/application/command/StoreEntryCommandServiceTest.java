@@ -1,5 +1,7 @@
 package com.melihcelik.couriertracking.application.command;
 
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.application.state.StoreEntryCooldownTracker;
 import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
 import com.melihcelik.couriertracking.domain.model.Courier;
 import com.melihcelik.couriertracking.domain.model.Store;
@@ -7,6 +9,7 @@ import com.melihcelik.couriertracking.domain.model.StoreEntry;
 import com.melihcelik.couriertracking.domain.repository.CourierRepository;
 import com.melihcelik.couriertracking.domain.repository.StoreEntryRepository;
 import com.melihcelik.couriertracking.domain.repository.StoreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,11 +17,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 
-import java.time.Duration;
 import java.time.Instant;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,21 +37,23 @@ class StoreEntryCommandServiceTest {
     @Mock
     private StoreRepository storeRepository;
 
+    @Mock
+    private StoreEntryCooldownTracker cooldownTracker;
+
     @Captor
     private ArgumentCaptor<StoreEntry> storeEntryCaptor;
 
     private StoreEntryCommandService service;
 
-    private static final int STORE_ENTRY_COOLDOWN = 60; // seconds
-
     @BeforeEach
     void setUp() {
         service = new StoreEntryCommandService(
                 storeEntryRepository,
                 courierRepository,
-                storeRepository
+                storeRepository,
+                cooldownTracker,
+                new PipelineMetrics(new SimpleMeterRegistry())
         );
-        ReflectionTestUtils.setField(service, "storeEntryCooldown", STORE_ENTRY_COOLDOWN);
     }
 
     @Test
@@ -64,11 +67,9 @@ class StoreEntryCommandServiceTest {
         Store store = createStore(storeId);
         StoreEntryEvent event = createStoreEntryEvent(courierId, storeId, store.getName(), timestamp);
 
-        when(courierRepository.findById(courierId)).thenReturn(Optional.of(courier));
-        when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
-        when(storeEntryRepository.findLatestEntryForCourierAndStore(
-                courierId, storeId, timestamp.minus(Duration.ofSeconds(STORE_ENTRY_COOLDOWN))))
-                .thenReturn(Optional.empty());
+        when(cooldownTracker.tryAcquire(courierId, storeId, timestamp)).thenReturn(true);
+        when(courierRepository.getReferenceById(courierId)).thenReturn(courier);
+        when(storeRepository.getReferenceById(storeId)).thenReturn(store);
         when(storeEntryRepository.save(any(StoreEntry.class))).thenAnswer(i -> i.getArgument(0));
 
         // Act
@@ -82,6 +83,9 @@ class StoreEntryCommandServiceTest {
         assertEquals(event.getTimestamp(), savedEntry.getEntryTime());
         assertEquals(event.getLatitude(), savedEntry.getEntryLatitude());
         assertEquals(event.getLongitude(), savedEntry.getEntryLongitude());
+        verify(courierRepository, never()).findById(any());
+        verify(storeRepository, never()).findById(any());
+        verify(cooldownTracker, never()).release(any(), any(), any());
     }
 
     @Test
@@ -90,59 +94,53 @@ class StoreEntryCommandServiceTest {
         Long courierId = 1L;
         Long storeId = 1L;
         Instant timestamp = Instant.now();
-        
-        Courier courier = createCourier(courierId);
-        Store store = createStore(storeId);
-        StoreEntryEvent event = createStoreEntryEvent(courierId, storeId, store.getName(), timestamp);
-        StoreEntry recentEntry = createStoreEntry(courier, store, timestamp.minus(Duration.ofSeconds(30)));
+        StoreEntryEvent event = createStoreEntryEvent(courierId, storeId, "Test Store", timestamp);
 
-        when(courierRepository.findById(courierId)).thenReturn(Optional.of(courier));
-        when(storeRepository.findById(storeId)).thenReturn(Optional.of(store));
-        when(storeEntryRepository.findLatestEntryForCourierAndStore(
-                courierId, storeId, timestamp.minus(Duration.ofSeconds(STORE_ENTRY_COOLDOWN))))
-                .thenReturn(Optional.of(recentEntry));
+        when(cooldownTracker.tryAcquire(courierId, storeId, timestamp)).thenReturn(false);
 
         // Act
         service.processStoreEntry(event);
 
         // Assert
         verify(storeEntryRepository, never()).save(any(StoreEntry.class));
+        verifyNoInteractions(courierRepository, storeRepository);
     }
 
     @Test
-    void processStoreEntry_CourierNotFound_ShouldThrowException() {
+    void processStoreEntry_SaveFails_ShouldReleaseCooldown() {
         // Arrange
         Long courierId = 1L;
         Long storeId = 1L;
-        StoreEntryEvent event = createStoreEntryEvent(courierId, storeId, "Test Store", Instant.now());
+        Instant timestamp = Instant.now();
+        Store store = createStore(storeId);
+        StoreEntryEvent event = createStoreEntryEvent(courierId, storeId, store.getName(), timestamp);
 
-        when(courierRepository.findById(courierId)).thenReturn(Optional.empty());
+        when(cooldownTracker.tryAcquire(courierId, storeId, timestamp)).thenReturn(true);
+        when(courierRepository.getReferenceById(courierId)).thenReturn(createCourier(courierId));
+        when(storeRepository.getReferenceById(storeId)).thenReturn(store);
+        when(storeEntryRepository.save(any(StoreEntry.class))).thenThrow(new RuntimeException("Database unavailable"));
 
         // Act & Assert
-        Exception exception = assertThrows(IllegalStateException.class, () -> 
-            service.processStoreEntry(event)
-        );
-        assertTrue(exception.getMessage().contains("Courier not found"));
-        verify(storeEntryRepository, never()).save(any(StoreEntry.class));
+        assertThrows(RuntimeException.class, () -> service.processStoreEntry(event));
+        verify(cooldownTracker).release(courierId, storeId, timestamp);
     }
 
     @Test
-    void processStoreEntry_StoreNotFound_ShouldThrowException() {
+    void processStoreEntry_MissingReference_ShouldReleaseCooldown() {
         // Arrange
         Long courierId = 1L;
         Long storeId = 1L;
-        Courier courier = createCourier(courierId);
         StoreEntryEvent event = createStoreEntryEvent(courierId, storeId, "Test Store", Instant.now());
 
-        when(courierRepository.findById(courierId)).thenReturn(Optional.of(courier));
-        when(storeRepository.findById(storeId)).thenReturn(Optional.empty());
+        when(cooldownTracker.tryAcquire(courierId, storeId, event.getTimestamp())).thenReturn(true);
+        when(courierRepository.getReferenceById(courierId)).thenReturn(createCourier(courierId));
+        when(storeRepository.getReferenceById(storeId)).thenReturn(createStore(storeId));
+        when(storeEntryRepository.save(any(StoreEntry.class)))
+                .thenThrow(new DataIntegrityViolationException("store_entry_courier_id_fkey"));
 
         // Act & Assert
-        Exception exception = assertThrows(IllegalStateException.class, () -> 
-            service.processStoreEntry(event)
-        );
-        assertTrue(exception.getMessage().contains("Store not found"));
-        verify(storeEntryRepository, never()).save(any(StoreEntry.class));
+        assertThrows(DataIntegrityViolationException.class, () -> service.processStoreEntry(event));
+        verify(cooldownTracker).release(courierId, storeId, event.getTimestamp());
     }
 
     private Courier createCourier(Long id) {
@@ -174,14 +172,4 @@ class StoreEntryCommandServiceTest {
                 .timestamp(timestamp)
                 .build();
     }
-
-    private StoreEntry createStoreEntry(Courier courier, Store store, Instant timestamp) {
-        return StoreEntry.builder()
-                .courier(courier)
-                .store(store)
-                .entryTime(timestamp)
-                .entryLatitude(courier.getLastLatitude())
-                .entryLongitude(courier.getLastLongitude())
-                .build();
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package com.melihcelik.couriertracking.application.command;
+
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.domain.model.OutboxEvent;
+import com.melihcelik.couriertracking.domain.repository.OutboxEventRepository;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreEventOutboxTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private Serializer<StoreEntryEvent> storeEntrySerializer;
+
+    @Mock
+    private Serializer<StoreExitEvent> storeExitSerializer;
+
+    private StoreEventOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new StoreEventOutbox(outboxEventRepository, storeEntrySerializer, storeExitSerializer);
+    }
+
+    @Test
+    void storeEntry_ShouldEncodeForStoreEntryTopicKeyedByCourier() {
+        // Arrange
+        StoreEntryEvent event = StoreEntryEvent.builder().courierId(7L).storeId(1L).timestamp(Instant.now()).build();
+        byte[] payload = {1, 2, 3};
+        when(storeEntrySerializer.serialize("store.entry", event)).thenReturn(payload);
+
+        // Act
+        OutboxEvent outboxEvent = outbox.storeEntry(event);
+
+        // Assert
+        assertEquals("store.entry", outboxEvent.getTopic());
+        assertEquals("7", outboxEvent.getEventKey());
+        assertArrayEquals(payload, outboxEvent.getPayload());
+        assertNotNull(outboxEvent.getCreatedAt());
+    }
+
+    @Test
+    void storeExit_ShouldEncodeForStoreExitTopicKeyedByCourier() {
+        // Arrange
+        StoreExitEvent event = StoreExitEvent.builder().courierId(7L).storeId(1L).timestamp(Instant.now()).build();
+        byte[] payload = {4, 5};
+        when(storeExitSerializer.serialize("store.exit", event)).thenReturn(payload);
+
+        // Act
+        OutboxEvent outboxEvent = outbox.storeExit(event);
+
+        // Assert
+        assertEquals("store.exit", outboxEvent.getTopic());
+        assertEquals("7", outboxEvent.getEventKey());
+        assertArrayEquals(payload, outboxEvent.getPayload());
+    }
+
+    @Test
+    void append_Events_ShouldSaveAllAtOnce() {
+        // Arrange
+        List<OutboxEvent> events = List.of(
+                OutboxEvent.builder().topic("store.entry").eventKey("1").payload(new byte[]{1}).build(),
+                OutboxEvent.builder().topic("store.exit").eventKey("1").payload(new byte[]{2}).build());
+
+        // Act
+        outbox.append(events);
+
+        // Assert
+        verify(outboxEventRepository).saveAll(events);
+    }
+
+    @Test
+    void append_NoEvents_ShouldNotTouchRepository() {
+        // Act
+        outbox.append(List.of());
+
+        // Assert
+        verifyNoInteractions(outboxEventRepository);
+    }
+}
@@ -0,0 +1,221 @@
+package com.melihcelik.couriertracking.application.filter;
+
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PingFilterTest {
+    private static final double METERS_PER_DEGREE = 111_195.0;
+    private static final double LAT = 40.99;
+    private static final double LON = 29.12;
+    private static final Instant START = Instant.parse("2026-10-18T10:00:00Z");
+
+    private PingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new PingFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "deadBand", 10.0);
+        ReflectionTestUtils.setField(filter, "maxSpeed", 50.0);
+        ReflectionTestUtils.setField(filter, "teleportDistance", 1000.0);
+    }
+
+    @Test
+    void check_FirstPing_ShouldBeAccepted() {
+        assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(ping(0, 0, 0)));
+    }
+
+    @Test
+    void check_UnusableCoordinates_ShouldBeInvalid() {
+        assertEquals(PingFilter.Verdict.INVALID, filter.check(event(1L, null, LON, START)));
+        assertEquals(PingFilter.Verdict.INVALID, filter.check(event(1L, Double.NaN, LON, START)));
+        assertEquals(PingFilter.Verdict.INVALID, filter.check(event(1L, 91.0, LON, START)));
+        assertEquals(PingFilter.Verdict.INVALID, filter.check(event(1L, 0.0, 0.0, START)));
+    }
+
+    @Test
+    void check_ParkedCourierWithGpsJitter_ShouldDropEveryPingAfterTheFirst() {
+        // Arrange
+        Random random = new Random(11);
+        filter.check(ping(0, 0, 0));
+        int accepted = 0;
+
+        // Act
+        for (int i = 1; i <= 600; i++) {
+            if (filter.check(ping(random.nextGaussian() * 2, random.nextGaussian() * 2, i)).isAccepted()) {
+                accepted++;
+            }
+        }
+
+        // Assert
+        assertEquals(0, accepted);
+    }
+
+    @Test
+    void check_SlowMovementBelowDeadBandPerPing_ShouldAccumulateAgainstAnchor() {
+        // Arrange
+        filter.check(ping(0, 0, 0));
+
+        // Act
+        PingFilter.Verdict first = filter.check(ping(4, 0, 1));
+        PingFilter.Verdict second = filter.check(ping(8, 0, 2));
+        PingFilter.Verdict third = filter.check(ping(12, 0, 3));
+
+        // Assert
+        assertEquals(PingFilter.Verdict.STATIONARY, first);
+        assertEquals(PingFilter.Verdict.STATIONARY, second);
+        assertEquals(PingFilter.Verdict.ACCEPTED, third);
+    }
+
+    @Test
+    void check_NormalDriving_ShouldAcceptEveryPing() {
+        // Arrange
+        filter.check(ping(0, 0, 0));
+
+        // Act & Assert
+        for (int i = 1; i <= 100; i++) {
+            assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(ping(i * 15.0, 0, i)));
+        }
+    }
+
+    @Test
+    void check_OlderOrDuplicateTimestamp_ShouldBeStale() {
+        // Arrange
+        filter.check(ping(0, 0, 10));
+
+        // Act & Assert
+        assertEquals(PingFilter.Verdict.STALE, filter.check(ping(100, 0, 10)));
+        assertEquals(PingFilter.Verdict.STALE, filter.check(ping(100, 0, 5)));
+    }
+
+    @Test
+    void check_SingleGpsSpike_ShouldBeRejectedAndTrackResume() {
+        // Arrange
+        filter.check(ping(0, 0, 0));
+
+        // Act
+        PingFilter.Verdict spike = filter.check(ping(300, 0, 1));
+        PingFilter.Verdict jump = filter.check(ping(5000, 0, 2));
+        PingFilter.Verdict back = filter.check(ping(15, 0, 3));
+
+        // Assert
+        assertEquals(PingFilter.Verdict.SPEED, spike);
+        assertEquals(PingFilter.Verdict.TELEPORT, jump);
+        assertEquals(PingFilter.Verdict.ACCEPTED, back);
+    }
+
+    @Test
+    void check_ConfirmedRelocation_ShouldBeAcceptedOnSecondPing() {
+        // Arrange
+        filter.check(ping(0, 0, 0));
+
+        // Act
+        PingFilter.Verdict first = filter.check(ping(5000, 0, 1));
+        PingFilter.Verdict confirmed = filter.check(ping(5015, 0, 2));
+        PingFilter.Verdict next = filter.check(ping(5030, 0, 3));
+
+        // Assert
+        assertEquals(PingFilter.Verdict.TELEPORT, first);
+        assertEquals(PingFilter.Verdict.ACCEPTED, confirmed);
+        assertEquals(PingFilter.Verdict.ACCEPTED, next);
+    }
+
+    @Test
+    void check_LongGap_ShouldAllowLargeMoveAtPlausibleSpeed() {
+        // Arrange
+        filter.check(ping(0, 0, 0));
+
+        // Act & Assert
+        assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(ping(5000, 0, 600)));
+    }
+
+    @Test
+    void check_Disabled_ShouldOnlyRejectInvalid() {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "enabled", false);
+        filter.check(ping(0, 0, 0));
+
+        // Act & Assert
+        assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(ping(1, 0, 1)));
+        assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(ping(5000, 0, 2)));
+        assertEquals(PingFilter.Verdict.INVALID, filter.check(event(1L, 0.0, 0.0, START)));
+    }
+
+    @Test
+    void check_ShouldTrackCouriersIndependently() {
+        // Arrange
+        filter.check(ping(0, 0, 0));
+
+        // Act & Assert
+        assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(event(2L, LAT, LON, START)));
+    }
+
+    @Test
+    void newInstance_ShouldKeepSettingsButNotRememberedPings() {
+        // Arrange
+        filter.check(ping(0, 0, 0));
+
+        // Act
+        PingFilter copy = filter.newInstance();
+
+        // Assert
+        assertEquals(PingFilter.Verdict.ACCEPTED, copy.check(ping(0, 0, 0)));
+        assertEquals(PingFilter.Verdict.STATIONARY, copy.check(ping(5, 0, 1)));
+        assertEquals(PingFilter.Verdict.SPEED, copy.check(ping(500, 0, 2)));
+        assertEquals(PingFilter.Verdict.STALE, filter.check(ping(100, 0, 0)));
+    }
+
+    @Test
+    void rollback_ShouldAcceptTheSamePingAgain() {
+        // Arrange
+        filter.check(ping(0, 0, 0));
+        PingFilter.Savepoint savepoint = filter.savepoint(List.of(1L, 2L));
+        filter.check(ping(100, 0, 10));
+        filter.check(event(2L, LAT, LON, START));
+
+        // Act
+        filter.rollback(savepoint);
+
+        // Assert
+        assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(ping(100, 0, 10)));
+        assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(event(2L, LAT, LON, START)));
+    }
+
+    @Test
+    void rollback_WithoutTimestamps_ShouldNotTreatRetryAsStationary() {
+        // Arrange
+        filter.check(event(1L, LAT, LON, null));
+        PingFilter.Savepoint savepoint = filter.savepoint(List.of(1L));
+        CourierLocationEvent moved = event(1L, LAT + 100 / METERS_PER_DEGREE, LON, null);
+        filter.check(moved);
+
+        // Act
+        filter.rollback(savepoint);
+
+        // Assert
+        assertEquals(PingFilter.Verdict.ACCEPTED, filter.check(moved));
+    }
+
+    private CourierLocationEvent ping(double northMeters, double eastMeters, int second) {
+        double latitude = LAT + northMeters / METERS_PER_DEGREE;
+        double longitude = LON + eastMeters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(LAT)));
+        return event(1L, latitude, longitude, START.plusSeconds(second));
+    }
+
+    private CourierLocationEvent event(Long courierId, Double latitude, Double longitude, Instant timestamp) {
+        return CourierLocationEvent.builder()
+                .courierId(courierId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .timestamp(timestamp)
+                .build();
+    }
+}
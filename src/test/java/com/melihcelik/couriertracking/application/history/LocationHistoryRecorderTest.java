@@ -0,0 +1,182 @@
+package com.melihcelik.couriertracking.application.history;
+
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import com.melihcelik.couriertracking.domain.repository.LocationHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationHistoryRecorderTest {
+
+    @Mock
+    private LocationHistoryRepository locationHistoryRepository;
+
+    @Mock
+    private TrajectorySimplifier trajectorySimplifier;
+
+    @Captor
+    private ArgumentCaptor<Collection<LocationPoint>> pointsCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocationHistoryRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new LocationHistoryRecorder(locationHistoryRepository, trajectorySimplifier,
+                new PipelineMetrics(meterRegistry));
+        ReflectionTestUtils.setField(recorder, "flushThreshold", 100);
+        ReflectionTestUtils.setField(recorder, "maxBuffered", 1000);
+        lenient().when(trajectorySimplifier.offer(any())).thenAnswer(invocation -> List.of(invocation.<LocationPoint>getArgument(0)));
+        lenient().when(trajectorySimplifier.maxInterval()).thenReturn(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void record_BelowThreshold_ShouldBufferWithoutWriting() {
+        // Act
+        recorder.record(event(1L, Instant.parse("2026-10-18T10:00:00Z")));
+
+        // Assert
+        assertEquals(1, recorder.bufferedCount());
+        verifyNoInteractions(locationHistoryRepository);
+    }
+
+    @Test
+    void record_ReachingThreshold_ShouldWriteWholeBufferInOneCall() {
+        // Act
+        for (int i = 0; i < 100; i++) {
+            recorder.record(event(1L, Instant.parse("2026-10-18T10:00:00Z").plusSeconds(i)));
+        }
+
+        // Assert
+        verify(locationHistoryRepository, times(1)).appendAll(pointsCaptor.capture());
+        assertEquals(100, pointsCaptor.getValue().size());
+        assertEquals(0, recorder.bufferedCount());
+    }
+
+    @Test
+    void flush_ShouldKeepArrivalOrderAndEventTime() {
+        // Arrange
+        Instant first = Instant.parse("2026-10-18T10:00:00Z");
+        recorder.record(event(1L, first));
+        recorder.record(event(2L, first.plusSeconds(1)));
+
+        // Act
+        recorder.flush();
+
+        // Assert
+        verify(locationHistoryRepository).appendAll(pointsCaptor.capture());
+        List<LocationPoint> points = List.copyOf(pointsCaptor.getValue());
+        assertEquals(new LocationPoint(1L, 40.99, 29.12, first), points.get(0));
+        assertEquals(2L, points.get(1).courierId());
+    }
+
+    @Test
+    void flush_WriteFails_ShouldRetainPointsForNextFlush() {
+        // Arrange
+        recorder.record(event(1L, Instant.parse("2026-10-18T10:00:00Z")));
+        doThrow(new RuntimeException("db down")).doNothing().when(locationHistoryRepository).appendAll(any());
+
+        // Act
+        recorder.flush();
+        int afterFailure = recorder.bufferedCount();
+        recorder.flush();
+
+        // Assert
+        assertEquals(1, afterFailure);
+        assertEquals(0, recorder.bufferedCount());
+        verify(locationHistoryRepository, times(2)).appendAll(any());
+    }
+
+    @Test
+    void record_BufferFull_ShouldDropAndCount() {
+        // Arrange
+        ReflectionTestUtils.setField(recorder, "maxBuffered", 2);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            recorder.record(event(1L, Instant.parse("2026-10-18T10:00:00Z").plusSeconds(i)));
+        }
+
+        // Assert
+        assertEquals(2, recorder.bufferedCount());
+        assertEquals(3.0, meterRegistry.get("courier.pipeline.history.dropped").counter().count());
+    }
+
+    @Test
+    void record_PointDroppedBySimplifier_ShouldNotBuffer() {
+        // Arrange
+        doReturn(List.of()).when(trajectorySimplifier).offer(any());
+
+        // Act
+        recorder.record(event(1L, Instant.parse("2026-10-18T10:00:00Z")));
+
+        // Assert
+        assertEquals(0, recorder.bufferedCount());
+        assertEquals(1.0, meterRegistry.get("courier.pipeline.history.offered").counter().count());
+    }
+
+    @Test
+    void flush_ShouldWritePendingEndsOfIdleTracks() {
+        // Arrange
+        LocationPoint pending = new LocationPoint(1L, 40.99, 29.12, Instant.parse("2026-10-18T10:00:00Z"));
+        when(trajectorySimplifier.drainIdle(any(Instant.class))).thenReturn(List.of(pending));
+
+        // Act
+        recorder.flush();
+
+        // Assert
+        verify(locationHistoryRepository).appendAll(pointsCaptor.capture());
+        assertEquals(List.of(pending), List.copyOf(pointsCaptor.getValue()));
+    }
+
+    @Test
+    void flushOnShutdown_ShouldDrainAllOpenTracks() {
+        // Arrange
+        LocationPoint pending = new LocationPoint(1L, 40.99, 29.12, Instant.parse("2026-10-18T10:00:00Z"));
+        when(trajectorySimplifier.drainAll()).thenReturn(List.of(pending));
+
+        // Act
+        recorder.flushOnShutdown();
+
+        // Assert
+        verify(locationHistoryRepository).appendAll(pointsCaptor.capture());
+        assertEquals(List.of(pending), List.copyOf(pointsCaptor.getValue()));
+    }
+
+    @Test
+    void flush_EmptyBuffer_ShouldNotWrite() {
+        // Act
+        recorder.flush();
+
+        // Assert
+        verifyNoInteractions(locationHistoryRepository);
+    }
+
+    private CourierLocationEvent event(Long courierId, Instant timestamp) {
+        return CourierLocationEvent.builder()
+                .courierId(courierId)
+                .latitude(40.99)
+                .longitude(29.12)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,240 @@
+package com.melihcelik.couriertracking.application.history;
+
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrajectorySimplifierTest {
+    private static final double TOLERANCE = 5.0;
+    private static final double METERS_PER_DEGREE = 111_195.0;
+    private static final Instant START = Instant.parse("2026-10-18T10:00:00Z");
+
+    private TrajectorySimplifier simplifier;
+
+    @BeforeEach
+    void setUp() {
+        simplifier = new TrajectorySimplifier();
+        ReflectionTestUtils.setField(simplifier, "tolerance", TOLERANCE);
+        ReflectionTestUtils.setField(simplifier, "maxWindow", 200);
+        ReflectionTestUtils.setField(simplifier, "maxInterval", 60L);
+    }
+
+    @Test
+    void offer_FirstPoint_ShouldBeKept() {
+        // Arrange
+        LocationPoint first = point(1L, 40.99, 29.12, 0);
+
+        // Act
+        List<LocationPoint> kept = simplifier.offer(first);
+
+        // Assert
+        assertEquals(List.of(first), kept);
+    }
+
+    @Test
+    void offer_RandomDrivingTracks_ShouldKeepEveryDroppedPointWithinTolerance() {
+        Random random = new Random(42);
+        for (int run = 0; run < 20; run++) {
+            // Arrange
+            long courierId = run;
+            List<LocationPoint> track = randomDrivingTrack(random, courierId, 1800);
+
+            // Act
+            List<LocationPoint> stored = simplify(track);
+
+            // Assert
+            assertEquals(track.get(0), stored.get(0));
+            assertEquals(track.get(track.size() - 1), stored.get(stored.size() - 1));
+            assertMaxDeviationWithin(track, stored, TOLERANCE * 1.01);
+        }
+    }
+
+    @Test
+    void offer_StraightRoadWithJitter_ShouldDropMostPoints() {
+        // Arrange
+        Random random = new Random(7);
+        List<LocationPoint> track = new ArrayList<>();
+        for (int i = 0; i < 3600; i++) {
+            double north = i * 12.0 + random.nextGaussian();
+            double east = random.nextGaussian();
+            track.add(offset(1L, 40.99, 29.12, north, east, i));
+        }
+
+        // Act
+        List<LocationPoint> stored = simplify(track);
+
+        // Assert
+        // One segment per max-interval at most, plus segments split by the window cap
+        assertTrue(stored.size() <= track.size() / 15, "stored " + stored.size() + " of " + track.size());
+        assertMaxDeviationWithin(track, stored, TOLERANCE * 1.01);
+    }
+
+    @Test
+    void offer_RandomDrivingTracks_ShouldReduceStoredPointsSeveralFold() {
+        // Arrange
+        List<LocationPoint> track = randomDrivingTrack(new Random(3), 1L, 3600);
+
+        // Act
+        List<LocationPoint> stored = simplify(track);
+
+        // Assert
+        assertTrue(stored.size() * 4 < track.size(), "stored " + stored.size() + " of " + track.size());
+    }
+
+    @Test
+    void offer_ZeroTolerance_ShouldKeepEveryPoint() {
+        // Arrange
+        ReflectionTestUtils.setField(simplifier, "tolerance", 0.0);
+        List<LocationPoint> track = randomDrivingTrack(new Random(1), 1L, 100);
+
+        // Act
+        List<LocationPoint> kept = new ArrayList<>();
+        track.forEach(point -> kept.addAll(simplifier.offer(point)));
+
+        // Assert
+        assertEquals(track, kept);
+    }
+
+    @Test
+    void offer_ParkedCourier_ShouldCloseSegmentAfterMaxInterval() {
+        // Arrange
+        List<LocationPoint> kept = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i <= 150; i++) {
+            kept.addAll(simplifier.offer(point(1L, 40.99, 29.12, i)));
+        }
+
+        // Assert
+        assertEquals(List.of(0L, 60L, 120L), kept.stream()
+                .map(point -> point.recordedAt().getEpochSecond() - START.getEpochSecond())
+                .toList());
+    }
+
+    @Test
+    void offer_WindowCap_ShouldCloseSegment() {
+        // Arrange
+        ReflectionTestUtils.setField(simplifier, "maxWindow", 10);
+        List<LocationPoint> kept = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 25; i++) {
+            kept.addAll(simplifier.offer(offset(1L, 40.99, 29.12, i * 10.0, 0, i)));
+        }
+
+        // Assert
+        assertEquals(3, kept.size());
+    }
+
+    @Test
+    void drainIdle_ShouldReturnPendingEndAndForgetCourier() {
+        // Arrange
+        simplifier.offer(point(1L, 40.99, 29.12, 0));
+        LocationPoint last = point(1L, 40.99, 29.12, 5);
+        simplifier.offer(last);
+        simplifier.offer(point(2L, 41.0, 29.0, 100));
+
+        // Act
+        List<LocationPoint> pending = simplifier.drainIdle(START.plusSeconds(50));
+
+        // Assert
+        assertEquals(List.of(last), pending);
+        assertEquals(1, simplifier.trackedCount());
+    }
+
+    @Test
+    void drainAll_AnchorOnly_ShouldReturnNothing() {
+        // Arrange
+        simplifier.offer(point(1L, 40.99, 29.12, 0));
+
+        // Act
+        List<LocationPoint> pending = simplifier.drainAll();
+
+        // Assert
+        assertTrue(pending.isEmpty());
+        assertEquals(0, simplifier.trackedCount());
+    }
+
+    private List<LocationPoint> simplify(List<LocationPoint> track) {
+        List<LocationPoint> stored = new ArrayList<>();
+        track.forEach(point -> stored.addAll(simplifier.offer(point)));
+        stored.addAll(simplifier.drainAll());
+        return stored;
+    }
+
+    /**
+     * Check each original point against the stored segment spanning it, using Haversine
+     * distances so the check does not share the simplifier's projection
+     */
+    private void assertMaxDeviationWithin(List<LocationPoint> track, List<LocationPoint> stored, double limit) {
+        int segment = 0;
+        for (LocationPoint point : track) {
+            while (segment < stored.size() - 2 && !point.recordedAt().isBefore(stored.get(segment + 1).recordedAt())) {
+                segment++;
+            }
+            LocationPoint start = stored.get(segment);
+            LocationPoint end = stored.get(Math.min(segment + 1, stored.size() - 1));
+            double deviation = haversineDistanceToSegment(point, start, end);
+            assertTrue(deviation <= limit, "point at " + point.recordedAt() + " is " + deviation + " m from the stored track");
+        }
+    }
+
+    private double haversineDistanceToSegment(LocationPoint point, LocationPoint start, LocationPoint end) {
+        double low = 0;
+        double high = 1;
+        for (int i = 0; i < 100; i++) {
+            double left = low + (high - low) / 3;
+            double right = high - (high - low) / 3;
+            if (distanceAt(point, start, end, left) <= distanceAt(point, start, end, right)) {
+                high = right;
+            } else {
+                low = left;
+            }
+        }
+        return distanceAt(point, start, end, (low + high) / 2);
+    }
+
+    private double distanceAt(LocationPoint point, LocationPoint start, LocationPoint end, double t) {
+        double lat = start.latitude() + t * (end.latitude() - start.latitude());
+        double lon = start.longitude() + t * (end.longitude() - start.longitude());
+        return GeoUtils.calculateDistance(point.latitude(), point.longitude(), lat, lon) * 1000;
+    }
+
+    private List<LocationPoint> randomDrivingTrack(Random random, long courierId, int seconds) {
+        List<LocationPoint> track = new ArrayList<>();
+        double north = 0;
+        double east = 0;
+        double heading = random.nextDouble() * 2 * Math.PI;
+        for (int i = 0; i < seconds; i++) {
+            // Mostly straight driving with occasional turns and stops, plus GPS noise
+            if (random.nextDouble() < 0.02) {
+                heading += (random.nextDouble() - 0.5) * Math.PI;
+            }
+            double speed = random.nextDouble() < 0.1 ? 0 : 8 + random.nextDouble() * 6;
+            north += speed * Math.cos(heading);
+            east += speed * Math.sin(heading);
+            track.add(offset(courierId, 40.99, 29.12,
+                    north + random.nextGaussian() * 1.5, east + random.nextGaussian() * 1.5, i));
+        }
+        return track;
+    }
+
+    private LocationPoint offset(long courierId, double lat, double lon, double northMeters, double eastMeters, int second) {
+        double latitude = lat + northMeters / METERS_PER_DEGREE;
+        double longitude = lon + eastMeters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+        return point(courierId, latitude, longitude, second);
+    }
+
+    private LocationPoint point(long courierId, double latitude, double longitude, int second) {
+        return new LocationPoint(courierId, latitude, longitude, START.plusSeconds(second));
+    }
+}
@@ -0,0 +1,143 @@
+package com.melihcelik.couriertracking.application.metrics;
+
+import com.melihcelik.couriertracking.application.spatial.GeofenceTransition;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.model.Store;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineMetricsTest {
+
+    private MockClock clock;
+    private SimpleMeterRegistry registry;
+    private PipelineMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MockClock();
+        registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        metrics = new PipelineMetrics(registry);
+    }
+
+    @Test
+    void recordReceived_ShouldCountEventAndRecordEventTimeLag() {
+        // Arrange
+        Instant now = Instant.ofEpochMilli(clock.wallTime());
+        CourierLocationEvent event = event(now.minusMillis(250));
+
+        // Act
+        metrics.recordReceived(event);
+
+        // Assert
+        assertEquals(1.0, registry.get(PipelineMetrics.RECEIVED).counter().count());
+        Timer lag = registry.get(PipelineMetrics.EVENT_LAG).tag("stage", "received").timer();
+        assertEquals(1, lag.count());
+        assertEquals(250.0, lag.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void recordProcessed_EventFromTheFuture_ShouldClampLagToZero() {
+        // Arrange
+        CourierLocationEvent event = event(Instant.ofEpochMilli(clock.wallTime()).plusSeconds(5));
+
+        // Act
+        metrics.recordProcessed(event);
+
+        // Assert
+        Timer lag = registry.get(PipelineMetrics.EVENT_LAG).tag("stage", "processed").timer();
+        assertEquals(1, lag.count());
+        assertEquals(0.0, lag.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void recordProcessed_NoTimestamp_ShouldSkipLag() {
+        // Act
+        metrics.recordProcessed(event(null));
+
+        // Assert
+        assertEquals(0, registry.get(PipelineMetrics.EVENT_LAG).tag("stage", "processed").timer().count());
+    }
+
+    @Test
+    void recordPublish_ShouldMeasureFromRequestStartAndTagOutcome() {
+        // Arrange
+        Timer.Sample accepted = metrics.startTimer();
+        Timer.Sample failed = metrics.startTimer();
+        clock.add(Duration.ofMillis(2));
+        metrics.recordAccept(accepted);
+        clock.add(Duration.ofMillis(8));
+
+        // Act
+        metrics.recordPublish(accepted, null);
+        metrics.recordPublish(failed, new RuntimeException("broker down"));
+
+        // Assert
+        assertEquals(2.0, registry.get(PipelineMetrics.ACCEPT).timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(10.0, registry.get(PipelineMetrics.PUBLISH).tag("outcome", "success").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, registry.get(PipelineMetrics.PUBLISH).tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void recordTransitions_ShouldCountByType() {
+        // Arrange
+        Store store = Store.builder().id(1L).name("Store").latitude(40.99).longitude(29.12).build();
+        Instant now = Instant.now();
+        GeofenceTransition enter = new GeofenceTransition(
+                GeofenceTransition.Type.ENTER, 1L, store, 40.99, 29.12, now, now);
+        GeofenceTransition exit = new GeofenceTransition(
+                GeofenceTransition.Type.EXIT, 2L, store, 40.99, 29.12, now, now);
+
+        // Act
+        metrics.recordTransitions(List.of(enter, enter, exit));
+
+        // Assert
+        assertEquals(2.0, registry.get(PipelineMetrics.GEOFENCE_TRANSITIONS).tag("type", "enter").counter().count());
+        assertEquals(1.0, registry.get(PipelineMetrics.GEOFENCE_TRANSITIONS).tag("type", "exit").counter().count());
+    }
+
+    @Test
+    void recordCooldown_ShouldCountAcceptedAndRejected() {
+        // Act
+        metrics.recordCooldown(true);
+        metrics.recordCooldown(false);
+        metrics.recordCooldown(false);
+
+        // Assert
+        assertEquals(1.0, registry.get(PipelineMetrics.STORE_ENTRY_COOLDOWN).tag("result", "accepted").counter().count());
+        assertEquals(2.0, registry.get(PipelineMetrics.STORE_ENTRY_COOLDOWN).tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void recordStateFlushAndOutboxRelay_ShouldCountRows() {
+        // Act
+        metrics.recordStateFlush(metrics.startTimer(), 40);
+        metrics.recordOutboxRelay(metrics.startTimer(), 7);
+
+        // Assert
+        assertEquals(1, registry.get(PipelineMetrics.STATE_FLUSH).timer().count());
+        assertEquals(40.0, registry.get(PipelineMetrics.STATE_FLUSHED).counter().count());
+        assertEquals(1, registry.get(PipelineMetrics.OUTBOX_RELAY).timer().count());
+        assertEquals(7.0, registry.get(PipelineMetrics.OUTBOX_RELAYED).counter().count());
+    }
+
+    private CourierLocationEvent event(Instant timestamp) {
+        return CourierLocationEvent.builder()
+                .courierId(1L)
+                .latitude(40.99)
+                .longitude(29.12)
+                .timestamp(timestamp)
+                .build();
+    }
+}
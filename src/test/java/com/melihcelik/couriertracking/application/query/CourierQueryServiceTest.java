@@ -1,15 +1,23 @@
 package com.melihcelik.couriertracking.application.query;
 
+import com.melihcelik.couriertracking.application.spatial.CourierPositionIndex;
+import com.melihcelik.couriertracking.application.spatial.NearbyCourier;
+import com.melihcelik.couriertracking.application.spatial.StoreSpatialIndex;
 import com.melihcelik.couriertracking.domain.exception.CourierNotFoundException;
-import com.melihcelik.couriertracking.domain.model.Courier;
-import com.melihcelik.couriertracking.domain.repository.CourierRepository;
-import com.melihcelik.couriertracking.domain.repository.StoreEntryRepository;
+import com.melihcelik.couriertracking.domain.exception.InvalidLocationException;
+import com.melihcelik.couriertracking.domain.exception.StoreNotFoundException;
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.repository.LocationHistoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,52 +27,55 @@ import static org.mockito.Mockito.*;
 class CourierQueryServiceTest {
 
     @Mock
-    private CourierRepository courierRepository;
+    private CourierReadModel courierReadModel;
 
     @Mock
-    private StoreEntryRepository storeEntryRepository;
+    private LocationHistoryRepository locationHistoryRepository;
+
+    @Mock
+    private CourierPositionIndex courierPositionIndex;
+
+    @Mock
+    private StoreSpatialIndex storeSpatialIndex;
 
     private CourierQueryService queryService;
 
     @BeforeEach
     void setUp() {
-        queryService = new CourierQueryService(courierRepository, storeEntryRepository);
+        queryService = new CourierQueryService(courierReadModel, locationHistoryRepository,
+                courierPositionIndex, storeSpatialIndex);
+        ReflectionTestUtils.setField(queryService, "storeProximityRadius", 100.0);
+        ReflectionTestUtils.setField(queryService, "maxRadius", 5000.0);
     }
 
     @Test
     void getCourierById_ExistingCourier_ShouldReturnCourier() {
         // Arrange
         Long courierId = 1L;
-        Courier courier = Courier.builder()
-                .id(courierId)
-                .totalTravelDistance(100.0)
-                .lastLatitude(40.9923307)
-                .lastLongitude(29.1244229)
-                .isActive(true)
-                .build();
-        when(courierRepository.findById(courierId)).thenReturn(Optional.of(courier));
+        CourierView courier = new CourierView(courierId, 100.0, 40.9923307, 29.1244229, true);
+        when(courierReadModel.find(courierId)).thenReturn(Optional.of(courier));
 
         // Act
-        Optional<Courier> result = queryService.getCourierById(courierId);
+        Optional<CourierView> result = queryService.getCourierById(courierId);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(courierId, result.get().getId());
-        verify(courierRepository).findById(courierId);
+        assertEquals(courierId, result.get().id());
+        verify(courierReadModel).find(courierId);
     }
 
     @Test
     void getCourierById_NonExistingCourier_ShouldReturnEmpty() {
         // Arrange
         Long courierId = 1L;
-        when(courierRepository.findById(courierId)).thenReturn(Optional.empty());
+        when(courierReadModel.find(courierId)).thenReturn(Optional.empty());
 
         // Act
-        Optional<Courier> result = queryService.getCourierById(courierId);
+        Optional<CourierView> result = queryService.getCourierById(courierId);
 
         // Assert
         assertTrue(result.isEmpty());
-        verify(courierRepository).findById(courierId);
+        verify(courierReadModel).find(courierId);
     }
 
     @Test
@@ -72,28 +83,99 @@ class CourierQueryServiceTest {
         // Arrange
         Long courierId = 1L;
         double expectedDistance = 150.5;
-        Courier courier = Courier.builder()
-                .id(courierId)
-                .totalTravelDistance(expectedDistance)
-                .build();
-        when(courierRepository.findById(courierId)).thenReturn(Optional.of(courier));
+        CourierView courier = new CourierView(courierId, expectedDistance, 40.9923307, 29.1244229, true);
+        when(courierReadModel.find(courierId)).thenReturn(Optional.of(courier));
 
         // Act
         double result = queryService.getTotalTravelDistance(courierId);
 
         // Assert
         assertEquals(expectedDistance, result);
-        verify(courierRepository).findById(courierId);
+        verify(courierReadModel, times(1)).find(courierId);
     }
 
     @Test
     void getTotalTravelDistance_NonExistingCourier_ShouldThrowException() {
         // Arrange
         Long courierId = 1L;
-        when(courierRepository.findById(courierId)).thenReturn(Optional.empty());
+        when(courierReadModel.find(courierId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(CourierNotFoundException.class, () -> queryService.getTotalTravelDistance(courierId));
-        verify(courierRepository).findById(courierId);
+        verify(courierReadModel).find(courierId);
+    }
+
+    @Test
+    void getRoute_ShouldReturnRecordedPoints() {
+        // Arrange
+        Instant from = Instant.parse("2026-10-18T10:00:00Z");
+        Instant to = from.plusSeconds(3600);
+        List<LocationPoint> route = List.of(new LocationPoint(1L, 40.99, 29.12, from.plusSeconds(1)));
+        when(locationHistoryRepository.findRoute(1L, from, to)).thenReturn(route);
+
+        // Act
+        List<LocationPoint> result = queryService.getRoute(1L, from, to);
+
+        // Assert
+        assertEquals(route, result);
+    }
+
+    @Test
+    void getRoute_EmptyRange_ShouldNotQuery() {
+        // Arrange
+        Instant from = Instant.parse("2026-10-18T10:00:00Z");
+
+        // Act
+        List<LocationPoint> result = queryService.getRoute(1L, from, from);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(locationHistoryRepository);
+    }
+
+    @Test
+    void findCouriersNear_ShouldQueryPositionIndex() {
+        // Arrange
+        List<NearbyCourier> couriers = List.of(new NearbyCourier(1L, 40.99, 29.12, Instant.now(), 12.0));
+        when(courierPositionIndex.findWithinRadius(40.99, 29.12, 500.0)).thenReturn(couriers);
+
+        // Act
+        List<NearbyCourier> result = queryService.findCouriersNear(40.99, 29.12, 500.0);
+
+        // Assert
+        assertEquals(couriers, result);
+    }
+
+    @Test
+    void findCouriersNear_RadiusOutOfRange_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidLocationException.class, () -> queryService.findCouriersNear(40.99, 29.12, 0.0));
+        assertThrows(InvalidLocationException.class, () -> queryService.findCouriersNear(40.99, 29.12, 5001.0));
+        verifyNoInteractions(courierPositionIndex);
+    }
+
+    @Test
+    void findCouriersNearStore_WithoutRadius_ShouldUseStoreProximityRadius() {
+        // Arrange
+        Store store = Store.builder().id(7L).name("Test Store").latitude(40.9923307).longitude(29.1244229).build();
+        when(storeSpatialIndex.findById(7L)).thenReturn(Optional.of(store));
+        when(courierPositionIndex.findWithinRadius(40.9923307, 29.1244229, 100.0)).thenReturn(List.of());
+
+        // Act
+        List<NearbyCourier> result = queryService.findCouriersNearStore(7L, null);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(courierPositionIndex).findWithinRadius(40.9923307, 29.1244229, 100.0);
+    }
+
+    @Test
+    void findCouriersNearStore_UnknownStore_ShouldThrowException() {
+        // Arrange
+        when(storeSpatialIndex.findById(7L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(StoreNotFoundException.class, () -> queryService.findCouriersNearStore(7L, 250.0));
+        verifyNoInteractions(courierPositionIndex);
     }
-} 
\ No newline at end of file
+}
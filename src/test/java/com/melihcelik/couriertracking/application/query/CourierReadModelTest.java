@@ -0,0 +1,161 @@
+package com.melihcelik.couriertracking.application.query;
+
+import com.melihcelik.couriertracking.application.state.CourierState;
+import com.melihcelik.couriertracking.application.state.CourierStateStore;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.repository.CourierRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierReadModelTest {
+
+    @Mock
+    private CourierStateStore courierStateStore;
+
+    @Mock
+    private CourierRepository courierRepository;
+
+    @Mock
+    private CourierState courierState;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CourierReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        readModel = new CourierReadModel(courierStateStore, courierRepository, meterRegistry, 100, 300);
+    }
+
+    @Test
+    void find_Miss_ShouldLoadFromStateStoreOnceAndCache() {
+        // Arrange
+        when(courierStateStore.find(1L)).thenReturn(Optional.of(courierState));
+        when(courierState.toCourier()).thenReturn(courier(1L, 12.5));
+
+        // Act
+        Optional<CourierView> first = readModel.find(1L);
+        Optional<CourierView> second = readModel.find(1L);
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertEquals(12.5, first.get().totalTravelDistance());
+        assertEquals(first, second);
+        verify(courierStateStore, times(1)).find(1L);
+        verifyNoInteractions(courierRepository);
+    }
+
+    @Test
+    void find_NotInStateStore_ShouldFallBackToRepository() {
+        // Arrange
+        when(courierStateStore.find(1L)).thenReturn(Optional.empty());
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(courier(1L, 7.0)));
+
+        // Act
+        Optional<CourierView> result = readModel.find(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(7.0, result.get().totalTravelDistance());
+        verify(courierRepository).findById(1L);
+    }
+
+    @Test
+    void find_UnknownCourier_ShouldReturnEmptyAndNotCacheAbsence() {
+        // Arrange
+        when(courierStateStore.find(1L)).thenReturn(Optional.empty());
+        when(courierRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<CourierView> first = readModel.find(1L);
+        Optional<CourierView> second = readModel.find(1L);
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(courierRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void update_ShouldReplaceCachedViewWithoutLoading() {
+        // Arrange
+        when(courierState.getCourierId()).thenReturn(1L);
+        when(courierState.toCourier()).thenReturn(courier(1L, 3.0));
+
+        // Act
+        readModel.update(courierState);
+        Optional<CourierView> result = readModel.find(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(3.0, result.get().totalTravelDistance());
+        verifyNoInteractions(courierStateStore, courierRepository);
+    }
+
+    @Test
+    void put_ShouldCacheViewWithoutLoading() {
+        // Act
+        readModel.put(new CourierView(1L, 2.5, 40.99, 29.12, true));
+        Optional<CourierView> result = readModel.find(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(2.5, result.get().totalTravelDistance());
+        verifyNoInteractions(courierStateStore, courierRepository);
+    }
+
+    @Test
+    void evict_ShouldForceReload() {
+        // Arrange
+        when(courierState.getCourierId()).thenReturn(1L);
+        when(courierState.toCourier()).thenReturn(courier(1L, 3.0));
+        readModel.update(courierState);
+        when(courierStateStore.find(1L)).thenReturn(Optional.empty());
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(courier(1L, 4.0)));
+
+        // Act
+        readModel.evict(1L);
+        Optional<CourierView> result = readModel.find(1L);
+
+        // Assert
+        assertEquals(4.0, result.orElseThrow().totalTravelDistance());
+    }
+
+    @Test
+    void find_ShouldRecordHitAndMissMetrics() {
+        // Arrange
+        when(courierStateStore.find(1L)).thenReturn(Optional.of(courierState));
+        when(courierState.toCourier()).thenReturn(courier(1L, 1.0));
+
+        // Act
+        readModel.find(1L);
+        readModel.find(1L);
+        readModel.find(1L);
+
+        // Assert
+        assertEquals(2.0, meterRegistry.get("cache.gets")
+                .tag("cache", CourierReadModel.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", CourierReadModel.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    private Courier courier(Long id, double distance) {
+        return Courier.builder()
+                .id(id)
+                .totalTravelDistance(distance)
+                .lastLatitude(40.99)
+                .lastLongitude(29.12)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.melihcelik.couriertracking.application.query;
+
+import com.melihcelik.couriertracking.domain.exception.InvalidCursorException;
+import com.melihcelik.couriertracking.domain.repository.StoreEntryRepository;
+import com.melihcelik.couriertracking.domain.repository.StoreEntrySummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreEntryQueryServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private StoreEntryRepository storeEntryRepository;
+
+    private StoreEntryQueryService queryService;
+
+    @BeforeEach
+    void setUp() {
+        queryService = new StoreEntryQueryService(storeEntryRepository);
+        ReflectionTestUtils.setField(queryService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(queryService, "maxPageSize", 3);
+    }
+
+    @Test
+    void findByStore_FirstPage_ShouldSeekFromEndOfTimeAndReturnCursor() {
+        // Arrange
+        List<StoreEntrySummary> rows = List.of(entry(30L, 30), entry(20L, 20), entry(10L, 10));
+        when(storeEntryRepository.findStoreEntriesBefore(7L, Instant.EPOCH,
+                StoreEntryQueryService.END_OF_TIME, Long.MIN_VALUE, PageRequest.ofSize(3))).thenReturn(rows);
+
+        // Act
+        StoreEntryPage page = queryService.findByStore(7L, null, null, null, null);
+
+        // Assert
+        assertEquals(List.of(30L, 20L), page.entries().stream().map(StoreEntrySummary::id).toList());
+        assertNotNull(page.nextCursor());
+        assertEquals(new StoreEntryCursor(NOW.plusSeconds(20), 20L), StoreEntryCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void findByStore_WithCursor_ShouldSeekAfterLastReturnedEntry() {
+        // Arrange
+        String cursor = new StoreEntryCursor(NOW.plusSeconds(20), 20L).encode();
+        when(storeEntryRepository.findStoreEntriesBefore(7L, Instant.EPOCH,
+                NOW.plusSeconds(20), 20L, PageRequest.ofSize(3))).thenReturn(List.of(entry(10L, 10)));
+
+        // Act
+        StoreEntryPage page = queryService.findByStore(7L, null, null, cursor, null);
+
+        // Assert
+        assertEquals(1, page.entries().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findByCourier_WithRange_ShouldUseFromAndExclusiveTo() {
+        // Arrange
+        Instant from = NOW;
+        Instant to = NOW.plusSeconds(3600);
+        when(storeEntryRepository.findCourierEntriesBefore(1L, from, to, Long.MIN_VALUE, PageRequest.ofSize(3)))
+                .thenReturn(List.of());
+
+        // Act
+        StoreEntryPage page = queryService.findByCourier(1L, from, to, null, null);
+
+        // Assert
+        assertTrue(page.entries().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findInRange_CursorBeyondTo_ShouldBeBoundedByTo() {
+        // Arrange
+        Instant to = NOW.plusSeconds(10);
+        String cursor = new StoreEntryCursor(NOW.plusSeconds(60), 99L).encode();
+        when(storeEntryRepository.findEntriesBefore(NOW, to, Long.MIN_VALUE, PageRequest.ofSize(3)))
+                .thenReturn(List.of());
+
+        // Act
+        queryService.findInRange(NOW, to, cursor, null);
+
+        // Assert
+        verify(storeEntryRepository).findEntriesBefore(NOW, to, Long.MIN_VALUE, PageRequest.ofSize(3));
+    }
+
+    @Test
+    void findInRange_EmptyRange_ShouldNotQuery() {
+        // Act
+        StoreEntryPage page = queryService.findInRange(NOW, NOW, null, null);
+
+        // Assert
+        assertTrue(page.entries().isEmpty());
+        verifyNoInteractions(storeEntryRepository);
+    }
+
+    @Test
+    void findInRange_LimitAboveMaximum_ShouldBeClamped() {
+        // Arrange
+        when(storeEntryRepository.findEntriesBefore(any(), any(), any(), any())).thenReturn(List.of());
+
+        // Act
+        queryService.findInRange(NOW, NOW.plusSeconds(60), null, 1000);
+        queryService.findInRange(NOW, NOW.plusSeconds(60), null, 0);
+
+        // Assert
+        verify(storeEntryRepository).findEntriesBefore(NOW, NOW.plusSeconds(60), Long.MIN_VALUE, PageRequest.ofSize(4));
+        verify(storeEntryRepository).findEntriesBefore(NOW, NOW.plusSeconds(60), Long.MIN_VALUE, PageRequest.ofSize(2));
+    }
+
+    @Test
+    void findByStore_MalformedCursor_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> queryService.findByStore(7L, null, null, "not-a-cursor", null));
+        assertThrows(InvalidCursorException.class, () -> queryService.findByStore(7L, null, null, "%%%", null));
+        verifyNoInteractions(storeEntryRepository);
+    }
+
+    @Test
+    void cursor_ShouldRoundTripSubSecondTimestamps() {
+        // Arrange
+        StoreEntryCursor cursor = new StoreEntryCursor(Instant.parse("2024-01-01T12:00:00.123456Z"), 42L);
+
+        // Act
+        StoreEntryCursor decoded = StoreEntryCursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(cursor, decoded);
+    }
+
+    private static StoreEntrySummary entry(Long id, long secondsFromNow) {
+        return new StoreEntrySummary(id, 1L, 7L, NOW.plusSeconds(secondsFromNow), 40.9923307, 29.1244229);
+    }
+}
@@ -0,0 +1,178 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourierPositionIndexTest {
+
+    private static final double CELL_SIZE = 250.0; // meters
+    private static final long MAX_AGE_SECONDS = 300;
+    private static final double STORE_LAT = 40.9923307;
+    private static final double STORE_LON = 29.1244229;
+    private static final double DEGREES_PER_METER = 1 / 111_195.0;
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private CourierPositionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourierPositionIndex(CELL_SIZE, MAX_AGE_SECONDS);
+    }
+
+    @Test
+    void findWithinRadius_ShouldReturnCouriersInsideRadiusNearestFirst() {
+        // Arrange
+        move(1L, 80, 0, NOW);
+        move(2L, 0, 30, NOW);
+        move(3L, 400, 0, NOW);
+
+        // Act
+        List<NearbyCourier> result = index.findWithinRadius(STORE_LAT, STORE_LON, 100, NOW);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), result.stream().map(NearbyCourier::courierId).toList());
+        assertEquals(30.0, result.get(0).distance(), 0.5);
+        assertEquals(80.0, result.get(1).distance(), 0.5);
+        assertEquals(NOW, result.get(0).lastSeen());
+    }
+
+    @Test
+    void findWithinRadius_RadiusSpanningManyCells_ShouldFindCouriers() {
+        // Arrange
+        move(1L, 1900, 0, NOW);
+        move(2L, 0, -1900, NOW);
+        move(3L, 2100, 0, NOW);
+
+        // Act
+        List<NearbyCourier> result = index.findWithinRadius(STORE_LAT, STORE_LON, 2000, NOW);
+
+        // Assert
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void update_MoveAcrossCells_ShouldIndexOnlyNewPosition() {
+        // Arrange
+        move(1L, 0, 0, NOW);
+
+        // Act
+        move(1L, 1000, 0, NOW.plusSeconds(60));
+
+        // Assert
+        assertTrue(index.findWithinRadius(STORE_LAT, STORE_LON, 100, NOW.plusSeconds(60)).isEmpty());
+        List<NearbyCourier> moved = index.findWithinRadius(
+                STORE_LAT + 1000 * DEGREES_PER_METER, STORE_LON, 100, NOW.plusSeconds(60));
+        assertEquals(1, moved.size());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void update_OlderThanIndexedPosition_ShouldBeIgnored() {
+        // Arrange
+        move(1L, 0, 0, NOW);
+
+        // Act
+        move(1L, 1000, 0, NOW.minusSeconds(10));
+
+        // Assert
+        assertEquals(1, index.findWithinRadius(STORE_LAT, STORE_LON, 100, NOW).size());
+    }
+
+    @Test
+    void findWithinRadius_StalePosition_ShouldBeLeftOut() {
+        // Arrange
+        move(1L, 0, 0, NOW);
+        move(2L, 10, 0, NOW.plusSeconds(200));
+
+        // Act
+        List<NearbyCourier> result = index.findWithinRadius(
+                STORE_LAT, STORE_LON, 100, NOW.plusSeconds(MAX_AGE_SECONDS + 1));
+
+        // Assert
+        assertEquals(List.of(2L), result.stream().map(NearbyCourier::courierId).toList());
+    }
+
+    @Test
+    void evictStale_ShouldRemoveSilentCouriers() {
+        // Arrange
+        move(1L, 0, 0, NOW);
+        move(2L, 10, 0, NOW.plusSeconds(200));
+
+        // Act
+        index.evictStale(NOW.plusSeconds(MAX_AGE_SECONDS + 1));
+
+        // Assert
+        assertEquals(1, index.size());
+        move(1L, 0, 0, NOW.plusSeconds(MAX_AGE_SECONDS + 2));
+        assertEquals(2, index.findWithinRadius(STORE_LAT, STORE_LON, 100, NOW.plusSeconds(MAX_AGE_SECONDS + 2)).size());
+    }
+
+    @Test
+    void remove_ShouldDropCourier() {
+        // Arrange
+        move(1L, 0, 0, NOW);
+
+        // Act
+        index.remove(1L);
+
+        // Assert
+        assertEquals(0, index.size());
+        assertTrue(index.findWithinRadius(STORE_LAT, STORE_LON, 100, NOW).isEmpty());
+    }
+
+    @Test
+    void findWithinRadius_WhileCouriersMove_ShouldNeverReturnDuplicates() throws Exception {
+        // Arrange
+        int couriers = 200;
+        for (long id = 0; id < couriers; id++) {
+            move(id, 0, 0, NOW);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 3; w++) {
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                long step = 0;
+                while (running.get()) {
+                    for (long id = writer; id < couriers; id += 3) {
+                        move(id, (step % 2) * 300, 0, NOW.plusMillis(step));
+                    }
+                    step++;
+                }
+            }));
+        }
+
+        // Act & Assert
+        try {
+            for (int i = 0; i < 2000; i++) {
+                List<NearbyCourier> result = index.findWithinRadius(STORE_LAT, STORE_LON, 1000, NOW);
+                assertEquals(result.size(), result.stream().map(NearbyCourier::courierId).distinct().count());
+            }
+        } finally {
+            running.set(false);
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+            executor.shutdownNow();
+        }
+        assertEquals(couriers, index.findWithinRadius(STORE_LAT, STORE_LON, 1000, NOW).size());
+    }
+
+    private void move(Long courierId, double northMeters, double eastMeters, Instant timestamp) {
+        double latitude = STORE_LAT + northMeters * DEGREES_PER_METER;
+        double longitude = STORE_LON + eastMeters * DEGREES_PER_METER / Math.cos(Math.toRadians(STORE_LAT));
+        index.update(courierId, latitude, longitude, timestamp);
+    }
+}
@@ -0,0 +1,204 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.repository.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeofenceTrackerTest {
+
+    private static final double STORE_PROXIMITY_RADIUS = 100.0; // meters
+    private static final double EXIT_MARGIN = 20.0; // meters
+    private static final double STORE_LAT = 40.9923307;
+    private static final double STORE_LON = 29.1244229;
+    private static final double DEGREES_PER_METER = 1 / 111_195.0;
+    private static final Instant START = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    private GeofenceTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        StoreSpatialIndex index = new StoreSpatialIndex(storeRepository);
+        ReflectionTestUtils.setField(index, "cellSize", STORE_PROXIMITY_RADIUS);
+        when(storeRepository.findAll()).thenReturn(List.of(
+                Store.builder().id(1L).name("Test Store").latitude(STORE_LAT).longitude(STORE_LON).build()));
+        index.rebuild();
+
+        tracker = new GeofenceTracker(index);
+        ReflectionTestUtils.setField(tracker, "enterRadius", STORE_PROXIMITY_RADIUS);
+        ReflectionTestUtils.setField(tracker, "exitMargin", EXIT_MARGIN);
+    }
+
+    @Test
+    void update_FirstPingInsideRadius_ShouldEmitEnter() {
+        // Act
+        List<GeofenceTransition> transitions = ping(50, 0);
+
+        // Assert
+        assertEquals(1, transitions.size());
+        GeofenceTransition enter = transitions.get(0);
+        assertEquals(GeofenceTransition.Type.ENTER, enter.type());
+        assertEquals(1L, enter.store().getId());
+        assertEquals(START, enter.enteredAt());
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    void update_RepeatedPingsInside_ShouldEmitNothing() {
+        // Arrange
+        ping(50, 0);
+
+        // Act & Assert
+        for (int second = 1; second <= 600; second++) {
+            assertTrue(ping(10, second).isEmpty());
+        }
+    }
+
+    @Test
+    void update_PingOutsideRadius_ShouldEmitNothing() {
+        // Act & Assert
+        assertTrue(ping(110, 0).isEmpty());
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void update_JitterWithinExitMargin_ShouldStayInside() {
+        // Arrange
+        ping(95, 0);
+
+        // Act & Assert
+        assertTrue(ping(110, 1).isEmpty());
+        assertTrue(ping(98, 2).isEmpty());
+        assertTrue(ping(115, 3).isEmpty());
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    void update_LeavingBeyondExitMargin_ShouldEmitExitWithDwellTime() {
+        // Arrange
+        ping(50, 0);
+        ping(80, 300);
+
+        // Act
+        List<GeofenceTransition> transitions = ping(130, 600);
+
+        // Assert
+        assertEquals(1, transitions.size());
+        GeofenceTransition exit = transitions.get(0);
+        assertEquals(GeofenceTransition.Type.EXIT, exit.type());
+        assertEquals(START, exit.enteredAt());
+        assertEquals(Duration.ofSeconds(600), exit.dwellTime());
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void update_ReturningAfterExit_ShouldEmitEnterAgainOnlyInsideRadius() {
+        // Arrange
+        ping(50, 0);
+        ping(130, 60);
+
+        // Act & Assert
+        assertTrue(ping(110, 120).isEmpty());
+        List<GeofenceTransition> transitions = ping(90, 180);
+        assertEquals(1, transitions.size());
+        assertEquals(GeofenceTransition.Type.ENTER, transitions.get(0).type());
+        assertEquals(START.plusSeconds(180), transitions.get(0).enteredAt());
+    }
+
+    @Test
+    void update_DifferentCouriers_ShouldTrackIndependently() {
+        // Act
+        List<GeofenceTransition> first = tracker.update(1L, STORE_LAT, STORE_LON, START);
+        List<GeofenceTransition> second = tracker.update(2L, STORE_LAT, STORE_LON, START);
+
+        // Assert
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertEquals(2, tracker.size());
+    }
+
+    @Test
+    void newInstance_ShouldUseSameStoresWithoutLiveVisits() {
+        // Arrange
+        ping(50, 0);
+
+        // Act
+        GeofenceTracker copy = tracker.newInstance();
+        List<GeofenceTransition> transitions = copy.update(1L, STORE_LAT + 50 * DEGREES_PER_METER, STORE_LON, START);
+
+        // Assert
+        assertEquals(1, transitions.size());
+        assertEquals(GeofenceTransition.Type.ENTER, transitions.get(0).type());
+        assertEquals(1, tracker.size());
+        assertTrue(copy.update(1L, STORE_LAT + 110 * DEGREES_PER_METER, STORE_LON, START.plusSeconds(10)).isEmpty());
+    }
+
+    @Test
+    void forget_ShouldReportEnterAgainOnNextPingInside() {
+        // Arrange
+        ping(50, 0);
+
+        // Act
+        tracker.forget(1L);
+
+        // Assert
+        assertEquals(0, tracker.size());
+        List<GeofenceTransition> transitions = ping(50, 10);
+        assertEquals(1, transitions.size());
+        assertEquals(GeofenceTransition.Type.ENTER, transitions.get(0).type());
+    }
+
+    @Test
+    void rollback_AfterEnter_ShouldEmitEnterAgainOnRedelivery() {
+        // Arrange
+        GeofenceTracker.Savepoint savepoint = tracker.savepoint(List.of(1L));
+        ping(50, 0);
+
+        // Act
+        tracker.rollback(savepoint);
+
+        // Assert
+        assertEquals(0, tracker.size());
+        List<GeofenceTransition> transitions = ping(50, 0);
+        assertEquals(1, transitions.size());
+        assertEquals(GeofenceTransition.Type.ENTER, transitions.get(0).type());
+    }
+
+    @Test
+    void rollback_AfterExit_ShouldRestoreVisitWithOriginalEntryTime() {
+        // Arrange
+        ping(50, 0);
+        GeofenceTracker.Savepoint savepoint = tracker.savepoint(List.of(1L));
+        ping(130, 600);
+
+        // Act
+        tracker.rollback(savepoint);
+
+        // Assert
+        assertEquals(1, tracker.size());
+        List<GeofenceTransition> transitions = ping(130, 600);
+        assertEquals(1, transitions.size());
+        assertEquals(GeofenceTransition.Type.EXIT, transitions.get(0).type());
+        assertEquals(START, transitions.get(0).enteredAt());
+    }
+
+    private List<GeofenceTransition> ping(double metersNorthOfStore, long secondsFromStart) {
+        return tracker.update(1L, STORE_LAT + metersNorthOfStore * DEGREES_PER_METER, STORE_LON,
+                START.plusSeconds(secondsFromStart));
+    }
+}
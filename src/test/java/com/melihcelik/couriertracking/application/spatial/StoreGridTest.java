@@ -0,0 +1,119 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.util.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreGridTest {
+
+    private static final double RADIUS = 100.0; // meters
+
+    @Test
+    void findWithinRadius_StoreAtSamePoint_ShouldReturnStore() {
+        // Arrange
+        Store store = createStore(1L, 40.9923307, 29.1244229);
+        StoreGrid grid = new StoreGrid(List.of(store), RADIUS);
+
+        // Act
+        List<Store> result = grid.findWithinRadius(40.9923307, 29.1244229, RADIUS);
+
+        // Assert
+        assertEquals(List.of(store), result);
+    }
+
+    @Test
+    void findWithinRadius_StoreOutsideRadius_ShouldReturnEmpty() {
+        // Arrange
+        Store store = createStore(1L, 40.9923307, 29.1244229);
+        StoreGrid grid = new StoreGrid(List.of(store), RADIUS);
+
+        // Act
+        List<Store> result = grid.findWithinRadius(40.9923307, 29.1259229, RADIUS);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findWithinRadius_StoreInNeighbouringCell_ShouldReturnStore() {
+        // Arrange - 50m east of the query point, with 10m cells the store sits several cells away
+        Store store = createStore(1L, 40.9923307, 29.1250229);
+        StoreGrid grid = new StoreGrid(List.of(store), 10.0);
+
+        // Act
+        List<Store> result = grid.findWithinRadius(40.9923307, 29.1244229, RADIUS);
+
+        // Assert
+        assertEquals(List.of(store), result);
+    }
+
+    @Test
+    void findWithinRadius_AcrossDateLine_ShouldReturnStore() {
+        // Arrange
+        Store store = createStore(1L, 0.0, -179.9996);
+        StoreGrid grid = new StoreGrid(List.of(store), RADIUS);
+
+        // Act
+        List<Store> result = grid.findWithinRadius(0.0, 179.9996, RADIUS);
+
+        // Assert
+        assertEquals(List.of(store), result);
+    }
+
+    @Test
+    void findWithinRadius_RandomCatalogue_ShouldMatchBruteForce() {
+        // Arrange
+        Random random = new Random(42);
+        List<Store> stores = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            stores.add(createStore(id, 40.9 + random.nextDouble() * 0.2, 28.9 + random.nextDouble() * 0.3));
+        }
+        StoreGrid grid = new StoreGrid(stores, RADIUS);
+
+        for (int i = 0; i < 1_000; i++) {
+            double lat = 40.9 + random.nextDouble() * 0.2;
+            double lon = 28.9 + random.nextDouble() * 0.3;
+
+            // Act
+            Set<Long> actual = grid.findWithinRadius(lat, lon, RADIUS * 3).stream()
+                    .map(Store::getId)
+                    .collect(Collectors.toSet());
+
+            // Assert
+            Set<Long> expected = stores.stream()
+                    .filter(store -> GeoUtils.isWithinRadius(lat, lon, store.getLatitude(), store.getLongitude(), RADIUS * 3))
+                    .map(Store::getId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void findById_ShouldReturnIndexedStore() {
+        // Arrange
+        Store store = createStore(7L, 40.9923307, 29.1244229);
+        StoreGrid grid = new StoreGrid(List.of(store), RADIUS);
+
+        // Act & Assert
+        assertEquals(store, grid.findById(7L));
+        assertNull(grid.findById(8L));
+        assertEquals(1, grid.size());
+    }
+
+    private Store createStore(Long id, double latitude, double longitude) {
+        return Store.builder()
+                .id(id)
+                .name("Store " + id)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.melihcelik.couriertracking.application.spatial;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.repository.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreSpatialIndexTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    private StoreSpatialIndex index;
+
+    private static final double STORE_PROXIMITY_RADIUS = 100.0; // meters
+
+    @BeforeEach
+    void setUp() {
+        index = new StoreSpatialIndex(storeRepository);
+        ReflectionTestUtils.setField(index, "cellSize", STORE_PROXIMITY_RADIUS);
+    }
+
+    @Test
+    void rebuild_ShouldLoadStoresFromRepository() {
+        // Arrange
+        Store store = createStore(1L, 40.9923307, 29.1244229);
+        when(storeRepository.findAll()).thenReturn(List.of(store));
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertEquals(1, index.size());
+        assertEquals(List.of(store), index.findStoresWithinRadius(40.9923307, 29.1244229, STORE_PROXIMITY_RADIUS));
+        verify(storeRepository).findAll();
+    }
+
+    @Test
+    void findStoresWithinRadius_BeforeRebuild_ShouldReturnEmpty() {
+        // Act & Assert
+        assertTrue(index.findStoresWithinRadius(40.9923307, 29.1244229, STORE_PROXIMITY_RADIUS).isEmpty());
+    }
+
+    @Test
+    void upsert_NewStore_ShouldBeFoundWithoutRebuild() {
+        // Arrange
+        when(storeRepository.findAll()).thenReturn(List.of());
+        index.rebuild();
+        Store store = createStore(1L, 40.9923307, 29.1244229);
+
+        // Act
+        index.upsert(store);
+
+        // Assert
+        assertEquals(List.of(store), index.findStoresWithinRadius(40.9923307, 29.1244229, STORE_PROXIMITY_RADIUS));
+        verify(storeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void upsert_MovedStore_ShouldReplacePreviousPosition() {
+        // Arrange
+        Store original = createStore(1L, 40.9923307, 29.1244229);
+        when(storeRepository.findAll()).thenReturn(List.of(original));
+        index.rebuild();
+        Store moved = createStore(1L, 41.055783, 29.0210292);
+
+        // Act
+        index.upsert(moved);
+
+        // Assert
+        assertEquals(1, index.size());
+        assertTrue(index.findStoresWithinRadius(40.9923307, 29.1244229, STORE_PROXIMITY_RADIUS).isEmpty());
+        assertEquals(List.of(moved), index.findStoresWithinRadius(41.055783, 29.0210292, STORE_PROXIMITY_RADIUS));
+    }
+
+    @Test
+    void remove_ShouldDropStoreFromIndex() {
+        // Arrange
+        Store store = createStore(1L, 40.9923307, 29.1244229);
+        when(storeRepository.findAll()).thenReturn(List.of(store));
+        index.rebuild();
+
+        // Act
+        index.remove(1L);
+
+        // Assert
+        assertEquals(0, index.size());
+        assertTrue(index.findById(1L).isEmpty());
+    }
+
+    private Store createStore(Long id, double latitude, double longitude) {
+        return Store.builder()
+                .id(id)
+                .name("Store " + id)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
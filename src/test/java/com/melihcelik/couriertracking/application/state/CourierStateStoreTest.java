@@ -0,0 +1,272 @@
+package com.melihcelik.couriertracking.application.state;
+
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.repository.CourierDistance;
+import com.melihcelik.couriertracking.domain.repository.CourierRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierStateStoreTest {
+
+    @Mock
+    private CourierRepository courierRepository;
+
+    @Captor
+    private ArgumentCaptor<List<Courier>> courierBatchCaptor;
+
+    private CourierStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CourierStateStore(courierRepository, new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(store, "flushThreshold", 100);
+    }
+
+    @Test
+    void apply_NewCourier_ShouldWriteThroughAndTrackState() {
+        // Arrange
+        CourierLocationEvent event = createLocationEvent(1L, 40.9923307, 29.1244229);
+        when(courierRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        CourierState state = store.apply(event);
+
+        // Assert
+        verify(courierRepository).upsertAll(courierBatchCaptor.capture());
+        Courier created = courierBatchCaptor.getValue().get(0);
+        assertEquals(1L, created.getId());
+        assertEquals(0.0, created.getTotalTravelDistance());
+        assertEquals(event.getLatitude(), created.getLastLatitude());
+        assertEquals(event.getLongitude(), created.getLastLongitude());
+        assertTrue(created.getIsActive());
+        assertEquals(0.0, state.getTotalTravelDistance());
+    }
+
+    @Test
+    void apply_ExistingCourier_ShouldLoadOnceAndAccumulateDistance() {
+        // Arrange
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 10.0)));
+
+        // Act
+        store.apply(createLocationEvent(1L, 40.986106, 29.1161293));
+        CourierState state = store.apply(createLocationEvent(1L, 40.9632463, 29.0630908));
+
+        // Assert
+        verify(courierRepository, times(1)).findById(1L);
+        verify(courierRepository, never()).upsertAll(any());
+        assertEquals(10.0 + 0.98 + 5.13, state.getTotalTravelDistance(), 0.01);
+        assertEquals(1, store.dirtyCount());
+    }
+
+    @Test
+    void flush_ShouldUpsertEachDirtyCourierOnce() {
+        // Arrange
+        when(courierRepository.findById(anyLong()))
+                .thenAnswer(i -> Optional.of(createCourier(i.getArgument(0), 0.0)));
+        store.apply(createLocationEvent(1L, 40.986106, 29.1161293));
+        store.apply(createLocationEvent(2L, 41.055783, 29.0210292));
+        store.apply(createLocationEvent(1L, 40.9632463, 29.0630908));
+
+        // Act
+        store.flush();
+        store.flush();
+
+        // Assert
+        verify(courierRepository, times(1)).upsertAll(courierBatchCaptor.capture());
+        List<Courier> flushed = courierBatchCaptor.getValue();
+        assertEquals(2, flushed.size());
+        assertEquals(40.9632463, flushed.get(0).getLastLatitude());
+        assertEquals(0, store.dirtyCount());
+    }
+
+    @Test
+    void apply_DirtyCountReachesThreshold_ShouldFlushImmediately() {
+        // Arrange
+        ReflectionTestUtils.setField(store, "flushThreshold", 2);
+        when(courierRepository.findById(anyLong()))
+                .thenAnswer(i -> Optional.of(createCourier(i.getArgument(0), 0.0)));
+
+        // Act
+        store.apply(createLocationEvent(1L, 40.986106, 29.1161293));
+        store.apply(createLocationEvent(2L, 41.055783, 29.0210292));
+
+        // Assert
+        verify(courierRepository).upsertAll(courierBatchCaptor.capture());
+        assertEquals(2, courierBatchCaptor.getValue().size());
+        assertEquals(0, store.dirtyCount());
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldKeepCouriersDirty() {
+        // Arrange
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 0.0)));
+        store.apply(createLocationEvent(1L, 40.986106, 29.1161293));
+        doThrow(new RuntimeException("Database unavailable")).doNothing()
+                .when(courierRepository).upsertAll(any());
+
+        // Act
+        store.flush();
+
+        // Assert
+        assertEquals(1, store.dirtyCount());
+        store.flush();
+        verify(courierRepository, times(2)).upsertAll(any());
+        assertEquals(0, store.dirtyCount());
+    }
+
+    @Test
+    void flushOnShutdown_ShouldWriteDirtyCouriers() {
+        // Arrange
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 0.0)));
+        store.apply(createLocationEvent(1L, 40.986106, 29.1161293));
+
+        // Act
+        store.flushOnShutdown();
+
+        // Assert
+        verify(courierRepository).upsertAll(any());
+        assertEquals(0, store.dirtyCount());
+    }
+
+    @Test
+    void totalTravelDistances_ShouldPreferInMemoryState() {
+        // Arrange
+        when(courierRepository.findAllTotalTravelDistances()).thenReturn(List.of(
+                new CourierDistance(1L, 10.0), new CourierDistance(2L, 20.0)));
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 10.0)));
+        store.apply(createLocationEvent(1L, 40.986106, 29.1161293));
+
+        // Act
+        Map<Long, Double> totals = store.totalTravelDistances();
+
+        // Assert
+        assertEquals(10.98, totals.get(1L), 0.01);
+        assertEquals(20.0, totals.get(2L));
+    }
+
+    @Test
+    void adjustTotals_ShouldCorrectLoadedAndStoredCouriersInOneFlush() {
+        // Arrange
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 10.0)));
+        when(courierRepository.findById(2L)).thenReturn(Optional.of(createCourier(2L, 20.0)));
+        when(courierRepository.findById(3L)).thenReturn(Optional.empty());
+        store.apply(createLocationEvent(1L, 40.9923307, 29.1244229));
+
+        // Act
+        List<CourierState> adjusted = store.adjustTotals(Map.of(1L, -4.0, 2L, 5.0, 3L, 1.0));
+
+        // Assert
+        assertEquals(2, adjusted.size());
+        verify(courierRepository).upsertAll(courierBatchCaptor.capture());
+        Map<Long, Double> flushed = courierBatchCaptor.getValue().stream()
+                .collect(Collectors.toMap(Courier::getId, Courier::getTotalTravelDistance));
+        assertEquals(Map.of(1L, 6.0, 2L, 25.0), flushed);
+        assertEquals(0, store.dirtyCount());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void adjustTotals_ShouldNotDriveOdometerBelowZero() {
+        // Arrange
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 3.0)));
+
+        // Act
+        store.adjustTotals(Map.of(1L, -5.0));
+
+        // Assert
+        assertEquals(0.0, store.find(1L).orElseThrow().getTotalTravelDistance());
+    }
+
+    @Test
+    void adjustTotals_WhenWriteFails_ShouldRestoreOdometersAndThrow() {
+        // Arrange
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 3.0)));
+        when(courierRepository.findById(2L)).thenReturn(Optional.of(createCourier(2L, 20.0)));
+        doThrow(new RuntimeException("Database unavailable")).when(courierRepository).upsertAll(any());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> store.adjustTotals(Map.of(1L, -5.0, 2L, 5.0)));
+        assertEquals(3.0, store.find(1L).orElseThrow().getTotalTravelDistance());
+        assertEquals(20.0, store.find(2L).orElseThrow().getTotalTravelDistance());
+    }
+
+    @Test
+    void release_ShouldFlushThenDropMatchingCouriers() {
+        // Arrange
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 0.0)));
+        when(courierRepository.findById(2L)).thenReturn(Optional.of(createCourier(2L, 0.0)));
+        store.apply(createLocationEvent(1L, 40.986106, 29.1161293));
+        store.apply(createLocationEvent(2L, 40.986106, 29.1161293));
+
+        // Act
+        List<Long> couriers = store.courierIds(courierId -> courierId == 1L);
+        store.release(couriers);
+
+        // Assert
+        assertEquals(List.of(1L), couriers);
+        verify(courierRepository).upsertAll(courierBatchCaptor.capture());
+        assertEquals(2, courierBatchCaptor.getValue().size());
+        assertTrue(store.find(1L).isEmpty());
+        assertTrue(store.find(2L).isPresent());
+        assertEquals(0, store.dirtyCount());
+    }
+
+    @Test
+    void release_WhenWriteFails_ShouldDropReleasedCouriersAndThrow() {
+        // Arrange
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(createCourier(1L, 0.0)));
+        when(courierRepository.findById(2L)).thenReturn(Optional.of(createCourier(2L, 0.0)));
+        store.apply(createLocationEvent(1L, 40.986106, 29.1161293));
+        store.apply(createLocationEvent(2L, 40.986106, 29.1161293));
+        doThrow(new RuntimeException("Database unavailable")).doNothing()
+                .when(courierRepository).upsertAll(any());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> store.release(List.of(1L)));
+        assertTrue(store.find(1L).isEmpty());
+        assertEquals(1, store.dirtyCount());
+
+        store.flush();
+        verify(courierRepository, times(2)).upsertAll(courierBatchCaptor.capture());
+        assertEquals(List.of(2L), courierBatchCaptor.getValue().stream().map(Courier::getId).toList());
+    }
+
+    private Courier createCourier(Long id, double totalTravelDistance) {
+        return Courier.builder()
+                .id(id)
+                .totalTravelDistance(totalTravelDistance)
+                .lastLatitude(40.9923307)
+                .lastLongitude(29.1244229)
+                .isActive(true)
+                .build();
+    }
+
+    private CourierLocationEvent createLocationEvent(Long courierId, double latitude, double longitude) {
+        return CourierLocationEvent.builder()
+                .courierId(courierId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .timestamp(Instant.now())
+                .build();
+    }
+}
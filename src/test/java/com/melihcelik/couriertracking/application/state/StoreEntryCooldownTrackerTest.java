@@ -0,0 +1,138 @@
+package com.melihcelik.couriertracking.application.state;
+
+import com.melihcelik.couriertracking.domain.repository.RecentStoreEntry;
+import com.melihcelik.couriertracking.domain.repository.StoreEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreEntryCooldownTrackerTest {
+
+    private static final int STORE_ENTRY_COOLDOWN = 60; // seconds
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private StoreEntryRepository storeEntryRepository;
+
+    private StoreEntryCooldownTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new StoreEntryCooldownTracker(storeEntryRepository);
+        ReflectionTestUtils.setField(tracker, "storeEntryCooldown", STORE_ENTRY_COOLDOWN);
+    }
+
+    @Test
+    void tryAcquire_FirstEntry_ShouldAccept() {
+        // Act & Assert
+        assertTrue(tracker.tryAcquire(1L, 1L, NOW));
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    void tryAcquire_WithinCooldown_ShouldReject() {
+        // Arrange
+        tracker.tryAcquire(1L, 1L, NOW);
+
+        // Act & Assert
+        assertFalse(tracker.tryAcquire(1L, 1L, NOW.plusSeconds(30)));
+        assertFalse(tracker.tryAcquire(1L, 1L, NOW.plusSeconds(STORE_ENTRY_COOLDOWN)));
+    }
+
+    @Test
+    void tryAcquire_AfterCooldown_ShouldAccept() {
+        // Arrange
+        tracker.tryAcquire(1L, 1L, NOW);
+
+        // Act & Assert
+        assertTrue(tracker.tryAcquire(1L, 1L, NOW.plusSeconds(STORE_ENTRY_COOLDOWN + 1)));
+    }
+
+    @Test
+    void tryAcquire_DifferentStoreOrCourier_ShouldAccept() {
+        // Arrange
+        tracker.tryAcquire(1L, 1L, NOW);
+
+        // Act & Assert
+        assertTrue(tracker.tryAcquire(1L, 2L, NOW));
+        assertTrue(tracker.tryAcquire(2L, 1L, NOW));
+    }
+
+    @Test
+    void release_AcceptedEntry_ShouldAllowRetry() {
+        // Arrange
+        tracker.tryAcquire(1L, 1L, NOW);
+
+        // Act
+        tracker.release(1L, 1L, NOW);
+
+        // Assert
+        assertTrue(tracker.tryAcquire(1L, 1L, NOW));
+    }
+
+    @Test
+    void release_DifferentTimestamp_ShouldKeepEntry() {
+        // Arrange
+        tracker.tryAcquire(1L, 1L, NOW);
+
+        // Act
+        tracker.release(1L, 1L, NOW.minusSeconds(120));
+
+        // Assert
+        assertFalse(tracker.tryAcquire(1L, 1L, NOW.plusSeconds(1)));
+    }
+
+    @Test
+    void expire_EntriesOlderThanCooldown_ShouldBeDropped() {
+        // Arrange
+        tracker.tryAcquire(1L, 1L, NOW);
+        tracker.tryAcquire(2L, 1L, NOW.plusSeconds(50));
+        tracker.tryAcquire(3L, 1L, NOW.plusSeconds(STORE_ENTRY_COOLDOWN + 5));
+
+        // Act
+        tracker.expire();
+
+        // Assert
+        assertEquals(2, tracker.size());
+        assertTrue(tracker.tryAcquire(1L, 1L, NOW.plusSeconds(STORE_ENTRY_COOLDOWN + 5)));
+        assertFalse(tracker.tryAcquire(2L, 1L, NOW.plusSeconds(STORE_ENTRY_COOLDOWN + 5)));
+    }
+
+    @Test
+    void expire_NoEntries_ShouldDoNothing() {
+        // Act
+        tracker.expire();
+
+        // Assert
+        assertEquals(0, tracker.size());
+    }
+
+    @Test
+    void warmUp_RecentEntries_ShouldSuppressDuplicates() {
+        // Arrange
+        RecentStoreEntry recent = mock(RecentStoreEntry.class);
+        when(recent.getCourierId()).thenReturn(1L);
+        when(recent.getStoreId()).thenReturn(1L);
+        when(recent.getEntryTime()).thenReturn(NOW.minusSeconds(10));
+        when(storeEntryRepository.findRecentEntries(NOW.minus(Duration.ofSeconds(STORE_ENTRY_COOLDOWN))))
+                .thenReturn(List.of(recent));
+
+        // Act
+        tracker.warmUp(NOW);
+
+        // Assert
+        assertFalse(tracker.tryAcquire(1L, 1L, NOW));
+        assertTrue(tracker.tryAcquire(1L, 1L, NOW.plusSeconds(STORE_ENTRY_COOLDOWN)));
+    }
+}
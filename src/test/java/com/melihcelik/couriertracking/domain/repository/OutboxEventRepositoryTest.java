@@ -0,0 +1,92 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import com.melihcelik.couriertracking.domain.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox ids come from pooled blocks while the relay reads in insert order.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxEventRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("courier_tracking");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void saveAll_ShouldTakeIdsFromSequenceBlock() {
+        // Arrange
+        List<OutboxEvent> events = IntStream.range(0, 3).mapToObj(i -> event("1")).toList();
+
+        // Act
+        outboxEventRepository.saveAll(events);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        List<OutboxEvent> pending = outboxEventRepository.lockNextBatch(10);
+        assertEquals(events.stream().map(OutboxEvent::getId).toList(), pending.stream().map(OutboxEvent::getId).toList());
+        pending.forEach(event -> assertNotNull(event.getRelaySeq()));
+    }
+
+    @Test
+    void lockNextBatch_IdsFromAnotherInstancesBlock_ShouldFollowInsertOrder() {
+        // Arrange
+        insert(1000L);
+        insert(10L);
+        insert(500L);
+
+        // Act
+        List<OutboxEvent> pending = outboxEventRepository.lockNextBatch(10);
+
+        // Assert
+        assertEquals(List.of(1000L, 10L, 500L), pending.stream().map(OutboxEvent::getId).toList());
+    }
+
+    private void insert(long id) {
+        entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO outbox_event (id, topic, event_key, payload) VALUES (?1, 'store.entry', '1', ?2)")
+                .setParameter(1, id)
+                .setParameter(2, new byte[]{1})
+                .executeUpdate();
+    }
+
+    private static OutboxEvent event(String key) {
+        return OutboxEvent.builder()
+                .topic("store.entry")
+                .eventKey(key)
+                .payload(new byte[]{1})
+                .build();
+    }
+}
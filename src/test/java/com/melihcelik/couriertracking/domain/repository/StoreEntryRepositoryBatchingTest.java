@@ -0,0 +1,120 @@
+package com.melihcelik.couriertracking.domain.repository;
+
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.model.StoreEntry;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Store entries are inserted in JDBC batches against a real Postgres schema.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class StoreEntryRepositoryBatchingTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("courier_tracking");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.session.events.auto", BatchCounter.class::getName);
+    }
+
+    @Autowired
+    private StoreEntryRepository storeEntryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    private Courier courier;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        courier = entityManager.persistFlushFind(Courier.builder()
+                .id(1L).totalTravelDistance(0.0).lastLatitude(40.9923307).lastLongitude(29.1244229).build());
+        store = entityManager.find(Store.class, 1L);
+        BatchCounter.BATCHES.set(0);
+    }
+
+    @Test
+    void saveAll_ShouldInsertEntriesInCeilingOfNOverBatchSizeStatements() {
+        // Arrange
+        int entries = 2 * batchSize + 7;
+        List<StoreEntry> storeEntries = IntStream.range(0, entries)
+                .mapToObj(i -> StoreEntry.builder()
+                        .courier(courier)
+                        .store(store)
+                        .entryTime(Instant.parse("2024-01-01T12:00:00Z").plusSeconds(i))
+                        .entryLatitude(40.9923307)
+                        .entryLongitude(29.1244229)
+                        .build())
+                .toList();
+
+        // Act
+        storeEntryRepository.saveAll(storeEntries);
+        storeEntries.forEach(entry -> assertNotNull(entry.getId()));
+        entityManager.flush();
+
+        // Assert
+        assertEquals((entries + batchSize - 1) / batchSize, BatchCounter.BATCHES.get());
+        assertEquals(entries, storeEntryRepository.count());
+        assertEquals(entries, storeEntries.stream().map(StoreEntry::getId).distinct().count());
+    }
+
+    @Test
+    void idGenerator_ShouldStartAboveSeededStores() {
+        // Arrange
+        Long maxSeededId = entityManager.getEntityManager()
+                .createQuery("SELECT MAX(s.id) FROM Store s", Long.class)
+                .getSingleResult();
+
+        // Act
+        Store created = entityManager.persistFlushFind(Store.builder()
+                .name("Test Store").latitude(41.0).longitude(29.0).build());
+
+        // Assert
+        assertTrue(created.getId() > maxSeededId);
+    }
+
+    /**
+     * Counts JDBC batch executions; registered per session through hibernate.session.events.auto
+     */
+    public static class BatchCounter implements SessionEventListener {
+        static final AtomicInteger BATCHES = new AtomicInteger();
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            BATCHES.incrementAndGet();
+        }
+    }
+}
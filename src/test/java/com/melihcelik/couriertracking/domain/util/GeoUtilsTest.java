@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GeoUtilsTest {
@@ -62,4 +64,107 @@ class GeoUtilsTest {
         
         assertEquals(expected, result);
     }
-} 
\ No newline at end of file
+
+    @ParameterizedTest
+    @CsvSource({
+        // Consecutive pings in Istanbul
+        "40.9923307, 29.1244229, 40.9924307, 29.1245229",
+        // Across the antimeridian
+        "-16.5, 179.9995, -16.5003, -179.9998",
+        // Near the fast path latitude limit
+        "79.99, 10.0, 79.995, 10.02",
+        // Beyond the fast path latitude limit
+        "85.0, 10.0, 85.01, 10.3",
+        // Longer than the fast path distance limit
+        "40.9923307, 29.1244229, 41.0066851, 28.6552262"
+    })
+    void approximateDistance_KnownSegments_ShouldMatchHaversine(double lat1, double lon1, double lat2, double lon2) {
+        double haversine = GeoUtils.calculateDistance(lat1, lon1, lat2, lon2);
+
+        double approximate = GeoUtils.approximateDistance(lat1, lon1, lat2, lon2);
+
+        assertEquals(haversine, approximate, haversine * GeoUtils.FAST_PATH_MAX_RELATIVE_ERROR);
+    }
+
+    @Test
+    void approximateDistance_RandomShortSegments_ShouldStayWithinErrorBound() {
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            double lat1 = (random.nextDouble() * 2 - 1) * GeoUtils.FAST_PATH_MAX_LATITUDE;
+            double lon1 = (random.nextDouble() * 2 - 1) * 180;
+            double lat2 = clampLatitude(lat1 + (random.nextDouble() * 2 - 1) * 0.05);
+            double lon2 = lon1 + (random.nextDouble() * 2 - 1) * 0.05;
+
+            double haversine = GeoUtils.calculateDistance(lat1, lon1, lat2, lon2);
+            double approximate = GeoUtils.approximateDistance(lat1, lon1, lat2, lon2);
+
+            assertEquals(haversine, approximate, haversine * GeoUtils.FAST_PATH_MAX_RELATIVE_ERROR + 1e-12,
+                    () -> "Segment " + lat1 + "," + lon1 + " -> " + lat2 + "," + lon2);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "40.9923307, 29.1244229, 100",
+        "-16.5, 179.9995, 100",
+        "60.0, -0.0005, 250",
+        "85.0, 10.0, 100",
+        "0.0, 0.0, 20000"
+    })
+    void isWithinRadius_PointsAroundRadiusEdge_ShouldMatchHaversine(double lat, double lon, double radiusMeters) {
+        Random random = new Random(11);
+
+        for (int i = 0; i < 20_000; i++) {
+            // Points from well inside to well outside the radius, dense around the edge
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double meters = radiusMeters * (0.98 + random.nextDouble() * 0.04);
+            if (i % 4 == 0) {
+                meters = radiusMeters * random.nextDouble() * 3;
+            }
+            double dLat = Math.toDegrees(meters / 6_371_000.0) * Math.cos(bearing);
+            double dLon = Math.toDegrees(meters / 6_371_000.0) * Math.sin(bearing) / Math.cos(Math.toRadians(lat));
+            double lat2 = clampLatitude(lat + dLat);
+            double lon2 = lon + dLon;
+
+            boolean expected = GeoUtils.calculateDistance(lat, lon, lat2, lon2) * 1000 <= radiusMeters;
+
+            assertEquals(expected, GeoUtils.isWithinRadius(lat, lon, lat2, lon2, radiusMeters),
+                    () -> "Point " + lat2 + "," + lon2);
+        }
+    }
+
+    @Test
+    void isWithinRadius_FarApartPoints_ShouldReturnFalse() {
+        assertFalse(GeoUtils.isWithinRadius(40.9923307, 29.1244229, -33.8688, 151.2093, 100));
+        assertFalse(GeoUtils.isWithinRadius(89.9, 0.0, -89.9, 180.0, 100));
+    }
+
+    private static double clampLatitude(double latitude) {
+        return Math.max(-90, Math.min(90, latitude));
+    }
+
+    @Test
+    void distanceToSegment_PointBesideSegment_ShouldMatchHaversineCrossTrack() {
+        // Segment running east along the 41st parallel, point 50 m north of its middle
+        double lat = 41.0;
+        double northOffset = 50.0 / 111_195.0;
+        double distance = GeoUtils.distanceToSegment(lat + northOffset, 29.005, lat, 29.0, lat, 29.01);
+
+        assertEquals(50.0, distance, 0.05);
+    }
+
+    @Test
+    void distanceToSegment_PointPastSegmentEnd_ShouldMeasureToEndpoint() {
+        double distance = GeoUtils.distanceToSegment(41.0, 29.02, 41.0, 29.0, 41.0, 29.01);
+
+        assertEquals(GeoUtils.calculateDistance(41.0, 29.02, 41.0, 29.01) * 1000, distance, 0.5);
+    }
+
+    @Test
+    void distanceToSegment_DegenerateSegment_ShouldMeasureToPoint() {
+        double distance = GeoUtils.distanceToSegment(41.001, 29.0, 41.0, 29.0, 41.0, 29.0);
+
+        assertEquals(GeoUtils.calculateDistance(41.001, 29.0, 41.0, 29.0) * 1000, distance, 0.05);
+    }
+}
@@ -3,19 +3,35 @@ package com.melihcelik.couriertracking.infrastructure.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
 import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierStateHandover;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CompactEventDeserializer;
+import com.melihcelik.couriertracking.infrastructure.messaging.serde.CompactEventSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 class KafkaConfigTest {
 
@@ -60,6 +76,17 @@ class KafkaConfigTest {
         assertEquals(1, (short) topic.replicationFactor());
     }
 
+    @Test
+    void storeExitTopic_ShouldBeConfiguredCorrectly() {
+        // Act
+        NewTopic topic = kafkaConfig.storeExitTopic();
+
+        // Assert
+        assertEquals("store.exit", topic.name());
+        assertEquals(3, topic.numPartitions());
+        assertEquals(1, (short) topic.replicationFactor());
+    }
+
     @Test
     void courierLocationProducerFactory_ShouldBeConfiguredCorrectly() {
         // Act
@@ -86,6 +113,50 @@ class KafkaConfigTest {
         assertEquals(JsonSerializer.class, configs.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
     }
 
+    @Test
+    void bulkLocationProducerFactory_ShouldCompressAndBatch() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "bulkIngestLinger", 20);
+        ReflectionTestUtils.setField(kafkaConfig, "bulkIngestBatchSize", 131072);
+
+        // Act
+        ProducerFactory<String, CourierLocationEvent> factory = kafkaConfig.bulkLocationProducerFactory();
+
+        // Assert
+        var configs = ((DefaultKafkaProducerFactory<?, ?>) factory).getConfigurationProperties();
+        assertEquals("lz4", configs.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(20, configs.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(131072, configs.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals(JsonSerializer.class, configs.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    }
+
+    @Test
+    void outboxProducerFactory_ShouldBeIdempotentByteProducer() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "outboxLinger", 20);
+
+        // Act
+        ProducerFactory<String, byte[]> factory = kafkaConfig.outboxProducerFactory();
+
+        // Assert
+        var configs = ((DefaultKafkaProducerFactory<?, ?>) factory).getConfigurationProperties();
+        assertEquals(bootstrapServers, configs.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals(ByteArraySerializer.class, configs.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+        assertEquals(true, configs.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals("all", configs.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(20, configs.get(ProducerConfig.LINGER_MS_CONFIG));
+    }
+
+    @Test
+    void storeEventSerializers_ShouldFollowConfiguredFormat() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "storeEntryFormat", "compact");
+
+        // Act & Assert
+        assertTrue(kafkaConfig.storeEntrySerializer() instanceof CompactEventSerializer);
+        assertTrue(kafkaConfig.storeExitSerializer() instanceof JsonSerializer);
+    }
+
     @Test
     void courierLocationConsumerFactory_ShouldBeConfiguredCorrectly() {
         // Act
@@ -101,7 +172,153 @@ class KafkaConfigTest {
         // Check deserializer instances
         DefaultKafkaConsumerFactory<String, CourierLocationEvent> consumerFactory = (DefaultKafkaConsumerFactory<String, CourierLocationEvent>) factory;
         assertTrue(consumerFactory.getKeyDeserializer() instanceof StringDeserializer);
-        assertTrue(consumerFactory.getValueDeserializer() instanceof JsonDeserializer);
+        assertTrue(consumerFactory.getValueDeserializer() instanceof ErrorHandlingDeserializer);
+        Object delegate = ReflectionTestUtils.getField(consumerFactory.getValueDeserializer(), "delegate");
+        assertTrue(delegate instanceof CompactEventDeserializer);
+        assertTrue(((CompactEventDeserializer<?>) delegate).getFallback() instanceof JsonDeserializer);
+    }
+
+    @Test
+    void courierLocationProducerFactory_CompactFormat_ShouldUseCompactSerializer() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "courierLocationFormat", "compact");
+
+        // Act
+        ProducerFactory<String, CourierLocationEvent> factory = kafkaConfig.courierLocationProducerFactory();
+
+        // Assert
+        var configs = ((DefaultKafkaProducerFactory<?, ?>) factory).getConfigurationProperties();
+        assertEquals(CompactEventSerializer.class, configs.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+        assertTrue(((DefaultKafkaProducerFactory<?, ?>) factory).getValueSerializerSupplier().get() instanceof CompactEventSerializer);
+    }
+
+    @Test
+    void storeEntryProducerFactory_CompactFormat_ShouldUseCompactSerializer() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "storeEntryFormat", "COMPACT");
+
+        // Act
+        ProducerFactory<String, StoreEntryEvent> factory = kafkaConfig.storeEntryProducerFactory();
+
+        // Assert
+        var configs = ((DefaultKafkaProducerFactory<?, ?>) factory).getConfigurationProperties();
+        assertEquals(CompactEventSerializer.class, configs.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    }
+
+    @Test
+    void courierLocationListenerFactory_BatchEnabled_ShouldConfigureBatchPolling() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "courierLocationBatchEnabled", true);
+        ReflectionTestUtils.setField(kafkaConfig, "courierLocationBatchSize", 250);
+        ReflectionTestUtils.setField(kafkaConfig, "courierLocationBatchLinger", 20);
+        ReflectionTestUtils.setField(kafkaConfig, "courierLocationBatchMinBytes", 8192);
+
+        // Act
+        ConcurrentKafkaListenerContainerFactory<String, CourierLocationEvent> factory =
+                kafkaConfig.courierLocationKafkaListenerContainerFactory();
+
+        // Assert
+        assertTrue(factory.isBatchListener());
+        var configs = ((DefaultKafkaConsumerFactory<?, ?>) factory.getConsumerFactory()).getConfigurationProperties();
+        assertEquals(250, configs.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertEquals(20, configs.get(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG));
+        assertEquals(8192, configs.get(ConsumerConfig.FETCH_MIN_BYTES_CONFIG));
+    }
+
+    @Test
+    void courierLocationListenerFactory_ShouldUseConfiguredConcurrency() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "courierLocationConcurrency", 3);
+
+        // Act
+        ConcurrentKafkaListenerContainerFactory<String, CourierLocationEvent> factory =
+                kafkaConfig.courierLocationKafkaListenerContainerFactory();
+
+        // Assert
+        assertEquals(3, ReflectionTestUtils.getField(factory, "concurrency"));
+    }
+
+    @Test
+    void courierLocationListenerFactory_BatchDisabled_ShouldUseRecordListener() {
+        // Act
+        ConcurrentKafkaListenerContainerFactory<String, CourierLocationEvent> factory =
+                kafkaConfig.courierLocationKafkaListenerContainerFactory();
+
+        // Assert
+        assertFalse(Boolean.TRUE.equals(factory.isBatchListener()));
+        var configs = ((DefaultKafkaConsumerFactory<?, ?>) factory.getConsumerFactory()).getConfigurationProperties();
+        assertFalse(configs.containsKey(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+    }
+
+    @Test
+    void clientFactories_WithMeterRegistry_ShouldRegisterMicrometerListeners() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "meterRegistry", new SimpleMeterRegistry());
+
+        // Act
+        DefaultKafkaConsumerFactory<?, ?> consumerFactory =
+                (DefaultKafkaConsumerFactory<?, ?>) kafkaConfig.courierLocationConsumerFactory();
+        DefaultKafkaProducerFactory<?, ?> producerFactory =
+                (DefaultKafkaProducerFactory<?, ?>) kafkaConfig.courierLocationProducerFactory();
+
+        // Assert
+        assertTrue(consumerFactory.getListeners().get(0) instanceof MicrometerConsumerListener);
+        assertTrue(producerFactory.getListeners().get(0) instanceof MicrometerProducerListener);
+    }
+
+    @Test
+    void clientFactories_WithoutMeterRegistry_ShouldNotRegisterListeners() {
+        // Act
+        DefaultKafkaConsumerFactory<?, ?> consumerFactory =
+                (DefaultKafkaConsumerFactory<?, ?>) kafkaConfig.storeEntryConsumerFactory();
+
+        // Assert
+        assertTrue(consumerFactory.getListeners().isEmpty());
+    }
+
+    @Test
+    void courierLocationConsumerFactory_ShouldAdvertiseAddressAndRebalanceCooperatively() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "advertisedAddress", "courier-tracking-1:8080");
+
+        // Act
+        ConsumerFactory<String, CourierLocationEvent> factory = kafkaConfig.courierLocationConsumerFactory();
+
+        // Assert
+        var configs = factory.getConfigurationProperties();
+        assertEquals("courier-tracking@courier-tracking-1:8080", configs.get(ConsumerConfig.CLIENT_ID_CONFIG));
+        assertEquals(CooperativeStickyAssignor.class.getName(), configs.get(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG));
+    }
+
+    @Test
+    void courierLocationListenerFactory_WithStateHandover_ShouldUseItAsRebalanceListener() {
+        // Arrange
+        CourierStateHandover handover = mock(CourierStateHandover.class);
+        ReflectionTestUtils.setField(kafkaConfig, "courierStateHandover", handover);
+
+        // Act
+        ConcurrentKafkaListenerContainerFactory<String, CourierLocationEvent> factory =
+                kafkaConfig.courierLocationKafkaListenerContainerFactory();
+
+        // Assert
+        assertSame(handover, factory.getContainerProperties().getConsumerRebalanceListener());
+    }
+
+    @Test
+    void backfillConsumerFactory_ShouldUseDedicatedGroupWithoutAutoCommit() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "backfillMaxPollRecords", 5000);
+
+        // Act
+        ConsumerFactory<String, CourierLocationEvent> factory = kafkaConfig.backfillConsumerFactory();
+
+        // Assert
+        var configs = factory.getConfigurationProperties();
+        assertEquals("courier-tracking-backfill", configs.get(ConsumerConfig.GROUP_ID_CONFIG));
+        assertEquals(false, configs.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+        assertEquals(5000, configs.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+        assertTrue(((DefaultKafkaConsumerFactory<String, CourierLocationEvent>) factory).getValueDeserializer()
+                instanceof ErrorHandlingDeserializer);
     }
 
     @Test
@@ -119,7 +336,9 @@ class KafkaConfigTest {
         // Check deserializer instances
         DefaultKafkaConsumerFactory<String, StoreEntryEvent> consumerFactory = (DefaultKafkaConsumerFactory<String, StoreEntryEvent>) factory;
         assertTrue(consumerFactory.getKeyDeserializer() instanceof StringDeserializer);
-        assertTrue(consumerFactory.getValueDeserializer() instanceof JsonDeserializer);
+        assertTrue(consumerFactory.getValueDeserializer() instanceof ErrorHandlingDeserializer);
+        Object delegate = ReflectionTestUtils.getField(consumerFactory.getValueDeserializer(), "delegate");
+        assertTrue(delegate instanceof CompactEventDeserializer);
     }
 
     @Test
@@ -127,11 +346,101 @@ class KafkaConfigTest {
         // Act
         KafkaTemplate<String, CourierLocationEvent> courierTemplate = kafkaConfig.courierLocationKafkaTemplate();
         KafkaTemplate<String, StoreEntryEvent> storeTemplate = kafkaConfig.storeEntryKafkaTemplate();
+        KafkaTemplate<String, byte[]> outboxTemplate = kafkaConfig.outboxKafkaTemplate();
 
         // Assert
         assertNotNull(courierTemplate);
         assertNotNull(storeTemplate);
+        assertNotNull(outboxTemplate);
         assertTrue(courierTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory);
         assertTrue(storeTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory);
+        assertTrue(outboxTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory);
+    }
+
+    @Test
+    void listenerContainerFactories_VirtualThreadsEnabled_ShouldUseVirtualThreadExecutor() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "virtualThreadsEnabled", true);
+
+        // Act
+        var locationFactory = kafkaConfig.courierLocationKafkaListenerContainerFactory();
+        var storeEntryFactory = kafkaConfig.storeEntryKafkaListenerContainerFactory();
+
+        // Assert
+        assertTrue(locationFactory.getContainerProperties().getListenerTaskExecutor() instanceof SimpleAsyncTaskExecutor);
+        assertTrue(storeEntryFactory.getContainerProperties().getListenerTaskExecutor() instanceof SimpleAsyncTaskExecutor);
+    }
+
+    @Test
+    void listenerContainerFactories_VirtualThreadsDisabled_ShouldUseDefaultExecutor() {
+        // Act
+        var locationFactory = kafkaConfig.courierLocationKafkaListenerContainerFactory();
+
+        // Assert
+        assertNull(locationFactory.getContainerProperties().getListenerTaskExecutor());
+    }
+
+    @Test
+    void retryTopics_ShouldBackOffExponentiallyAndEndInDlt() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "retryAttempts", 4);
+        ReflectionTestUtils.setField(kafkaConfig, "retryInitialInterval", 1000L);
+        ReflectionTestUtils.setField(kafkaConfig, "retryMultiplier", 4.0);
+        ReflectionTestUtils.setField(kafkaConfig, "retryMaxInterval", 60000L);
+
+        // Act
+        RetryTopicConfiguration configuration = kafkaConfig.storeEntryRetryTopic();
+
+        // Assert
+        List<String> suffixes = configuration.getDestinationTopicProperties().stream()
+                .map(DestinationTopic.Properties::suffix)
+                .toList();
+        assertEquals(List.of("", "-retry-1000", "-retry-4000", "-retry-16000", "-dlt"), suffixes);
+        assertTrue(configuration.hasConfigurationForTopics(new String[]{"store.entry"}));
+        assertFalse(configuration.hasConfigurationForTopics(new String[]{"courier.location"}));
+    }
+
+    @Test
+    void courierLocationListenerFactory_RoutingEnabled_ShouldRetryOnOwnPartition() {
+        // Arrange
+        ReflectionTestUtils.setField(kafkaConfig, "routingEnabled", true);
+        ReflectionTestUtils.setField(kafkaConfig, "retryAttempts", 4);
+        ReflectionTestUtils.setField(kafkaConfig, "retryInitialInterval", 1000L);
+        ReflectionTestUtils.setField(kafkaConfig, "retryMultiplier", 4.0);
+        ReflectionTestUtils.setField(kafkaConfig, "retryMaxInterval", 60000L);
+
+        // Act
+        var factory = kafkaConfig.courierLocationKafkaListenerContainerFactory();
+        NewTopic deadLetterTopic = kafkaConfig.courierLocationDeadLetterTopic();
+
+        // Assert
+        assertInstanceOf(DefaultErrorHandler.class, ReflectionTestUtils.getField(factory, "commonErrorHandler"));
+        assertEquals("courier.location-dlt", deadLetterTopic.name());
+        assertEquals(3, deadLetterTopic.numPartitions());
+    }
+
+    @Test
+    void courierLocationListenerFactory_RoutingDisabled_ShouldLeaveRetriesToRetryTopics() {
+        // Act
+        var factory = kafkaConfig.courierLocationKafkaListenerContainerFactory();
+
+        // Assert
+        assertNull(ReflectionTestUtils.getField(factory, "commonErrorHandler"));
+    }
+
+    @Test
+    void retryProducerFactory_ShouldSerializeEventsAndRawBytes() {
+        // Arrange
+        DefaultKafkaProducerFactory<String, Object> factory =
+                (DefaultKafkaProducerFactory<String, Object>) kafkaConfig.retryProducerFactory();
+        @SuppressWarnings("unchecked")
+        Serializer<Object> serializer = (Serializer<Object>) factory.getValueSerializerSupplier().get();
+        byte[] raw = {1, 2, 3};
+
+        // Act & Assert
+        assertArrayEquals(raw, serializer.serialize("store.entry-dlt", raw));
+        assertNotNull(serializer.serialize("store.entry-retry-1000",
+                StoreEntryEvent.builder().courierId(1L).storeId(1L).build()));
+        assertEquals(true, factory.getConfigurationProperties().get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,330 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.backfill.BackfillRequest;
+import com.melihcelik.couriertracking.application.backfill.BackfillStatus;
+import com.melihcelik.couriertracking.application.backfill.StoreEntryMode;
+import com.melihcelik.couriertracking.application.command.StoreEventOutbox;
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.query.CourierReadModel;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTracker;
+import com.melihcelik.couriertracking.application.spatial.StoreSpatialIndex;
+import com.melihcelik.couriertracking.application.state.CourierStateStore;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.exception.InvalidBackfillException;
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.repository.StoreEntryBackfillRepository;
+import com.melihcelik.couriertracking.domain.repository.StoreRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierLocationBackfillTest {
+
+    private static final String TOPIC = "courier.location";
+    private static final TopicPartition PARTITION_0 = new TopicPartition(TOPIC, 0);
+    private static final double STORE_LAT = 40.9923307;
+    private static final double STORE_LON = 29.1244229;
+    private static final double DEGREES_PER_METER = 1 / 111_195.0;
+    private static final Instant START = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private ConsumerFactory<String, CourierLocationEvent> backfillConsumerFactory;
+
+    @Mock
+    private PingFilter pingFilter;
+
+    @Mock
+    private GeofenceTracker geofenceTracker;
+
+    @Mock
+    private CourierStateStore courierStateStore;
+
+    @Mock
+    private CourierReadModel courierReadModel;
+
+    @Mock
+    private StoreEntryBackfillRepository storeEntryBackfillRepository;
+
+    @Mock
+    private StoreEventOutbox storeEventOutbox;
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Mock
+    private MessageListenerContainer liveContainer;
+
+    @Mock
+    private MessageListenerContainer retryContainer;
+
+    private MockConsumer<String, CourierLocationEvent> consumer;
+    private MockConsumer<String, CourierLocationEvent> liveGroupConsumer;
+    private CourierLocationBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        consumer = openMockConsumer();
+        consumer.updatePartitions(TOPIC, List.of(new PartitionInfo(TOPIC, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION_0, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 3L));
+        liveGroupConsumer = openMockConsumer();
+        liveGroupConsumer.assign(List.of(PARTITION_0));
+        lenient().when(backfillConsumerFactory.createConsumer()).thenReturn(consumer);
+        lenient().when(backfillConsumerFactory.createConsumer("courier-tracking-group", null)).thenReturn(liveGroupConsumer);
+
+        StoreSpatialIndex index = new StoreSpatialIndex(storeRepository);
+        ReflectionTestUtils.setField(index, "cellSize", 100.0);
+        lenient().when(storeRepository.findAll()).thenReturn(List.of(
+                Store.builder().id(1L).name("Test Store").latitude(STORE_LAT).longitude(STORE_LON).build()));
+        index.rebuild();
+        GeofenceTracker tracker = new GeofenceTracker(index);
+        ReflectionTestUtils.setField(tracker, "enterRadius", 100.0);
+        ReflectionTestUtils.setField(tracker, "exitMargin", 20.0);
+        lenient().when(geofenceTracker.newInstance()).thenReturn(tracker);
+        lenient().when(pingFilter.newInstance()).thenReturn(new PingFilter());
+
+        lenient().when(liveContainer.getContainerProperties()).thenReturn(new ContainerProperties(TOPIC));
+        lenient().when(liveContainer.isRunning()).thenReturn(true);
+        lenient().when(liveContainer.isContainerPaused()).thenReturn(true);
+        lenient().when(liveContainer.getAssignedPartitions()).thenReturn(List.of(PARTITION_0));
+        lenient().when(retryContainer.getContainerProperties()).thenReturn(new ContainerProperties(TOPIC + "-retry-1000"));
+        lenient().when(retryContainer.isRunning()).thenReturn(true);
+        lenient().when(kafkaListenerEndpointRegistry.getListenerContainers()).thenReturn(List.of(liveContainer, retryContainer));
+
+        backfill = new CourierLocationBackfill(backfillConsumerFactory, pingFilter, geofenceTracker,
+                courierStateStore, courierReadModel, storeEntryBackfillRepository, storeEventOutbox,
+                kafkaListenerEndpointRegistry);
+        ReflectionTestUtils.setField(backfill, "parallelism", 2);
+        ReflectionTestUtils.setField(backfill, "pollTimeout", 10L);
+        ReflectionTestUtils.setField(backfill, "writeBatchSize", 10000);
+        ReflectionTestUtils.setField(backfill, "storeEntryCooldown", 60);
+        ReflectionTestUtils.setField(backfill, "pauseTimeout", 1000L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_ShouldReplayUpToLivePositionAndSwapResults() {
+        // Arrange
+        liveGroupConsumer.commitSync(Map.of(PARTITION_0, new OffsetAndMetadata(2L)));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, event(1L, 50, 0)));
+            consumer.addRecord(record(1, event(1L, 1050, 60)));
+            consumer.addRecord(record(2, event(1L, 2050, 120)));
+        });
+        when(courierStateStore.totalTravelDistances()).thenReturn(Map.of(1L, 0.4));
+        when(courierStateStore.adjustTotals(anyMap())).thenReturn(List.of());
+        when(storeEntryBackfillRepository.swap(any(), any(), any(), any())).thenReturn(1);
+        BackfillRequest request = new BackfillRequest(null, null, null, null, null, null);
+        CourierLocationBackfill.Run run = new CourierLocationBackfill.Run(request, Instant.now());
+
+        // Act
+        backfill.execute(run);
+
+        // Assert
+        BackfillStatus status = run.status();
+        assertEquals(BackfillStatus.State.COMPLETED, status.state(), status.error());
+        assertEquals(2, status.eventsRead());
+        assertEquals(1, status.couriers());
+        assertEquals(1, status.storeEntries());
+
+        ArgumentCaptor<Collection<StoreEntryEvent>> staged = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<UUID> backfillId = ArgumentCaptor.forClass(UUID.class);
+        verify(storeEntryBackfillRepository).stage(backfillId.capture(), staged.capture());
+        assertEquals(1, staged.getValue().size());
+        verify(storeEntryBackfillRepository).swap(backfillId.getValue(), Set.of(1L), START, START.plusSeconds(60).plusMillis(1));
+
+        ArgumentCaptor<Map<Long, Double>> corrections = ArgumentCaptor.forClass(Map.class);
+        verify(courierStateStore).adjustTotals(corrections.capture());
+        assertEquals(0.6, corrections.getValue().get(1L), 0.01);
+        assertEquals(2L, consumer.committed(Set.of(PARTITION_0)).get(PARTITION_0).offset());
+        verifyNoInteractions(storeEventOutbox);
+
+        InOrder inOrder = inOrder(liveContainer, courierStateStore);
+        inOrder.verify(liveContainer).pause();
+        inOrder.verify(courierStateStore).totalTravelDistances();
+        inOrder.verify(liveContainer).resume();
+        inOrder.verify(courierStateStore).adjustTotals(anyMap());
+        verify(retryContainer, never()).pause();
+    }
+
+    @Test
+    void execute_LiveListenersDoNotPause_ShouldFailAndResume() {
+        // Arrange
+        when(liveContainer.isContainerPaused()).thenReturn(false);
+        ReflectionTestUtils.setField(backfill, "pauseTimeout", 100L);
+        CourierLocationBackfill.Run run = new CourierLocationBackfill.Run(
+                new BackfillRequest(null, null, null, null, StoreEntryMode.NONE, true), Instant.now());
+
+        // Act
+        backfill.execute(run);
+
+        // Assert
+        assertEquals(BackfillStatus.State.FAILED, run.status().state());
+        verify(liveContainer).resume();
+        verify(courierStateStore, never()).totalTravelDistances();
+        verify(courierStateStore, never()).adjustTotals(anyMap());
+    }
+
+    @Test
+    void execute_PartitionOwnedElsewhere_ShouldFailWithoutCorrections() {
+        // Arrange
+        when(liveContainer.getAssignedPartitions()).thenReturn(List.of());
+        CourierLocationBackfill.Run run = new CourierLocationBackfill.Run(
+                new BackfillRequest(null, null, null, null, StoreEntryMode.NONE, true), Instant.now());
+
+        // Act
+        backfill.execute(run);
+
+        // Assert
+        assertEquals(BackfillStatus.State.FAILED, run.status().state());
+        assertTrue(run.status().error().contains("[0]"), run.status().error());
+        verify(liveContainer).resume();
+        verify(courierStateStore, never()).adjustTotals(anyMap());
+    }
+
+    @Test
+    void execute_PublishMode_ShouldAppendEntriesToOutbox() {
+        // Arrange
+        consumer.schedulePollTask(() -> consumer.addRecord(record(0, event(1L, 50, 0))));
+        BackfillRequest request = new BackfillRequest(null, null, null, Map.of(0, 3L), StoreEntryMode.PUBLISH, false);
+        consumer.updateEndOffsets(Map.of(PARTITION_0, 1L));
+        CourierLocationBackfill.Run run = new CourierLocationBackfill.Run(request, Instant.now());
+
+        // Act
+        backfill.execute(run);
+
+        // Assert
+        assertEquals(BackfillStatus.State.COMPLETED, run.status().state(), run.status().error());
+        verify(storeEventOutbox).storeEntry(any(StoreEntryEvent.class));
+        verify(storeEventOutbox).append(any());
+        verify(courierStateStore, never()).adjustTotals(anyMap());
+        verifyNoInteractions(storeEntryBackfillRepository);
+    }
+
+    @Test
+    void execute_Failure_ShouldDiscardStagedEntries() {
+        // Arrange
+        consumer.schedulePollTask(() -> consumer.addRecord(record(0, event(1L, 50, 0))));
+        liveGroupConsumer.commitSync(Map.of(PARTITION_0, new OffsetAndMetadata(1L)));
+        when(courierStateStore.totalTravelDistances()).thenReturn(Map.of());
+        when(storeEntryBackfillRepository.swap(any(), any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+        CourierLocationBackfill.Run run = new CourierLocationBackfill.Run(
+                new BackfillRequest(null, null, null, null, null, null), Instant.now());
+
+        // Act
+        backfill.execute(run);
+
+        // Assert
+        assertEquals(BackfillStatus.State.FAILED, run.status().state());
+        assertEquals("boom", run.status().error());
+        verify(storeEntryBackfillRepository).discard(any());
+        verify(courierStateStore, never()).adjustTotals(anyMap());
+    }
+
+    @Test
+    void execute_OdometerWriteFails_ShouldFail() {
+        // Arrange
+        consumer.schedulePollTask(() -> consumer.addRecord(record(0, event(1L, 50, 0))));
+        liveGroupConsumer.commitSync(Map.of(PARTITION_0, new OffsetAndMetadata(1L)));
+        when(courierStateStore.totalTravelDistances()).thenReturn(Map.of());
+        when(courierStateStore.adjustTotals(anyMap())).thenThrow(new RuntimeException("Database unavailable"));
+        CourierLocationBackfill.Run run = new CourierLocationBackfill.Run(
+                new BackfillRequest(null, null, null, null, StoreEntryMode.NONE, true), Instant.now());
+
+        // Act
+        backfill.execute(run);
+
+        // Assert
+        assertEquals(BackfillStatus.State.FAILED, run.status().state());
+        assertEquals("Database unavailable", run.status().error());
+        verifyNoInteractions(courierReadModel);
+    }
+
+    @Test
+    void start_ExplicitEndWithDistances_ShouldThrowException() {
+        // Arrange
+        BackfillRequest request = new BackfillRequest(null, START, null, null, null, true);
+
+        // Act & Assert
+        assertThrows(InvalidBackfillException.class, () -> backfill.start(request));
+        assertTrue(backfill.status().isEmpty());
+    }
+
+    @Test
+    void start_ExplicitStartWithDistances_ShouldThrowException() {
+        // Arrange
+        BackfillRequest fromTime = new BackfillRequest(START, null, null, null, null, true);
+        BackfillRequest fromOffsets = new BackfillRequest(null, null, Map.of(0, 10L), null, null, null);
+
+        // Act & Assert
+        assertThrows(InvalidBackfillException.class, () -> backfill.start(fromTime));
+        assertThrows(InvalidBackfillException.class, () -> backfill.start(fromOffsets));
+        assertTrue(backfill.status().isEmpty());
+    }
+
+    @Test
+    void start_DistancesWithPartitionOwnedElsewhere_ShouldThrowException() {
+        // Arrange
+        when(liveContainer.getAssignedPartitions()).thenReturn(List.of());
+        BackfillRequest request = new BackfillRequest(null, null, null, null, StoreEntryMode.NONE, true);
+
+        // Act & Assert
+        assertThrows(InvalidBackfillException.class, () -> backfill.start(request));
+        assertTrue(backfill.status().isEmpty());
+    }
+
+    private static MockConsumer<String, CourierLocationEvent> openMockConsumer() {
+        return new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void close() {
+                // Keep the consumer usable and its committed offsets readable across backfill steps
+            }
+        };
+    }
+
+    private static ConsumerRecord<String, CourierLocationEvent> record(long offset, CourierLocationEvent event) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, String.valueOf(event.getCourierId()), event);
+    }
+
+    private static CourierLocationEvent event(Long courierId, double metersNorth, long second) {
+        return CourierLocationEvent.builder()
+                .courierId(courierId)
+                .latitude(STORE_LAT + metersNorth * DEGREES_PER_METER)
+                .longitude(STORE_LON)
+                .timestamp(START.plusSeconds(second))
+                .build();
+    }
+}
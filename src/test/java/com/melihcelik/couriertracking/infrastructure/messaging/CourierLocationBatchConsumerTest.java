@@ -0,0 +1,78 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.command.CourierLocationCommandService;
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierLocationBatchConsumerTest {
+
+    @Mock
+    private CourierLocationCommandService commandService;
+
+    private CourierLocationBatchConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new CourierLocationBatchConsumer(commandService, new PipelineMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void consume_ShouldProcessWholeBatch() {
+        // Arrange
+        List<CourierLocationEvent> events = List.of(
+                createEvent(1L, 40.9923307, 29.1244229),
+                createEvent(2L, 40.986106, 29.1161293));
+
+        // Act
+        consumer.consume(events);
+
+        // Assert
+        verify(commandService).processCourierLocations(events);
+    }
+
+    @Test
+    void consume_UndecodableRecords_ShouldProcessTheRest() {
+        // Arrange
+        CourierLocationEvent first = createEvent(1L, 40.9923307, 29.1244229);
+        CourierLocationEvent second = createEvent(2L, 40.986106, 29.1161293);
+        List<CourierLocationEvent> events = Arrays.asList(first, null, second, null);
+
+        // Act
+        consumer.consume(events);
+
+        // Assert
+        verify(commandService).processCourierLocations(List.of(first, second));
+    }
+
+    @Test
+    void consume_WhenExceptionOccurs_ShouldHandleGracefully() {
+        // Arrange
+        List<CourierLocationEvent> events = List.of(createEvent(1L, 40.9923307, 29.1244229));
+        doThrow(new RuntimeException("Test exception"))
+                .when(commandService).processCourierLocations(events);
+
+        // Act & Assert
+        consumer.consume(events); // Should not throw exception
+        verify(commandService).processCourierLocations(events);
+    }
+
+    private CourierLocationEvent createEvent(Long courierId, double latitude, double longitude) {
+        return CourierLocationEvent.builder()
+                .courierId(courierId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
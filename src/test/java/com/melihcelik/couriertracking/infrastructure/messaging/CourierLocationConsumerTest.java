@@ -1,13 +1,16 @@
 package com.melihcelik.couriertracking.infrastructure.messaging;
 
 import com.melihcelik.couriertracking.application.command.CourierLocationCommandService;
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
 import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,7 +23,7 @@ class CourierLocationConsumerTest {
 
     @BeforeEach
     void setUp() {
-        consumer = new CourierLocationConsumer(commandService);
+        consumer = new CourierLocationConsumer(commandService, new PipelineMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
@@ -40,7 +43,7 @@ class CourierLocationConsumerTest {
     }
 
     @Test
-    void consume_WhenExceptionOccurs_ShouldHandleGracefully() {
+    void consume_WhenExceptionOccurs_ShouldPropagateForRetry() {
         // Arrange
         CourierLocationEvent event = CourierLocationEvent.builder()
                 .courierId(1L)
@@ -51,7 +54,7 @@ class CourierLocationConsumerTest {
                 .when(commandService).processCourierLocation(event);
 
         // Act & Assert
-        consumer.consume(event); // Should not throw exception
+        assertThrows(RuntimeException.class, () -> consumer.consume(event));
         verify(commandService).processCourierLocation(event);
     }
 } 
\ No newline at end of file
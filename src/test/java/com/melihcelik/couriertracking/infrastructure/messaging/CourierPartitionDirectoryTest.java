@@ -0,0 +1,156 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.DescribeConsumerGroupsResult;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.MemberAssignment;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierPartitionDirectoryTest {
+
+    private static final String TOPIC = "courier.location";
+    private static final String SELF = "courier-tracking-1:8080";
+    private static final String OTHER = "courier-tracking-2:8080";
+
+    @Mock
+    private Admin admin;
+
+    @Mock
+    private DescribeConsumerGroupsResult groupsResult;
+
+    @Mock
+    private DescribeTopicsResult topicsResult;
+
+    private CourierPartitionDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = new CourierPartitionDirectory(admin, SELF, 1000);
+    }
+
+    @Test
+    void refresh_ShouldMapPartitionsToAdvertisedAddresses() {
+        // Arrange
+        stubGroup(List.of(
+                member("courier-tracking@" + SELF + "-0", new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 1)),
+                member("courier-tracking@" + OTHER + "-0", new TopicPartition(TOPIC, 2),
+                        new TopicPartition(TOPIC + "-retry-1000", 0)),
+                member("consumer-courier-tracking-group-4", new TopicPartition("store.entry", 2))));
+
+        // Act
+        directory.refresh();
+
+        // Assert
+        assertEquals(Map.of(0, SELF, 1, SELF, 2, OTHER), directory.owners());
+    }
+
+    @Test
+    void remoteOwnerOf_ShouldReturnOtherInstanceOnlyForItsPartitions() {
+        // Arrange
+        stubGroup(List.of(
+                member("courier-tracking@" + SELF + "-0", new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 1)),
+                member("courier-tracking@" + OTHER + "-1", new TopicPartition(TOPIC, 2))));
+        directory.refresh();
+
+        // Act & Assert
+        LongStream.rangeClosed(1, 50).forEach(courierId -> {
+            Optional<String> owner = directory.remoteOwnerOf(courierId);
+            if (CourierPartitioner.partitionOf(courierId, 3) == 2) {
+                assertEquals(Optional.of(OTHER), owner);
+            } else {
+                assertTrue(owner.isEmpty());
+            }
+        });
+    }
+
+    @Test
+    void remoteOwnerOf_BeforeFirstRefresh_ShouldServeLocally() {
+        // Act & Assert
+        assertTrue(directory.remoteOwnerOf(1L).isEmpty());
+    }
+
+    @Test
+    void remoteOwners_ShouldListOtherInstances() {
+        // Arrange
+        stubGroup(List.of(
+                member("courier-tracking@" + SELF + "-0", new TopicPartition(TOPIC, 0)),
+                member("courier-tracking@" + OTHER + "-0", new TopicPartition(TOPIC, 1), new TopicPartition(TOPIC, 2))));
+        directory.refresh();
+
+        // Act & Assert
+        assertEquals(Optional.of(Set.of(OTHER)), directory.remoteOwners());
+    }
+
+    @Test
+    void remoteOwners_PartitionWithoutOwner_ShouldBeUnknown() {
+        // Arrange
+        stubGroup(List.of(member("courier-tracking@" + SELF + "-0", new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 1))));
+        directory.refresh();
+
+        // Act & Assert
+        assertTrue(directory.remoteOwners().isEmpty());
+    }
+
+    @Test
+    void refresh_WhenKafkaUnavailable_ShouldKeepLastOwners() {
+        // Arrange
+        stubGroup(List.of(member("courier-tracking@" + OTHER + "-0",
+                new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 1), new TopicPartition(TOPIC, 2))));
+        directory.refresh();
+        when(groupsResult.all()).thenReturn(failed());
+
+        // Act
+        directory.refresh();
+
+        // Assert
+        assertEquals(3, directory.owners().size());
+        assertEquals(Optional.of(OTHER), directory.remoteOwnerOf(1L));
+    }
+
+    private void stubGroup(List<MemberDescription> members) {
+        ConsumerGroupDescription group = new ConsumerGroupDescription("courier-tracking-group", false, members,
+                "cooperative-sticky", ConsumerGroupState.STABLE, null);
+        TopicDescription topic = new TopicDescription(TOPIC, false, IntStream.range(0, 3)
+                .mapToObj(partition -> new TopicPartitionInfo(partition, null, List.of(), List.of()))
+                .toList());
+        when(admin.describeConsumerGroups(anyCollection())).thenReturn(groupsResult);
+        when(groupsResult.all()).thenReturn(KafkaFuture.completedFuture(Map.of("courier-tracking-group", group)));
+        lenient().when(admin.describeTopics(anyCollection())).thenReturn(topicsResult);
+        lenient().when(topicsResult.allTopicNames()).thenReturn(KafkaFuture.completedFuture(Map.of(TOPIC, topic)));
+    }
+
+    private static MemberDescription member(String clientId, TopicPartition... partitions) {
+        return new MemberDescription(clientId + "-member", clientId, "/10.0.0.1", new MemberAssignment(Set.of(partitions)));
+    }
+
+    private static KafkaFuture<Map<String, ConsumerGroupDescription>> failed() {
+        KafkaFutureImpl<Map<String, ConsumerGroupDescription>> future = new KafkaFutureImpl<>();
+        future.completeExceptionally(new TimeoutException("Timed out waiting for a node assignment"));
+        return future;
+    }
+}
@@ -0,0 +1,25 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import org.apache.kafka.clients.producer.internals.BuiltInPartitioner;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourierPartitionerTest {
+
+    @Test
+    void partitionOf_ShouldMatchProducerPartitionerForCourierKey() {
+        for (long courierId = 1; courierId <= 1000; courierId++) {
+            // Arrange
+            byte[] key = String.valueOf(courierId).getBytes(StandardCharsets.UTF_8);
+
+            // Act
+            int partition = CourierPartitioner.partitionOf(courierId, 3);
+
+            // Assert
+            assertEquals(BuiltInPartitioner.partitionForKey(key, 3), partition);
+        }
+    }
+}
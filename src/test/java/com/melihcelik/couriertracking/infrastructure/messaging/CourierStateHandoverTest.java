@@ -0,0 +1,121 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.application.query.CourierReadModel;
+import com.melihcelik.couriertracking.application.spatial.CourierPositionIndex;
+import com.melihcelik.couriertracking.application.spatial.GeofenceTracker;
+import com.melihcelik.couriertracking.application.state.CourierStateStore;
+import com.melihcelik.couriertracking.application.state.StoreEntryCooldownTracker;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierStateHandoverTest {
+
+    private static final String TOPIC = "courier.location";
+
+    @Mock
+    private CourierStateStore courierStateStore;
+
+    @Mock
+    private CourierReadModel courierReadModel;
+
+    @Mock
+    private CourierPositionIndex courierPositionIndex;
+
+    @Mock
+    private PingFilter pingFilter;
+
+    @Mock
+    private GeofenceTracker geofenceTracker;
+
+    @Mock
+    private StoreEntryCooldownTracker storeEntryCooldownTracker;
+
+    @Mock
+    private Consumer<String, Object> consumer;
+
+    private CourierStateHandover handover;
+
+    @BeforeEach
+    void setUp() {
+        handover = new CourierStateHandover(courierStateStore, courierReadModel, courierPositionIndex,
+                pingFilter, geofenceTracker, storeEntryCooldownTracker);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onPartitionsRevokedBeforeCommit_ShouldReleaseOnlyCouriersOfRevokedPartitions() {
+        // Arrange
+        when(consumer.partitionsFor(TOPIC)).thenReturn(List.of(
+                new PartitionInfo(TOPIC, 0, null, null, null),
+                new PartitionInfo(TOPIC, 1, null, null, null),
+                new PartitionInfo(TOPIC, 2, null, null, null)));
+        when(courierStateStore.courierIds(any())).thenReturn(List.of(7L));
+
+        // Act
+        handover.onPartitionsRevokedBeforeCommit(consumer, List.of(new TopicPartition(TOPIC, 1)));
+
+        // Assert
+        ArgumentCaptor<Predicate<Long>> filter = ArgumentCaptor.forClass(Predicate.class);
+        verify(courierStateStore).courierIds(filter.capture());
+        verify(courierStateStore).release(List.of(7L));
+        LongStream.rangeClosed(1, 100).forEach(courierId -> assertEquals(
+                CourierPartitioner.partitionOf(courierId, 3) == 1, filter.getValue().test(courierId)));
+        verify(courierReadModel).evict(7L);
+        verify(courierPositionIndex).remove(7L);
+        verify(pingFilter).forget(7L);
+        verify(geofenceTracker).forget(7L);
+    }
+
+    @Test
+    void onPartitionsRevokedBeforeCommit_WriteFails_ShouldEvictCouriersAndThrow() {
+        // Arrange
+        when(consumer.partitionsFor(TOPIC)).thenReturn(List.of(new PartitionInfo(TOPIC, 0, null, null, null)));
+        when(courierStateStore.courierIds(any())).thenReturn(List.of(7L));
+        doThrow(new RuntimeException("Database unavailable")).when(courierStateStore).release(List.of(7L));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> handover.onPartitionsRevokedBeforeCommit(consumer, List.of(new TopicPartition(TOPIC, 0))));
+        verify(courierReadModel).evict(7L);
+        verify(courierPositionIndex).remove(7L);
+        verify(pingFilter).forget(7L);
+        verify(geofenceTracker).forget(7L);
+    }
+
+    @Test
+    void onPartitionsRevokedBeforeCommit_RetryTopicPartitions_ShouldKeepState() {
+        // Act
+        handover.onPartitionsRevokedBeforeCommit(consumer, List.of(new TopicPartition(TOPIC + "-retry-1000", 0)));
+
+        // Assert
+        verifyNoInteractions(courierStateStore, consumer);
+    }
+
+    @Test
+    void onPartitionsAssigned_ShouldRewarmEntryCooldown() {
+        // Act
+        handover.onPartitionsAssigned(consumer, List.of(new TopicPartition(TOPIC, 2)));
+
+        // Assert
+        verify(storeEntryCooldownTracker).warmUp(any(Instant.class));
+        verifyNoInteractions(courierStateStore);
+    }
+}
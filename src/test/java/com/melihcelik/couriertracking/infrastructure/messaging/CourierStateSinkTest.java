@@ -0,0 +1,97 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.query.CourierReadModel;
+import com.melihcelik.couriertracking.application.query.CourierView;
+import com.melihcelik.couriertracking.application.spatial.CourierPositionIndex;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.repository.CourierRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierStateSinkTest {
+
+    @Mock
+    private CourierRepository courierRepository;
+
+    @Mock
+    private CourierReadModel courierReadModel;
+
+    @Mock
+    private CourierPositionIndex courierPositionIndex;
+
+    private CourierStateSink sink;
+
+    @BeforeEach
+    void setUp() {
+        sink = new CourierStateSink(courierRepository, courierReadModel, courierPositionIndex);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consume_ShouldWriteLatestSnapshotPerCourier() {
+        // Arrange
+        List<Courier> snapshots = List.of(courier(1L, 0.1), courier(2L, 0.5), courier(1L, 0.3));
+
+        // Act
+        sink.consume(snapshots);
+
+        // Assert
+        ArgumentCaptor<Collection<Courier>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(courierRepository).upsertAll(captor.capture());
+        List<Courier> written = new ArrayList<>(captor.getValue());
+        assertEquals(2, written.size());
+        assertEquals(0.3, written.get(0).getTotalTravelDistance());
+        assertEquals(0.5, written.get(1).getTotalTravelDistance());
+        verify(courierReadModel).put(new CourierView(1L, 0.3, 40.99, 29.12, true));
+        verify(courierReadModel).put(new CourierView(2L, 0.5, 40.99, 29.12, true));
+        verify(courierPositionIndex).update(eq(1L), eq(40.99), eq(29.12), any());
+        verify(courierPositionIndex).update(eq(2L), eq(40.99), eq(29.12), any());
+    }
+
+    @Test
+    void consume_OnlyEmptySnapshots_ShouldNotWrite() {
+        // Arrange
+        List<Courier> snapshots = new ArrayList<>();
+        snapshots.add(null);
+        snapshots.add(Courier.builder().totalTravelDistance(1.0).build());
+
+        // Act
+        sink.consume(snapshots);
+
+        // Assert
+        verifyNoInteractions(courierRepository, courierReadModel, courierPositionIndex);
+    }
+
+    @Test
+    void consume_WhenWriteFails_ShouldRethrowAndLeaveReadModelUntouched() {
+        // Arrange
+        doThrow(new RuntimeException("Test exception")).when(courierRepository).upsertAll(any());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> sink.consume(List.of(courier(1L, 0.1))));
+        verifyNoInteractions(courierReadModel);
+    }
+
+    private static Courier courier(Long id, double distance) {
+        return Courier.builder()
+                .id(id)
+                .totalTravelDistance(distance)
+                .lastLatitude(40.99)
+                .lastLongitude(29.12)
+                .build();
+    }
+}
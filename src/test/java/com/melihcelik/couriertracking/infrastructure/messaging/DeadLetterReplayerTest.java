@@ -0,0 +1,164 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.domain.exception.UnknownTopicException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterReplayerTest {
+
+    private static final String DLT = "store.entry-dlt";
+    private static final TopicPartition PARTITION_0 = new TopicPartition(DLT, 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition(DLT, 1);
+
+    @Mock
+    private ConsumerFactory<String, byte[]> deadLetterConsumerFactory;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private MockConsumer<String, byte[]> consumer;
+    private DeadLetterReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void close() {
+                // Keep committed offsets readable after the replayer closes the consumer
+            }
+        };
+        consumer.updatePartitions(DLT, List.of(
+                new PartitionInfo(DLT, 0, null, null, null),
+                new PartitionInfo(DLT, 1, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION_0, 0L, PARTITION_1, 0L));
+        lenient().when(deadLetterConsumerFactory.createConsumer()).thenReturn(consumer);
+
+        replayer = new DeadLetterReplayer(deadLetterConsumerFactory, kafkaTemplate);
+        ReflectionTestUtils.setField(replayer, "maxRecords", 10000);
+        ReflectionTestUtils.setField(replayer, "pollTimeout", 10L);
+        ReflectionTestUtils.setField(replayer, "sendTimeout", 1000L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_ShouldPublishToOriginalTopicWithoutRetryHeadersAndCommit() {
+        // Arrange
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("kafka_dlt-exception-message", "boom".getBytes(StandardCharsets.UTF_8));
+        headers.add("retry_topic-attempts", new byte[]{0, 0, 0, 4});
+        headers.add("__TypeId__", "StoreEntryEvent".getBytes(StandardCharsets.UTF_8));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, 0, headers));
+            consumer.addRecord(record(1, 0, new RecordHeaders()));
+        });
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        DeadLetterReplayResult result = replayer.replay("store.entry", 100);
+
+        // Assert
+        assertEquals(new DeadLetterReplayResult("store.entry", 2), result);
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(captor.capture());
+        ProducerRecord<String, byte[]> replayed = captor.getAllValues().stream()
+                .filter(r -> r.headers().toArray().length > 0)
+                .findFirst()
+                .orElseThrow();
+        assertEquals("store.entry", replayed.topic());
+        assertEquals("1", replayed.key());
+        assertEquals(1, replayed.headers().toArray().length);
+        assertNotNull(replayed.headers().lastHeader("__TypeId__"));
+        assertEquals(1L, committed(PARTITION_0));
+        assertEquals(1L, committed(PARTITION_1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_Limit_ShouldCommitOnlyReplayedRecords() {
+        // Arrange
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(0, 0, new RecordHeaders()));
+            consumer.addRecord(record(0, 1, new RecordHeaders()));
+            consumer.addRecord(record(0, 2, new RecordHeaders()));
+        });
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        DeadLetterReplayResult result = replayer.replay("store.entry", 2);
+
+        // Assert
+        assertEquals(2, result.replayed());
+        assertEquals(2L, committed(PARTITION_0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_SendFails_ShouldNotCommit() {
+        // Arrange
+        consumer.schedulePollTask(() -> consumer.addRecord(record(0, 0, new RecordHeaders())));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> replayer.replay("store.entry", 100));
+        assertNull(consumer.committed(java.util.Set.of(PARTITION_0)).get(PARTITION_0));
+    }
+
+    @Test
+    void replay_EmptyDlt_ShouldReplayNothing() {
+        // Act
+        DeadLetterReplayResult result = replayer.replay("store.entry", 100);
+
+        // Assert
+        assertEquals(0, result.replayed());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void replay_UnknownTopic_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(UnknownTopicException.class, () -> replayer.replay("courier.secrets", 100));
+        verifyNoInteractions(deadLetterConsumerFactory, kafkaTemplate);
+    }
+
+    private long committed(TopicPartition partition) {
+        return Optional.ofNullable(consumer.committed(java.util.Set.of(partition)).get(partition))
+                .map(OffsetAndMetadata::offset)
+                .orElse(-1L);
+    }
+
+    private static ConsumerRecord<String, byte[]> record(int partition, long offset, RecordHeaders headers) {
+        return new ConsumerRecord<>(DLT, partition, offset, ConsumerRecord.NO_TIMESTAMP, TimestampType.NO_TIMESTAMP_TYPE,
+                ConsumerRecord.NULL_SIZE, ConsumerRecord.NULL_SIZE, "1", new byte[]{1, 2, 3}, headers, Optional.empty());
+    }
+}
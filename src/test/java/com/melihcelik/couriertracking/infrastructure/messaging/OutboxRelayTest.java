@@ -0,0 +1,143 @@
+package com.melihcelik.couriertracking.infrastructure.messaging;
+
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
+import com.melihcelik.couriertracking.domain.model.OutboxEvent;
+import com.melihcelik.couriertracking.domain.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> outboxKafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, byte[]>> recordCaptor;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, outboxKafkaTemplate, transactionManager,
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(relay, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(relay, "sendTimeout", 1000L);
+        lenient().when(outboxEventRepository.tryAdvisoryLock(OutboxRelay.RELAY_LOCK)).thenReturn(true);
+    }
+
+    @Test
+    void relayBatch_PendingEvents_ShouldPublishInOrderAndDelete() {
+        // Arrange
+        List<OutboxEvent> events = List.of(createOutboxEvent(1L, "store.entry"), createOutboxEvent(2L, "store.exit"));
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(events);
+        when(outboxKafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(2, relayed);
+        verify(outboxKafkaTemplate, times(2)).send(recordCaptor.capture());
+        assertEquals("store.entry", recordCaptor.getAllValues().get(0).topic());
+        assertEquals("store.exit", recordCaptor.getAllValues().get(1).topic());
+        assertEquals("7", recordCaptor.getAllValues().get(0).key());
+        verify(outboxKafkaTemplate).flush();
+        verify(outboxEventRepository).deleteAllInBatch(events);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void relayBatch_SendFails_ShouldKeepEventsAndRollBack() {
+        // Arrange
+        List<OutboxEvent> events = List.of(createOutboxEvent(1L, "store.entry"));
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(events);
+        when(outboxKafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> relay.relayBatch());
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void relay_FullBatches_ShouldDrainUntilPartialBatch() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE))
+                .thenReturn(List.of(createOutboxEvent(1L, "store.entry"), createOutboxEvent(2L, "store.entry")))
+                .thenReturn(List.of(createOutboxEvent(3L, "store.entry")));
+        when(outboxKafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verify(outboxEventRepository, times(2)).lockNextBatch(BATCH_SIZE);
+        verify(outboxKafkaTemplate, times(3)).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void relayBatch_LockHeldElsewhere_ShouldNotReadOutbox() {
+        // Arrange
+        when(outboxEventRepository.tryAdvisoryLock(OutboxRelay.RELAY_LOCK)).thenReturn(false);
+
+        // Act
+        int relayed = relay.relayBatch();
+
+        // Assert
+        assertEquals(0, relayed);
+        verify(outboxEventRepository, never()).lockNextBatch(anyInt());
+        verifyNoInteractions(outboxKafkaTemplate);
+    }
+
+    @Test
+    void relay_EmptyOutbox_ShouldNotPublish() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(List.of());
+
+        // Act
+        relay.relay();
+
+        // Assert
+        verifyNoInteractions(outboxKafkaTemplate);
+    }
+
+    private OutboxEvent createOutboxEvent(Long id, String topic) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(topic)
+                .eventKey("7")
+                .payload(new byte[]{1, 2, 3})
+                .build();
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,7 +46,7 @@ class StoreEntryConsumerTest {
     }
 
     @Test
-    void consume_WhenExceptionOccurs_ShouldHandleGracefully() {
+    void consume_WhenExceptionOccurs_ShouldPropagateForRetry() {
         // Arrange
         StoreEntryEvent event = StoreEntryEvent.builder()
                 .courierId(1L)
@@ -59,7 +60,7 @@ class StoreEntryConsumerTest {
                 .when(commandService).processStoreEntry(event);
 
         // Act & Assert
-        consumer.consume(event);
+        assertThrows(RuntimeException.class, () -> consumer.consume(event));
         verify(commandService).processStoreEntry(event);
     }
 } 
\ No newline at end of file
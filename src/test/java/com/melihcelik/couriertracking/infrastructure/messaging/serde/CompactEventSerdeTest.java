@@ -0,0 +1,165 @@
+package com.melihcelik.couriertracking.infrastructure.messaging.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactEventSerdeTest {
+
+    private static final String TOPIC = "courier.location";
+
+    private ObjectMapper objectMapper;
+    private CompactEventSerializer<CourierLocationEvent> locationSerializer;
+    private CompactEventDeserializer<CourierLocationEvent> locationDeserializer;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        locationSerializer = new CompactEventSerializer<>(new CourierLocationEventCodec());
+        JsonDeserializer<CourierLocationEvent> jsonDeserializer = new JsonDeserializer<>(CourierLocationEvent.class, objectMapper);
+        jsonDeserializer.addTrustedPackages("com.melihcelik.couriertracking.domain.event");
+        locationDeserializer = new CompactEventDeserializer<>(new CourierLocationEventCodec(), jsonDeserializer);
+    }
+
+    @Test
+    void courierLocationEvent_RoundTrip_ShouldPreserveAllFields() {
+        // Arrange
+        CourierLocationEvent event = CourierLocationEvent.builder()
+                .courierId(42L)
+                .latitude(40.9923307)
+                .longitude(29.1244229)
+                .timestamp(Instant.parse("2024-01-15T10:15:30.123456789Z"))
+                .build();
+
+        // Act
+        byte[] bytes = locationSerializer.serialize(TOPIC, event);
+        CourierLocationEvent decoded = locationDeserializer.deserialize(TOPIC, bytes);
+
+        // Assert
+        assertEquals(38, bytes.length);
+        assertEquals(CompactEventSerializer.MAGIC, bytes[0]);
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void courierLocationEvent_NullFields_ShouldRoundTripAsNull() {
+        // Arrange
+        CourierLocationEvent event = CourierLocationEvent.builder()
+                .courierId(1L)
+                .timestamp(null)
+                .build();
+
+        // Act
+        CourierLocationEvent decoded = locationDeserializer.deserialize(TOPIC, locationSerializer.serialize(TOPIC, event));
+
+        // Assert
+        assertEquals(1L, decoded.getCourierId());
+        assertNull(decoded.getLatitude());
+        assertNull(decoded.getLongitude());
+        assertNull(decoded.getTimestamp());
+    }
+
+    @Test
+    void deserialize_JsonPayload_ShouldFallBackToJson() {
+        // Arrange
+        CourierLocationEvent event = CourierLocationEvent.builder()
+                .courierId(7L)
+                .latitude(40.986106)
+                .longitude(29.1161293)
+                .timestamp(Instant.parse("2024-01-15T10:15:30Z"))
+                .build();
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = new JsonSerializer<CourierLocationEvent>(objectMapper).serialize(TOPIC, headers, event);
+
+        // Act
+        CourierLocationEvent decoded = locationDeserializer.deserialize(TOPIC, headers, json);
+
+        // Assert
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void deserialize_UnknownVersion_ShouldThrowSerializationException() {
+        // Arrange
+        byte[] bytes = locationSerializer.serialize(TOPIC, CourierLocationEvent.builder().courierId(1L).build());
+        bytes[1] = 99;
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> locationDeserializer.deserialize(TOPIC, bytes));
+    }
+
+    @Test
+    void deserialize_StringLengthBeyondRecord_ShouldThrowSerializationException() {
+        // Arrange
+        CompactEventSerializer<StoreEntryEvent> serializer = new CompactEventSerializer<>(new StoreEntryEventCodec());
+        CompactEventDeserializer<StoreEntryEvent> deserializer = new CompactEventDeserializer<>(
+                new StoreEntryEventCodec(), new JsonDeserializer<>(StoreEntryEvent.class, objectMapper));
+        byte[] bytes = serializer.serialize("store.entry", StoreEntryEvent.builder()
+                .courierId(1L)
+                .storeId(3L)
+                .storeName("Migros")
+                .build());
+        ByteBuffer.wrap(bytes).putInt(bytes.length - Integer.BYTES - 6, Integer.MAX_VALUE);
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("store.entry", bytes));
+    }
+
+    @Test
+    void serialize_Null_ShouldReturnNull() {
+        assertNull(locationSerializer.serialize(TOPIC, null));
+    }
+
+    @Test
+    void storeEntryEvent_RoundTrip_ShouldPreserveAllFields() {
+        // Arrange
+        CompactEventSerializer<StoreEntryEvent> serializer = new CompactEventSerializer<>(new StoreEntryEventCodec());
+        CompactEventDeserializer<StoreEntryEvent> deserializer = new CompactEventDeserializer<>(
+                new StoreEntryEventCodec(), new JsonDeserializer<>(StoreEntryEvent.class, objectMapper));
+        StoreEntryEvent event = StoreEntryEvent.builder()
+                .courierId(1L)
+                .storeId(3L)
+                .storeName("Ataşehir MMM Migros")
+                .latitude(40.9923307)
+                .longitude(29.1244229)
+                .timestamp(Instant.parse("2024-01-15T10:15:30Z"))
+                .build();
+
+        // Act
+        StoreEntryEvent decoded = deserializer.deserialize("store.entry", serializer.serialize("store.entry", event));
+
+        // Assert
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void compactFormat_ShouldBeSmallerThanJson() {
+        // Arrange
+        CourierLocationEvent event = CourierLocationEvent.builder()
+                .courierId(123456L)
+                .latitude(40.9923307)
+                .longitude(29.1244229)
+                .timestamp(Instant.now())
+                .build();
+
+        // Act
+        int compactSize = locationSerializer.serialize(TOPIC, event).length;
+        int jsonSize = new JsonSerializer<CourierLocationEvent>(objectMapper).serialize(TOPIC, event).length;
+
+        // Assert
+        assertTrue(compactSize * 2 < jsonSize, "compact " + compactSize + " bytes vs json " + jsonSize + " bytes");
+    }
+}
@@ -0,0 +1,128 @@
+package com.melihcelik.couriertracking.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(targetDataSource, 2, 50);
+    }
+
+    @Test
+    void getConnection_ShouldHoldPermitUntilClosed() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        // Act
+        Connection acquired = dataSource.getConnection();
+
+        // Assert
+        assertEquals(1, dataSource.availablePermits());
+        acquired.close();
+        verify(connection).close();
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void close_CalledTwice_ShouldReleaseOnce() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        Connection acquired = dataSource.getConnection();
+
+        // Act
+        acquired.close();
+        acquired.close();
+
+        // Assert
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_NoPermitLeft_ShouldFailAfterTimeout() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(targetDataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void getConnection_TargetFails_ShouldReturnPermit() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("Pool exhausted"));
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void connection_ShouldDelegateCalls() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        // Act
+        Connection acquired = dataSource.getConnection();
+
+        // Assert
+        assertFalse(acquired.getAutoCommit());
+    }
+
+    @Test
+    void unwrap_Connection_ShouldKeepPermitReleasingClose() throws SQLException {
+        // Arrange
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        Connection acquired = dataSource.getConnection();
+
+        // Act
+        Connection unwrapped = acquired.unwrap(Connection.class);
+        unwrapped.close();
+
+        // Assert
+        assertSame(acquired, unwrapped);
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void unwrap_VendorInterface_ShouldDelegate() throws SQLException {
+        // Arrange
+        VendorConnection vendorConnection = mock(VendorConnection.class);
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        when(connection.unwrap(VendorConnection.class)).thenReturn(vendorConnection);
+
+        // Act
+        VendorConnection unwrapped = dataSource.getConnection().unwrap(VendorConnection.class);
+
+        // Assert
+        assertSame(vendorConnection, unwrapped);
+    }
+
+    interface VendorConnection {
+    }
+}
@@ -0,0 +1,132 @@
+package com.melihcelik.couriertracking.infrastructure.persistence;
+
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CopyLocationHistoryRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    private CopyLocationHistoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CopyLocationHistoryRepository(jdbcTemplate);
+    }
+
+    @Test
+    void appendAll_ShouldStreamRowsThroughCopy() throws SQLException {
+        // Arrange
+        ByteArrayOutputStream written = stubCopy();
+        Instant time = Instant.parse("2026-10-18T10:00:00Z");
+        List<LocationPoint> points = List.of(
+                new LocationPoint(1L, 40.9923307, 29.1244229, time),
+                new LocationPoint(2L, -33.5, 151.25, time.plusMillis(500)));
+
+        // Act
+        repository.appendAll(points);
+
+        // Assert
+        verify(copyManager).copyIn(CopyLocationHistoryRepository.COPY_SQL);
+        verify(copyIn).endCopy();
+        verify(copyIn, never()).cancelCopy();
+        assertEquals("1\t40.9923307\t29.1244229\t2026-10-18T10:00:00Z\n" +
+                        "2\t-33.5\t151.25\t2026-10-18T10:00:00.500Z\n",
+                written.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void appendAll_LargeBatch_ShouldWriteInChunks() throws SQLException {
+        // Arrange
+        ByteArrayOutputStream written = stubCopy();
+        Instant time = Instant.parse("2026-10-18T10:00:00Z");
+        List<LocationPoint> points = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            points.add(new LocationPoint((long) i, 40.99, 29.12, time.plusSeconds(i)));
+        }
+
+        // Act
+        repository.appendAll(points);
+
+        // Assert
+        verify(copyIn, atLeast(2)).writeToCopy(any(byte[].class), eq(0), anyInt());
+        assertEquals(5000, written.toString(StandardCharsets.US_ASCII).split("\n").length);
+    }
+
+    @Test
+    void appendAll_WriteFails_ShouldCancelCopy() throws SQLException {
+        // Arrange
+        stubConnection();
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        doThrow(new SQLException("broken pipe")).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(copyIn.isActive()).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> repository.appendAll(
+                List.of(new LocationPoint(1L, 40.99, 29.12, Instant.now()))));
+        verify(copyIn).cancelCopy();
+    }
+
+    @Test
+    void appendAll_Empty_ShouldNotTouchDatabase() {
+        // Act
+        repository.appendAll(List.of());
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private ByteArrayOutputStream stubCopy() throws SQLException {
+        stubConnection();
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        doAnswer(invocation -> {
+            byte[] bytes = invocation.getArgument(0);
+            written.write(bytes, invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        return written;
+    }
+
+    private void stubConnection() throws SQLException {
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+    }
+}
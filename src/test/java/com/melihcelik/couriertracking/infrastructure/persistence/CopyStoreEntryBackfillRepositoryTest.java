@@ -0,0 +1,126 @@
+package com.melihcelik.couriertracking.infrastructure.persistence;
+
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CopyStoreEntryBackfillRepositoryTest {
+    private static final UUID BACKFILL_ID = UUID.fromString("5b0c8a3e-8f63-4b55-9a4f-0c2f1f6d7e10");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    private CopyStoreEntryBackfillRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CopyStoreEntryBackfillRepository(jdbcTemplate);
+    }
+
+    @Test
+    void stage_ShouldStreamRowsThroughCopy() throws SQLException {
+        // Arrange
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        doAnswer(invocation -> {
+            byte[] bytes = invocation.getArgument(0);
+            written.write(bytes, invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+
+        // Act
+        repository.stage(BACKFILL_ID, List.of(StoreEntryEvent.builder()
+                .courierId(1L)
+                .storeId(2L)
+                .latitude(40.9923307)
+                .longitude(29.1244229)
+                .timestamp(Instant.parse("2026-10-18T10:00:00Z"))
+                .build()));
+
+        // Assert
+        verify(copyManager).copyIn(CopyStoreEntryBackfillRepository.COPY_SQL);
+        verify(copyIn).endCopy();
+        assertEquals(BACKFILL_ID + "\t1\t2\t2026-10-18T10:00:00Z\t40.9923307\t29.1244229\n",
+                written.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void stage_Empty_ShouldNotTouchDatabase() {
+        // Act
+        repository.stage(BACKFILL_ID, List.of());
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void swap_ShouldReplaceLiveEntriesThenDropStagedRows() throws SQLException {
+        // Arrange
+        Instant from = Instant.parse("2026-10-01T00:00:00Z");
+        Instant to = Instant.parse("2026-10-18T00:00:00Z");
+        lenient().when(jdbcTemplate.update(eq(CopyStoreEntryBackfillRepository.INSERT_STAGED_SQL), eq(BACKFILL_ID))).thenReturn(7);
+
+        // Act
+        int inserted = repository.swap(BACKFILL_ID, List.of(1L, 2L), from, to);
+
+        // Assert
+        assertEquals(7, inserted);
+        ArgumentCaptor<PreparedStatementSetter> setter = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(eq(CopyStoreEntryBackfillRepository.DELETE_LIVE_SQL), setter.capture());
+        order.verify(jdbcTemplate).update(CopyStoreEntryBackfillRepository.INSERT_STAGED_SQL, BACKFILL_ID);
+        order.verify(jdbcTemplate).update(CopyStoreEntryBackfillRepository.DISCARD_SQL, BACKFILL_ID);
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Array couriers = mock(Array.class);
+        when(statement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf("bigint", new Object[]{1L, 2L})).thenReturn(couriers);
+        setter.getValue().setValues(statement);
+        verify(statement).setArray(1, couriers);
+        verify(statement).setTimestamp(2, Timestamp.from(from));
+        verify(statement).setTimestamp(3, Timestamp.from(to));
+    }
+}
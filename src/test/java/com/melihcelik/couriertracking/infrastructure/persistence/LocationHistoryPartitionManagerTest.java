@@ -0,0 +1,86 @@
+package com.melihcelik.couriertracking.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationHistoryPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LocationHistoryPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new LocationHistoryPartitionManager(jdbcTemplate);
+        ReflectionTestUtils.setField(manager, "precreateDays", 2);
+        ReflectionTestUtils.setField(manager, "retentionDays", 30);
+    }
+
+    @Test
+    void maintain_ShouldCreateDailyPartitionsAhead() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+
+        // Act
+        manager.maintain(LocalDate.of(2026, 10, 18));
+
+        // Assert
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS courier_location_history_p20261018 " +
+                "PARTITION OF courier_location_history " +
+                "FOR VALUES FROM ('2026-10-18 00:00:00+00') TO ('2026-10-19 00:00:00+00')");
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS courier_location_history_p20261019 "));
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS courier_location_history_p20261020 "));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS courier_location_history_p20261021"));
+    }
+
+    @Test
+    void maintain_ShouldDropOnlyPartitionsOlderThanRetention() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+                "courier_location_history_p20260917",
+                "courier_location_history_p20260918",
+                "courier_location_history_p20261018",
+                "courier_location_history_default"));
+
+        // Act
+        manager.maintain(LocalDate.of(2026, 10, 18));
+
+        // Assert
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS courier_location_history_p20260917");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS courier_location_history_p20260918");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS courier_location_history_p20261018");
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS courier_location_history_default");
+        verify(jdbcTemplate).update("DELETE FROM courier_location_history_default WHERE recorded_at < ?",
+                Timestamp.from(Instant.parse("2026-09-18T00:00:00Z")));
+    }
+
+    @Test
+    void maintain_PartitionCreationFails_ShouldContinueWithRemainingDays() {
+        // Arrange
+        doThrow(new DataIntegrityViolationException("default partition holds rows"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS courier_location_history_p20261018"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+
+        // Act
+        manager.maintain(LocalDate.of(2026, 10, 18));
+
+        // Assert
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS courier_location_history_p20261020 "));
+    }
+}
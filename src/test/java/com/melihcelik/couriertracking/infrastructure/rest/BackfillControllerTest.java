@@ -0,0 +1,70 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.application.backfill.BackfillRequest;
+import com.melihcelik.couriertracking.application.backfill.BackfillStatus;
+import com.melihcelik.couriertracking.domain.exception.BackfillInProgressException;
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierLocationBackfill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackfillControllerTest {
+
+    @Mock
+    private CourierLocationBackfill courierLocationBackfill;
+
+    private BackfillController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new BackfillController(courierLocationBackfill);
+    }
+
+    @Test
+    void start_ShouldReturnAccepted() {
+        // Arrange
+        BackfillRequest request = new BackfillRequest(Instant.parse("2024-01-01T00:00:00Z"), null, null, null, null, null);
+        BackfillStatus status = new BackfillStatus(BackfillStatus.State.RUNNING, request, Instant.now(), null, 0, 0, 0, null);
+        when(courierLocationBackfill.start(request)).thenReturn(status);
+
+        // Act
+        ResponseEntity<BackfillStatus> response = controller.start(request);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(BackfillStatus.State.RUNNING, response.getBody().state());
+    }
+
+    @Test
+    void start_WhileRunning_ShouldThrowException() {
+        // Arrange
+        BackfillRequest request = new BackfillRequest(null, null, null, null, null, null);
+        when(courierLocationBackfill.start(request)).thenThrow(new BackfillInProgressException());
+
+        // Act & Assert
+        assertThrows(BackfillInProgressException.class, () -> controller.start(request));
+    }
+
+    @Test
+    void current_NoRun_ShouldReturnNotFound() {
+        // Arrange
+        when(courierLocationBackfill.status()).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<BackfillStatus> response = controller.current();
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -0,0 +1,215 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.infrastructure.rest.BulkLocationResponse.RecordResult;
+import com.melihcelik.couriertracking.infrastructure.rest.BulkLocationResponse.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkLocationIngestorTest {
+
+    @Mock
+    private KafkaTemplate<String, CourierLocationEvent> bulkLocationKafkaTemplate;
+
+    @Captor
+    private ArgumentCaptor<CourierLocationEvent> eventCaptor;
+
+    private BulkLocationIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        ingestor = new BulkLocationIngestor(new ObjectMapper(), bulkLocationKafkaTemplate);
+        ReflectionTestUtils.setField(ingestor, "maxRecords", 3);
+        ReflectionTestUtils.setField(ingestor, "sendTimeout", 1000L);
+    }
+
+    @Test
+    void ingest_JsonArray_ShouldPublishAllWithDeviceTimestamps() throws IOException {
+        // Arrange
+        stubSendSucceeds();
+        String body = """
+                [
+                  {"courierId": 1, "lat": 40.9923307, "lon": 29.1244229, "deviceTimestamp": "2024-01-01T12:00:00Z"},
+                  {"courierId": 2, "latitude": 40.986106, "longitude": 29.1161293, "deviceTimestamp": 1704110405000}
+                ]
+                """;
+
+        // Act
+        BulkLocationResponse response = ingestor.ingest(stream(body));
+
+        // Assert
+        assertEquals(2, response.getReceived());
+        assertEquals(2, response.getAccepted());
+        assertEquals(0, response.getRejected());
+        assertNull(response.getResults());
+        verify(bulkLocationKafkaTemplate, times(2)).send(eq("courier.location"), anyString(), eventCaptor.capture());
+        List<CourierLocationEvent> events = eventCaptor.getAllValues();
+        assertEquals(1L, events.get(0).getCourierId());
+        assertEquals(40.9923307, events.get(0).getLatitude());
+        assertEquals(Instant.parse("2024-01-01T12:00:00Z"), events.get(0).getTimestamp());
+        assertEquals(Instant.ofEpochMilli(1704110405000L), events.get(1).getTimestamp());
+        verify(bulkLocationKafkaTemplate).flush();
+    }
+
+    @Test
+    void ingest_Ndjson_ShouldPublishEachLineKeyedByCourier() throws IOException {
+        // Arrange
+        stubSendSucceeds();
+        String body = """
+                {"courierId": 7, "lat": 40.99, "lon": 29.12, "deviceTimestamp": "2024-01-01T12:00:00Z"}
+                {"courierId": 7, "lat": 40.98, "lon": 29.11, "deviceTimestamp": "2024-01-01T12:00:01Z"}
+                """;
+
+        // Act
+        BulkLocationResponse response = ingestor.ingest(stream(body));
+
+        // Assert
+        assertEquals(2, response.getAccepted());
+        verify(bulkLocationKafkaTemplate, times(2)).send(eq("courier.location"), eq("7"), any(CourierLocationEvent.class));
+    }
+
+    @Test
+    void ingest_InvalidRecords_ShouldRejectThemAndPublishTheRest() throws IOException {
+        // Arrange
+        stubSendSucceeds();
+        String body = """
+                [
+                  {"courierId": 1, "lat": 95.0, "lon": 29.12},
+                  {"courierId": 1, "lat": 40.99, "lon": 29.12, "extra": {"nested": [1, 2]}},
+                  {"lat": 40.99, "lon": 29.12},
+                  {"courierId": 1, "lat": 40.99, "lon": 29.12, "deviceTimestamp": "yesterday"}
+                ]
+                """;
+
+        // Act
+        BulkLocationResponse response = ingestor.ingest(stream(body));
+
+        // Assert
+        assertEquals(4, response.getReceived());
+        assertEquals(1, response.getAccepted());
+        assertEquals(3, response.getRejected());
+        List<RecordResult> results = response.getResults();
+        assertEquals(List.of(0, 2, 3), results.stream().map(RecordResult::getIndex).toList());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == Status.REJECTED));
+        assertEquals("Latitude must be between -90 and 90", results.get(0).getMessage());
+        verify(bulkLocationKafkaTemplate, times(1)).send(anyString(), anyString(), any(CourierLocationEvent.class));
+    }
+
+    @Test
+    void ingest_IntegerOutOfRange_ShouldRejectRecord() throws IOException {
+        // Arrange
+        stubSendSucceeds();
+        String body = """
+                {"courierId": 99999999999999999999, "lat": 40.99, "lon": 29.12}
+                {"courierId": 1, "lat": 40.99, "lon": 29.12, "deviceTimestamp": 99999999999999999999}
+                {"courierId": 1, "lat": 40.99, "lon": 29.12}
+                """;
+
+        // Act
+        BulkLocationResponse response = ingestor.ingest(stream(body));
+
+        // Assert
+        assertEquals(3, response.getReceived());
+        assertEquals(1, response.getAccepted());
+        assertEquals(List.of(0, 1), response.getResults().stream().map(RecordResult::getIndex).toList());
+        assertEquals("courierId must be a positive integer", response.getResults().get(0).getMessage());
+    }
+
+    @Test
+    void ingest_MissingTimestamp_ShouldUseReceiveTime() throws IOException {
+        // Arrange
+        stubSendSucceeds();
+        Instant before = Instant.now();
+
+        // Act
+        ingestor.ingest(stream("{\"courierId\": 1, \"lat\": 40.99, \"lon\": 29.12}"));
+
+        // Assert
+        verify(bulkLocationKafkaTemplate).send(anyString(), anyString(), eventCaptor.capture());
+        assertFalse(eventCaptor.getValue().getTimestamp().isBefore(before));
+    }
+
+    @Test
+    void ingest_MoreThanMaxRecords_ShouldStopReadingAtLimit() throws IOException {
+        // Arrange
+        stubSendSucceeds();
+        String record = "{\"courierId\": 1, \"lat\": 40.99, \"lon\": 29.12}\n";
+
+        // Act
+        BulkLocationResponse response = ingestor.ingest(stream(record.repeat(1000)));
+
+        // Assert
+        assertEquals(4, response.getReceived());
+        assertEquals(3, response.getAccepted());
+        assertEquals(1, response.getRejected());
+        RecordResult overflow = response.getResults().get(0);
+        assertEquals(3, overflow.getIndex());
+        assertTrue(overflow.getMessage().startsWith("Batch limit of 3 records exceeded"));
+        verify(bulkLocationKafkaTemplate, times(3)).send(anyString(), anyString(), any(CourierLocationEvent.class));
+    }
+
+    @Test
+    void ingest_MalformedJson_ShouldKeepEarlierRecordsAndRejectTheBrokenOne() throws IOException {
+        // Arrange
+        stubSendSucceeds();
+        String body = "[{\"courierId\": 1, \"lat\": 40.99, \"lon\": 29.12}, {\"courierId\": 2, \"lat\": ]";
+
+        // Act
+        BulkLocationResponse response = ingestor.ingest(stream(body));
+
+        // Assert
+        assertEquals(2, response.getReceived());
+        assertEquals(1, response.getAccepted());
+        assertEquals(1, response.getResults().get(0).getIndex());
+        assertTrue(response.getResults().get(0).getMessage().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void ingest_PublishFails_ShouldReportRecord() throws IOException {
+        // Arrange
+        when(bulkLocationKafkaTemplate.send(anyString(), anyString(), any(CourierLocationEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")));
+
+        // Act
+        BulkLocationResponse response = ingestor.ingest(stream("{\"courierId\": 4, \"lat\": 40.99, \"lon\": 29.12}"));
+
+        // Assert
+        assertEquals(0, response.getAccepted());
+        RecordResult result = response.getResults().get(0);
+        assertEquals(Status.PUBLISH_FAILED, result.getStatus());
+        assertEquals(4L, result.getCourierId());
+    }
+
+    private void stubSendSucceeds() {
+        SendResult<String, CourierLocationEvent> sendResult = mock(SendResult.class);
+        when(bulkLocationKafkaTemplate.send(anyString(), anyString(), any(CourierLocationEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,9 +1,16 @@
 package com.melihcelik.couriertracking.infrastructure.rest;
 
+import com.melihcelik.couriertracking.application.metrics.PipelineMetrics;
 import com.melihcelik.couriertracking.application.query.CourierQueryService;
+import com.melihcelik.couriertracking.application.query.CourierView;
+import com.melihcelik.couriertracking.application.query.StoreEntryPage;
+import com.melihcelik.couriertracking.application.query.StoreEntryQueryService;
+import com.melihcelik.couriertracking.application.spatial.NearbyCourier;
 import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
 import com.melihcelik.couriertracking.domain.exception.CourierNotFoundException;
-import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.exception.InvalidLocationException;
+import com.melihcelik.couriertracking.domain.model.LocationPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +23,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -33,6 +45,12 @@ class CourierControllerTest {
     @Mock
     private KafkaTemplate<String, CourierLocationEvent> kafkaTemplate;
 
+    @Mock
+    private BulkLocationIngestor bulkLocationIngestor;
+
+    @Mock
+    private StoreEntryQueryService storeEntryQueryService;
+
     @Captor
     private ArgumentCaptor<CourierLocationEvent> eventCaptor;
 
@@ -40,7 +58,8 @@ class CourierControllerTest {
 
     @BeforeEach
     void setUp() {
-        controller = new CourierController(queryService, kafkaTemplate);
+        controller = new CourierController(queryService, kafkaTemplate, bulkLocationIngestor,
+                new PipelineMetrics(new SimpleMeterRegistry()), storeEntryQueryService);
     }
 
     @Test
@@ -50,7 +69,7 @@ class CourierControllerTest {
         Double latitude = 40.9923307;
         Double longitude = 29.1244229;
         SendResult<String, CourierLocationEvent> mockSendResult = mock(SendResult.class);
-        when(kafkaTemplate.send(eq("courier.location"), any(CourierLocationEvent.class)))
+        when(kafkaTemplate.send(eq("courier.location"), eq("1"), any(CourierLocationEvent.class)))
                 .thenReturn(CompletableFuture.completedFuture(mockSendResult));
 
         // Act
@@ -58,7 +77,7 @@ class CourierControllerTest {
 
         // Assert
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
-        verify(kafkaTemplate).send(eq("courier.location"), eventCaptor.capture());
+        verify(kafkaTemplate).send(eq("courier.location"), eq("1"), eventCaptor.capture());
         CourierLocationEvent capturedEvent = eventCaptor.getValue();
         assertEquals(courierId, capturedEvent.getCourierId());
         assertEquals(latitude, capturedEvent.getLatitude());
@@ -66,26 +85,35 @@ class CourierControllerTest {
         assertNotNull(capturedEvent.getTimestamp());
     }
 
+    @Test
+    void reportLocations_ShouldDelegateToIngestorAndReturnAccepted() throws IOException {
+        // Arrange
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        BulkLocationResponse ingestResponse = BulkLocationResponse.builder().received(2).accepted(2).build();
+        when(bulkLocationIngestor.ingest(body)).thenReturn(ingestResponse);
+
+        // Act
+        ResponseEntity<BulkLocationResponse> response = controller.reportLocations(body);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertSame(ingestResponse, response.getBody());
+    }
+
     @Test
     void getCourier_ExistingCourier_ShouldReturnCourier() {
         // Arrange
         Long courierId = 1L;
-        Courier courier = Courier.builder()
-                .id(courierId)
-                .totalTravelDistance(100.0)
-                .lastLatitude(40.9923307)
-                .lastLongitude(29.1244229)
-                .isActive(true)
-                .build();
+        CourierView courier = new CourierView(courierId, 100.0, 40.9923307, 29.1244229, true);
         when(queryService.getCourierById(courierId)).thenReturn(Optional.of(courier));
 
         // Act
-        ResponseEntity<Courier> response = controller.getCourier(courierId);
+        ResponseEntity<CourierView> response = controller.getCourier(courierId);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(courierId, response.getBody().getId());
+        assertEquals(courierId, response.getBody().id());
     }
 
     @Test
@@ -106,7 +134,7 @@ class CourierControllerTest {
         Double longitude = 29.1244229;
         CompletableFuture<SendResult<String, CourierLocationEvent>> future = new CompletableFuture<>();
         future.completeExceptionally(new RuntimeException("Kafka error"));
-        when(kafkaTemplate.send(eq("courier.location"), any(CourierLocationEvent.class)))
+        when(kafkaTemplate.send(eq("courier.location"), eq("1"), any(CourierLocationEvent.class)))
                 .thenReturn(future);
 
         // Act
@@ -114,7 +142,7 @@ class CourierControllerTest {
 
         // Assert
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
-        verify(kafkaTemplate).send(eq("courier.location"), any(CourierLocationEvent.class));
+        verify(kafkaTemplate).send(eq("courier.location"), eq("1"), any(CourierLocationEvent.class));
     }
 
     @Test
@@ -122,11 +150,6 @@ class CourierControllerTest {
         // Arrange
         Long courierId = 1L;
         double expectedDistance = 150.5;
-        Courier courier = Courier.builder()
-                .id(courierId)
-                .totalTravelDistance(expectedDistance)
-                .build();
-        when(queryService.getCourierById(courierId)).thenReturn(Optional.of(courier));
         when(queryService.getTotalTravelDistance(courierId)).thenReturn(expectedDistance);
 
         // Act
@@ -136,15 +159,69 @@ class CourierControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(expectedDistance, response.getBody());
+        verify(queryService, never()).getCourierById(any());
     }
 
     @Test
     void getTotalTravelDistance_NonExistingCourier_ShouldThrowException() {
         // Arrange
         Long courierId = 999L;
-        when(queryService.getCourierById(courierId)).thenReturn(Optional.empty());
+        when(queryService.getTotalTravelDistance(courierId)).thenThrow(new CourierNotFoundException(courierId));
 
         // Act & Assert
         assertThrows(CourierNotFoundException.class, () -> controller.getTotalTravelDistance(courierId));
     }
+
+    @Test
+    void getRoute_ShouldReturnPointsFromQueryService() {
+        // Arrange
+        Instant from = Instant.parse("2026-10-18T10:00:00Z");
+        Instant to = from.plusSeconds(600);
+        List<LocationPoint> route = List.of(
+                new LocationPoint(1L, 40.99, 29.12, from),
+                new LocationPoint(1L, 40.991, 29.121, from.plusSeconds(1)));
+        when(queryService.getRoute(1L, from, to)).thenReturn(route);
+
+        // Act
+        ResponseEntity<List<LocationPoint>> response = controller.getRoute(1L, from, to);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(route, response.getBody());
+    }
+
+    @Test
+    void getNearbyCouriers_ShouldReturnCouriersFromQueryService() {
+        // Arrange
+        List<NearbyCourier> couriers = List.of(new NearbyCourier(1L, 40.9923307, 29.1244229, Instant.now(), 5.0));
+        when(queryService.findCouriersNear(40.9923307, 29.1244229, 250.0)).thenReturn(couriers);
+
+        // Act
+        ResponseEntity<List<NearbyCourier>> response = controller.getNearbyCouriers(40.9923307, 29.1244229, 250.0);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(couriers, response.getBody());
+    }
+
+    @Test
+    void getNearbyCouriers_InvalidLatitude_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidLocationException.class, () -> controller.getNearbyCouriers(91.0, 29.1244229, 250.0));
+        verifyNoInteractions(queryService);
+    }
+
+    @Test
+    void getStoreEntries_ShouldReturnCourierEntryPage() {
+        // Arrange
+        StoreEntryPage page = new StoreEntryPage(List.of(), null);
+        when(storeEntryQueryService.findByCourier(1L, null, null, null, null)).thenReturn(page);
+
+        // Act
+        ResponseEntity<StoreEntryPage> response = controller.getStoreEntries(1L, null, null, null, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierPartitionDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourierRequestRouterTest {
+
+    private static final String OWNER = "courier-tracking-2:8080";
+
+    @Mock
+    private CourierPartitionDirectory courierPartitionDirectory;
+
+    @Mock
+    private HttpClient client;
+
+    @Mock
+    private HttpResponse<byte[]> reply;
+
+    private CourierRequestRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new CourierRequestRouter(courierPartitionDirectory, client, 1000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void preHandle_RemoteOwner_ShouldRelayOwnerResponse() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = courierRequest("/api/v1/couriers/7/total-travel-distance");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(courierPartitionDirectory.remoteOwnerOf(7L)).thenReturn(Optional.of(OWNER));
+        when(reply.statusCode()).thenReturn(200);
+        when(reply.headers()).thenReturn(HttpHeaders.of(Map.of("Content-Type", List.of("application/json")), (name, value) -> true));
+        when(reply.body()).thenReturn("12.5".getBytes(StandardCharsets.UTF_8));
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(reply);
+
+        // Act
+        boolean handledLocally = router.preHandle(request, response, new Object());
+
+        // Assert
+        assertFalse(handledLocally);
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("12.5", response.getContentAsString());
+        ArgumentCaptor<HttpRequest> forwarded = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(client).send(forwarded.capture(), any(HttpResponse.BodyHandler.class));
+        assertEquals("http://" + OWNER + "/api/v1/couriers/7/total-travel-distance", forwarded.getValue().uri().toString());
+        assertEquals(Optional.of("true"), forwarded.getValue().headers().firstValue(CourierRequestRouter.FORWARDED_HEADER));
+    }
+
+    @Test
+    void preHandle_LocalOwner_ShouldServeLocally() throws Exception {
+        // Arrange
+        when(courierPartitionDirectory.remoteOwnerOf(7L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertTrue(router.preHandle(courierRequest("/api/v1/couriers/7"), new MockHttpServletResponse(), new Object()));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void preHandle_ForwardedRequest_ShouldNotForwardAgain() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = courierRequest("/api/v1/couriers/7");
+        request.addHeader(CourierRequestRouter.FORWARDED_HEADER, "true");
+
+        // Act & Assert
+        assertTrue(router.preHandle(request, new MockHttpServletResponse(), new Object()));
+        verifyNoInteractions(courierPartitionDirectory, client);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void preHandle_OwnerUnreachable_ShouldServeLocally() throws Exception {
+        // Arrange
+        when(courierPartitionDirectory.remoteOwnerOf(7L)).thenReturn(Optional.of(OWNER));
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenThrow(new ConnectException("refused"));
+
+        // Act & Assert
+        assertTrue(router.preHandle(courierRequest("/api/v1/couriers/7"), new MockHttpServletResponse(), new Object()));
+    }
+
+    private static MockHttpServletRequest courierRequest(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("courierId", "7"));
+        return request;
+    }
+}
@@ -0,0 +1,51 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.domain.exception.UnknownTopicException;
+import com.melihcelik.couriertracking.infrastructure.messaging.DeadLetterReplayResult;
+import com.melihcelik.couriertracking.infrastructure.messaging.DeadLetterReplayer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterControllerTest {
+
+    @Mock
+    private DeadLetterReplayer deadLetterReplayer;
+
+    private DeadLetterController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new DeadLetterController(deadLetterReplayer);
+    }
+
+    @Test
+    void replay_ShouldReturnReplayedCount() {
+        // Arrange
+        when(deadLetterReplayer.replay("store.entry", 50)).thenReturn(new DeadLetterReplayResult("store.entry", 3));
+
+        // Act
+        ResponseEntity<DeadLetterReplayResult> response = controller.replay("store.entry", 50);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().replayed());
+    }
+
+    @Test
+    void replay_UnknownTopic_ShouldThrowException() {
+        // Arrange
+        when(deadLetterReplayer.replay("unknown", 100)).thenThrow(new UnknownTopicException("unknown"));
+
+        // Act & Assert
+        assertThrows(UnknownTopicException.class, () -> controller.replay("unknown", 100));
+    }
+}
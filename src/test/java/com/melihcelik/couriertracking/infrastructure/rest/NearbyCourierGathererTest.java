@@ -0,0 +1,164 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.melihcelik.couriertracking.application.spatial.NearbyCourier;
+import com.melihcelik.couriertracking.domain.exception.CourierPositionsUnavailableException;
+import com.melihcelik.couriertracking.infrastructure.messaging.CourierPartitionDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NearbyCourierGathererTest {
+
+    private static final String OWNER = "courier-tracking-2:8080";
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Mock
+    private CourierPartitionDirectory courierPartitionDirectory;
+
+    @Mock
+    private HttpClient client;
+
+    @Mock
+    private HttpResponse<byte[]> reply;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private NearbyCourierGatherer gatherer;
+
+    @BeforeEach
+    void setUp() {
+        gatherer = new NearbyCourierGatherer(courierPartitionDirectory, objectMapper, client, 1000);
+    }
+
+    @Test
+    void supports_ShouldOnlyApplyToNearbyCourierLists() throws Exception {
+        // Act & Assert
+        assertTrue(gatherer.supports(returnType("nearbyCouriers"), null));
+        assertFalse(gatherer.supports(returnType("distance"), null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void beforeBodyWrite_RemoteOwner_ShouldMergeNearestFirst() throws Exception {
+        // Arrange
+        List<NearbyCourier> local = List.of(courier(1L, 30.0, NOW), courier(3L, 5.0, NOW.minusSeconds(10)));
+        List<NearbyCourier> remote = List.of(courier(2L, 10.0, NOW), courier(3L, 7.0, NOW));
+        when(courierPartitionDirectory.remoteOwners()).thenReturn(Optional.of(Set.of(OWNER)));
+        when(reply.statusCode()).thenReturn(200);
+        when(reply.body()).thenReturn(objectMapper.writeValueAsBytes(remote));
+        when(client.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.completedFuture(reply));
+
+        // Act
+        Object body = gatherer.beforeBodyWrite(local, null, null, null, request(null), null);
+
+        // Assert
+        assertEquals(List.of(courier(3L, 7.0, NOW), courier(2L, 10.0, NOW), courier(1L, 30.0, NOW)), body);
+        ArgumentCaptor<HttpRequest> query = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(client).sendAsync(query.capture(), any(HttpResponse.BodyHandler.class));
+        assertEquals("http://" + OWNER + "/api/v1/couriers/near?lat=40.99&lon=29.12&radius=500",
+                query.getValue().uri().toString());
+        assertEquals(Optional.of("true"), query.getValue().headers().firstValue(CourierRequestRouter.FORWARDED_HEADER));
+    }
+
+    @Test
+    void beforeBodyWrite_OnlyLocalOwner_ShouldReturnLocalResult() {
+        // Arrange
+        List<NearbyCourier> local = List.of(courier(1L, 30.0, NOW));
+        when(courierPartitionDirectory.remoteOwners()).thenReturn(Optional.of(Set.of()));
+
+        // Act
+        Object body = gatherer.beforeBodyWrite(local, null, null, null, request(null), null);
+
+        // Assert
+        assertSame(local, body);
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void beforeBodyWrite_ForwardedQuery_ShouldAnswerLocally() {
+        // Arrange
+        List<NearbyCourier> local = List.of(courier(1L, 30.0, NOW));
+
+        // Act
+        Object body = gatherer.beforeBodyWrite(local, null, null, null, request("true"), null);
+
+        // Assert
+        assertSame(local, body);
+        verifyNoInteractions(courierPartitionDirectory, client);
+    }
+
+    @Test
+    void beforeBodyWrite_UnknownOwner_ShouldThrowException() {
+        // Arrange
+        when(courierPartitionDirectory.remoteOwners()).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(CourierPositionsUnavailableException.class,
+                () -> gatherer.beforeBodyWrite(List.of(), null, null, null, request(null), null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void beforeBodyWrite_OwnerUnreachable_ShouldThrowException() {
+        // Arrange
+        when(courierPartitionDirectory.remoteOwners()).thenReturn(Optional.of(Set.of(OWNER)));
+        when(client.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.failedFuture(new ConnectException("Connection refused")));
+
+        // Act & Assert
+        assertThrows(CourierPositionsUnavailableException.class,
+                () -> gatherer.beforeBodyWrite(List.of(), null, null, null, request(null), null));
+    }
+
+    private static ServletServerHttpRequest request(String forwarded) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/couriers/near");
+        request.setServerName("localhost");
+        request.setQueryString("lat=40.99&lon=29.12&radius=500");
+        if (forwarded != null) {
+            request.addHeader(CourierRequestRouter.FORWARDED_HEADER, forwarded);
+        }
+        return new ServletServerHttpRequest(request);
+    }
+
+    private static MethodParameter returnType(String method) throws NoSuchMethodException {
+        return new MethodParameter(Handlers.class.getDeclaredMethod(method), -1);
+    }
+
+    private static NearbyCourier courier(Long courierId, double distance, Instant lastSeen) {
+        return new NearbyCourier(courierId, 40.99, 29.12, lastSeen, distance);
+    }
+
+    private static class Handlers {
+        ResponseEntity<List<NearbyCourier>> nearbyCouriers() {
+            return null;
+        }
+
+        ResponseEntity<Double> distance() {
+            return null;
+        }
+    }
+}
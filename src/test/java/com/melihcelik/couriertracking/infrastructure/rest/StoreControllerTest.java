@@ -0,0 +1,75 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.application.query.CourierQueryService;
+import com.melihcelik.couriertracking.application.query.StoreEntryPage;
+import com.melihcelik.couriertracking.application.query.StoreEntryQueryService;
+import com.melihcelik.couriertracking.application.spatial.NearbyCourier;
+import com.melihcelik.couriertracking.domain.exception.StoreNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreControllerTest {
+
+    @Mock
+    private CourierQueryService queryService;
+
+    @Mock
+    private StoreEntryQueryService storeEntryQueryService;
+
+    private StoreController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new StoreController(queryService, storeEntryQueryService);
+    }
+
+    @Test
+    void getStoreCouriers_ShouldReturnNearbyCouriers() {
+        // Arrange
+        List<NearbyCourier> couriers = List.of(new NearbyCourier(1L, 40.9923307, 29.1244229, Instant.now(), 5.0));
+        when(queryService.findCouriersNearStore(7L, null)).thenReturn(couriers);
+
+        // Act
+        ResponseEntity<List<NearbyCourier>> response = controller.getStoreCouriers(7L, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(couriers, response.getBody());
+    }
+
+    @Test
+    void getStoreCouriers_UnknownStore_ShouldThrowException() {
+        // Arrange
+        when(queryService.findCouriersNearStore(7L, 200.0)).thenThrow(new StoreNotFoundException(7L));
+
+        // Act & Assert
+        assertThrows(StoreNotFoundException.class, () -> controller.getStoreCouriers(7L, 200.0));
+    }
+
+    @Test
+    void getStoreEntries_ShouldReturnStoreEntryPage() {
+        // Arrange
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        StoreEntryPage page = new StoreEntryPage(List.of(), null);
+        when(storeEntryQueryService.findByStore(7L, from, null, null, 20)).thenReturn(page);
+
+        // Act
+        ResponseEntity<StoreEntryPage> response = controller.getStoreEntries(7L, from, null, null, 20);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+}
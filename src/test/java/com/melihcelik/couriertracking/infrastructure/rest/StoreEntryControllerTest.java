@@ -0,0 +1,49 @@
+package com.melihcelik.couriertracking.infrastructure.rest;
+
+import com.melihcelik.couriertracking.application.query.StoreEntryPage;
+import com.melihcelik.couriertracking.application.query.StoreEntryQueryService;
+import com.melihcelik.couriertracking.domain.repository.StoreEntrySummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreEntryControllerTest {
+
+    @Mock
+    private StoreEntryQueryService storeEntryQueryService;
+
+    private StoreEntryController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new StoreEntryController(storeEntryQueryService);
+    }
+
+    @Test
+    void getStoreEntries_ShouldReturnPageFromQueryService() {
+        // Arrange
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-01-02T00:00:00Z");
+        StoreEntryPage page = new StoreEntryPage(
+                List.of(new StoreEntrySummary(1L, 1L, 7L, from.plusSeconds(60), 40.9923307, 29.1244229)), "next");
+        when(storeEntryQueryService.findInRange(from, to, "cursor", 10)).thenReturn(page);
+
+        // Act
+        ResponseEntity<StoreEntryPage> response = controller.getStoreEntries(from, to, "cursor", 10);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+}
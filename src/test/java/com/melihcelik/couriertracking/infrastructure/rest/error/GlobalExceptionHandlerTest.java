@@ -1,6 +1,8 @@
 package com.melihcelik.couriertracking.infrastructure.rest.error;
 
+import com.melihcelik.couriertracking.domain.exception.BackfillInProgressException;
 import com.melihcelik.couriertracking.domain.exception.CourierNotFoundException;
+import com.melihcelik.couriertracking.domain.exception.CourierPositionsUnavailableException;
 import com.melihcelik.couriertracking.domain.exception.InvalidLocationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,6 +57,32 @@ class GlobalExceptionHandlerTest {
         assertEquals("INVALID_LOCATION", errorResponse.getCode());
     }
 
+    @Test
+    void handleCourierPositionsUnavailableException_ShouldReturnServiceUnavailable() {
+        // Act
+        ResponseEntity<?> response = exceptionHandler.handleCourierPositionsUnavailableException(
+                new CourierPositionsUnavailableException("owner of partition 2 unknown"));
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        ErrorResponse errorResponse = (ErrorResponse) response.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("COURIER_POSITIONS_UNAVAILABLE", errorResponse.getCode());
+    }
+
+    @Test
+    void handleBackfillInProgressException_ShouldReturnConflict() {
+        // Act
+        ResponseEntity<?> response = exceptionHandler.handleBackfillInProgressException(new BackfillInProgressException());
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        ErrorResponse errorResponse = (ErrorResponse) response.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("BACKFILL_IN_PROGRESS", errorResponse.getCode());
+        assertEquals(409, errorResponse.getStatus());
+    }
+
     @Test
     void handleMissingParameterException_ShouldReturnBadRequest() {
         // Arrange
@@ -0,0 +1,287 @@
+package com.melihcelik.couriertracking.infrastructure.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.melihcelik.couriertracking.application.filter.PingFilter;
+import com.melihcelik.couriertracking.domain.event.CourierLocationEvent;
+import com.melihcelik.couriertracking.domain.event.StoreEntryEvent;
+import com.melihcelik.couriertracking.domain.event.StoreExitEvent;
+import com.melihcelik.couriertracking.domain.model.Courier;
+import com.melihcelik.couriertracking.domain.model.Store;
+import org.apache.kafka.common.serialization.LongSerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourierTrackingTopologyTest {
+
+    private static final double STORE_PROXIMITY_RADIUS = 100.0; // meters
+    private static final double EXIT_MARGIN = 20.0; // meters
+    private static final Duration ENTRY_COOLDOWN = Duration.ofSeconds(60);
+    private static final double STORE_LAT = 40.9923307;
+    private static final double STORE_LON = 29.1244229;
+    private static final double DEGREES_PER_METER = 1 / 111_195.0;
+    private static final Instant START = Instant.parse("2024-01-01T12:00:00Z");
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, CourierLocationEvent> locations;
+    private TestInputTopic<Long, Store> catalog;
+    private TestOutputTopic<String, Courier> courierStates;
+    private TestOutputTopic<String, StoreEntryEvent> storeEntries;
+    private TestOutputTopic<String, StoreExitEvent> storeExits;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        PingFilter pingFilter = new PingFilter();
+        ReflectionTestUtils.setField(pingFilter, "enabled", true);
+        ReflectionTestUtils.setField(pingFilter, "deadBand", 10.0);
+        ReflectionTestUtils.setField(pingFilter, "maxSpeed", 60.0);
+        ReflectionTestUtils.setField(pingFilter, "teleportDistance", 1000.0);
+        CourierTrackingTopology topology = new CourierTrackingTopology(
+                objectMapper,
+                pingFilter,
+                new JsonDeserializer<>(CourierLocationEvent.class, objectMapper, false),
+                new JsonSerializer<>(objectMapper),
+                new JsonSerializer<>(objectMapper),
+                new CourierTrackingTopology.Settings(STORE_PROXIMITY_RADIUS, EXIT_MARGIN, ENTRY_COOLDOWN, STORE_PROXIMITY_RADIUS));
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "courier-tracking-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(topology.build(), props, START);
+
+        locations = driver.createInputTopic(CourierTrackingTopology.LOCATION_TOPIC,
+                new StringSerializer(), new JsonSerializer<>(objectMapper));
+        catalog = driver.createInputTopic(CourierTrackingTopology.STORE_CATALOG_TOPIC,
+                new LongSerializer(), new JsonSerializer<>(objectMapper));
+        courierStates = driver.createOutputTopic(CourierTrackingTopology.COURIER_STATE_TOPIC,
+                new StringDeserializer(), new JsonDeserializer<>(Courier.class, objectMapper, false));
+        storeEntries = driver.createOutputTopic(CourierTrackingTopology.STORE_ENTRY_TOPIC,
+                new StringDeserializer(), new JsonDeserializer<>(StoreEntryEvent.class, objectMapper, false));
+        storeExits = driver.createOutputTopic(CourierTrackingTopology.STORE_EXIT_TOPIC,
+                new StringDeserializer(), new JsonDeserializer<>(StoreExitEvent.class, objectMapper, false));
+
+        catalog.pipeInput(1L, Store.builder().id(1L).name("Test Store").latitude(STORE_LAT).longitude(STORE_LON).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void locations_ShouldAccumulateDistanceInOdometerStore() {
+        // Act
+        ping(1L, 1000, 0, 0);
+        ping(1L, 1000, 500, 10);
+        ping(1L, 1000, 1000, 20);
+
+        // Assert
+        List<Courier> snapshots = courierStates.readValuesToList();
+        assertEquals(3, snapshots.size());
+        Courier last = snapshots.get(2);
+        assertEquals(1L, last.getId());
+        assertEquals(1.0, last.getTotalTravelDistance(), 0.005); // km
+        assertEquals(STORE_LAT + 1000 * DEGREES_PER_METER, last.getLastLatitude(), 1e-9);
+
+        KeyValueStore<String, Courier> odometers = driver.getKeyValueStore(CourierTrackingTopology.ODOMETER_STORE);
+        assertEquals(last.getTotalTravelDistance(), odometers.get("1").getTotalTravelDistance(), 1e-9);
+    }
+
+    @Test
+    void locations_MovementInsideDeadBand_ShouldBeDropped() {
+        // Act
+        ping(1L, 1000, 0, 0);
+        ping(1L, 1005, 0, 10);
+        ping(1L, 1500, 0, 20);
+
+        // Assert
+        List<Courier> snapshots = courierStates.readValuesToList();
+        assertEquals(2, snapshots.size());
+        assertEquals(0.5, snapshots.get(1).getTotalTravelDistance(), 0.005); // km
+    }
+
+    @Test
+    void locations_StalePing_ShouldBeDropped() {
+        // Act
+        ping(1L, 1000, 0, 20);
+        ping(1L, 1500, 0, 10);
+
+        // Assert
+        assertEquals(1, courierStates.readValuesToList().size());
+    }
+
+    @Test
+    void locations_ImplausibleJump_ShouldBeHeldUntilNextPingConfirmsIt() {
+        // Act
+        ping(1L, 1000, 0, 0);
+        ping(1L, 6000, 0, 10);
+        ping(1L, 6100, 0, 20);
+
+        // Assert
+        List<Courier> snapshots = courierStates.readValuesToList();
+        assertEquals(2, snapshots.size());
+        assertEquals(5.1, snapshots.get(1).getTotalTravelDistance(), 0.005); // km
+
+        KeyValueStore<String, PingFilter.LastPing> lastPings = driver.getKeyValueStore(CourierTrackingTopology.LAST_PING_STORE);
+        assertEquals(START.plusSeconds(20), lastPings.get("1").getTimestamp());
+        assertNull(lastPings.get("1").getCandidate());
+    }
+
+    @Test
+    void locations_EnterAndLeaveStore_ShouldEmitEntryThenExitWithDwell() {
+        // Act
+        ping(1L, 500, 0, 0);
+        ping(1L, 50, 0, 30);
+        ping(1L, 10, 0, 90);
+        ping(1L, 500, 0, 120);
+
+        // Assert
+        List<StoreEntryEvent> entries = storeEntries.readValuesToList();
+        assertEquals(1, entries.size());
+        assertEquals(1L, entries.get(0).getCourierId());
+        assertEquals(1L, entries.get(0).getStoreId());
+        assertEquals("Test Store", entries.get(0).getStoreName());
+        assertEquals(START.plusSeconds(30), entries.get(0).getTimestamp());
+
+        List<StoreExitEvent> exits = storeExits.readValuesToList();
+        assertEquals(1, exits.size());
+        assertEquals(START.plusSeconds(30), exits.get(0).getEnteredAt());
+        assertEquals(90L, exits.get(0).getDwellSeconds());
+
+        KeyValueStore<String, GeofenceVisits> geofences = driver.getKeyValueStore(CourierTrackingTopology.GEOFENCE_STORE);
+        assertNull(geofences.get("1"));
+    }
+
+    @Test
+    void locations_JitterInsideExitMargin_ShouldNotEmitExit() {
+        // Act
+        ping(1L, 90, 0, 0);
+        ping(1L, 110, 0, 10);
+        ping(1L, 90, 0, 20);
+
+        // Assert
+        assertEquals(1, storeEntries.readValuesToList().size());
+        assertTrue(storeExits.isEmpty());
+    }
+
+    @Test
+    void locations_ReentryWithinCooldown_ShouldSuppressSecondEntry() {
+        // Act
+        ping(1L, 50, 0, 0);
+        ping(1L, 500, 0, 10);
+        ping(1L, 50, 0, 20);
+        ping(1L, 500, 0, 30);
+        ping(1L, 50, 0, 100);
+
+        // Assert
+        List<StoreEntryEvent> entries = storeEntries.readValuesToList();
+        assertEquals(2, entries.size());
+        assertEquals(START, entries.get(0).getTimestamp());
+        assertEquals(START.plusSeconds(100), entries.get(1).getTimestamp());
+        assertEquals(2, storeExits.readValuesToList().size());
+    }
+
+    @Test
+    void locations_CooldownIsPerCourier() {
+        // Act
+        ping(1L, 50, 0, 0);
+        ping(2L, 50, 0, 5);
+
+        // Assert
+        List<StoreEntryEvent> entries = storeEntries.readValuesToList();
+        assertEquals(2, entries.size());
+        assertEquals(1L, entries.get(0).getCourierId());
+        assertEquals(2L, entries.get(1).getCourierId());
+    }
+
+    @Test
+    void cooldownPunctuation_ShouldExpireEntriesOlderThanCooldown() {
+        // Arrange
+        ping(1L, 50, 0, 0);
+        ping(2L, 50, 0, 90);
+        KeyValueStore<String, Long> cooldowns = driver.getKeyValueStore(CourierTrackingTopology.COOLDOWN_STORE);
+        assertNotNull(cooldowns.get("1:1"));
+
+        // Act
+        driver.advanceWallClockTime(ENTRY_COOLDOWN);
+
+        // Assert
+        assertNull(cooldowns.get("1:1"));
+        assertNotNull(cooldowns.get("2:1"));
+    }
+
+    @Test
+    void catalogUpdates_ShouldBeVisibleToProximityMatching() {
+        // Arrange
+        double otherLat = STORE_LAT + 5000 * DEGREES_PER_METER;
+        catalog.pipeInput(2L, Store.builder().id(2L).name("New Store").latitude(otherLat).longitude(STORE_LON).build());
+
+        // Act
+        ping(1L, 5000, 0, 0);
+        catalog.pipeInput(2L, null);
+        ping(2L, 5000, 0, 10);
+
+        // Assert
+        List<StoreEntryEvent> entries = storeEntries.readValuesToList();
+        assertEquals(1, entries.size());
+        assertEquals(2L, entries.get(0).getStoreId());
+        assertEquals(1L, entries.get(0).getCourierId());
+    }
+
+    @Test
+    void invalidLocation_ShouldBeSkipped() {
+        // Act
+        locations.pipeInput("1", CourierLocationEvent.builder().courierId(1L).latitude(null).longitude(STORE_LON).build());
+
+        // Assert
+        assertTrue(courierStates.isEmpty());
+        assertTrue(storeEntries.isEmpty());
+    }
+
+    @Test
+    void locationWithoutTimestamp_ShouldUseRecordTimestamp() {
+        // Act
+        locations.pipeInput("1", CourierLocationEvent.builder()
+                .courierId(1L).latitude(STORE_LAT).longitude(STORE_LON).timestamp(null).build(), START.plusSeconds(5));
+
+        // Assert
+        assertEquals(START.plusSeconds(5), storeEntries.readValue().getTimestamp());
+    }
+
+    private void ping(Long courierId, double northMeters, double eastMeters, long secondsFromStart) {
+        double latitude = STORE_LAT + northMeters * DEGREES_PER_METER;
+        double longitude = STORE_LON + eastMeters * DEGREES_PER_METER / Math.cos(Math.toRadians(STORE_LAT));
+        Instant timestamp = START.plusSeconds(secondsFromStart);
+        locations.pipeInput(String.valueOf(courierId), CourierLocationEvent.builder()
+                .courierId(courierId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .timestamp(timestamp)
+                .build(), timestamp);
+    }
+}
@@ -0,0 +1,103 @@
+package com.melihcelik.couriertracking.infrastructure.streams;
+
+import com.melihcelik.couriertracking.domain.model.Store;
+import com.melihcelik.couriertracking.domain.repository.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoreCatalogPublisherTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private KafkaTemplate<Long, Store> storeCatalogKafkaTemplate;
+
+    private StoreCatalogPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new StoreCatalogPublisher(storeRepository, storeCatalogKafkaTemplate);
+    }
+
+    @Test
+    void publish_FirstRun_ShouldSendEveryStore() {
+        // Arrange
+        Store first = store(1L, "First", 40.99);
+        Store second = store(2L, "Second", 41.0);
+        when(storeRepository.findAll()).thenReturn(List.of(first, second));
+
+        // Act
+        publisher.onApplicationReady();
+
+        // Assert
+        verify(storeCatalogKafkaTemplate).send(CourierTrackingTopology.STORE_CATALOG_TOPIC, 1L, first);
+        verify(storeCatalogKafkaTemplate).send(CourierTrackingTopology.STORE_CATALOG_TOPIC, 2L, second);
+    }
+
+    @Test
+    void publish_UnchangedStores_ShouldNotResend() {
+        // Arrange
+        when(storeRepository.findAll()).thenReturn(List.of(store(1L, "First", 40.99)));
+        publisher.publish();
+        clearInvocations(storeCatalogKafkaTemplate);
+
+        // Act
+        publisher.publish();
+
+        // Assert
+        verify(storeCatalogKafkaTemplate, never()).send(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void publish_ChangedStore_ShouldResendOnlyThatStore() {
+        // Arrange
+        when(storeRepository.findAll())
+                .thenReturn(List.of(store(1L, "First", 40.99), store(2L, "Second", 41.0)))
+                .thenReturn(List.of(store(1L, "First", 40.99), store(2L, "Second", 41.5)));
+        publisher.publish();
+        clearInvocations(storeCatalogKafkaTemplate);
+
+        // Act
+        publisher.publish();
+
+        // Assert
+        verify(storeCatalogKafkaTemplate).send(CourierTrackingTopology.STORE_CATALOG_TOPIC, 2L, store(2L, "Second", 41.5));
+        verify(storeCatalogKafkaTemplate, never()).send(anyString(), eq(1L), any());
+    }
+
+    @Test
+    void publish_RemovedStore_ShouldSendTombstone() {
+        // Arrange
+        when(storeRepository.findAll())
+                .thenReturn(List.of(store(1L, "First", 40.99), store(2L, "Second", 41.0)))
+                .thenReturn(List.of(store(1L, "First", 40.99)));
+        publisher.publish();
+        clearInvocations(storeCatalogKafkaTemplate);
+
+        // Act
+        publisher.publish();
+
+        // Assert
+        verify(storeCatalogKafkaTemplate).send(eq(CourierTrackingTopology.STORE_CATALOG_TOPIC), eq(2L), isNull());
+        verifyNoMoreInteractions(storeCatalogKafkaTemplate);
+    }
+
+    private static Store store(Long id, String name, double latitude) {
+        return Store.builder().id(id).name(name).latitude(latitude).longitude(29.12).build();
+    }
+}